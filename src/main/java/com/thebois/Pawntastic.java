@@ -21,11 +21,8 @@ import com.thebois.controllers.info.InfoController;
 import com.thebois.controllers.toolbar.ToolbarController;
 import com.thebois.models.beings.Colony;
 import com.thebois.models.beings.actions.ActionFactory;
-import com.thebois.models.beings.pathfinding.AstarPathFinder;
-import com.thebois.models.beings.pathfinding.IPathFinder;
 import com.thebois.models.beings.roles.RoleFactory;
 import com.thebois.models.inventory.IInventory;
-import com.thebois.models.inventory.Inventory;
 import com.thebois.models.world.World;
 import com.thebois.models.world.structures.StructureFactory;
 import com.thebois.persistence.LoadSystem;
@@ -60,6 +57,7 @@ public class Pawntastic extends Game {
     private TextureAtlas skinAtlas;
     private Skin uiSkin;
     // Model
+    private Simulation simulation;
     private World world;
     private Colony colony;
     private IInventory playerInventory;
@@ -98,12 +96,13 @@ public class Pawntastic extends Game {
     }
 
     /**
-     * Gets the global event bus that most events pass through.
+     * Gets the event bus that most events pass through, which is the one of the simulation that
+     * the current thread is running, or the global one if none.
      *
      * @return The event bus.
      */
     public static EventBus getEventBus() {
-        return BUS;
+        return Simulation.current().map(Simulation::getEventBus).orElse(BUS);
     }
 
     @Override
@@ -157,20 +156,22 @@ public class Pawntastic extends Game {
             loadModelsFromSaveFile();
         }
         catch (final IOException exception) {
-            final ThreadLocalRandom random = ThreadLocalRandom.current();
-            world = new World(WORLD_SIZE, random.nextInt(Integer.MAX_VALUE), random);
-            RoleFactory.setWorld(world);
-            RoleFactory.setResourceFinder(world);
-            RoleFactory.setStructureFinder(world);
-
-            final IPathFinder pathFinder = new AstarPathFinder(world);
-            ActionFactory.setPathFinder(pathFinder);
-
-            colony = new Colony(world, () -> BUS);
-
-            playerInventory = new Inventory();
-            StructureFactory.setInventory(playerInventory);
+            final int seed = ThreadLocalRandom.current().nextInt(Integer.MAX_VALUE);
+            simulation = Simulation.generate(BUS, WORLD_SIZE, seed);
+            world = simulation.getWorld();
+            colony = simulation.getColony();
+            playerInventory = simulation.getInventory();
         }
+        setUpFactories();
+    }
+
+    // The input handlers create roles and structures outside of any simulation update.
+    private void setUpFactories() {
+        RoleFactory.setWorld(world);
+        RoleFactory.setResourceFinder(world);
+        RoleFactory.setStructureFinder(world);
+        StructureFactory.setInventory(playerInventory);
+        ActionFactory.setPathFinder(simulation.getPathFinder());
     }
 
     private void initInputProcessors() {
@@ -204,14 +205,7 @@ public class Pawntastic extends Game {
         world = (World) loadSystem.read();
         colony = (Colony) loadSystem.read();
         playerInventory = (IInventory) loadSystem.read();
-
-        RoleFactory.setWorld(world);
-        RoleFactory.setResourceFinder(world);
-        RoleFactory.setStructureFinder(world);
-        StructureFactory.setInventory(playerInventory);
-
-        final IPathFinder pathFinder = new AstarPathFinder(world);
-        ActionFactory.setPathFinder(pathFinder);
+        simulation = Simulation.restore(BUS, world, WORLD_SIZE, colony, playerInventory);
 
         loadSystem.dispose();
     }
@@ -225,6 +219,7 @@ public class Pawntastic extends Game {
             error.printStackTrace();
         }
 
+        world.dispose();
         gameScreen.dispose();
         skinAtlas.dispose();
         uiSkin.dispose();
@@ -241,7 +236,7 @@ public class Pawntastic extends Game {
     @Override
     public void render() {
         super.render();
-        colony.update(Gdx.graphics.getDeltaTime());
+        simulation.update(Gdx.graphics.getDeltaTime());
         worldController.update();
         infoController.update();
     }
@@ -0,0 +1,223 @@
+package com.thebois;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import com.google.common.eventbus.EventBus;
+
+import com.thebois.models.beings.Colony;
+import com.thebois.models.beings.pathfinding.IPathFinder;
+import com.thebois.models.beings.pathfinding.PathFinderFactory;
+import com.thebois.models.inventory.IInventory;
+import com.thebois.models.inventory.Inventory;
+import com.thebois.models.world.World;
+import com.thebois.models.world.structures.StructureFactory;
+
+/**
+ * One colony in its own world, with its own event bus, that can run next to other simulations in
+ * the same process.
+ *
+ * <p>
+ * The models reach the event bus and the factories reach the world, the path finder and the
+ * inventory through static methods. While a simulation runs code, it is bound to the running
+ * thread, and those static methods give its own bus and dependencies instead of the global ones.
+ * Many simulations can therefore be moved forward side by side on a thread pool, as long as each
+ * of them is only run by one thread at a time. Anything that might create roles, actions or
+ * structures, including some queries on the colony, has to be run through the simulation.
+ * </p>
+ *
+ * @author Martin
+ */
+public final class Simulation {
+
+    private static final ThreadLocal<Simulation> CURRENT = new ThreadLocal<>();
+    private final EventBus eventBus;
+    private final IInventory inventory;
+    private World world;
+    private Colony colony;
+    private IPathFinder pathFinder;
+    private int worldSize;
+
+    private Simulation(final EventBus eventBus, final IInventory inventory) {
+        this.eventBus = eventBus;
+        this.inventory = inventory;
+    }
+
+    /**
+     * Creates a simulation of a newly generated world, with an event bus of its own.
+     *
+     * @param worldSize The number of tiles per axis in the world.
+     * @param seed      The seed used to generate the world.
+     *
+     * @return The created simulation.
+     */
+    public static Simulation generate(final int worldSize, final int seed) {
+        return generate(new EventBus(), worldSize, seed);
+    }
+
+    /**
+     * Creates a simulation of a newly generated world.
+     *
+     * @param eventBus  The event bus that the models post to and listen on.
+     * @param worldSize The number of tiles per axis in the world.
+     * @param seed      The seed used to generate the world.
+     *
+     * @return The created simulation.
+     */
+    public static Simulation generate(
+        final EventBus eventBus, final int worldSize, final int seed) {
+        final Simulation simulation = new Simulation(eventBus, new Inventory());
+        simulation.run(() -> {
+            simulation.setUp(new World(worldSize, seed, ThreadLocalRandom.current()), worldSize);
+            simulation.colony = new Colony(simulation.world, Pawntastic::getEventBus);
+        });
+        return simulation;
+    }
+
+    /**
+     * Creates a simulation of models that have already been created, e.g. loaded from a save.
+     *
+     * <p>
+     * The models must already listen on the event bus, which they do when they were created or
+     * loaded while it was the global event bus or the one of a bound simulation.
+     * </p>
+     *
+     * @param eventBus  The event bus that the models post to and listen on.
+     * @param world     The world.
+     * @param worldSize The number of tiles per axis in the world.
+     * @param colony    The colony living in the world.
+     * @param inventory The inventory of the player.
+     *
+     * @return The created simulation.
+     */
+    public static Simulation restore(
+        final EventBus eventBus,
+        final World world,
+        final int worldSize,
+        final Colony colony,
+        final IInventory inventory) {
+        final Simulation simulation = new Simulation(eventBus, inventory);
+        simulation.run(() -> simulation.setUp(world, worldSize));
+        simulation.colony = colony;
+        return simulation;
+    }
+
+    /**
+     * Gets the simulation that is bound to the current thread, if any.
+     *
+     * @return The simulation that the current thread is running.
+     */
+    public static Optional<Simulation> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    private void setUp(final World simulatedWorld, final int simulatedWorldSize) {
+        world = simulatedWorld;
+        worldSize = simulatedWorldSize;
+        pathFinder = PathFinderFactory.createForSimulation(simulatedWorld, simulatedWorldSize);
+    }
+
+    /**
+     * Forks the simulation, so that what would happen can be played out on the fork without
+     * changing this simulation, e.g. to try out where to place a structure.
+     *
+     * <p>
+     * The fork has an event bus of its own, a fork of the world, a fork of the colony and a copy
+     * of the inventory of the player. What happens in the fork is only announced on its own bus,
+     * and whatever listens on that bus is gone with the fork. Fork the simulation from the thread
+     * that runs it, but the forks can then be run on other threads, each by one thread at a time.
+     * </p>
+     *
+     * @return The fork.
+     *
+     * @throws IllegalStateException When the world pages parts of itself out to disk.
+     */
+    public Simulation fork() {
+        final Simulation fork =
+            new Simulation(new EventBus(), StructureFactory.forkInventory(inventory));
+        fork.run(() -> {
+            fork.setUp(world.fork(), worldSize);
+            fork.colony = colony.fork(fork.world);
+        });
+        return fork;
+    }
+
+    /**
+     * Moves the world and the colony forward in time.
+     *
+     * @param deltaTime The time since the last update in seconds.
+     */
+    public void update(final float deltaTime) {
+        run(() -> {
+            world.update(deltaTime, colony.getBeings());
+            colony.update(deltaTime);
+        });
+    }
+
+    /**
+     * Runs something while this simulation is bound to the current thread.
+     *
+     * <p>
+     * Whatever was bound before is bound again afterwards, so simulations can be run from inside
+     * each other.
+     * </p>
+     *
+     * @param action    What to run.
+     * @param <TResult> The type of what is given.
+     *
+     * @return What the action gave.
+     */
+    public <TResult> TResult call(final Supplier<TResult> action) {
+        final Simulation previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return action.get();
+        }
+        finally {
+            if (previous == null) {
+                CURRENT.remove();
+            }
+            else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Runs something while this simulation is bound to the current thread.
+     *
+     * @param action What to run.
+     */
+    public void run(final Runnable action) {
+        call(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public EventBus getEventBus() {
+        return eventBus;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public Colony getColony() {
+        return colony;
+    }
+
+    public IInventory getInventory() {
+        return inventory;
+    }
+
+    public IPathFinder getPathFinder() {
+        return pathFinder;
+    }
+
+    public int getWorldSize() {
+        return worldSize;
+    }
+
+}
@@ -19,7 +19,12 @@ public interface IPositionFinder {
     Iterable<Position> findEmptyPositions(int count);
 
     /**
-     * Creates a list of positions that are not occupied.
+     * Creates a list of positions that are not occupied, closest to the given position first.
+     *
+     * <p>
+     * Only positions inside of the radius are looked at, and the search stops as soon as enough
+     * positions have been found.
+     * </p>
      *
      * @param position The position to check around.
      * @param maxCount The max number of empty positions that needs to be found.
@@ -32,7 +32,7 @@ public class ResourceController implements IController<IView> {
 
     @Override
     public void update() {
-        resourceView.update(world.getResources());
+        resourceView.update(world.getResourceLayer());
     }
 
 }
@@ -32,7 +32,7 @@ public class TerrainController implements IController<IView> {
 
     @Override
     public void update() {
-        terrainView.update(world.getTerrainTiles());
+        terrainView.update(world.getTerrainLayer());
     }
 
 }
@@ -1,16 +1,19 @@
 package com.thebois.listeners.events;
 
+import java.util.Collection;
+import java.util.Set;
+
 import com.thebois.models.Position;
 
 /**
- * Describes an obstacle that has been placed in the world.
+ * Describes one or more obstacles that have been placed in the world at the same time.
  *
  * @author Martin
  */
 public class ObstaclePlacedEvent {
 
-    private final int x;
-    private final int y;
+    private final Set<Position> positions;
+    private final Position first;
 
     /**
      * Instantiates with a position for the new obstacle.
@@ -19,20 +22,49 @@ public class ObstaclePlacedEvent {
      * @param y The y-coordinate of the new obstacle.
      */
     public ObstaclePlacedEvent(final int x, final int y) {
-        this.x = x;
-        this.y = y;
+        this.first = new Position(x, y);
+        this.positions = Set.of(first);
+    }
+
+    /**
+     * Instantiates with the positions of every new obstacle.
+     *
+     * @param positions The positions of the new obstacles, of which there must be at least one.
+     *
+     * @throws IllegalArgumentException When there are no positions.
+     */
+    public ObstaclePlacedEvent(final Collection<Position> positions) {
+        if (positions.isEmpty()) {
+            throw new IllegalArgumentException("An obstacle event needs at least one position.");
+        }
+        this.first = positions.iterator().next();
+        this.positions = Set.copyOf(positions);
     }
 
+    /**
+     * Gets the position of the first of the new obstacles.
+     *
+     * @return The position.
+     */
     public Position getPosition() {
-        return new Position(getX(), getY());
+        return first;
+    }
+
+    /**
+     * Gets the positions of all of the new obstacles.
+     *
+     * @return The positions, which can not be modified.
+     */
+    public Set<Position> getPositions() {
+        return positions;
     }
 
     public int getX() {
-        return x;
+        return (int) first.getX();
     }
 
     public int getY() {
-        return y;
+        return (int) first.getY();
     }
 
 }
@@ -0,0 +1,35 @@
+package com.thebois.listeners.events;
+
+import com.thebois.models.Position;
+import com.thebois.models.world.resources.ResourceType;
+
+/**
+ * Contains information about a resource that something has been harvested from.
+ *
+ * @author Martin
+ */
+public class ResourceHarvestedEvent {
+
+    private final ResourceType resourceType;
+    private final Position position;
+
+    /**
+     * Instantiates with information about the harvested resource.
+     *
+     * @param resourceType The type of the harvested resource.
+     * @param position     The position of the harvested resource.
+     */
+    public ResourceHarvestedEvent(final ResourceType resourceType, final Position position) {
+        this.resourceType = resourceType;
+        this.position = position;
+    }
+
+    public ResourceType getResourceType() {
+        return resourceType;
+    }
+
+    public Position getPosition() {
+        return position;
+    }
+
+}
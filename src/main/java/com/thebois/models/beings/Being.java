@@ -15,6 +15,7 @@ import com.thebois.models.beings.roles.AbstractRole;
 import com.thebois.models.inventory.IInventory;
 import com.thebois.models.inventory.items.IConsumableItem;
 import com.thebois.models.inventory.items.IItem;
+import com.thebois.models.inventory.items.ItemFactory;
 import com.thebois.models.inventory.items.ItemType;
 
 /**
@@ -117,6 +118,24 @@ public class Being implements IBeing, IActionPerformer {
         this.role = role;
     }
 
+    @Override
+    public IBeing fork(final IInventory forkInventory) {
+        for (final ItemType itemType : ItemType.values()) {
+            for (int i = 0; i < inventory.numberOf(itemType); i++) {
+                forkInventory.tryAdd(ItemFactory.fromType(itemType));
+            }
+        }
+        final Being fork = new Being(position,
+                                     assignedRole.deepClone(),
+                                     hungerRole.deepClone(),
+                                     Pawntastic::getEventBus,
+                                     forkInventory);
+        fork.destination = destination;
+        fork.hunger = hunger;
+        fork.health = health;
+        return fork;
+    }
+
     @Override
     public void update(final float deltaTime) {
         updateHunger(deltaTime);
@@ -10,6 +10,7 @@ import java.util.stream.Stream;
 
 import com.google.common.eventbus.Subscribe;
 
+import com.thebois.Pawntastic;
 import com.thebois.abstractions.IPositionFinder;
 import com.thebois.listeners.IEventBusSource;
 import com.thebois.listeners.events.StructureCompletedEvent;
@@ -48,6 +49,27 @@ public class Colony extends AbstractBeingGroup implements IRoleAllocator {
         eventBusSource.getEventBus().register(this);
     }
 
+    /**
+     * Forks the colony into a fork of its world, with a copy of every being.
+     *
+     * <p>
+     * The fork listens on the event bus that is current when it is forked, and the roles of the
+     * copies are created anew for the world of the fork, so fork the colony while the simulation
+     * of the fork is bound.
+     * </p>
+     *
+     * @param forkPositionFinder Used to find positions in the world of the fork.
+     *
+     * @return The fork.
+     */
+    public Colony fork(final IPositionFinder forkPositionFinder) {
+        final Colony fork = new Colony(forkPositionFinder, Pawntastic::getEventBus);
+        for (final IBeing being : getBeings()) {
+            fork.addBeing(being.fork(new Inventory(PAWN_INVENTORY_MAX_CAPACITY)));
+        }
+        return fork;
+    }
+
     @Override
     public boolean tryIncreaseAllocation(final RoleType roleType) {
         final Optional<IBeing> idleBeing = findIdleBeings().stream().findAny();
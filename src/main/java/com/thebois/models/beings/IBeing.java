@@ -5,6 +5,7 @@ import java.io.Serializable;
 import com.thebois.abstractions.IPositionable;
 import com.thebois.models.Position;
 import com.thebois.models.beings.roles.AbstractRole;
+import com.thebois.models.inventory.IInventory;
 
 /**
  * An entity.
@@ -49,4 +50,18 @@ public interface IBeing extends Serializable, IPositionable {
      */
     float getHealthRatio();
 
+    /**
+     * Copies the being for a fork of the simulation, with copies of the items it carries.
+     *
+     * <p>
+     * The roles of the copy are created anew for the world of the fork, so this has to be run
+     * while the simulation of the fork is bound, and the copy starts its roles over.
+     * </p>
+     *
+     * @param forkInventory An empty inventory for the copy to carry its items in.
+     *
+     * @return The copy.
+     */
+    IBeing fork(IInventory forkInventory);
+
 }
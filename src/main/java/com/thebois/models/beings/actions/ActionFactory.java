@@ -4,10 +4,13 @@ import java.util.Objects;
 import java.util.Optional;
 
 import com.thebois.Pawntastic;
+import com.thebois.Simulation;
 import com.thebois.abstractions.IStructureFinder;
 import com.thebois.models.Position;
 import com.thebois.models.beings.IActionPerformer;
 import com.thebois.models.beings.pathfinding.IPathFinder;
+import com.thebois.models.beings.pathfinding.IPathPlanner;
+import com.thebois.models.beings.pathfinding.PathFinderFactory;
 import com.thebois.models.inventory.IStorable;
 import com.thebois.models.inventory.ITakeable;
 import com.thebois.models.inventory.items.ItemType;
@@ -19,6 +22,13 @@ import com.thebois.models.world.structures.StructureType;
 /**
  * Creates actions.
  *
+ * <p>
+ * Movements in the simulation that the current thread is running plan their paths with a search
+ * that the movement keeps, so that the paths around obstacles placed in the way take less time
+ * the smaller the change. Without a running simulation, movements search for every path with the
+ * path finder that was set.
+ * </p>
+ *
  * @author Martin
  * @author Mathias
  */
@@ -41,10 +51,20 @@ public final class ActionFactory {
      * @return The move action.
      */
     public static IAction createMoveTo(final Position destination) {
+        return new MoveAction(destination, createPlanner(destination), Pawntastic::getEventBus);
+    }
+
+    // Plans the paths with a search that is kept between paths, if there is a world to keep it in.
+    private static IPathPlanner createPlanner(final Position destination) {
+        final Optional<Simulation> simulation = Simulation.current();
+        if (simulation.isPresent()) {
+            return PathFinderFactory.createReplanning(simulation.get().getWorld(),
+                                                      simulation.get().getWorldSize(),
+                                                      destination);
+        }
         Objects.requireNonNull(pathFinder,
                                "PathFinder needs to be set before calling factory methods.");
-
-        return new MoveAction(destination, pathFinder, Pawntastic::getEventBus);
+        return PathFinderFactory.createSearching(pathFinder, destination);
     }
 
     /**
@@ -56,15 +76,27 @@ public final class ActionFactory {
         return new DoNothingAction();
     }
 
+    /**
+     * Creates an action of standing still for a while.
+     *
+     * @param waitTime How many seconds to wait.
+     *
+     * @return A wait action.
+     */
+    public static IAction createWait(final float waitTime) {
+        return WaitAction.lasting(waitTime);
+    }
+
     /**
      * Creates a harvesting of a given resource.
      *
      * @param resource What to harvest from.
+     * @param world    The world that holds the resource.
      *
      * @return The action of harvesting.
      */
-    public static IAction createHarvest(final IResource resource) {
-        return new HarvestAction(resource);
+    public static IAction createHarvest(final IResource resource, final IWorld world) {
+        return new HarvestAction(resource, world);
     }
 
     /**
@@ -4,11 +4,18 @@ import java.io.Serializable;
 import java.util.Objects;
 
 import com.thebois.models.beings.IActionPerformer;
+import com.thebois.models.world.IWorld;
 import com.thebois.models.world.resources.IResource;
 
 /**
  * Used to perform the harvesting of a given resource.
  *
+ * <p>
+ * A resource is depleted after being harvested a number of times, so others might have harvested
+ * the last of it while the harvest was under way. Nothing is harvested unless the world still
+ * holds the resource.
+ * </p>
+ *
  * @author Martin
  */
 public class HarvestAction extends AbstractTimeAction implements Serializable {
@@ -18,19 +25,23 @@ public class HarvestAction extends AbstractTimeAction implements Serializable {
      */
     private static final float MINIMUM_HARVEST_DISTANCE = 1f;
     private final IResource resource;
+    private final IWorld world;
 
     /**
      * Instantiates with a resource to harvest.
      *
      * @param resource What to harvest.
+     * @param world    The world that holds the resource.
      */
-    public HarvestAction(final IResource resource) {
+    public HarvestAction(final IResource resource, final IWorld world) {
         super(resource.getHarvestTime());
         this.resource = resource;
+        this.world = world;
     }
 
     @Override
     protected void onPerformCompleted(final IActionPerformer performer) {
+        if (!isInWorld()) return;
         performer.tryAdd(resource.harvest());
     }
 
@@ -39,7 +50,12 @@ public class HarvestAction extends AbstractTimeAction implements Serializable {
         final boolean isCloseEnough =
             resource.getPosition().distanceTo(performer.getPosition()) <= MINIMUM_HARVEST_DISTANCE;
         final boolean inventoryHasSpace = performer.canFitItem(resource.getType().getItemType());
-        return isCloseEnough && inventoryHasSpace;
+        return isCloseEnough && inventoryHasSpace && isInWorld();
+    }
+
+    // Whether the resource is still in the world, and has not been depleted.
+    private boolean isInWorld() {
+        return resource.equals(world.getTileAt(resource.getPosition()));
     }
 
     @Override
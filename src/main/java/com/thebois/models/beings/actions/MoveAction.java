@@ -8,6 +8,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.Objects;
+import java.util.Set;
 
 import com.google.common.eventbus.Subscribe;
 
@@ -15,11 +16,16 @@ import com.thebois.listeners.IEventBusSource;
 import com.thebois.listeners.events.ObstaclePlacedEvent;
 import com.thebois.models.Position;
 import com.thebois.models.beings.IActionPerformer;
-import com.thebois.models.beings.pathfinding.IPathFinder;
+import com.thebois.models.beings.pathfinding.IPathPlanner;
 
 /**
  * Moves the performer towards a specified goal.
  *
+ * <p>
+ * Every path is planned by the same planner, so that a planner that keeps its search between
+ * paths has it ready by the time an obstacle is placed in the way.
+ * </p>
+ *
  * @author Martin
  */
 class MoveAction implements IAction, Serializable {
@@ -30,24 +36,32 @@ class MoveAction implements IAction, Serializable {
      */
     private static final float MINIMUM_DISTANCE_TO_START = 2f;
     private final Position destination;
-    private final IPathFinder pathFinder;
+    /**
+     * Plans the paths to the destination, also around obstacles that are placed in the way.
+     */
+    private final IPathPlanner planner;
     private final IEventBusSource eventBusSource;
     private boolean canReachDestination = true;
     private LinkedList<Position> path = new LinkedList<>();
+    /**
+     * Whether the action is registered to the event bus, which it only is while it has a path
+     * that obstacles could be placed in the way of.
+     */
+    private transient boolean listening;
 
     /**
      * Instantiates with a destination to move towards.
      *
      * @param destination    The goal to move to.
-     * @param pathFinder     A way of generating paths to positions.
+     * @param planner        A way of generating paths to the destination.
      * @param eventBusSource The eventbus to listen to.
      */
     MoveAction(
         final Position destination,
-        final IPathFinder pathFinder,
+        final IPathPlanner planner,
         final IEventBusSource eventBusSource) {
         this.destination = destination;
-        this.pathFinder = pathFinder;
+        this.planner = planner;
         this.eventBusSource = eventBusSource;
     }
 
@@ -71,13 +85,17 @@ class MoveAction implements IAction, Serializable {
 
     @Override
     public void perform(final IActionPerformer performer, final float deltaTime) {
-        if (isCompleted(performer)) return;
+        if (isCompleted(performer)) {
+            finish();
+            return;
+        }
 
         final Position position = performer.getPosition();
         if (needsNewPath(position)) {
             calculatePathFrom(position);
             if (path.isEmpty()) {
                 canReachDestination = false;
+                finish();
                 return;
             }
         }
@@ -86,16 +104,35 @@ class MoveAction implements IAction, Serializable {
             path.remove();
         }
 
-        eventBusSource.getEventBus().register(this);
+        // Nothing is left to plan around once the performer heads for the destination itself.
+        if (path.size() > 1) {
+            listen();
+        }
+        else {
+            finish();
+        }
         performer.setDestination(path.element());
     }
 
+    private void listen() {
+        if (listening) return;
+        eventBusSource.getEventBus().register(this);
+        listening = true;
+    }
+
+    // Stops listening for obstacles, since roles drop finished actions without telling them.
+    private void finish() {
+        if (!listening) return;
+        eventBusSource.getEventBus().unregister(this);
+        listening = false;
+    }
+
     private boolean needsNewPath(final Position position) {
         return path.isEmpty() || !isNearStartOfPath(position);
     }
 
     private void calculatePathFrom(final Position start) {
-        final Collection<Position> newPath = pathFinder.path(start, destination);
+        final Collection<Position> newPath = planner.path(start);
         setPath(newPath);
     }
 
@@ -126,22 +163,32 @@ class MoveAction implements IAction, Serializable {
      */
     @Subscribe
     public void onObstaclePlaced(final ObstaclePlacedEvent event) {
-        if (path.contains(event.getPosition())) {
-            recalculatePathAroundObstacle(event.getPosition());
+        if (path.isEmpty()) return;
+
+        final Set<Position> obstacles = event.getPositions();
+        // The planner keeps its search in step with every change, not only those in the way.
+        planner.cellsChanged(obstacles);
+        // Only the first blocked position matters, since the rest of the path is recalculated.
+        int index = 0;
+        for (final Position position : path) {
+            if (obstacles.contains(position)) {
+                recalculatePathAroundObstacle(index);
+                return;
+            }
+            index++;
         }
     }
 
-    private void recalculatePathAroundObstacle(final Position obstaclePosition) {
-        final int obstacleInPathIndex = path.indexOf(obstaclePosition);
+    private void recalculatePathAroundObstacle(final int obstacleInPathIndex) {
         final int nodeBeforeObstacleIndex = Math.max(0, obstacleInPathIndex - 1);
         final Position pathNodeBeforeObstacle = path.get(nodeBeforeObstacleIndex);
 
-        final Collection<Position> recalculatedPathSegment =
-            pathFinder.path(pathNodeBeforeObstacle, destination);
+        final Collection<Position> recalculatedPathSegment = planner.path(pathNodeBeforeObstacle);
 
         // If not possible to find another path to the destination.
         if (recalculatedPathSegment.isEmpty()) {
             canReachDestination = false;
+            finish();
             return;
         }
 
@@ -155,12 +202,12 @@ class MoveAction implements IAction, Serializable {
 
     @Serial
     private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
-        // Registers every time on deserialization because it might be registered to an old instance
-        // of the event bus.
+        // Registers on deserialization while there is a path to keep clear, because it might be
+        // registered to an old instance of the event bus.
         // (caused by saving/loading).
         in.defaultReadObject();
         // IMPORTANT: Has to subscribe after being read.
-        eventBusSource.getEventBus().register(this);
+        if (canReachDestination && path.size() > 1) listen();
     }
 
 }
@@ -0,0 +1,48 @@
+package com.thebois.models.beings.actions;
+
+import java.io.Serializable;
+
+import com.thebois.models.beings.IActionPerformer;
+
+/**
+ * Makes the performer stand still for a while.
+ *
+ * <p>
+ * Unlike doing nothing, waiting can always be performed. It is an action given to a being that
+ * has something to do, but can not do it right now.
+ * </p>
+ *
+ * @author Martin
+ */
+public final class WaitAction extends AbstractTimeAction implements Serializable {
+
+    /**
+     * Instantiates with how long to wait.
+     *
+     * @param waitTime How many seconds to wait.
+     */
+    private WaitAction(final float waitTime) {
+        super(waitTime);
+    }
+
+    /**
+     * Creates a wait of a given length.
+     *
+     * @param waitTime How many seconds to wait.
+     *
+     * @return The wait action.
+     */
+    static WaitAction lasting(final float waitTime) {
+        return new WaitAction(waitTime);
+    }
+
+    @Override
+    public boolean canPerform(final IActionPerformer performer) {
+        return true;
+    }
+
+    @Override
+    protected void onPerformCompleted(final IActionPerformer performer) {
+    }
+
+}
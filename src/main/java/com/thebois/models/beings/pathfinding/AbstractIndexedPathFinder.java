@@ -0,0 +1,273 @@
+package com.thebois.models.beings.pathfinding;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import com.thebois.models.Position;
+import com.thebois.models.world.IWorld;
+
+/**
+ * Finds paths with a best-first search on the indices of the cells of a bounded world, leaving
+ * it to subclasses which cells to reach from each cell that is expanded.
+ *
+ * <p>
+ * The search state is kept in arrays that are reused by every search, and are told apart between
+ * searches by a stamp, so that nothing has to be cleared or allocated but the path that is
+ * returned. The cells on the fringe of the search are kept in a heap whose keys can be lowered in
+ * place. Cells can be reached from cells further away than their neighbours, as long as they are
+ * in the same row or column, in which case the path walks the cells in between.
+ * </p>
+ *
+ * <p>
+ * Since the arrays are shared between searches, one finder must not be used by several threads
+ * at once.
+ * </p>
+ *
+ * @author Martin
+ */
+abstract class AbstractIndexedPathFinder implements IPathFinder {
+
+    /**
+     * The cell that the start of the path came from, and what is given when there is no cell.
+     */
+    protected static final int NO_CELL = -1;
+    private final IWorld world;
+    private final int worldSize;
+    /**
+     * For every cell, the cost of the cheapest path from the start currently known. Only valid
+     * for cells whose stamp is the current one.
+     */
+    private transient float[] costFromStart;
+    /**
+     * For every cell, the cell preceding it on the cheapest path from the start, or NO_CELL for
+     * the start. Only valid for cells whose stamp is the current one.
+     */
+    private transient int[] cameFrom;
+    /**
+     * For every cell, the search that last reached it.
+     */
+    private transient int[] stamps;
+    private transient int stamp;
+    private transient IndexedMinHeap openSet;
+    private transient int expansions;
+
+    /**
+     * Initializes a pathfinder that finds paths through a specified world.
+     *
+     * @param world     The world to consider obstacles in when pathfinding.
+     * @param worldSize The number of cells along each side of the world.
+     */
+    protected AbstractIndexedPathFinder(final IWorld world, final int worldSize) {
+        this.world = world;
+        this.worldSize = worldSize;
+    }
+
+    @Override
+    public Collection<Position> path(final Position start, final Position destination) {
+        // Otherwise a walled off destination would have the search flood everything reachable.
+        if (!world.isReachable(start, destination)) return List.of();
+
+        final int startCell = toCell(start);
+        final int destinationCell = toCell(destination);
+        beginSearch(startCell, destinationCell);
+
+        reach(startCell, NO_CELL, 0f, destinationCell);
+        while (!openSet.isEmpty()) {
+            final int current = openSet.poll();
+            if (current == destinationCell) return reconstructPath(current);
+
+            expansions++;
+            expand(current, destinationCell);
+        }
+
+        // Pathfinding failed. No path exists.
+        return List.of();
+    }
+
+    /**
+     * Gets ready for a search, before the start is reached.
+     *
+     * @param startCell       The cell that the path starts in.
+     * @param destinationCell The cell that the path leads to.
+     */
+    protected void prepare(final int startCell, final int destinationCell) {
+    }
+
+    /**
+     * Reaches the cells that can be moved to from a cell, using {@link #relax}.
+     *
+     * @param current         The cell to expand.
+     * @param destinationCell The cell that the path leads to.
+     */
+    protected abstract void expand(int current, int destinationCell);
+
+    /**
+     * Reaches a cell from another, unless it has already been reached more cheaply.
+     *
+     * @param cell            The cell to reach.
+     * @param previous        The cell that it is reached from, in the same row or column.
+     * @param cost            The cost of the path from the start to the cell through the other.
+     * @param destinationCell The cell that the path leads to.
+     *
+     * @return Whether the cell was reached, since it had not been reached as cheaply before.
+     */
+    protected boolean relax(
+        final int cell, final int previous, final float cost, final int destinationCell) {
+        if (stamps[cell] == stamp && cost >= costFromStart[cell]) return false;
+
+        reach(cell, previous, cost, destinationCell);
+        return true;
+    }
+
+    protected float getCostFromStart(final int cell) {
+        return costFromStart[cell];
+    }
+
+    protected int getCameFrom(final int cell) {
+        return cameFrom[cell];
+    }
+
+    /**
+     * Gets the cost of moving across a cell.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     *
+     * @return The cost of the cell, or the highest float for cells outside of the world.
+     */
+    protected float costAt(final int x, final int y) {
+        if (!isInside(x, y)) return Float.MAX_VALUE;
+        return world.getCostAt(x, y);
+    }
+
+    /**
+     * Whether a cell is inside of the world.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     *
+     * @return Whether the cell is inside.
+     */
+    protected boolean isInside(final int x, final int y) {
+        return x >= 0 && x < worldSize && y >= 0 && y < worldSize;
+    }
+
+    /**
+     * Whether a path only leaves cells that can be walked across, which it might not if the world
+     * has changed in a way that the finder has not been told of.
+     *
+     * @param path The path.
+     *
+     * @return Whether every cell of the path but the last can be walked across.
+     */
+    protected boolean isWalkable(final Collection<Position> path) {
+        int left = path.size() - 1;
+        for (final Position position : path) {
+            if (left == 0) return true;
+            if (costAt((int) position.getX(), (int) position.getY()) == Float.MAX_VALUE) {
+                return false;
+            }
+            left--;
+        }
+        return true;
+    }
+
+    protected IWorld getWorld() {
+        return world;
+    }
+
+    protected int getWorldSize() {
+        return worldSize;
+    }
+
+    /**
+     * Gets how many cells the last search expanded.
+     *
+     * @return The number of expanded cells.
+     */
+    int countExpansions() {
+        return expansions;
+    }
+
+    private int toCell(final Position position) {
+        final int x = (int) position.getX();
+        final int y = (int) position.getY();
+        if (!isInside(x, y)) {
+            throw new IndexOutOfBoundsException("Given position is outside of the world.");
+        }
+        return y * worldSize + x;
+    }
+
+    // Allocates the arrays for the first search, and makes every cell unreached.
+    private void beginSearch(final int startCell, final int destinationCell) {
+        if (openSet == null) {
+            final int cellCount = worldSize * worldSize;
+            costFromStart = new float[cellCount];
+            cameFrom = new int[cellCount];
+            stamps = new int[cellCount];
+            openSet = new IndexedMinHeap(cellCount);
+        }
+        openSet.clear();
+        expansions = 0;
+        stamp++;
+        // After wrapping around, old stamps could be mistaken for the current one.
+        if (stamp == 0) {
+            Arrays.fill(stamps, 0);
+            stamp = 1;
+        }
+        prepare(startCell, destinationCell);
+    }
+
+    private void reach(
+        final int cell, final int previous, final float cost, final int destinationCell) {
+        stamps[cell] = stamp;
+        costFromStart[cell] = cost;
+        cameFrom[cell] = previous;
+        openSet.offer(cell, cost + costToDestination(cell, destinationCell));
+    }
+
+    // The manhattan distance, which never overestimates since every move costs at least one.
+    private float costToDestination(final int cell, final int destinationCell) {
+        return distanceBetween(cell, destinationCell);
+    }
+
+    private int distanceBetween(final int cell, final int other) {
+        return Math.abs(cell % worldSize - other % worldSize)
+               + Math.abs(cell / worldSize - other / worldSize);
+    }
+
+    /**
+     * Gets the path from the start to a cell, by following the cells that each cell came from.
+     *
+     * @param endOfPath The cell at the end of the path.
+     *
+     * @return Every position on the path, the start and the end included.
+     */
+    protected Collection<Position> reconstructPath(final int endOfPath) {
+        int length = 1;
+        for (int cell = endOfPath; cameFrom[cell] != NO_CELL; cell = cameFrom[cell]) {
+            length += distanceBetween(cell, cameFrom[cell]);
+        }
+        final Position[] path = new Position[length];
+        int index = length - 1;
+        int x = endOfPath % worldSize;
+        int y = endOfPath / worldSize;
+        path[index] = new Position(x, y);
+        for (int cell = endOfPath; cameFrom[cell] != NO_CELL; cell = cameFrom[cell]) {
+            // Walks back one cell at a time, since the previous cell might be further away.
+            final int previousX = cameFrom[cell] % worldSize;
+            final int previousY = cameFrom[cell] / worldSize;
+            final int stepX = Integer.signum(previousX - x);
+            final int stepY = Integer.signum(previousY - y);
+            while (x != previousX || y != previousY) {
+                x += stepX;
+                y += stepY;
+                index--;
+                path[index] = new Position(x, y);
+            }
+        }
+        return Arrays.asList(path);
+    }
+
+}
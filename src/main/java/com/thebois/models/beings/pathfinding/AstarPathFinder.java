@@ -56,12 +56,14 @@ public class AstarPathFinder implements IPathFinder {
 
     @Override
     public Collection<Position> path(final Position start, final Position destination) {
+        // Otherwise a walled off destination would have the search flood everything reachable.
+        if (!world.isReachable(start, destination)) return List.of();
 
         final ITile startTile = world.getTileAt(start);
         final ITile destinationTile = world.getTileAt(destination);
 
         this.cameFrom = new HashMap<>();
-        final TileCostCalculator costCalculator = new TileCostCalculator();
+        final TileCostCalculator costCalculator = new TileCostCalculator(world);
         final Comparator<ITile> costComparator = new TileCostComparator(costCalculator,
                                                                         destinationTile);
         // The priority queue automatically sorts elements according to the comparator.
@@ -0,0 +1,401 @@
+package com.thebois.models.beings.pathfinding;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serial;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.google.common.eventbus.Subscribe;
+
+import com.thebois.Pawntastic;
+import com.thebois.listeners.events.ObstaclePlacedEvent;
+import com.thebois.listeners.events.StructureCompletedEvent;
+import com.thebois.models.Position;
+import com.thebois.models.world.IWorld;
+import com.thebois.models.world.World;
+
+/**
+ * Remembers the paths found by another pathfinder, so that beings that walk the same routes over
+ * and over do not have to search for them every time.
+ *
+ * <p>
+ * Paths are kept by the cells they start and end in, and the least recently used ones are
+ * forgotten to keep the cache within a memory budget. When obstacles are placed or structures
+ * completed, every path through the chunks of the world that they are in is forgotten, since it
+ * might now be blocked.
+ * Paths that were not found are never kept, since they are not announced when they open up. A
+ * cached path is also checked for obstacles before it is handed out, in case it is asked for
+ * before the cache has heard of them.
+ * </p>
+ *
+ * <p>
+ * The cache can be shared by several threads. Only one path is searched for at a time, since the
+ * other pathfinder might not be able to search for several at once, and a request for a path that
+ * is already being searched for waits for that search instead of starting its own.
+ * </p>
+ *
+ * @author Martin
+ */
+public class CachingPathFinder implements IPathFinder {
+
+    /**
+     * Roughly how many bytes each cached path takes up on top of its positions.
+     */
+    private static final long ENTRY_BYTES = 160;
+    /**
+     * Roughly how many bytes each position of a cached path takes up, with its reference.
+     */
+    private static final long POSITION_BYTES = 32;
+    /**
+     * Roughly how many bytes it takes to remember that a path crosses a chunk.
+     */
+    private static final long CHUNK_BYTES = 64;
+    private static final int COORDINATE_BITS = 16;
+    private static final int COORDINATE_MASK = 0xFFFF;
+    private static final long LOWER_HALF_MASK = 0xFFFFFFFFL;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int INITIAL_CAPACITY = 64;
+    private final IPathFinder pathFinder;
+    private final IWorld world;
+    private final long memoryBudget;
+    /**
+     * Guards every other transient field.
+     */
+    private transient Lock cacheLock;
+    /**
+     * Held while the other pathfinder searches.
+     */
+    private transient Lock searchLock;
+    /**
+     * The cached paths, keyed by their packed start and end cells, from least to most recently
+     * used.
+     */
+    private transient Map<Long, CachedPath> paths;
+    /**
+     * The keys of the cached paths that cross each chunk, keyed by the packed chunk coordinates.
+     */
+    private transient Map<Long, Set<Long>> pathsByChunk;
+    /**
+     * The searches that are running, keyed like the paths.
+     */
+    private transient Map<Long, CompletableFuture<Collection<Position>>> searches;
+    /**
+     * How many times paths have been invalidated, so that a search that was running meanwhile
+     * does not cache a path that might be blocked.
+     */
+    private transient long version;
+    private transient long cachedBytes;
+    private transient long hits;
+    private transient long misses;
+    private transient long coalesced;
+    private transient long evictions;
+    private transient long invalidations;
+
+    /**
+     * Creates a cache of the paths of another pathfinder.
+     *
+     * @param pathFinder   The pathfinder to search for the paths that are not cached.
+     * @param world        The world that the paths are in.
+     * @param memoryBudget Roughly how many bytes the cached paths are allowed to take up.
+     *
+     * @throws IllegalArgumentException When the budget can not fit a single path.
+     */
+    public CachingPathFinder(
+        final IPathFinder pathFinder, final IWorld world, final long memoryBudget) {
+        if (memoryBudget < ENTRY_BYTES) {
+            throw new IllegalArgumentException("Memory budget must fit at least one path.");
+        }
+        this.pathFinder = pathFinder;
+        this.world = world;
+        this.memoryBudget = memoryBudget;
+        setUpCache();
+        Pawntastic.getEventBus().register(this);
+    }
+
+    // Packs the cells that a path starts and ends in.
+    private static long keyOf(final Position from, final Position destination) {
+        return (long) packCell(from) << Integer.SIZE | packCell(destination) & LOWER_HALF_MASK;
+    }
+
+    // Packs the coordinates of a cell, which works for worlds up to 65536 cells wide.
+    private static int packCell(final Position position) {
+        return ((int) position.getX() & COORDINATE_MASK) << COORDINATE_BITS
+               | (int) position.getY() & COORDINATE_MASK;
+    }
+
+    private static long chunkOf(final Position position) {
+        final long chunkX = Math.floorDiv((int) position.getX(), World.CHUNK_SIZE);
+        final long chunkY = Math.floorDiv((int) position.getY(), World.CHUNK_SIZE);
+        return chunkX << Integer.SIZE | chunkY & LOWER_HALF_MASK;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The returned path is shared with every other request for it, so it can not be modified.
+     * </p>
+     *
+     * @throws IllegalStateException When this request waited for the search of another request,
+     *                               which failed.
+     */
+    @Override
+    public Collection<Position> path(final Position from, final Position destination) {
+        final long key = keyOf(from, destination);
+        final CompletableFuture<Collection<Position>> ownSearch = new CompletableFuture<>();
+        final CompletableFuture<Collection<Position>> answer = lookUp(key, ownSearch);
+        if (answer != ownSearch) return join(answer);
+
+        final long versionBefore = readVersion();
+        Collection<Position> path = List.of();
+        boolean searched = false;
+        try {
+            searchLock.lock();
+            try {
+                path = List.copyOf(pathFinder.path(from, destination));
+                searched = true;
+            }
+            finally {
+                searchLock.unlock();
+            }
+        }
+        finally {
+            finishSearch(key, path, versionBefore);
+            // Whoever waits for the search has to be let go, even if it failed.
+            if (searched) {
+                ownSearch.complete(path);
+            }
+            else {
+                ownSearch.completeExceptionally(new IllegalStateException("The search failed."));
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Gets how the cache has been doing since it was created or loaded.
+     *
+     * @return The statistics.
+     */
+    public PathCacheStatistics getStatistics() {
+        cacheLock.lock();
+        try {
+            return new PathCacheStatistics(hits,
+                                           misses,
+                                           coalesced,
+                                           evictions,
+                                           invalidations,
+                                           paths.size(),
+                                           cachedBytes);
+        }
+        finally {
+            cacheLock.unlock();
+        }
+    }
+
+    /**
+     * Forgets the cached paths through the chunks of new obstacles.
+     *
+     * @param event The published event.
+     */
+    @Subscribe
+    public void onObstaclePlaced(final ObstaclePlacedEvent event) {
+        invalidate(event.getPositions());
+    }
+
+    /**
+     * Forgets the cached paths through the chunk of a completed structure, since it might block
+     * more than its blueprint did.
+     *
+     * @param event The published event.
+     */
+    @Subscribe
+    public void onStructureCompleted(final StructureCompletedEvent event) {
+        invalidate(List.of(event.getPosition()));
+    }
+
+    private void invalidate(final Iterable<Position> positions) {
+        cacheLock.lock();
+        try {
+            version++;
+            for (final Position position : positions) {
+                final Set<Long> blocked = pathsByChunk.get(chunkOf(position));
+                if (blocked == null) continue;
+
+                for (final Long key : List.copyOf(blocked)) {
+                    forget(key, paths.remove(key));
+                    invalidations++;
+                }
+            }
+        }
+        finally {
+            cacheLock.unlock();
+        }
+    }
+
+    private void setUpCache() {
+        cacheLock = new ReentrantLock();
+        searchLock = new ReentrantLock();
+        paths = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true);
+        pathsByChunk = new HashMap<>();
+        searches = new HashMap<>();
+    }
+
+    // Gives the cached path or the running search for a path, or starts the given search if there
+    // is neither.
+    private CompletableFuture<Collection<Position>> lookUp(
+        final long key, final CompletableFuture<Collection<Position>> ownSearch) {
+        cacheLock.lock();
+        try {
+            final CachedPath cached = paths.get(key);
+            if (cached != null && isWalkable(cached.getPositions())) {
+                hits++;
+                return CompletableFuture.completedFuture(cached.getPositions());
+            }
+            if (cached != null) {
+                forget(key, paths.remove(key));
+                invalidations++;
+            }
+            final CompletableFuture<Collection<Position>> running = searches.get(key);
+            if (running != null) {
+                coalesced++;
+                return running;
+            }
+            misses++;
+            searches.put(key, ownSearch);
+            return ownSearch;
+        }
+        finally {
+            cacheLock.unlock();
+        }
+    }
+
+    // Whether a path only leaves cells that can be walked across.
+    private boolean isWalkable(final Collection<Position> path) {
+        final Iterator<Position> positions = path.iterator();
+        for (int left = path.size() - 1; left > 0; left--) {
+            final Position position = positions.next();
+            if (world.getCostAt((int) position.getX(), (int) position.getY()) == Float.MAX_VALUE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Collection<Position> join(final CompletableFuture<Collection<Position>> answer) {
+        final Collection<Position> path = answer.exceptionally(failure -> null).join();
+        if (path == null) {
+            throw new IllegalStateException("The search that this request waited for failed.");
+        }
+        return path;
+    }
+
+    private long readVersion() {
+        cacheLock.lock();
+        try {
+            return version;
+        }
+        finally {
+            cacheLock.unlock();
+        }
+    }
+
+    // Ends a search, and caches its path unless obstacles were placed while it ran.
+    private void finishSearch(
+        final long key, final Collection<Position> path, final long versionBefore) {
+        cacheLock.lock();
+        try {
+            searches.remove(key);
+            if (version == versionBefore && !path.isEmpty()) {
+                remember(key, path);
+            }
+        }
+        finally {
+            cacheLock.unlock();
+        }
+    }
+
+    private void remember(final long key, final Collection<Position> path) {
+        final long[] chunks = path.stream().mapToLong(CachingPathFinder::chunkOf).distinct()
+                                  .toArray();
+        final long bytes = ENTRY_BYTES + path.size() * POSITION_BYTES + chunks.length * CHUNK_BYTES;
+        if (bytes > memoryBudget) return;
+
+        paths.put(key, new CachedPath(path, chunks, bytes));
+        cachedBytes += bytes;
+        for (final long chunk : chunks) {
+            pathsByChunk.computeIfAbsent(chunk, unused -> new HashSet<>()).add(key);
+        }
+        evictOverBudget();
+    }
+
+    private void evictOverBudget() {
+        final Iterator<Map.Entry<Long, CachedPath>> leastRecentlyUsed =
+            paths.entrySet().iterator();
+        while (cachedBytes > memoryBudget) {
+            final Map.Entry<Long, CachedPath> entry = leastRecentlyUsed.next();
+            leastRecentlyUsed.remove();
+            forget(entry.getKey(), entry.getValue());
+            evictions++;
+        }
+    }
+
+    // Drops what is known about a path that has been removed from the cache.
+    private void forget(final long key, final CachedPath cached) {
+        cachedBytes -= cached.getBytes();
+        for (final long chunk : cached.getChunks()) {
+            final Set<Long> keys = pathsByChunk.get(chunk);
+            keys.remove(key);
+            if (keys.isEmpty()) pathsByChunk.remove(chunk);
+        }
+    }
+
+    @Serial
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        // Starts out empty, since the paths might not fit the world as it was loaded.
+        setUpCache();
+        // Has to subscribe after being read, since the event bus is not saved.
+        Pawntastic.getEventBus().register(this);
+    }
+
+    /**
+     * A path in the cache, with the chunks it crosses and roughly how many bytes it takes up.
+     */
+    private static final class CachedPath {
+
+        private final Collection<Position> positions;
+        private final long[] chunks;
+        private final long bytes;
+
+        CachedPath(final Collection<Position> positions, final long[] chunks, final long bytes) {
+            this.positions = positions;
+            this.chunks = chunks;
+            this.bytes = bytes;
+        }
+
+        public Collection<Position> getPositions() {
+            return positions;
+        }
+
+        public long[] getChunks() {
+            return chunks;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+    }
+
+}
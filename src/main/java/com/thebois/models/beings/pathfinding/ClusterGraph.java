@@ -0,0 +1,391 @@
+package com.thebois.models.beings.pathfinding;
+
+import java.util.Arrays;
+
+import com.thebois.models.world.IWorld;
+
+/**
+ * The entrances between the clusters of a world, and the cheapest paths between the entrances of
+ * each cluster, for searching paths across the world one cluster at a time.
+ *
+ * <p>
+ * The world is split into squares of cells called clusters. Wherever two neighbouring clusters
+ * both have walkable cells along their border, the border has a transition: a cell on each side,
+ * which are entrances of their clusters. Short stretches of walkable border get one transition in
+ * the middle, and longer ones get one at each end. Inside of each cluster, the cheapest path
+ * between each pair of entrances is kept, along with its cost.
+ * </p>
+ *
+ * <p>
+ * Cells whose cost has changed are marked, and the graph is only rebuilt where it has to be: the
+ * cluster of the cell, and if the cell is on a border, the transitions of that border and the
+ * cluster on the other side. Everything starts out marked, so the first repair builds the whole
+ * graph.
+ * </p>
+ *
+ * @author Martin
+ */
+final class ClusterGraph {
+
+    /**
+     * The index given for cells that are not entrances.
+     */
+    static final int NO_ENTRANCE = -1;
+    /**
+     * How many transitions an entrance can have at most, which is one per border of its cluster
+     * that it lies on.
+     */
+    static final int MAX_TRANSITIONS = 2;
+    private static final int NO_CELL = AbstractIndexedPathFinder.NO_CELL;
+    private static final int BORDERS = 4;
+    /**
+     * The length of the shortest stretch of walkable border that gets a transition at each end.
+     */
+    private static final int LONG_STRETCH = 6;
+    private final IWorld world;
+    private final int worldSize;
+    private final int clusterSize;
+    private final int clustersPerSide;
+    private final ClusterSearch search;
+    /**
+     * For every cluster, the transitions to the next cluster along the x-axis, as pairs of cells:
+     * the one in the cluster followed by the one in the next cluster.
+     */
+    private final int[][] transitionsAlongX;
+    /**
+     * For every cluster, the transitions to the next cluster along the y-axis, as pairs of cells.
+     */
+    private final int[][] transitionsAlongY;
+    private final boolean[] staleBordersAlongX;
+    private final boolean[] staleBordersAlongY;
+    private final boolean[] staleClusters;
+    /**
+     * For every cluster, the cells that are its entrances.
+     */
+    private final int[][] entrances;
+    /**
+     * For every cluster, the cell on the other side of each transition of each entrance, or
+     * NO_CELL, with MAX_TRANSITIONS places per entrance.
+     */
+    private final int[][] transitions;
+    /**
+     * For every cluster, the cost of the cheapest path from each entrance to each entrance, by
+     * the index of the first entrance times the number of entrances plus the index of the second.
+     */
+    private final float[][] costs;
+    /**
+     * For every cluster, the cheapest paths from each of its entrances, as the cell before each
+     * cell of the cluster by its index inside of the cluster, one area of the cluster per entrance.
+     */
+    private final int[][] routes;
+    /**
+     * For every cell, its index among the entrances of its cluster, or NO_ENTRANCE.
+     */
+    private final int[] entranceIndexes;
+    private boolean stale = true;
+
+    /**
+     * Creates the graph of a world, which is built on the first repair.
+     *
+     * @param world       The world to find the entrances and paths of.
+     * @param worldSize   The number of cells along each side of the world.
+     * @param clusterSize The number of cells along each side of a cluster.
+     */
+    ClusterGraph(final IWorld world, final int worldSize, final int clusterSize) {
+        this.world = world;
+        this.worldSize = worldSize;
+        this.clusterSize = clusterSize;
+        this.clustersPerSide = (worldSize + clusterSize - 1) / clusterSize;
+        this.search = new ClusterSearch(world, worldSize, clusterSize);
+        final int clusterCount = clustersPerSide * clustersPerSide;
+        this.transitionsAlongX = new int[clusterCount][0];
+        this.transitionsAlongY = new int[clusterCount][0];
+        this.staleBordersAlongX = new boolean[clusterCount];
+        this.staleBordersAlongY = new boolean[clusterCount];
+        this.staleClusters = new boolean[clusterCount];
+        Arrays.fill(staleBordersAlongX, true);
+        Arrays.fill(staleBordersAlongY, true);
+        Arrays.fill(staleClusters, true);
+        this.entrances = new int[clusterCount][0];
+        this.transitions = new int[clusterCount][0];
+        this.costs = new float[clusterCount][0];
+        this.routes = new int[clusterCount][0];
+        this.entranceIndexes = new int[worldSize * worldSize];
+        Arrays.fill(entranceIndexes, NO_ENTRANCE);
+    }
+
+    /**
+     * Marks that the cost of a cell has changed, so that the parts of the graph that depend on it
+     * are rebuilt on the next repair.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     */
+    void cellChanged(final int x, final int y) {
+        final int cluster = clusterOf(x, y);
+        staleClusters[cluster] = true;
+        // The cell might have been, or might now be, one side of a transition.
+        if (x % clusterSize == 0 && x > 0) staleBordersAlongX[cluster - 1] = true;
+        if (x % clusterSize == clusterSize - 1) staleBordersAlongX[cluster] = true;
+        if (y % clusterSize == 0 && y > 0) staleBordersAlongY[cluster - clustersPerSide] = true;
+        if (y % clusterSize == clusterSize - 1) staleBordersAlongY[cluster] = true;
+        stale = true;
+    }
+
+    /**
+     * Marks every cell as changed, so that the whole graph is rebuilt on the next repair.
+     */
+    void allChanged() {
+        Arrays.fill(staleBordersAlongX, true);
+        Arrays.fill(staleBordersAlongY, true);
+        Arrays.fill(staleClusters, true);
+        stale = true;
+    }
+
+    /**
+     * Rebuilds the parts of the graph that depend on cells that have changed.
+     */
+    void repair() {
+        if (!stale) return;
+
+        for (int cluster = 0; cluster < staleClusters.length; cluster++) {
+            if (staleBordersAlongX[cluster]) {
+                staleBordersAlongX[cluster] = false;
+                rebuildBorderAlongX(cluster);
+            }
+            if (staleBordersAlongY[cluster]) {
+                staleBordersAlongY[cluster] = false;
+                rebuildBorderAlongY(cluster);
+            }
+        }
+        for (int cluster = 0; cluster < staleClusters.length; cluster++) {
+            if (staleClusters[cluster]) {
+                staleClusters[cluster] = false;
+                rebuildCluster(cluster);
+            }
+        }
+        stale = false;
+    }
+
+    /**
+     * Gets the cluster that a cell belongs to.
+     *
+     * @param cell The cell.
+     *
+     * @return The index of the cluster.
+     */
+    int clusterOf(final int cell) {
+        return clusterOf(cell % worldSize, cell / worldSize);
+    }
+
+    private int clusterOf(final int x, final int y) {
+        return y / clusterSize * clustersPerSide + x / clusterSize;
+    }
+
+    /**
+     * Gets the entrances of a cluster.
+     *
+     * @param cluster The index of the cluster.
+     *
+     * @return The cells of the entrances, which must not be modified.
+     */
+    int[] getEntrances(final int cluster) {
+        return entrances[cluster];
+    }
+
+    /**
+     * Gets the index of a cell among the entrances of its cluster.
+     *
+     * @param cell The cell.
+     *
+     * @return The index of the entrance, or NO_ENTRANCE if the cell is not one.
+     */
+    int entranceIndexOf(final int cell) {
+        return entranceIndexes[cell];
+    }
+
+    /**
+     * Gets the cost of the cheapest path between two entrances of a cluster.
+     *
+     * @param cluster The index of the cluster.
+     * @param from    The index of the entrance that the path starts in.
+     * @param to      The index of the entrance that the path leads to.
+     *
+     * @return The cost, or the highest float if there is no path inside of the cluster.
+     */
+    float costBetween(final int cluster, final int from, final int to) {
+        return costs[cluster][from * entrances[cluster].length + to];
+    }
+
+    /**
+     * Gets the cell on the other side of a transition of an entrance.
+     *
+     * @param cluster    The index of the cluster of the entrance.
+     * @param entrance   The index of the entrance.
+     * @param transition Which of the transitions of the entrance, below MAX_TRANSITIONS.
+     *
+     * @return The cell in the neighbouring cluster, or NO_CELL if there is no such transition.
+     */
+    int transitionOf(final int cluster, final int entrance, final int transition) {
+        return transitions[cluster][entrance * MAX_TRANSITIONS + transition];
+    }
+
+    /**
+     * Gets the cell before a cell on the cheapest path to it from an entrance of their cluster.
+     *
+     * @param cluster  The index of the cluster.
+     * @param entrance The index of the entrance that the path starts in.
+     * @param cell     The cell, which the path must lead to.
+     *
+     * @return The previous cell, or NO_CELL if the cell is the entrance.
+     */
+    int previousOnRoute(final int cluster, final int entrance, final int cell) {
+        final int originX = cluster % clustersPerSide * clusterSize;
+        final int originY = cluster / clustersPerSide * clusterSize;
+        final int local = (cell / worldSize - originY) * clusterSize + cell % worldSize - originX;
+        final int previous = routes[cluster][entrance * clusterSize * clusterSize + local];
+        if (previous == NO_CELL) return NO_CELL;
+        return (originY + previous / clusterSize) * worldSize + originX + previous % clusterSize;
+    }
+
+    // Finds the transitions between a cluster and the next one along the x-axis.
+    private void rebuildBorderAlongX(final int cluster) {
+        final int clusterX = cluster % clustersPerSide;
+        if (clusterX == clustersPerSide - 1) return;
+
+        final int x = (clusterX + 1) * clusterSize - 1;
+        final int originY = cluster / clustersPerSide * clusterSize;
+        final int length = Math.min(clusterSize, worldSize - originY);
+        final int[] border = new int[length * 2];
+        for (int i = 0; i < length; i++) {
+            border[i * 2] = (originY + i) * worldSize + x;
+            border[i * 2 + 1] = border[i * 2] + 1;
+        }
+        transitionsAlongX[cluster] = findTransitions(border);
+        staleClusters[cluster] = true;
+        staleClusters[cluster + 1] = true;
+    }
+
+    // Finds the transitions between a cluster and the next one along the y-axis.
+    private void rebuildBorderAlongY(final int cluster) {
+        final int clusterY = cluster / clustersPerSide;
+        if (clusterY == clustersPerSide - 1) return;
+
+        final int y = (clusterY + 1) * clusterSize - 1;
+        final int originX = cluster % clustersPerSide * clusterSize;
+        final int length = Math.min(clusterSize, worldSize - originX);
+        final int[] border = new int[length * 2];
+        for (int i = 0; i < length; i++) {
+            border[i * 2] = y * worldSize + originX + i;
+            border[i * 2 + 1] = border[i * 2] + worldSize;
+        }
+        transitionsAlongY[cluster] = findTransitions(border);
+        staleClusters[cluster] = true;
+        staleClusters[cluster + clustersPerSide] = true;
+    }
+
+    // Picks the transitions out of the pairs of cells facing each other across a border.
+    private int[] findTransitions(final int[] border) {
+        final int pairs = border.length / 2;
+        final int[] found = new int[border.length];
+        int count = 0;
+        int stretchStart = 0;
+        for (int i = 0; i <= pairs; i++) {
+            if (i < pairs && isWalkable(border[i * 2]) && isWalkable(border[i * 2 + 1])) continue;
+
+            final int stretchLength = i - stretchStart;
+            if (stretchLength >= LONG_STRETCH) {
+                count = copyPair(border, stretchStart, found, count);
+                count = copyPair(border, i - 1, found, count);
+            }
+            else if (stretchLength > 0) {
+                count = copyPair(border, stretchStart + stretchLength / 2, found, count);
+            }
+            stretchStart = i + 1;
+        }
+        return Arrays.copyOf(found, count * 2);
+    }
+
+    private static int copyPair(final int[] from, final int pair, final int[] to, final int count) {
+        to[count * 2] = from[pair * 2];
+        to[count * 2 + 1] = from[pair * 2 + 1];
+        return count + 1;
+    }
+
+    // Gathers the entrances of a cluster from its borders, and finds the paths between them.
+    private void rebuildCluster(final int cluster) {
+        for (final int entrance : entrances[cluster]) {
+            entranceIndexes[entrance] = NO_ENTRANCE;
+        }
+        final int clusterX = cluster % clustersPerSide;
+        final int clusterY = cluster / clustersPerSide;
+        final int[] found = new int[clusterSize * BORDERS];
+        final int[] foundTransitions = new int[found.length * MAX_TRANSITIONS];
+        Arrays.fill(foundTransitions, NO_CELL);
+        int count = addEntrances(transitionsAlongX[cluster], 0, found, foundTransitions, 0);
+        count = addEntrances(transitionsAlongY[cluster], 0, found, foundTransitions, count);
+        if (clusterX > 0) {
+            count = addEntrances(transitionsAlongX[cluster - 1], 1, found, foundTransitions, count);
+        }
+        if (clusterY > 0) {
+            count = addEntrances(transitionsAlongY[cluster - clustersPerSide],
+                                 1,
+                                 found,
+                                 foundTransitions,
+                                 count);
+        }
+        entrances[cluster] = Arrays.copyOf(found, count);
+        transitions[cluster] = Arrays.copyOf(foundTransitions, count * MAX_TRANSITIONS);
+        findRoutes(cluster);
+    }
+
+    // Adds the cells on one side of transitions as entrances, unless they already are, and gives
+    // how many entrances there are afterwards.
+    private int addEntrances(
+        final int[] borderTransitions,
+        final int side,
+        final int[] found,
+        final int[] foundTransitions,
+        final int count) {
+        int added = count;
+        for (int pair = 0; pair < borderTransitions.length; pair += 2) {
+            final int cell = borderTransitions[pair + side];
+            final int other = borderTransitions[pair + 1 - side];
+            int index = entranceIndexes[cell];
+            if (index == NO_ENTRANCE) {
+                index = added;
+                added++;
+                found[index] = cell;
+                entranceIndexes[cell] = index;
+            }
+            // A corner cell can be an entrance on both of its borders.
+            int slot = index * MAX_TRANSITIONS;
+            if (foundTransitions[slot] != NO_CELL) slot++;
+            foundTransitions[slot] = other;
+        }
+        return added;
+    }
+
+    // Finds the cheapest paths from each entrance of a cluster to every cell of it.
+    private void findRoutes(final int cluster) {
+        final int[] clusterEntrances = entrances[cluster];
+        final int count = clusterEntrances.length;
+        final int area = clusterSize * clusterSize;
+        final float[] clusterCosts = new float[count * count];
+        final int[] clusterRoutes = new int[count * area];
+        for (int from = 0; from < count; from++) {
+            search.searchFrom(clusterEntrances[from]);
+            for (int to = 0; to < count; to++) {
+                clusterCosts[from * count + to] = search.costOf(clusterEntrances[to]);
+            }
+            search.copyLinks(clusterRoutes, from * area);
+        }
+        costs[cluster] = clusterCosts;
+        routes[cluster] = clusterRoutes;
+    }
+
+    private boolean isWalkable(final int cell) {
+        return world.getCostAt(cell % worldSize, cell / worldSize) != Float.MAX_VALUE;
+    }
+
+}
@@ -0,0 +1,203 @@
+package com.thebois.models.beings.pathfinding;
+
+import java.util.Arrays;
+
+import com.thebois.models.world.IWorld;
+
+/**
+ * Finds the cheapest paths inside of the cluster that a cell belongs to, from the cell to every
+ * other cell of the cluster, or from every other cell of the cluster to it.
+ *
+ * <p>
+ * Clusters are the squares that a world is split into, starting in its corner, so clusters on the
+ * far edges might be cut short. Paths move as in {@link IndexedAstarPathFinder}: leaving a cell
+ * costs one more than the cost of the cell, and obstacles can end a path but never be left. The
+ * search state is reused, so the result of a search is only kept until the next one.
+ * </p>
+ *
+ * @author Martin
+ */
+final class ClusterSearch {
+
+    private static final int NO_CELL = AbstractIndexedPathFinder.NO_CELL;
+    private final IWorld world;
+    private final int worldSize;
+    private final int clusterSize;
+    /**
+     * For every cell of the cluster, by its index inside of the cluster, the cost of the cheapest
+     * path between it and the searched cell. Only valid for cells whose stamp is the current one.
+     */
+    private final float[] costs;
+    /**
+     * For every cell of the cluster, the cell before it on the path from the searched cell, or
+     * after it on the path to the searched cell. Only valid for cells whose stamp is the current
+     * one.
+     */
+    private final int[] links;
+    private final int[] stamps;
+    private final IndexedMinHeap openSet;
+    private int stamp;
+    private int originX;
+    private int originY;
+    private int width;
+    private int height;
+
+    /**
+     * Creates a search for the clusters of a world.
+     *
+     * @param world       The world to search the cells of.
+     * @param worldSize   The number of cells along each side of the world.
+     * @param clusterSize The number of cells along each side of a cluster.
+     */
+    ClusterSearch(final IWorld world, final int worldSize, final int clusterSize) {
+        this.world = world;
+        this.worldSize = worldSize;
+        this.clusterSize = clusterSize;
+        final int area = clusterSize * clusterSize;
+        this.costs = new float[area];
+        this.links = new int[area];
+        this.stamps = new int[area];
+        this.openSet = new IndexedMinHeap(area);
+    }
+
+    /**
+     * Finds the cheapest paths from a cell to every cell of its cluster.
+     *
+     * @param cell The cell that the paths start in.
+     */
+    void searchFrom(final int cell) {
+        begin(cell);
+        while (!openSet.isEmpty()) {
+            final int current = openSet.poll();
+            final float cellCost = walkCostOf(current);
+            // Obstacles can be moved into, but never out of.
+            if (cellCost == Float.MAX_VALUE) continue;
+
+            final float stepCost = costs[current] + 1 + cellCost;
+            final int x = current % clusterSize;
+            final int y = current / clusterSize;
+            if (x > 0) relax(current - 1, current, stepCost);
+            if (x < width - 1) relax(current + 1, current, stepCost);
+            if (y > 0) relax(current - clusterSize, current, stepCost);
+            if (y < height - 1) relax(current + clusterSize, current, stepCost);
+        }
+    }
+
+    /**
+     * Finds the cheapest paths from every cell of a cluster to one of its cells.
+     *
+     * @param cell The cell that the paths lead to.
+     */
+    void searchTowards(final int cell) {
+        begin(cell);
+        while (!openSet.isEmpty()) {
+            final int current = openSet.poll();
+            final int x = current % clusterSize;
+            final int y = current / clusterSize;
+            if (x > 0) relaxTowards(current - 1, current);
+            if (x < width - 1) relaxTowards(current + 1, current);
+            if (y > 0) relaxTowards(current - clusterSize, current);
+            if (y < height - 1) relaxTowards(current + clusterSize, current);
+        }
+    }
+
+    /**
+     * Gets the cost of the cheapest path between a cell and the last searched cell.
+     *
+     * @param cell The cell.
+     *
+     * @return The cost, or the highest float if there is no path inside of the cluster.
+     */
+    float costOf(final int cell) {
+        final int local = toLocal(cell);
+        if (local == NO_CELL || stamps[local] != stamp) return Float.MAX_VALUE;
+        return costs[local];
+    }
+
+    /**
+     * Gets the cell before a cell on the path from the last searched cell, or the cell after it on
+     * the path to the last searched cell.
+     *
+     * @param cell The cell, which must have a path.
+     *
+     * @return The linked cell, or NO_CELL for the searched cell itself.
+     */
+    int linkOf(final int cell) {
+        return toCell(links[toLocal(cell)]);
+    }
+
+    /**
+     * Copies the links of the last search, by the index of each cell inside of its cluster, with
+     * NO_CELL for the cells that have no path.
+     *
+     * @param target Where to copy the links to.
+     * @param offset Where in the target to put the link of the first cell.
+     */
+    void copyLinks(final int[] target, final int offset) {
+        for (int local = 0; local < links.length; local++) {
+            if (stamps[local] == stamp) {
+                target[offset + local] = links[local];
+            }
+            else {
+                target[offset + local] = NO_CELL;
+            }
+        }
+    }
+
+    // Makes every cell unreached, and reaches the searched cell.
+    private void begin(final int cell) {
+        final int x = cell % worldSize;
+        final int y = cell / worldSize;
+        originX = x - x % clusterSize;
+        originY = y - y % clusterSize;
+        width = Math.min(clusterSize, worldSize - originX);
+        height = Math.min(clusterSize, worldSize - originY);
+        openSet.clear();
+        stamp++;
+        // After wrapping around, old stamps could be mistaken for the current one.
+        if (stamp == 0) {
+            Arrays.fill(stamps, 0);
+            stamp = 1;
+        }
+        reach(toLocal(cell), NO_CELL, 0f);
+    }
+
+    // Reaches a cell from which the path moves on to a cell that has already been reached.
+    private void relaxTowards(final int local, final int next) {
+        final float cellCost = walkCostOf(local);
+        // Obstacles can not be left, so no path leads out of them.
+        if (cellCost == Float.MAX_VALUE) return;
+        relax(local, next, costs[next] + 1 + cellCost);
+    }
+
+    private void relax(final int local, final int link, final float cost) {
+        if (stamps[local] != stamp || cost < costs[local]) {
+            reach(local, link, cost);
+        }
+    }
+
+    private void reach(final int local, final int link, final float cost) {
+        stamps[local] = stamp;
+        costs[local] = cost;
+        links[local] = link;
+        openSet.offer(local, cost);
+    }
+
+    // The cost of moving across a cell, by its index inside of the cluster.
+    private float walkCostOf(final int local) {
+        return world.getCostAt(originX + local % clusterSize, originY + local / clusterSize);
+    }
+
+    private int toLocal(final int cell) {
+        final int x = cell % worldSize - originX;
+        final int y = cell / worldSize - originY;
+        if (x < 0 || x >= width || y < 0 || y >= height) return NO_CELL;
+        return y * clusterSize + x;
+    }
+
+    private int toCell(final int local) {
+        if (local == NO_CELL) return NO_CELL;
+        return (originY + local / clusterSize) * worldSize + originX + local % clusterSize;
+    }
+
+}
@@ -0,0 +1,465 @@
+package com.thebois.models.beings.pathfinding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import com.thebois.models.Position;
+import com.thebois.models.world.IWorld;
+
+/**
+ * Plans paths to one destination with D* Lite, which keeps its search between paths and only
+ * repairs the part of it that changed cells affect.
+ *
+ * <p>
+ * The search runs backwards, from the destination towards the start, so that the start can move
+ * along the path without the search being thrown away. Every cell that the search reaches knows
+ * the cost of the cheapest path from it to the destination. When the cost of a cell changes, only
+ * the cells whose paths went through it are searched again, so how long it takes to plan anew
+ * depends on how much changed rather than on how long the path is. Paths move as in
+ * {@link IndexedAstarPathFinder}: leaving a cell costs one more than the cost of the cell, and
+ * obstacles can end a path but never be left.
+ * </p>
+ *
+ * <p>
+ * The search is kept in a {@link SparseCellIndex}, since each planner only reaches the cells
+ * around one path. It is not saved, and starts over when a planner that was loaded plans its
+ * first path. The cells along a path are checked against the world as the path is read off the
+ * search, so that changes that were never announced are repaired as well.
+ * </p>
+ *
+ * @author Martin
+ */
+final class DstarLitePlanner implements IPathPlanner {
+
+    private static final float UNREACHED = Float.POSITIVE_INFINITY;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final Comparator<QueuedCell> BY_KEY =
+        Comparator.comparingDouble(QueuedCell::getPrimaryKey)
+                  .thenComparingDouble(QueuedCell::getSecondaryKey);
+    private final IWorld world;
+    private final int worldSize;
+    private final int goal;
+    private transient SparseCellIndex cells;
+    /**
+     * The search state of every cell that the search has reached, by the slot of the cell.
+     */
+    private transient CellState[] states;
+    /**
+     * The inconsistent cells, along with copies that are out of date since their key changed or
+     * they became consistent, which are skipped when they come up.
+     */
+    private transient PriorityQueue<QueuedCell> openSet;
+    private transient Set<Integer> changed;
+    private transient int start;
+    /**
+     * How far the start has moved since the search began, added to new keys instead of updating
+     * every key in the queue.
+     */
+    private transient float keyModifier;
+    private transient int expansions;
+
+    /**
+     * Creates a planner for a destination.
+     *
+     * @param world       The world to consider obstacles in when planning.
+     * @param worldSize   The number of cells along each side of the world.
+     * @param destination The location to find paths to.
+     */
+    DstarLitePlanner(final IWorld world, final int worldSize, final Position destination) {
+        this.world = world;
+        this.worldSize = worldSize;
+        this.goal = (int) destination.getY() * worldSize + (int) destination.getX();
+    }
+
+    @Override
+    public Collection<Position> path(final Position from) {
+        final int fromX = (int) from.getX();
+        final int fromY = (int) from.getY();
+        if (!isInside(fromX, fromY)) return List.of();
+
+        final int fromCell = fromY * worldSize + fromX;
+        expansions = 0;
+        if (cells == null) {
+            begin(fromCell);
+        }
+        else {
+            keyModifier += heuristic(start, fromCell);
+            start = fromCell;
+        }
+        while (true) {
+            applyChanges();
+            computeShortestPath();
+            final List<Position> path = new ArrayList<>();
+            if (follow(path)) return path;
+        }
+    }
+
+    @Override
+    public void cellsChanged(final Collection<Position> positions) {
+        if (cells == null) return;
+
+        for (final Position position : positions) {
+            final int x = (int) position.getX();
+            final int y = (int) position.getY();
+            // Other worlds might share the event bus, so the cell might not be in this world.
+            // Cells that the search has not reached are read when they are reached.
+            if (isInside(x, y) && cells.slotOf(y * worldSize + x) != SparseCellIndex.ABSENT) {
+                changed.add(y * worldSize + x);
+            }
+        }
+    }
+
+    /**
+     * Counts the cells that were expanded while planning the last path.
+     *
+     * @return The number of expanded cells.
+     */
+    int countExpansions() {
+        return expansions;
+    }
+
+    private boolean isInside(final int x, final int y) {
+        return x >= 0 && y >= 0 && x < worldSize && y < worldSize;
+    }
+
+    // The number of moves between two cells without obstacles, since every move costs at least
+    // one.
+    private float heuristic(final int from, final int to) {
+        return Math.abs(from % worldSize - to % worldSize) + Math.abs(from / worldSize
+                                                                      - to / worldSize);
+    }
+
+    private void begin(final int startCell) {
+        cells = new SparseCellIndex();
+        states = new CellState[INITIAL_CAPACITY];
+        openSet = new PriorityQueue<>(BY_KEY);
+        changed = new HashSet<>();
+        start = startCell;
+        keyModifier = 0;
+        final CellState goalState = stateOf(goal);
+        goalState.setCheapestThroughNeighbour(0);
+        enqueue(goal, goalState);
+    }
+
+    // Gets what the search knows about a cell, and reads the cost of the cell if it was not
+    // reached before.
+    private CellState stateOf(final int cell) {
+        final int slot = cells.slotOf(cell);
+        if (slot != SparseCellIndex.ABSENT) return states[slot];
+
+        final int newSlot = cells.add(cell);
+        if (newSlot == states.length) states = Arrays.copyOf(states, states.length * 2);
+        states[newSlot] = new CellState(world.getCostAt(cell % worldSize, cell / worldSize));
+        return states[newSlot];
+    }
+
+    // Gets what the search knows about a cell, or null if it has not reached the cell.
+    private CellState reachedStateOf(final int cell) {
+        final int slot = cells.slotOf(cell);
+        if (slot == SparseCellIndex.ABSENT) return null;
+        return states[slot];
+    }
+
+    private float cheapestOf(final int cell) {
+        final CellState state = reachedStateOf(cell);
+        if (state == null) return UNREACHED;
+        return state.getCheapest();
+    }
+
+    // Reads the changed cells anew. Cells that the search has not reached yet are skipped, since
+    // their cost is read when they are reached.
+    private void applyChanges() {
+        for (final int cell : changed) {
+            final CellState state = reachedStateOf(cell);
+            if (state == null) continue;
+
+            final float cost = world.getCostAt(cell % worldSize, cell / worldSize);
+            if (cost != state.getCost()) {
+                state.setCost(cost);
+                updateCell(cell);
+            }
+        }
+        changed.clear();
+    }
+
+    private void computeShortestPath() {
+        final CellState startState = stateOf(start);
+        while (true) {
+            final QueuedCell top = peekOpen();
+            if (top == null) return;
+            if (!isLower(top.getPrimaryKey(), top.getSecondaryKey(), start, startState)
+                && startState.isConsistent()) {
+                return;
+            }
+
+            openSet.poll();
+            expansions++;
+            final int cell = top.getCell();
+            final CellState state = top.getState();
+            if (isLower(top.getPrimaryKey(), top.getSecondaryKey(), cell, state)) {
+                enqueue(cell, state);
+            }
+            else if (state.getCheapest() > state.getCheapestThroughNeighbour()) {
+                state.setCheapest(state.getCheapestThroughNeighbour());
+                state.setQueued(false);
+                updateNeighbours(cell);
+            }
+            else {
+                state.setCheapest(UNREACHED);
+                updateCell(cell);
+                updateNeighbours(cell);
+            }
+        }
+    }
+
+    // Whether a key comes before the key that a cell should have now.
+    private boolean isLower(
+        final float primaryKey, final float secondaryKey, final int cell, final CellState state) {
+        final float lowest = state.getLowest();
+        final float cellPrimaryKey = lowest + heuristic(start, cell) + keyModifier;
+        if (primaryKey != cellPrimaryKey) return primaryKey < cellPrimaryKey;
+        return secondaryKey < lowest;
+    }
+
+    // Gives the queued cell with the lowest key that is not out of date, without removing it.
+    private QueuedCell peekOpen() {
+        while (!openSet.isEmpty()) {
+            final QueuedCell top = openSet.peek();
+            final CellState state = top.getState();
+            if (state.isQueued()
+                && state.getPrimaryKey() == top.getPrimaryKey()
+                && state.getSecondaryKey() == top.getSecondaryKey()) {
+                return top;
+            }
+            openSet.poll();
+        }
+        return null;
+    }
+
+    private void updateNeighbours(final int cell) {
+        final int x = cell % worldSize;
+        final int y = cell / worldSize;
+        if (x > 0) updateCell(cell - 1);
+        if (x < worldSize - 1) updateCell(cell + 1);
+        if (y > 0) updateCell(cell - worldSize);
+        if (y < worldSize - 1) updateCell(cell + worldSize);
+    }
+
+    // Works out the cost of the cheapest path from a cell through its neighbours, and queues the
+    // cell if that is not what the cell knows.
+    private void updateCell(final int cell) {
+        final CellState state = stateOf(cell);
+        if (cell != goal) {
+            state.setCheapestThroughNeighbour(stepCostOf(state) + cheapestNeighbourOf(cell));
+        }
+        if (state.isConsistent()) {
+            state.setQueued(false);
+        }
+        else {
+            enqueue(cell, state);
+        }
+    }
+
+    private float stepCostOf(final CellState state) {
+        if (state.getCost() == Float.MAX_VALUE) return UNREACHED;
+        return 1 + state.getCost();
+    }
+
+    private float cheapestNeighbourOf(final int cell) {
+        final int x = cell % worldSize;
+        final int y = cell / worldSize;
+        float lowest = UNREACHED;
+        if (x > 0) lowest = Math.min(lowest, cheapestOf(cell - 1));
+        if (x < worldSize - 1) lowest = Math.min(lowest, cheapestOf(cell + 1));
+        if (y > 0) lowest = Math.min(lowest, cheapestOf(cell - worldSize));
+        if (y < worldSize - 1) lowest = Math.min(lowest, cheapestOf(cell + worldSize));
+        return lowest;
+    }
+
+    private void enqueue(final int cell, final CellState state) {
+        final float lowest = state.getLowest();
+        state.setKeys(lowest + heuristic(start, cell) + keyModifier, lowest);
+        state.setQueued(true);
+        openSet.add(new QueuedCell(cell, state, state.getPrimaryKey(), state.getSecondaryKey()));
+    }
+
+    // Adds the cells from the start to the goal to the path, moving to the cheapest neighbour
+    // each time. Returns false if a cell turned out to have changed, which has then been marked
+    // for repair.
+    private boolean follow(final List<Position> path) {
+        float cheapest = cheapestOf(start);
+        if (cheapest == UNREACHED) return true;
+
+        int current = start;
+        while (current != goal) {
+            final int x = current % worldSize;
+            final int y = current / worldSize;
+            if (world.getCostAt(x, y) != reachedStateOf(current).getCost()) {
+                changed.add(current);
+                return false;
+            }
+            path.add(new Position(x, y));
+            current = cheapestNeighbourCellOf(current);
+            final float next = cheapestOf(current);
+            // Every move costs at least one, so a path that does not get cheaper is lost.
+            if (next >= cheapest) {
+                path.clear();
+                return true;
+            }
+            cheapest = next;
+        }
+        path.add(new Position(goal % worldSize, goal / worldSize));
+        return true;
+    }
+
+    private int cheapestNeighbourCellOf(final int cell) {
+        final int x = cell % worldSize;
+        final int y = cell / worldSize;
+        int lowest = cell;
+        float lowestCost = UNREACHED;
+        if (x > 0) {
+            lowestCost = cheapestOf(cell - 1);
+            lowest = cell - 1;
+        }
+        if (x < worldSize - 1 && cheapestOf(cell + 1) < lowestCost) {
+            lowestCost = cheapestOf(cell + 1);
+            lowest = cell + 1;
+        }
+        if (y > 0 && cheapestOf(cell - worldSize) < lowestCost) {
+            lowestCost = cheapestOf(cell - worldSize);
+            lowest = cell - worldSize;
+        }
+        if (y < worldSize - 1 && cheapestOf(cell + worldSize) < lowestCost) {
+            lowest = cell + worldSize;
+        }
+        return lowest;
+    }
+
+    /**
+     * What the search knows about a cell.
+     */
+    private static final class CellState {
+
+        /**
+         * The cost of the cell that the search was worked out with.
+         */
+        private float cost;
+        /**
+         * The cost of the cheapest path from the cell to the goal, as of when it was last
+         * expanded.
+         */
+        private float cheapest = UNREACHED;
+        /**
+         * The cost of the cheapest path from the cell through one of its neighbours, which
+         * differs from the cheapest known cost when the cell is inconsistent.
+         */
+        private float cheapestThroughNeighbour = UNREACHED;
+        private float primaryKey;
+        private float secondaryKey;
+        private boolean queued;
+
+        CellState(final float cost) {
+            this.cost = cost;
+        }
+
+        public float getCost() {
+            return cost;
+        }
+
+        public void setCost(final float cost) {
+            this.cost = cost;
+        }
+
+        public float getCheapest() {
+            return cheapest;
+        }
+
+        public void setCheapest(final float cheapest) {
+            this.cheapest = cheapest;
+        }
+
+        public float getCheapestThroughNeighbour() {
+            return cheapestThroughNeighbour;
+        }
+
+        public void setCheapestThroughNeighbour(final float cheapestThroughNeighbour) {
+            this.cheapestThroughNeighbour = cheapestThroughNeighbour;
+        }
+
+        public float getLowest() {
+            return Math.min(cheapest, cheapestThroughNeighbour);
+        }
+
+        public boolean isConsistent() {
+            return cheapest == cheapestThroughNeighbour;
+        }
+
+        public float getPrimaryKey() {
+            return primaryKey;
+        }
+
+        public float getSecondaryKey() {
+            return secondaryKey;
+        }
+
+        public void setKeys(final float primary, final float secondary) {
+            this.primaryKey = primary;
+            this.secondaryKey = secondary;
+        }
+
+        public boolean isQueued() {
+            return queued;
+        }
+
+        public void setQueued(final boolean queued) {
+            this.queued = queued;
+        }
+
+    }
+
+    /**
+     * A cell in the queue, with the keys it had when it was queued.
+     */
+    private static final class QueuedCell {
+
+        private final int cell;
+        private final CellState state;
+        private final float primaryKey;
+        private final float secondaryKey;
+
+        QueuedCell(
+            final int cell,
+            final CellState state,
+            final float primaryKey,
+            final float secondaryKey) {
+            this.cell = cell;
+            this.state = state;
+            this.primaryKey = primaryKey;
+            this.secondaryKey = secondaryKey;
+        }
+
+        public int getCell() {
+            return cell;
+        }
+
+        public CellState getState() {
+            return state;
+        }
+
+        public float getPrimaryKey() {
+            return primaryKey;
+        }
+
+        public float getSecondaryKey() {
+            return secondaryKey;
+        }
+
+    }
+
+}
@@ -0,0 +1,291 @@
+package com.thebois.models.beings.pathfinding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import com.thebois.models.Position;
+import com.thebois.models.world.IWorld;
+
+/**
+ * The cost of the cheapest path from every cell of a world to one destination cell, so that the
+ * path from any cell can be followed downhill without searching for it.
+ *
+ * <p>
+ * Paths move as in {@link IndexedAstarPathFinder}: leaving a cell costs one more than the cost of
+ * the cell, and obstacles can end a path but never be left. The field is worked out with Dijkstra
+ * from the destination outwards. It remembers the cost of each cell that it was worked out with,
+ * so that when cells change, only the cells whose cheapest path went through them are worked out
+ * again.
+ * </p>
+ *
+ * <p>
+ * The heap and the scratch arrays are shared by every field of a finder, so fields must not be
+ * used by several threads at once.
+ * </p>
+ *
+ * @author Martin
+ */
+final class FlowField {
+
+    private static final float UNREACHED = Float.POSITIVE_INFINITY;
+    private final IWorld world;
+    private final int worldSize;
+    private final int destination;
+    /**
+     * For every cell, the cost of the cheapest path from it to the destination, or UNREACHED.
+     */
+    private final float[] distances;
+    /**
+     * For every cell, the cost of the cell that the distances were worked out with.
+     */
+    private final float[] costs;
+    /**
+     * The cells that might have changed since the distances were worked out.
+     */
+    private final BitSet changed;
+    private final IndexedMinHeap openSet;
+    /**
+     * Holds the cells whose distances are worked out again while repairing.
+     */
+    private final int[] lostCells;
+    /**
+     * Holds the distances that the lost cells had before they were lost.
+     */
+    private final float[] lostDistances;
+
+    /**
+     * Creates the field towards a destination and works it out.
+     *
+     * @param world       The world to read the cost of the cells from.
+     * @param worldSize   The number of cells along each side of the world.
+     * @param destination The index of the cell that the paths end in.
+     * @param buffers     The heap and the scratch arrays, shared with other fields.
+     */
+    FlowField(
+        final IWorld world,
+        final int worldSize,
+        final int destination,
+        final FlowFieldBuffers buffers) {
+        this.world = world;
+        this.worldSize = worldSize;
+        this.destination = destination;
+        this.openSet = buffers.getOpenSet();
+        this.lostCells = buffers.getLostCells();
+        this.lostDistances = buffers.getLostDistances();
+        final int area = worldSize * worldSize;
+        this.distances = new float[area];
+        this.costs = new float[area];
+        this.changed = new BitSet(area);
+        build();
+    }
+
+    /**
+     * Roughly how many bytes a field takes up, for the distances and costs of every cell and the
+     * cells that changed.
+     *
+     * @param area How many cells there are in the world.
+     *
+     * @return The number of bytes.
+     */
+    static long bytesFor(final int area) {
+        return (long) area * (Float.BYTES + Float.BYTES) + area / Byte.SIZE;
+    }
+
+    /**
+     * Marks a cell as changed, so that the field is repaired around it before it is followed
+     * again.
+     *
+     * @param cell The index of the cell.
+     */
+    void cellChanged(final int cell) {
+        changed.set(cell);
+    }
+
+    /**
+     * Follows the field downhill from a cell to the destination.
+     *
+     * <p>
+     * The field is repaired first if cells have changed. The cells along the way are checked
+     * against the world as they are followed, so that changes that were never announced are
+     * repaired as well.
+     * </p>
+     *
+     * @param start The index of the cell that the path starts in.
+     *
+     * @return The positions of the path, including the start and the destination, or an empty
+     *     list if there is no path.
+     */
+    List<Position> pathFrom(final int start) {
+        while (true) {
+            repair();
+            final List<Position> path = new ArrayList<>();
+            if (follow(start, path)) return path;
+        }
+    }
+
+    /**
+     * Gets the cost of the cheapest path from a cell to the destination, as of the last repair.
+     *
+     * @param cell The index of the cell.
+     *
+     * @return The cost of the path, or positive infinity if there is none.
+     */
+    float distanceOf(final int cell) {
+        return distances[cell];
+    }
+
+    // Adds the cells from the start to the destination to the path, and returns false if a cell
+    // turned out to have changed, which has then been marked for repair. Leaves the path empty if
+    // no neighbour is closer to the destination, which is marked for repair as well.
+    private boolean follow(final int start, final List<Position> path) {
+        if (distances[start] == UNREACHED) return true;
+
+        int current = start;
+        while (current != destination) {
+            final int x = current % worldSize;
+            final int y = current / worldSize;
+            if (world.getCostAt(x, y) != costs[current]) {
+                changed.set(current);
+                return false;
+            }
+            path.add(new Position(x, y));
+            final int next = downhillOf(current);
+            // Every move costs at least one, so a path that does not get closer is lost.
+            if (distances[next] >= distances[current]) {
+                changed.set(current);
+                path.clear();
+                return true;
+            }
+            current = next;
+        }
+        path.add(new Position(destination % worldSize, destination / worldSize));
+        return true;
+    }
+
+    // The neighbour that the cheapest path from a cell moves to, which is always closer to the
+    // destination since every move costs at least one.
+    private int downhillOf(final int cell) {
+        final int x = cell % worldSize;
+        final int y = cell / worldSize;
+        int lowest = cell;
+        if (x > 0 && distances[cell - 1] < distances[lowest]) lowest = cell - 1;
+        if (x < worldSize - 1 && distances[cell + 1] < distances[lowest]) lowest = cell + 1;
+        if (y > 0 && distances[cell - worldSize] < distances[lowest]) lowest = cell - worldSize;
+        if (y < worldSize - 1 && distances[cell + worldSize] < distances[lowest]) {
+            lowest = cell + worldSize;
+        }
+        return lowest;
+    }
+
+    private void build() {
+        for (int cell = 0; cell < costs.length; cell++) {
+            costs[cell] = world.getCostAt(cell % worldSize, cell / worldSize);
+        }
+        Arrays.fill(distances, UNREACHED);
+        distances[destination] = 0;
+        openSet.clear();
+        openSet.offer(destination, 0);
+        spread();
+    }
+
+    // Works the distances out again around the changed cells. The cells whose cheapest path went
+    // through a changed cell lose their distance, and get it back from their neighbours that
+    // kept theirs. Cells that became cheaper then lower the distances around them as the search
+    // spreads.
+    private void repair() {
+        if (changed.isEmpty()) return;
+
+        int lost = 0;
+        for (int cell = changed.nextSetBit(0); cell >= 0; cell = changed.nextSetBit(cell + 1)) {
+            lost = loseDownstream(cell, lost);
+        }
+        for (int cell = changed.nextSetBit(0); cell >= 0; cell = changed.nextSetBit(cell + 1)) {
+            costs[cell] = world.getCostAt(cell % worldSize, cell / worldSize);
+        }
+
+        openSet.clear();
+        for (int i = 0; i < lost; i++) {
+            reachFromNeighbours(lostCells[i]);
+        }
+        for (int cell = changed.nextSetBit(0); cell >= 0; cell = changed.nextSetBit(cell + 1)) {
+            reachFromNeighbours(cell);
+        }
+        changed.clear();
+        spread();
+    }
+
+    // Takes the distance from a cell and every cell whose cheapest path goes through it, and
+    // adds them after the cells that have already lost theirs.
+    private int loseDownstream(final int cell, final int lostBefore) {
+        if (cell == destination || distances[cell] == UNREACHED) return lostBefore;
+
+        int lost = lose(cell, lostBefore);
+        for (int next = lostBefore; next < lost; next++) {
+            final int current = lostCells[next];
+            final int x = current % worldSize;
+            final int y = current / worldSize;
+            if (x > 0) lost = loseIfDownstream(current - 1, next, lost);
+            if (x < worldSize - 1) lost = loseIfDownstream(current + 1, next, lost);
+            if (y > 0) lost = loseIfDownstream(current - worldSize, next, lost);
+            if (y < worldSize - 1) lost = loseIfDownstream(current + worldSize, next, lost);
+        }
+        return lost;
+    }
+
+    // Loses the distance of a neighbour if its cheapest path moves into the lost cell, which is
+    // the case when its distance is no lower than that of the path through the lost cell.
+    private int loseIfDownstream(final int neighbour, final int lostIndex, final int lost) {
+        final float distance = distances[neighbour];
+        if (neighbour == destination || distance == UNREACHED) return lost;
+        if (distance < lostDistances[lostIndex] + 1 + costs[neighbour]) return lost;
+        return lose(neighbour, lost);
+    }
+
+    private int lose(final int cell, final int lost) {
+        lostCells[lost] = cell;
+        lostDistances[lost] = distances[cell];
+        distances[cell] = UNREACHED;
+        return lost + 1;
+    }
+
+    // Gives a lost cell the distance of the cheapest path through a neighbour that kept its own.
+    private void reachFromNeighbours(final int cell) {
+        final float cellCost = costs[cell];
+        if (cellCost == Float.MAX_VALUE || distances[cell] != UNREACHED) return;
+
+        final int lowest = downhillOf(cell);
+        if (lowest == cell) return;
+
+        distances[cell] = distances[lowest] + 1 + cellCost;
+        openSet.offer(cell, distances[cell]);
+    }
+
+    // Lowers the distances of the neighbours of the cells in the heap until none can be lowered.
+    private void spread() {
+        while (!openSet.isEmpty()) {
+            final int current = openSet.poll();
+            final int x = current % worldSize;
+            final int y = current / worldSize;
+            if (x > 0) relax(current - 1, current);
+            if (x < worldSize - 1) relax(current + 1, current);
+            if (y > 0) relax(current - worldSize, current);
+            if (y < worldSize - 1) relax(current + worldSize, current);
+        }
+    }
+
+    // Moves from a neighbour into a cell that is closer to the destination, unless the neighbour
+    // is an obstacle, which can not be left.
+    private void relax(final int neighbour, final int cell) {
+        final float neighbourCost = costs[neighbour];
+        if (neighbourCost == Float.MAX_VALUE) return;
+
+        final float distance = distances[cell] + 1 + neighbourCost;
+        if (distance < distances[neighbour]) {
+            distances[neighbour] = distance;
+            openSet.offer(neighbour, distance);
+        }
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.thebois.models.beings.pathfinding;
+
+/**
+ * The heap and the scratch arrays that the flow fields of a finder share, since only one of them
+ * is worked out at a time.
+ *
+ * @author Martin
+ */
+final class FlowFieldBuffers {
+
+    /**
+     * How many arrays of ints there are in the buffers, along with those of the heap.
+     */
+    private static final int INT_ARRAYS = 3;
+    private static final int FLOAT_ARRAYS = 2;
+    private final IndexedMinHeap openSet;
+    private final int[] lostCells;
+    private final float[] lostDistances;
+
+    /**
+     * Creates the buffers for a world.
+     *
+     * @param area How many cells there are in the world.
+     */
+    FlowFieldBuffers(final int area) {
+        this.openSet = new IndexedMinHeap(area);
+        this.lostCells = new int[area];
+        this.lostDistances = new float[area];
+    }
+
+    /**
+     * Roughly how many bytes the buffers take up, for the heap and the two scratch arrays.
+     *
+     * @param area How many cells there are in the world.
+     *
+     * @return The number of bytes.
+     */
+    static long bytesFor(final int area) {
+        return (long) area * (Integer.BYTES * INT_ARRAYS + Float.BYTES * FLOAT_ARRAYS);
+    }
+
+    public IndexedMinHeap getOpenSet() {
+        return openSet;
+    }
+
+    public int[] getLostCells() {
+        return lostCells;
+    }
+
+    public float[] getLostDistances() {
+        return lostDistances;
+    }
+
+}
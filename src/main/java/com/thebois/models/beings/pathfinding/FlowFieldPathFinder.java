@@ -0,0 +1,243 @@
+package com.thebois.models.beings.pathfinding;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serial;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.google.common.eventbus.Subscribe;
+
+import com.thebois.Pawntastic;
+import com.thebois.abstractions.IStructureFinder;
+import com.thebois.listeners.events.ObstaclePlacedEvent;
+import com.thebois.listeners.events.ResourceHarvestedEvent;
+import com.thebois.listeners.events.StructureCompletedEvent;
+import com.thebois.models.Position;
+import com.thebois.models.world.IWorld;
+import com.thebois.models.world.structures.IStructure;
+import com.thebois.models.world.structures.StructureType;
+
+/**
+ * Finds the paths to the spots next to popular structures by following flow fields, and leaves
+ * every other path to another pathfinder.
+ *
+ * <p>
+ * Beings walk to the spots next to the structures that store items and next to the blueprints
+ * that are being built over and over. The first path to such a spot works out a
+ * {@link FlowField} towards it, which every later path to the same spot follows downhill from
+ * wherever it starts, without searching. The paths are the cheapest ones, just like those of
+ * {@link IndexedAstarPathFinder}. The least recently used fields are dropped to keep the finder
+ * within a memory budget, since each one takes up a few bytes per cell of the world. When not even
+ * one field fits, every path is left to the other pathfinder. Whether a spot is next to a popular
+ * structure is told by the nearest blueprint and storage, which are looked up in the indexes of
+ * the structure finder rather than by reading the tiles around the spot.
+ * </p>
+ *
+ * <p>
+ * The finder listens to the event bus for cells that change, and every field is repaired around
+ * them before it is followed again. Cells that change without being announced are noticed as a
+ * path is followed through them.
+ * </p>
+ *
+ * <p>
+ * Since the fields share their search state, one finder must not be used by several threads at
+ * once.
+ * </p>
+ *
+ * @author Martin
+ */
+public class FlowFieldPathFinder implements IPathFinder {
+
+    /**
+     * Roughly how many bytes the fields are allowed to take up by default.
+     */
+    private static final long DEFAULT_MEMORY_BUDGET = 16L * 1024 * 1024;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int INITIAL_CAPACITY = 16;
+    private final IPathFinder pathFinder;
+    private final IWorld world;
+    private final IStructureFinder structureFinder;
+    private final int worldSize;
+    /**
+     * How many fields fit in the memory budget, along with the buffers that they share, since
+     * every field of a world is as large.
+     */
+    private final long fieldLimit;
+    /**
+     * The fields, keyed by the index of the cell they lead to, from least to most recently used.
+     */
+    private transient Map<Integer, FlowField> fields;
+    private transient FlowFieldBuffers buffers;
+
+    /**
+     * Initializes a pathfinder whose flow fields take up at most around sixteen megabytes.
+     *
+     * @param pathFinder      The pathfinder to find the paths to other places.
+     * @param world           The world to consider obstacles in when pathfinding.
+     * @param structureFinder Finds the structures that beings keep walking to.
+     * @param worldSize       The number of cells along each side of the world.
+     */
+    public FlowFieldPathFinder(
+        final IPathFinder pathFinder,
+        final IWorld world,
+        final IStructureFinder structureFinder,
+        final int worldSize) {
+        this(pathFinder, world, structureFinder, worldSize, DEFAULT_MEMORY_BUDGET);
+    }
+
+    /**
+     * Initializes a pathfinder.
+     *
+     * @param pathFinder      The pathfinder to find the paths to other places.
+     * @param world           The world to consider obstacles in when pathfinding.
+     * @param structureFinder Finds the structures that beings keep walking to.
+     * @param worldSize       The number of cells along each side of the world.
+     * @param memoryBudget    Roughly how many bytes the flow fields are allowed to take up.
+     *
+     * @throws IllegalArgumentException When the budget is negative.
+     */
+    public FlowFieldPathFinder(
+        final IPathFinder pathFinder,
+        final IWorld world,
+        final IStructureFinder structureFinder,
+        final int worldSize,
+        final long memoryBudget) {
+        if (memoryBudget < 0) {
+            throw new IllegalArgumentException("Memory budget can not be negative.");
+        }
+        this.pathFinder = pathFinder;
+        this.world = world;
+        this.structureFinder = structureFinder;
+        this.worldSize = worldSize;
+        final int area = worldSize * worldSize;
+        this.fieldLimit = Math.max(0, memoryBudget - FlowFieldBuffers.bytesFor(area))
+                          / FlowField.bytesFor(area);
+        Pawntastic.getEventBus().register(this);
+    }
+
+    @Override
+    public Collection<Position> path(final Position from, final Position destination) {
+        final int fromX = (int) from.getX();
+        final int fromY = (int) from.getY();
+        final int toX = (int) destination.getX();
+        final int toY = (int) destination.getY();
+        if (fieldLimit == 0 || !isInside(fromX, fromY) || !isInside(toX, toY)
+            || !isNextToPopularStructure(destination)) {
+            return pathFinder.path(from, destination);
+        }
+
+        final List<Position> path = fieldTowards(toY * worldSize + toX)
+            .pathFrom(fromY * worldSize + fromX);
+        // The field might not know of a way that was opened up without being announced.
+        if (path.isEmpty()) return pathFinder.path(from, destination);
+        return path;
+    }
+
+    /**
+     * Counts the flow fields that are kept.
+     *
+     * @return The number of fields.
+     */
+    public int countFields() {
+        if (fields == null) return 0;
+        return fields.size();
+    }
+
+    /**
+     * Marks the cells of new obstacles as changed.
+     *
+     * @param event The published event.
+     */
+    @Subscribe
+    public void onObstaclePlaced(final ObstaclePlacedEvent event) {
+        for (final Position position : event.getPositions()) {
+            cellChanged(position);
+        }
+    }
+
+    /**
+     * Marks the cell of a completed structure as changed.
+     *
+     * @param event The published event.
+     */
+    @Subscribe
+    public void onStructureCompleted(final StructureCompletedEvent event) {
+        cellChanged(event.getPosition());
+    }
+
+    /**
+     * Marks the cell of a harvested resource as changed, since it might have been depleted.
+     *
+     * @param event The published event.
+     */
+    @Subscribe
+    public void onResourceHarvested(final ResourceHarvestedEvent event) {
+        cellChanged(event.getPosition());
+    }
+
+    private void cellChanged(final Position position) {
+        final int x = (int) position.getX();
+        final int y = (int) position.getY();
+        // Other worlds might share the event bus, so the cell might not be in this world.
+        if (fields == null || !isInside(x, y)) return;
+
+        for (final FlowField field : fields.values()) {
+            field.cellChanged(y * worldSize + x);
+        }
+    }
+
+    private boolean isInside(final int x, final int y) {
+        return x >= 0 && y >= 0 && x < worldSize && y < worldSize;
+    }
+
+    // Whether a spot is next to a structure that beings keep walking to: a blueprint, or a
+    // completed structure that stores items, which town halls count as.
+    private boolean isNextToPopularStructure(final Position spot) {
+        final Optional<IStructure> storage =
+            structureFinder.getNearbyCompletedStructureOfType(spot, StructureType.STOCKPILE);
+        if (storage.isPresent() && isNextTo(storage.get(), spot)) return true;
+
+        final Optional<IStructure> blueprint = structureFinder.getNearbyIncompleteStructure(spot);
+        return blueprint.isPresent() && isNextTo(blueprint.get(), spot);
+    }
+
+    private static boolean isNextTo(final IStructure structure, final Position spot) {
+        return structure.getPosition().manhattanDistanceTo(spot) == 1;
+    }
+
+    // Gets the field towards a cell, and works it out if it is not kept.
+    private FlowField fieldTowards(final int destination) {
+        if (fields == null) {
+            fields = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true);
+            buffers = new FlowFieldBuffers(worldSize * worldSize);
+        }
+        FlowField field = fields.get(destination);
+        if (field == null) {
+            field = new FlowField(world, worldSize, destination, buffers);
+            fields.put(destination, field);
+            dropLeastRecentlyUsed();
+        }
+        return field;
+    }
+
+    private void dropLeastRecentlyUsed() {
+        final Iterator<FlowField> leastRecentlyUsed = fields.values().iterator();
+        while (fields.size() > fieldLimit) {
+            leastRecentlyUsed.next();
+            leastRecentlyUsed.remove();
+        }
+    }
+
+    @Serial
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        // Has to subscribe after being read, since the event bus is not saved.
+        Pawntastic.getEventBus().register(this);
+    }
+
+}
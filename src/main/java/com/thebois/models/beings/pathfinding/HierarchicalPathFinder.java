@@ -0,0 +1,387 @@
+package com.thebois.models.beings.pathfinding;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.eventbus.Subscribe;
+
+import com.thebois.Pawntastic;
+import com.thebois.listeners.events.ObstaclePlacedEvent;
+import com.thebois.listeners.events.ResourceHarvestedEvent;
+import com.thebois.listeners.events.StructureCompletedEvent;
+import com.thebois.models.Position;
+import com.thebois.models.world.IWorld;
+
+/**
+ * Finds paths between locations with hierarchical A*, which searches from cluster to cluster
+ * instead of from cell to cell.
+ *
+ * <p>
+ * The world is split into square clusters, and the cheapest paths between the entrances of each
+ * cluster are found ahead of time, see {@link ClusterGraph}. A path is found by searching the
+ * cells of the clusters of the start and the destination, and the entrances of every other
+ * cluster in between. The paths between the entrances are then looked up, so how long a search
+ * takes depends on how many clusters the path crosses rather than on how big the world is. The
+ * paths are close to the cheapest, but since they go through the entrances, they can be a bit
+ * more expensive. Paths between cells in the same or neighbouring clusters are short enough to be
+ * searched cell by cell, as {@link IndexedAstarPathFinder} does, so they are always the cheapest.
+ * </p>
+ *
+ * <p>
+ * The finder listens to the event bus for cells that change, and only rebuilds the clusters
+ * around them before the next search. Should a change still go unnoticed, so that the path
+ * crosses an obstacle, the whole graph is rebuilt and the path is searched again. The same is
+ * done when no path is found although the world claims that there is one, but only once until
+ * the next change is heard of, since the world can not always tell for sure.
+ * </p>
+ *
+ * @author Martin
+ */
+public class HierarchicalPathFinder extends AbstractIndexedPathFinder {
+
+    private static final int DEFAULT_CLUSTER_SIZE = 16;
+    private final int clusterSize;
+    private transient ClusterGraph graph;
+    /**
+     * The paths inside of the cluster of the start, from the start.
+     */
+    private transient ClusterSearch fromStart;
+    /**
+     * The paths inside of the cluster of the destination, to the destination.
+     */
+    private transient ClusterSearch towardsDestination;
+    /**
+     * The paths to the neighbours of an obstacle destination that are in other clusters, from
+     * where the path moves into the destination, along with what that last move costs.
+     */
+    private transient ClusterSearch[] towardsNeighbours;
+    private transient float[] neighbourCosts;
+    private transient int neighbourCount;
+    /**
+     * The search that the path to the destination was last found through, or null if the
+     * destination was reached across a transition.
+     */
+    private transient ClusterSearch reachedDestinationBy;
+    /**
+     * Whether the whole graph has been rebuilt for a missing path since a cell last changed.
+     */
+    private transient boolean rebuiltSinceChange;
+    private transient int start;
+    private transient int destination;
+    /**
+     * Whether the current search moves from cell to cell, since the start and the destination
+     * are too close to each other for the clusters to be of any help.
+     */
+    private transient boolean searchesCells;
+
+    /**
+     * Initializes a pathfinder that finds paths through a specified world, with clusters that
+     * are sixteen cells wide.
+     *
+     * @param world     The world to consider obstacles in when pathfinding.
+     * @param worldSize The number of cells along each side of the world.
+     */
+    public HierarchicalPathFinder(final IWorld world, final int worldSize) {
+        this(world, worldSize, DEFAULT_CLUSTER_SIZE);
+    }
+
+    /**
+     * Initializes a pathfinder that finds paths through a specified world.
+     *
+     * @param world       The world to consider obstacles in when pathfinding.
+     * @param worldSize   The number of cells along each side of the world.
+     * @param clusterSize The number of cells along each side of a cluster, at least two.
+     *
+     * @throws IllegalArgumentException When the clusters are smaller than two cells wide.
+     */
+    public HierarchicalPathFinder(final IWorld world, final int worldSize, final int clusterSize) {
+        super(world, worldSize);
+        if (clusterSize < 2) {
+            throw new IllegalArgumentException("Clusters must be at least two cells wide.");
+        }
+        this.clusterSize = clusterSize;
+        Pawntastic.getEventBus().register(this);
+    }
+
+    @Override
+    public Collection<Position> path(final Position from, final Position to) {
+        final Collection<Position> path = super.path(from, to);
+        if (path.isEmpty()) {
+            if (rebuiltSinceChange || !getWorld().isReachable(from, to)) return path;
+            rebuiltSinceChange = true;
+        }
+        else if (isWalkable(path)) {
+            return path;
+        }
+
+        graph.allChanged();
+        return super.path(from, to);
+    }
+
+    @Override
+    protected void prepare(final int startCell, final int destinationCell) {
+        if (graph == null) createSearches();
+        start = startCell;
+        destination = destinationCell;
+        reachedDestinationBy = null;
+        searchesCells = areInNeighbouringClusters(startCell, destinationCell);
+        if (searchesCells) return;
+
+        graph.repair();
+        fromStart.searchFrom(startCell);
+        towardsDestination.searchTowards(destinationCell);
+        searchTowardsNeighbours();
+    }
+
+    @Override
+    protected void expand(final int current, final int destinationCell) {
+        if (searchesCells) {
+            expandToNeighbours(current);
+            return;
+        }
+
+        final float costFromStart = getCostFromStart(current);
+        final int cluster = graph.clusterOf(current);
+        if (current == start) {
+            for (final int entrance : graph.getEntrances(cluster)) {
+                relaxIfFound(entrance, current, costFromStart, fromStart.costOf(entrance));
+            }
+        }
+
+        final int entrance = graph.entranceIndexOf(current);
+        if (entrance == ClusterGraph.NO_ENTRANCE) return;
+
+        // Paths inside of the cluster of the start have already been reached from the start.
+        if (current != start) {
+            final int[] entrances = graph.getEntrances(cluster);
+            for (int other = 0; other < entrances.length; other++) {
+                relaxIfFound(entrances[other],
+                             current,
+                             costFromStart,
+                             graph.costBetween(cluster, entrance, other));
+            }
+            relaxDestination(current, costFromStart);
+        }
+        final float stepCost = 1 + costAt(current % getWorldSize(), current / getWorldSize());
+        for (int transition = 0; transition < ClusterGraph.MAX_TRANSITIONS; transition++) {
+            final int other = graph.transitionOf(cluster, entrance, transition);
+            if (other != NO_CELL) {
+                relaxThrough(other, current, costFromStart + stepCost, null);
+            }
+        }
+    }
+
+    @Override
+    protected Collection<Position> reconstructPath(final int endOfPath) {
+        if (searchesCells) return super.reconstructPath(endOfPath);
+
+        final List<Position> path = new ArrayList<>();
+        int cell = endOfPath;
+        path.add(toPosition(cell));
+        while (getCameFrom(cell) != NO_CELL) {
+            final int previous = getCameFrom(cell);
+            addStepsBack(path, cell, previous);
+            cell = previous;
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    private void createSearches() {
+        final IWorld world = getWorld();
+        final int worldSize = getWorldSize();
+        graph = new ClusterGraph(world, worldSize, clusterSize);
+        fromStart = new ClusterSearch(world, worldSize, clusterSize);
+        towardsDestination = new ClusterSearch(world, worldSize, clusterSize);
+        towardsNeighbours = new ClusterSearch[ClusterGraph.MAX_TRANSITIONS];
+        for (int i = 0; i < towardsNeighbours.length; i++) {
+            towardsNeighbours[i] = new ClusterSearch(world, worldSize, clusterSize);
+        }
+        neighbourCosts = new float[towardsNeighbours.length];
+    }
+
+    private boolean areInNeighbouringClusters(final int cell, final int other) {
+        final int worldSize = getWorldSize();
+        return Math.abs(cell % worldSize / clusterSize - other % worldSize / clusterSize) <= 1
+               && Math.abs(cell / worldSize / clusterSize - other / worldSize / clusterSize) <= 1;
+    }
+
+    // An obstacle destination on the edge of its cluster might only be reachable from the next
+    // cluster, so the paths to its neighbours there are searched as well. There are at most two,
+    // when the destination is in a corner.
+    private void searchTowardsNeighbours() {
+        neighbourCount = 0;
+        final int x = destination % getWorldSize();
+        final int y = destination / getWorldSize();
+        if (costAt(x, y) != Float.MAX_VALUE) return;
+
+        searchTowardsNeighbour(x + 1, y);
+        searchTowardsNeighbour(x - 1, y);
+        searchTowardsNeighbour(x, y + 1);
+        searchTowardsNeighbour(x, y - 1);
+    }
+
+    private void searchTowardsNeighbour(final int x, final int y) {
+        final float cost = costAt(x, y);
+        if (cost == Float.MAX_VALUE) return;
+
+        final int neighbour = y * getWorldSize() + x;
+        if (graph.clusterOf(neighbour) == graph.clusterOf(destination)) return;
+
+        towardsNeighbours[neighbourCount].searchTowards(neighbour);
+        neighbourCosts[neighbourCount] = 1 + cost;
+        neighbourCount++;
+    }
+
+    // Reaches the destination from an entrance, if there is a path inside of the entrance's
+    // cluster to the destination or to one of its neighbours.
+    private void relaxDestination(final int entrance, final float costFromStart) {
+        relaxIfFound(destination, entrance, costFromStart, towardsDestination.costOf(entrance));
+        for (int i = 0; i < neighbourCount; i++) {
+            final float cost = towardsNeighbours[i].costOf(entrance);
+            if (cost != Float.MAX_VALUE) {
+                relaxThrough(destination,
+                             entrance,
+                             costFromStart + cost + neighbourCosts[i],
+                             towardsNeighbours[i]);
+            }
+        }
+    }
+
+    // Reaches the neighbours of a cell, for searches that move from cell to cell.
+    private void expandToNeighbours(final int current) {
+        final int worldSize = getWorldSize();
+        final int x = current % worldSize;
+        final int y = current / worldSize;
+        final float cellCost = costAt(x, y);
+        // Obstacles can be moved into, but never out of.
+        if (cellCost == Float.MAX_VALUE) return;
+
+        final float costFromStart = getCostFromStart(current) + 1 + cellCost;
+        if (x > 0) relax(current - 1, current, costFromStart, destination);
+        if (x < worldSize - 1) relax(current + 1, current, costFromStart, destination);
+        if (y > 0) relax(current - worldSize, current, costFromStart, destination);
+        if (y < worldSize - 1) relax(current + worldSize, current, costFromStart, destination);
+    }
+
+    // Adds the cells from a cell back to the cell it was reached from, the latter included.
+    private void addStepsBack(final List<Position> path, final int cell, final int previous) {
+        final int cluster = graph.clusterOf(previous);
+        if (cell == destination) {
+            addStepsToDestination(path, previous);
+        }
+        else if (graph.clusterOf(cell) != cluster) {
+            path.add(toPosition(previous));
+        }
+        else if (previous == start) {
+            for (int step = fromStart.linkOf(cell);
+                 step != NO_CELL;
+                 step = fromStart.linkOf(step)) {
+                path.add(toPosition(step));
+            }
+        }
+        else {
+            final int entrance = graph.entranceIndexOf(previous);
+            for (int step = graph.previousOnRoute(cluster, entrance, cell);
+                 step != NO_CELL;
+                 step = graph.previousOnRoute(cluster, entrance, step)) {
+                path.add(toPosition(step));
+            }
+        }
+    }
+
+    // Adds the cells from the destination back to the entrance it was reached from, through the
+    // search that the destination was reached by, or across a transition.
+    private void addStepsToDestination(final List<Position> path, final int entrance) {
+        final ClusterSearch search = reachedDestinationBy;
+        if (search == null || search.costOf(entrance) == Float.MAX_VALUE) {
+            path.add(toPosition(entrance));
+            return;
+        }
+
+        // These paths lead forward, so they are walked from the entrance and turned.
+        final List<Position> steps = new ArrayList<>();
+        for (int step = entrance;
+             step != NO_CELL && step != destination;
+             step = search.linkOf(step)) {
+            steps.add(toPosition(step));
+        }
+        Collections.reverse(steps);
+        path.addAll(steps);
+    }
+
+    private void relaxIfFound(
+        final int cell, final int previous, final float costFromStart, final float cost) {
+        if (cost != Float.MAX_VALUE) {
+            relaxThrough(cell, previous, costFromStart + cost, towardsDestination);
+        }
+    }
+
+    // Reaches a cell, and remembers which search the path leads through should it be the
+    // destination.
+    private void relaxThrough(
+        final int cell, final int previous, final float cost, final ClusterSearch search) {
+        if (relax(cell, previous, cost, destination) && cell == destination) {
+            reachedDestinationBy = search;
+        }
+    }
+
+    private Position toPosition(final int cell) {
+        return new Position(cell % getWorldSize(), cell / getWorldSize());
+    }
+
+    /**
+     * Marks the cells of new obstacles as changed.
+     *
+     * @param event The published event.
+     */
+    @Subscribe
+    public void onObstaclePlaced(final ObstaclePlacedEvent event) {
+        for (final Position position : event.getPositions()) {
+            cellChanged(position);
+        }
+    }
+
+    /**
+     * Marks the cell of a completed structure as changed.
+     *
+     * @param event The published event.
+     */
+    @Subscribe
+    public void onStructureCompleted(final StructureCompletedEvent event) {
+        cellChanged(event.getPosition());
+    }
+
+    /**
+     * Marks the cell of a harvested resource as changed, since it might have been depleted.
+     *
+     * @param event The published event.
+     */
+    @Subscribe
+    public void onResourceHarvested(final ResourceHarvestedEvent event) {
+        cellChanged(event.getPosition());
+    }
+
+    private void cellChanged(final Position position) {
+        final int x = (int) position.getX();
+        final int y = (int) position.getY();
+        // Other worlds might share the event bus, so the cell might not be in this world.
+        if (graph != null && isInside(x, y)) {
+            graph.cellChanged(x, y);
+            rebuiltSinceChange = false;
+        }
+    }
+
+    @Serial
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        // Has to subscribe after being read, since the event bus is not saved.
+        Pawntastic.getEventBus().register(this);
+    }
+
+}
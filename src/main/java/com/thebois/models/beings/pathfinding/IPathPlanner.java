@@ -0,0 +1,32 @@
+package com.thebois.models.beings.pathfinding;
+
+import java.io.Serializable;
+import java.util.Collection;
+
+import com.thebois.models.Position;
+
+/**
+ * Represents a way of finding paths to one destination over and over, as the world changes and
+ * whatever follows the paths moves along.
+ *
+ * @author Martin
+ */
+public interface IPathPlanner extends Serializable {
+
+    /**
+     * Calculates a path from a position to the destination of the planner.
+     *
+     * @param from The starting location.
+     *
+     * @return The points that represent the path to take to get to the destination.
+     */
+    Collection<Position> path(Position from);
+
+    /**
+     * Tells the planner that the cost of some cells might have changed since the last path.
+     *
+     * @param positions The positions of the cells.
+     */
+    void cellsChanged(Collection<Position> positions);
+
+}
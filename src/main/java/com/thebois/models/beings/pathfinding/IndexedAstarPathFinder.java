@@ -0,0 +1,47 @@
+package com.thebois.models.beings.pathfinding;
+
+import com.thebois.models.world.IWorld;
+
+/**
+ * Finds paths between locations using the A* algorithm, on the indices of the cells of a bounded
+ * world instead of on its tiles.
+ *
+ * <p>
+ * Finds the same kind of paths as {@link AstarPathFinder}: moving out of a cell costs one more
+ * than the cost of the cell, so obstacles can end a path but never be passed through. Apart from
+ * the path that is returned, nothing is allocated after the first search.
+ * </p>
+ *
+ * @author Martin
+ */
+public class IndexedAstarPathFinder extends AbstractIndexedPathFinder {
+
+    /**
+     * Initializes a pathfinder that finds paths through a specified world.
+     *
+     * @param world     The world to consider obstacles in when pathfinding.
+     * @param worldSize The number of cells along each side of the world.
+     */
+    public IndexedAstarPathFinder(final IWorld world, final int worldSize) {
+        super(world, worldSize);
+    }
+
+    @Override
+    protected void expand(final int current, final int destinationCell) {
+        final int worldSize = getWorldSize();
+        final int x = current % worldSize;
+        final int y = current / worldSize;
+        final float cellCost = costAt(x, y);
+        // Obstacles can be moved into, but never out of.
+        if (cellCost == Float.MAX_VALUE) return;
+
+        final float tentativeCostFromStart = getCostFromStart(current) + 1 + cellCost;
+        if (x > 0) relax(current - 1, current, tentativeCostFromStart, destinationCell);
+        if (x < worldSize - 1) relax(current + 1, current, tentativeCostFromStart, destinationCell);
+        if (y > 0) relax(current - worldSize, current, tentativeCostFromStart, destinationCell);
+        if (y < worldSize - 1) {
+            relax(current + worldSize, current, tentativeCostFromStart, destinationCell);
+        }
+    }
+
+}
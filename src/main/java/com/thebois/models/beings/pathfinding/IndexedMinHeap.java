@@ -0,0 +1,136 @@
+package com.thebois.models.beings.pathfinding;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A binary min-heap of cell indices, ordered by a float key per cell, that knows where each cell
+ * is so that its key can be decreased in place.
+ *
+ * <p>
+ * Nothing is allocated after creation, so the same heap can be cleared and reused for every
+ * search.
+ * </p>
+ *
+ * @author Martin
+ */
+final class IndexedMinHeap {
+
+    private static final int ABSENT = -1;
+    /**
+     * The cells in heap order.
+     */
+    private final int[] cells;
+    /**
+     * For every cell, its slot in the heap, or ABSENT.
+     */
+    private final int[] slots;
+    /**
+     * For every cell in the heap, its key.
+     */
+    private final float[] keys;
+    private int size;
+
+    /**
+     * Creates an empty heap.
+     *
+     * @param capacity How many cells there are, with indices from 0 up to the capacity.
+     */
+    IndexedMinHeap(final int capacity) {
+        cells = new int[capacity];
+        slots = new int[capacity];
+        keys = new float[capacity];
+        Arrays.fill(slots, ABSENT);
+    }
+
+    /**
+     * Adds a cell, or lowers its key if it is already in the heap with a higher key.
+     *
+     * @param cell The index of the cell.
+     * @param key  The key of the cell, lower keys are polled first.
+     */
+    void offer(final int cell, final float key) {
+        int slot = slots[cell];
+        if (slot == ABSENT) {
+            slot = size;
+            size++;
+            cells[slot] = cell;
+            slots[cell] = slot;
+        }
+        else if (key >= keys[cell]) {
+            return;
+        }
+        keys[cell] = key;
+        siftUp(slot);
+    }
+
+    /**
+     * Removes the cell with the lowest key.
+     *
+     * @return The index of the removed cell.
+     *
+     * @throws NoSuchElementException When the heap is empty.
+     */
+    int poll() {
+        if (size == 0) throw new NoSuchElementException("The heap is empty.");
+
+        final int lowest = cells[0];
+        slots[lowest] = ABSENT;
+        size--;
+        if (size > 0) {
+            move(cells[size], 0);
+            siftDown(0);
+        }
+        return lowest;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every cell, in time proportional to how many cells are left.
+     */
+    void clear() {
+        for (int slot = 0; slot < size; slot++) {
+            slots[cells[slot]] = ABSENT;
+        }
+        size = 0;
+    }
+
+    private void siftUp(final int from) {
+        final int cell = cells[from];
+        final float key = keys[cell];
+        int slot = from;
+        while (slot > 0) {
+            final int parent = (slot - 1) / 2;
+            if (keys[cells[parent]] <= key) break;
+            move(cells[parent], slot);
+            slot = parent;
+        }
+        move(cell, slot);
+    }
+
+    private void siftDown(final int from) {
+        final int cell = cells[from];
+        final float key = keys[cell];
+        int slot = from;
+        while (true) {
+            int child = slot * 2 + 1;
+            if (child >= size) break;
+            if (child + 1 < size && keys[cells[child + 1]] < keys[cells[child]]) {
+                child++;
+            }
+            if (key <= keys[cells[child]]) break;
+            move(cells[child], slot);
+            slot = child;
+        }
+        move(cell, slot);
+    }
+
+    private void move(final int cell, final int slot) {
+        cells[slot] = cell;
+        slots[cell] = slot;
+    }
+
+}
@@ -0,0 +1,415 @@
+package com.thebois.models.beings.pathfinding;
+
+import java.util.Arrays;
+
+import com.thebois.models.world.IWorld;
+
+/**
+ * The cells of a world as rows of bits, for jumping across the world many cells at a time.
+ *
+ * <p>
+ * Each row is kept as words of 64 bits, one bit per cell, telling which cells are even, that is
+ * cost as much as the cells that are jumped over, and which are uneven, that is can be walked
+ * across but cost something else. Along with them, every row keeps where a jump along the row
+ * has to stop since the path might turn there, and from which cells a jump along the row gets to
+ * such a place before running into something. A jump along a row then looks at 64 cells at once,
+ * and a jump along a column only tests a few bits for every cell it passes.
+ * </p>
+ *
+ * <p>
+ * The destination ends jumps as well, but it is different for every search, so the rows around
+ * it are worked out again for each search and kept apart from the others.
+ * </p>
+ *
+ * <p>
+ * Cells whose cost has changed are marked, and the words they are in are read anew on the next
+ * repair, along with the rows that depend on them. Everything starts out marked, so the first
+ * repair reads the whole world.
+ * </p>
+ *
+ * @author Martin
+ */
+final class JumpGrid {
+
+    /**
+     * What is given for jumps that run into something that can not be jumped over.
+     */
+    static final int NO_JUMP = -1;
+    private static final int WORD_SHIFT = Integer.numberOfTrailingZeros(Long.SIZE);
+    private static final int BIT_MASK = Long.SIZE - 1;
+    private static final long ALL_BITS = -1L;
+    /**
+     * How many rows the destination changes: its own and the ones above and below it.
+     */
+    private static final int DESTINATION_ROWS = 3;
+    private final IWorld world;
+    private final int worldSize;
+    private final int wordsPerRow;
+    private final long[] even;
+    private final long[] uneven;
+    private final RowMasks masks;
+    /**
+     * The masks of the rows around the destination, where the destination counts as uneven and
+     * ends jumps.
+     */
+    private final RowMasks destinationMasks;
+    private final boolean[] staleWords;
+    private final boolean[] staleRows;
+    private boolean stale = true;
+    /**
+     * The cost of the even cells, which is not a number until the first repair.
+     */
+    private float evenCost = Float.NaN;
+    private int destinationX;
+    private int destinationY;
+
+    /**
+     * Creates a grid where every cell is marked as changed.
+     *
+     * @param world     The world to read the costs of the cells from.
+     * @param worldSize The number of cells along each side of the world.
+     */
+    JumpGrid(final IWorld world, final int worldSize) {
+        this.world = world;
+        this.worldSize = worldSize;
+        this.wordsPerRow = (worldSize + BIT_MASK) >> WORD_SHIFT;
+        this.even = new long[wordsPerRow * worldSize];
+        this.uneven = new long[wordsPerRow * worldSize];
+        this.masks = new RowMasks(wordsPerRow * worldSize);
+        this.destinationMasks = new RowMasks(wordsPerRow * DESTINATION_ROWS);
+        this.staleWords = new boolean[wordsPerRow * worldSize];
+        this.staleRows = new boolean[worldSize];
+        Arrays.fill(staleWords, true);
+    }
+
+    // The bits of a word moved one cell along the row, so that each cell gets the bit of the
+    // cell before it.
+    private static long shiftedRight(final long word, final long previousWord) {
+        return word << 1 | previousWord >>> BIT_MASK;
+    }
+
+    // The bits of a word moved one cell back along the row, so that each cell gets the bit of
+    // the cell after it.
+    private static long shiftedLeft(final long word, final long nextWord) {
+        return word >>> 1 | nextWord << BIT_MASK;
+    }
+
+    /**
+     * Marks that the cost of a cell has changed, so that it is read anew on the next repair.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     */
+    void cellChanged(final int x, final int y) {
+        staleWords[y * wordsPerRow + (x >> WORD_SHIFT)] = true;
+        stale = true;
+    }
+
+    /**
+     * Marks every cell as changed, so that the whole world is read anew on the next repair.
+     */
+    void allChanged() {
+        Arrays.fill(staleWords, true);
+        stale = true;
+    }
+
+    /**
+     * Reads the cells that have changed anew, and works out the rows that depend on them.
+     *
+     * @param cost The cost of the cells to jump over. Every cell is read anew if it is not the
+     *             same as in the last repair.
+     */
+    void repair(final float cost) {
+        if (Float.compare(cost, evenCost) != 0) {
+            evenCost = cost;
+            allChanged();
+        }
+        if (!stale) return;
+
+        for (int word = 0; word < staleWords.length; word++) {
+            if (staleWords[word]) {
+                staleWords[word] = false;
+                readWord(word);
+            }
+        }
+        for (int y = 0; y < worldSize; y++) {
+            if (staleRows[y]) {
+                staleRows[y] = false;
+                deriveRow(y, masks, y * wordsPerRow, false);
+            }
+        }
+        stale = false;
+    }
+
+    /**
+     * Sets the cell that jumps end in, and works out the rows around it. Has to be called after
+     * the grid has been repaired.
+     *
+     * @param x The x-coordinate of the destination.
+     * @param y The y-coordinate of the destination.
+     */
+    void setDestination(final int x, final int y) {
+        destinationX = x;
+        destinationY = y;
+        for (int row = 0; row < DESTINATION_ROWS; row++) {
+            final int rowY = y - 1 + row;
+            if (rowY >= 0 && rowY < worldSize) {
+                deriveRow(rowY, destinationMasks, row * wordsPerRow, true);
+            }
+        }
+    }
+
+    /**
+     * Whether a cell can be jumped over, which it can if it costs as much as the even cells.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     *
+     * @return Whether the cell is even, which cells outside of the world are not.
+     */
+    boolean isEven(final int x, final int y) {
+        if (!isInside(x, y)) return false;
+        return (even[y * wordsPerRow + (x >> WORD_SHIFT)] & bitOf(x)) != 0;
+    }
+
+    /**
+     * Whether a cell is next to the destination or to an uneven cell, which have to be moved
+     * into one cell at a time.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     *
+     * @return Whether the cell is next to an uneven one.
+     */
+    boolean isNextToUneven(final int x, final int y) {
+        if (!isInside(x, y)) return false;
+        return (masksOf(y).nextToUneven[indexOf(y, x >> WORD_SHIFT)] & bitOf(x)) != 0;
+    }
+
+    /**
+     * Moves along a row until a cell where the path might turn, or the destination.
+     *
+     * @param fromX      The x-coordinate of the first cell to move to.
+     * @param y          The y-coordinate of the row.
+     * @param directionX Which way to move, one or minus one.
+     *
+     * @return The x-coordinate of the cell where the jump ended, or NO_JUMP if it ran into
+     *     something that can not be jumped over.
+     */
+    int jumpAlongRow(final int fromX, final int y, final int directionX) {
+        if (!isInside(fromX, y)) return NO_JUMP;
+
+        long[] turns = masksOf(y).turnsLeft;
+        if (directionX > 0) turns = masksOf(y).turnsRight;
+        int word = fromX >> WORD_SHIFT;
+        long stops = stopsOf(turns, y, word);
+        if (directionX > 0) {
+            stops &= ALL_BITS << (fromX & BIT_MASK);
+        }
+        else {
+            stops &= ALL_BITS >>> (BIT_MASK - (fromX & BIT_MASK));
+        }
+        while (stops == 0) {
+            word += directionX;
+            if (word < 0 || word >= wordsPerRow) return NO_JUMP;
+            stops = stopsOf(turns, y, word);
+        }
+
+        int stop = BIT_MASK - Long.numberOfLeadingZeros(stops);
+        if (directionX > 0) stop = Long.numberOfTrailingZeros(stops);
+        final int x = (word << WORD_SHIFT) + stop;
+        if (isDestination(x, y) || isEven(x, y)) return x;
+        return NO_JUMP;
+    }
+
+    /**
+     * Moves along a column until a cell where the path might turn, or the destination. At every
+     * cell it passes, it also looks along the row both ways, since the path might have to turn
+     * into the row there.
+     *
+     * @param x          The x-coordinate of the column.
+     * @param fromY      The y-coordinate of the first cell to move to.
+     * @param directionY Which way to move, one or minus one.
+     *
+     * @return The y-coordinate of the cell where the jump ended, or NO_JUMP if it ran into
+     *     something that can not be jumped over.
+     */
+    int jumpAlongColumn(final int x, final int fromY, final int directionY) {
+        for (int y = fromY; y >= 0 && y < worldSize; y += directionY) {
+            if (isDestination(x, y)) return y;
+            if (!isEven(x, y)) return NO_JUMP;
+            if (isTurnAlongColumn(x, y, directionY)) return y;
+        }
+        return NO_JUMP;
+    }
+
+    private boolean isTurnAlongColumn(final int x, final int y, final int directionY) {
+        return isNextToUneven(x, y)
+               || isEven(x + 1, y) && !isEven(x + 1, y - directionY)
+               || isEven(x - 1, y) && !isEven(x - 1, y - directionY)
+               || findsTurn(masksOf(y).findsRight, x + 1, y)
+               || findsTurn(masksOf(y).findsLeft, x - 1, y);
+    }
+
+    private boolean findsTurn(final long[] finds, final int x, final int y) {
+        if (!isInside(x, y)) return false;
+        return (finds[indexOf(y, x >> WORD_SHIFT)] & bitOf(x)) != 0;
+    }
+
+    // Where a jump along a word of a row stops: at cells that can not be jumped over, which
+    // includes those past the end of the row, at cells where the path might turn, and at the
+    // destination.
+    private long stopsOf(final long[] turns, final int y, final int word) {
+        return ~even[y * wordsPerRow + word] | turns[indexOf(y, word)] | destinationBits(y, word);
+    }
+
+    // Reads the costs of the cells of a word, and marks the rows that depend on them.
+    private void readWord(final int word) {
+        final int y = word / wordsPerRow;
+        final int firstX = (word % wordsPerRow) << WORD_SHIFT;
+        final int endX = Math.min(firstX + Long.SIZE, worldSize);
+        long evenBits = 0L;
+        long unevenBits = 0L;
+        for (int x = firstX; x < endX; x++) {
+            final float cost = world.getCostAt(x, y);
+            if (Float.compare(cost, evenCost) == 0) {
+                evenBits |= bitOf(x);
+            }
+            else if (cost != Float.MAX_VALUE) {
+                unevenBits |= bitOf(x);
+            }
+        }
+        even[word] = evenBits;
+        uneven[word] = unevenBits;
+        for (int rowY = Math.max(0, y - 1); rowY <= Math.min(worldSize - 1, y + 1); rowY++) {
+            staleRows[rowY] = true;
+        }
+    }
+
+    // Works out where jumps along a row stop, from the even and uneven cells of the row and of
+    // the rows next to it.
+    private void deriveRow(
+        final int y, final RowMasks target, final int offset, final boolean withDestination) {
+        for (int word = 0; word < wordsPerRow; word++) {
+            final long unevenNearby =
+                shiftedRight(unevenWord(y, word, withDestination),
+                             unevenWord(y, word - 1, withDestination))
+                | shiftedLeft(unevenWord(y, word, withDestination),
+                              unevenWord(y, word + 1, withDestination))
+                | unevenWord(y + 1, word, withDestination)
+                | unevenWord(y - 1, word, withDestination);
+            final long above = evenWord(y + 1, word);
+            final long below = evenWord(y - 1, word);
+            // A side cell that opens up right after a closed one might be where the path turns.
+            final long opensRight = above & ~shiftedRight(above, evenWord(y + 1, word - 1))
+                                    | below & ~shiftedRight(below, evenWord(y - 1, word - 1));
+            final long opensLeft = above & ~shiftedLeft(above, evenWord(y + 1, word + 1))
+                                   | below & ~shiftedLeft(below, evenWord(y - 1, word + 1));
+            target.nextToUneven[offset + word] = unevenNearby;
+            target.turnsRight[offset + word] = unevenNearby | opensRight;
+            target.turnsLeft[offset + word] = unevenNearby | opensLeft;
+        }
+        deriveFinds(y, target.turnsRight, target.findsRight, offset, 1, withDestination);
+        deriveFinds(y, target.turnsLeft, target.findsLeft, offset, -1, withDestination);
+    }
+
+    // A jump from a cell finds a turn if the cell is the destination, or if the cell is even and
+    // is either a turn itself or the cell after it finds one. Works back from the end of the row
+    // that the jump moves towards.
+    private void deriveFinds(
+        final int y,
+        final long[] turns,
+        final long[] finds,
+        final int offset,
+        final int directionX,
+        final boolean withDestination) {
+        boolean foundAfter = false;
+        int x = 0;
+        if (directionX > 0) x = worldSize - 1;
+        for (; x >= 0 && x < worldSize; x -= directionX) {
+            final int word = offset + (x >> WORD_SHIFT);
+            final long bit = bitOf(x);
+            final boolean found = withDestination && isDestination(x, y)
+                                  || isEven(x, y) && ((turns[word] & bit) != 0 || foundAfter);
+            if (found) {
+                finds[word] |= bit;
+            }
+            else {
+                finds[word] &= ~bit;
+            }
+            foundAfter = found;
+        }
+    }
+
+    private boolean isDestination(final int x, final int y) {
+        return x == destinationX && y == destinationY;
+    }
+
+    private long destinationBits(final int y, final int word) {
+        if (y != destinationY || word != destinationX >> WORD_SHIFT) return 0L;
+        return bitOf(destinationX);
+    }
+
+    private long evenWord(final int y, final int word) {
+        if (y < 0 || y >= worldSize || word < 0 || word >= wordsPerRow) return 0L;
+        return even[y * wordsPerRow + word];
+    }
+
+    private long unevenWord(final int y, final int word, final boolean withDestination) {
+        if (y < 0 || y >= worldSize || word < 0 || word >= wordsPerRow) return 0L;
+        long bits = uneven[y * wordsPerRow + word];
+        if (withDestination) bits |= destinationBits(y, word);
+        return bits;
+    }
+
+    // The masks of a row, which are kept apart for the rows around the destination.
+    private RowMasks masksOf(final int y) {
+        if (Math.abs(y - destinationY) <= 1) return destinationMasks;
+        return masks;
+    }
+
+    private int indexOf(final int y, final int word) {
+        if (Math.abs(y - destinationY) <= 1) return (y - destinationY + 1) * wordsPerRow + word;
+        return y * wordsPerRow + word;
+    }
+
+    private long bitOf(final int x) {
+        return 1L << (x & BIT_MASK);
+    }
+
+    private boolean isInside(final int x, final int y) {
+        return x >= 0 && x < worldSize && y >= 0 && y < worldSize;
+    }
+
+    /**
+     * Where jumps along rows stop and what they find, for each word of the rows.
+     */
+    private static final class RowMasks {
+
+        /**
+         * The cells next to an uneven one, which end every jump.
+         */
+        private final long[] nextToUneven;
+        /**
+         * The cells where a jump to the right might have to turn.
+         */
+        private final long[] turnsRight;
+        private final long[] turnsLeft;
+        /**
+         * The cells from which a jump to the right gets to a cell where it might have to turn,
+         * before it runs into something that can not be jumped over.
+         */
+        private final long[] findsRight;
+        private final long[] findsLeft;
+
+        RowMasks(final int wordCount) {
+            this.nextToUneven = new long[wordCount];
+            this.turnsRight = new long[wordCount];
+            this.turnsLeft = new long[wordCount];
+            this.findsRight = new long[wordCount];
+            this.findsLeft = new long[wordCount];
+        }
+
+    }
+
+}
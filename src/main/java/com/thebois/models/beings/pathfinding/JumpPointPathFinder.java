@@ -0,0 +1,227 @@
+package com.thebois.models.beings.pathfinding;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serial;
+import java.util.Collection;
+
+import com.google.common.eventbus.Subscribe;
+
+import com.thebois.Pawntastic;
+import com.thebois.listeners.events.ObstaclePlacedEvent;
+import com.thebois.listeners.events.ResourceHarvestedEvent;
+import com.thebois.listeners.events.StructureCompletedEvent;
+import com.thebois.models.Position;
+import com.thebois.models.world.IWorld;
+
+/**
+ * Finds paths between locations using Jump Point Search, which skips over the many equally short
+ * paths through open areas that A* would all expand.
+ *
+ * <p>
+ * Instead of reaching its neighbours, a cell jumps in a straight line until it gets somewhere
+ * where a path might have to turn, such as just past the corner of an obstacle, and only that
+ * cell is reached. Moving vertically, every cell also looks for such places to the left and to
+ * the right, so that paths can always be taken as vertical moves followed by horizontal ones.
+ * Only a few neighbours of a reached cell are jumped from, depending on which way it was reached.
+ * </p>
+ *
+ * <p>
+ * This only finds the shortest paths through cells that all cost the same to move across, taken
+ * to be the cost of the cell where the search starts. Cells that cost anything else are jumped
+ * around like obstacles, but the cells next to them end every jump and jump in every direction,
+ * from where the cells are moved into one at a time, as A* would. The same goes for the
+ * destination, since it might be an obstacle that the path ends in.
+ * </p>
+ *
+ * <p>
+ * The jumps are made on a {@link JumpGrid}, which keeps the cells as rows of bits between
+ * searches, so a search reads no more of the world than the cells it expands. The finder listens
+ * to the event bus for cells that change, and only reads those anew before the next search.
+ * Should a change still go unnoticed, so that the path crosses an obstacle, the whole world is
+ * read anew and the path is searched again. The same is done when no path is found although the
+ * world claims that there is one, but only once until the next change is heard of.
+ * </p>
+ *
+ * @author Martin
+ */
+public class JumpPointPathFinder extends AbstractIndexedPathFinder {
+
+    private transient JumpGrid grid;
+    private transient int destination;
+    private transient float evenCost;
+    /**
+     * Whether the whole world has been read anew for a missing path since a cell last changed.
+     */
+    private transient boolean rebuiltSinceChange;
+
+    /**
+     * Initializes a pathfinder that finds paths through a specified world.
+     *
+     * @param world     The world to consider obstacles in when pathfinding.
+     * @param worldSize The number of cells along each side of the world.
+     */
+    public JumpPointPathFinder(final IWorld world, final int worldSize) {
+        super(world, worldSize);
+        Pawntastic.getEventBus().register(this);
+    }
+
+    @Override
+    public Collection<Position> path(final Position from, final Position to) {
+        final Collection<Position> path = super.path(from, to);
+        if (path.isEmpty()) {
+            if (rebuiltSinceChange || !getWorld().isReachable(from, to)) return path;
+            rebuiltSinceChange = true;
+        }
+        else if (isWalkable(path)) {
+            return path;
+        }
+
+        grid.allChanged();
+        return super.path(from, to);
+    }
+
+    @Override
+    protected void prepare(final int startCell, final int destinationCell) {
+        final int worldSize = getWorldSize();
+        if (grid == null) grid = new JumpGrid(getWorld(), worldSize);
+        destination = destinationCell;
+        evenCost = costAt(startCell % worldSize, startCell / worldSize);
+        // Nothing is jumped from a start that is an obstacle, since it can not be moved out of.
+        if (evenCost == Float.MAX_VALUE) return;
+
+        grid.repair(evenCost);
+        grid.setDestination(destinationCell % worldSize, destinationCell / worldSize);
+    }
+
+    @Override
+    protected void expand(final int current, final int destinationCell) {
+        final int worldSize = getWorldSize();
+        final int x = current % worldSize;
+        final int y = current / worldSize;
+        // Obstacles can be moved into, but never out of.
+        if (evenCost == Float.MAX_VALUE || isObstacle(x, y)) return;
+
+        final int previous = getCameFrom(current);
+        if (previous == NO_CELL || !grid.isEven(x, y) || grid.isNextToUneven(x, y)) {
+            explore(current, x, y, 1, 0);
+            explore(current, x, y, -1, 0);
+            explore(current, x, y, 0, 1);
+            explore(current, x, y, 0, -1);
+        }
+        else if (previous / worldSize == y) {
+            final int directionX = Integer.signum(x - previous % worldSize);
+            explore(current, x, y, directionX, 0);
+            explore(current, x, y, 0, 1);
+            explore(current, x, y, 0, -1);
+        }
+        else {
+            final int directionY = Integer.signum(y - previous / worldSize);
+            explore(current, x, y, 0, directionY);
+            explore(current, x, y, 1, 0);
+            explore(current, x, y, -1, 0);
+        }
+    }
+
+    // Reaches the cell that the current cell jumps to in a direction, or its neighbour in that
+    // direction if either of them can not be jumped over.
+    private void explore(
+        final int current,
+        final int x,
+        final int y,
+        final int directionX,
+        final int directionY) {
+        final int worldSize = getWorldSize();
+        final int neighbourX = x + directionX;
+        final int neighbourY = y + directionY;
+        if (!isInside(neighbourX, neighbourY)) return;
+
+        final int neighbour = neighbourY * worldSize + neighbourX;
+        final float costFromStart = getCostFromStart(current);
+        if (!grid.isEven(x, y)) {
+            if (neighbour == destination || !isObstacle(neighbourX, neighbourY)) {
+                relax(neighbour, current, costFromStart + 1 + costAt(x, y), destination);
+            }
+        }
+        else if (grid.isEven(neighbourX, neighbourY)) {
+            final int jumpPoint = jump(neighbourX, neighbourY, directionX, directionY);
+            if (jumpPoint == NO_CELL) return;
+
+            final int distance = Math.abs(jumpPoint % worldSize - x)
+                                 + Math.abs(jumpPoint / worldSize - y);
+            relax(jumpPoint, current, costFromStart + distance * (1 + evenCost), destination);
+        }
+        else if (neighbour == destination || !isObstacle(neighbourX, neighbourY)) {
+            relax(neighbour, current, costFromStart + 1 + evenCost, destination);
+        }
+    }
+
+    // Whether a cell can not be walked across, which only has to be asked of the world for cells
+    // that are not even.
+    private boolean isObstacle(final int x, final int y) {
+        return !grid.isEven(x, y) && costAt(x, y) == Float.MAX_VALUE;
+    }
+
+    // Moves in a straight line from an even cell until a cell where the path might turn, and
+    // gives that cell, or nothing if the line runs into something that can not be jumped over.
+    private int jump(final int fromX, final int fromY, final int directionX, final int directionY) {
+        if (directionX != 0) {
+            final int x = grid.jumpAlongRow(fromX, fromY, directionX);
+            if (x == JumpGrid.NO_JUMP) return NO_CELL;
+            return fromY * getWorldSize() + x;
+        }
+        final int y = grid.jumpAlongColumn(fromX, fromY, directionY);
+        if (y == JumpGrid.NO_JUMP) return NO_CELL;
+        return y * getWorldSize() + fromX;
+    }
+
+    /**
+     * Marks the cells of new obstacles as changed.
+     *
+     * @param event The published event.
+     */
+    @Subscribe
+    public void onObstaclePlaced(final ObstaclePlacedEvent event) {
+        for (final Position position : event.getPositions()) {
+            cellChanged(position);
+        }
+    }
+
+    /**
+     * Marks the cell of a completed structure as changed.
+     *
+     * @param event The published event.
+     */
+    @Subscribe
+    public void onStructureCompleted(final StructureCompletedEvent event) {
+        cellChanged(event.getPosition());
+    }
+
+    /**
+     * Marks the cell of a harvested resource as changed, since it might have been depleted.
+     *
+     * @param event The published event.
+     */
+    @Subscribe
+    public void onResourceHarvested(final ResourceHarvestedEvent event) {
+        cellChanged(event.getPosition());
+    }
+
+    private void cellChanged(final Position position) {
+        final int x = (int) position.getX();
+        final int y = (int) position.getY();
+        // Other worlds might share the event bus, so the cell might not be in this world.
+        if (grid != null && isInside(x, y)) {
+            grid.cellChanged(x, y);
+            rebuiltSinceChange = false;
+        }
+    }
+
+    @Serial
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        // Has to subscribe after being read, since the event bus is not saved.
+        Pawntastic.getEventBus().register(this);
+    }
+
+}
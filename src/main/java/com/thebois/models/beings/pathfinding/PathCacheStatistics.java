@@ -0,0 +1,93 @@
+package com.thebois.models.beings.pathfinding;
+
+/**
+ * How a {@link CachingPathFinder} has been doing since it was created.
+ *
+ * @author Martin
+ */
+public final class PathCacheStatistics {
+
+    private final long hits;
+    private final long misses;
+    private final long coalesced;
+    private final long evictions;
+    private final long invalidations;
+    private final int cachedPaths;
+    private final long cachedBytes;
+
+    /**
+     * Creates the statistics.
+     *
+     * @param hits          How many requests were answered from the cache.
+     * @param misses        How many requests had to search for their path.
+     * @param coalesced     How many requests waited for the same search of another request.
+     * @param evictions     How many paths were removed to stay within the memory budget.
+     * @param invalidations How many paths were removed since the world changed along them.
+     * @param cachedPaths   How many paths are in the cache.
+     * @param cachedBytes   Roughly how many bytes the cached paths take up.
+     */
+    PathCacheStatistics(
+        final long hits,
+        final long misses,
+        final long coalesced,
+        final long evictions,
+        final long invalidations,
+        final int cachedPaths,
+        final long cachedBytes) {
+        this.hits = hits;
+        this.misses = misses;
+        this.coalesced = coalesced;
+        this.evictions = evictions;
+        this.invalidations = invalidations;
+        this.cachedPaths = cachedPaths;
+        this.cachedBytes = cachedBytes;
+    }
+
+    /**
+     * Gets the share of requests that did not need a search of their own, either because they
+     * were answered from the cache or because they were coalesced with another request.
+     *
+     * @return The hit rate, from 0 to 1, or 0 if there have been no requests.
+     */
+    public float getHitRate() {
+        final long requests = hits + misses + coalesced;
+        if (requests == 0) return 0f;
+        return (float) (hits + coalesced) / requests;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getCoalesced() {
+        return coalesced;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    public int getCachedPaths() {
+        return cachedPaths;
+    }
+
+    public long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "PathCacheStatistics{" + "hits=" + hits + ", misses=" + misses + ", coalesced="
+               + coalesced + ", evictions=" + evictions + ", invalidations=" + invalidations
+               + ", cachedPaths=" + cachedPaths + ", cachedBytes=" + cachedBytes + '}';
+    }
+
+}
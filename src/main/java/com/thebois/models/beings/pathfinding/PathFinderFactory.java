@@ -0,0 +1,74 @@
+package com.thebois.models.beings.pathfinding;
+
+import com.thebois.models.Position;
+import com.thebois.models.world.IWorld;
+import com.thebois.models.world.World;
+
+/**
+ * Creates pathfinders.
+ *
+ * @author Martin
+ */
+public final class PathFinderFactory {
+
+    /**
+     * Roughly how many bytes the cached paths of each pathfinder are allowed to take up.
+     */
+    private static final long PATH_CACHE_BUDGET = 4L * 1024 * 1024;
+    /**
+     * Roughly how many bytes the flow fields of each pathfinder are allowed to take up.
+     */
+    private static final long FLOW_FIELD_BUDGET = 16L * 1024 * 1024;
+
+    private PathFinderFactory() {
+    }
+
+    /**
+     * Creates the pathfinder that the beings of a simulation share.
+     *
+     * <p>
+     * Paths to the spots next to popular structures follow flow fields, as many as fit in their
+     * memory budget. Other paths are searched for with hierarchical A*, and cached so that routes
+     * that are walked over and over are only searched for once.
+     * </p>
+     *
+     * @param world     The world to consider obstacles and structures in when pathfinding.
+     * @param worldSize The number of cells along each side of the world.
+     *
+     * @return The pathfinder.
+     */
+    public static IPathFinder createForSimulation(final World world, final int worldSize) {
+        final IPathFinder searching = new HierarchicalPathFinder(world, worldSize);
+        final IPathFinder caching = new CachingPathFinder(searching, world, PATH_CACHE_BUDGET);
+        return new FlowFieldPathFinder(caching, world, world, worldSize, FLOW_FIELD_BUDGET);
+    }
+
+    /**
+     * Creates a planner that keeps its search between paths, so that planning anew after cells
+     * change only takes as long as the change is large.
+     *
+     * @param world       The world to consider obstacles in when planning.
+     * @param worldSize   The number of cells along each side of the world.
+     * @param destination The location to find paths to.
+     *
+     * @return The planner.
+     */
+    public static IPathPlanner createReplanning(
+        final IWorld world, final int worldSize, final Position destination) {
+        return new DstarLitePlanner(world, worldSize, destination);
+    }
+
+    /**
+     * Creates a planner that searches for every path anew with a pathfinder.
+     *
+     * @param pathFinder  The pathfinder to search for the paths with.
+     * @param destination The location to find paths to.
+     *
+     * @return The planner.
+     */
+    public static IPathPlanner createSearching(
+        final IPathFinder pathFinder, final Position destination) {
+        return new SearchingPathPlanner(pathFinder, destination);
+    }
+
+}
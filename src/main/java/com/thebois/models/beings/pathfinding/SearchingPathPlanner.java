@@ -0,0 +1,38 @@
+package com.thebois.models.beings.pathfinding;
+
+import java.util.Collection;
+
+import com.thebois.models.Position;
+
+/**
+ * Plans paths by asking a pathfinder to search for every path anew, so it does not have to be
+ * told about changed cells.
+ *
+ * @author Martin
+ */
+final class SearchingPathPlanner implements IPathPlanner {
+
+    private final IPathFinder pathFinder;
+    private final Position destination;
+
+    /**
+     * Creates a planner that searches with a pathfinder.
+     *
+     * @param pathFinder  The pathfinder to search for the paths with.
+     * @param destination The location to find paths to.
+     */
+    SearchingPathPlanner(final IPathFinder pathFinder, final Position destination) {
+        this.pathFinder = pathFinder;
+        this.destination = destination;
+    }
+
+    @Override
+    public Collection<Position> path(final Position from) {
+        return pathFinder.path(from, destination);
+    }
+
+    @Override
+    public void cellsChanged(final Collection<Position> positions) {
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.thebois.models.beings.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * Gives the cells that a search reaches slots numbered from zero and up, so that what the search
+ * knows about them can be kept in arrays that grow with the number of reached cells rather than
+ * with the size of the world.
+ *
+ * <p>
+ * The cells are kept in a hash table with open addressing, so that looking a cell up neither
+ * boxes it nor allocates anything.
+ * </p>
+ *
+ * @author Martin
+ */
+final class SparseCellIndex {
+
+    /**
+     * What is given for cells that have no slot.
+     */
+    static final int ABSENT = -1;
+    private static final int INITIAL_CAPACITY = 64;
+    /**
+     * Spreads consecutive cells over the table, the golden ratio in fixed point.
+     */
+    private static final int SPREADER = 0x9E3779B9;
+    private static final int MAX_LOAD_SHIFT = 1;
+    /**
+     * For every entry of the table, its cell plus one, or zero if the entry is empty.
+     */
+    private int[] keys;
+    private int[] slots;
+    private int[] cells;
+    private int size;
+
+    /**
+     * Creates an empty index.
+     */
+    SparseCellIndex() {
+        keys = new int[INITIAL_CAPACITY];
+        slots = new int[INITIAL_CAPACITY];
+        cells = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Gets the slot of a cell.
+     *
+     * @param cell The index of the cell.
+     *
+     * @return The slot, or ABSENT if the cell has none.
+     */
+    int slotOf(final int cell) {
+        final int mask = keys.length - 1;
+        for (int entry = entryOf(cell, mask); keys[entry] != 0; entry = (entry + 1) & mask) {
+            if (keys[entry] == cell + 1) return slots[entry];
+        }
+        return ABSENT;
+    }
+
+    /**
+     * Gives a cell the next slot. The cell must not have a slot already.
+     *
+     * @param cell The index of the cell.
+     *
+     * @return The slot of the cell.
+     */
+    int add(final int cell) {
+        if ((size + 1) << MAX_LOAD_SHIFT > keys.length) grow();
+
+        final int slot = size;
+        size++;
+        put(cell, slot);
+        cells[slot] = cell;
+        return slot;
+    }
+
+    /**
+     * Gets the cell that has a slot.
+     *
+     * @param slot The slot.
+     *
+     * @return The index of the cell.
+     */
+    int cellAt(final int slot) {
+        return cells[slot];
+    }
+
+    /**
+     * Counts the cells that have slots, which is also one more than the highest slot.
+     *
+     * @return The number of cells.
+     */
+    int size() {
+        return size;
+    }
+
+    private int entryOf(final int cell, final int mask) {
+        return (cell * SPREADER >>> Integer.SIZE / 2) & mask;
+    }
+
+    private void put(final int cell, final int slot) {
+        final int mask = keys.length - 1;
+        int entry = entryOf(cell, mask);
+        while (keys[entry] != 0) {
+            entry = (entry + 1) & mask;
+        }
+        keys[entry] = cell + 1;
+        slots[entry] = slot;
+    }
+
+    private void grow() {
+        final int capacity = keys.length * 2;
+        keys = new int[capacity];
+        slots = new int[capacity];
+        cells = Arrays.copyOf(cells, capacity);
+        for (int slot = 0; slot < size; slot++) {
+            put(cells[slot], slot);
+        }
+    }
+
+}
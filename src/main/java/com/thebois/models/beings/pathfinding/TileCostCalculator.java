@@ -4,7 +4,9 @@ import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.thebois.models.Position;
 import com.thebois.models.world.ITile;
+import com.thebois.models.world.IWorld;
 
 /**
  * Calculates the cost of moving to a tile.
@@ -18,12 +20,20 @@ class TileCostCalculator implements Serializable {
      * currently known.
      */
     private final Map<ITile, Float> costFromStart;
+    /**
+     * The world to read the cost of moving across tiles from, which is cheaper than asking the
+     * tiles.
+     */
+    private final IWorld world;
 
     /**
      * Initializes with the positions to use when calculating the cost.
+     *
+     * @param world The world that the tiles are in.
      */
-    TileCostCalculator() {
+    TileCostCalculator(final IWorld world) {
         this.costFromStart = new HashMap<>();
+        this.world = world;
     }
 
     /**
@@ -89,7 +99,9 @@ class TileCostCalculator implements Serializable {
      * @return The cost of moving from the provided position to the destination.
      */
     private float costToDestination(final ITile tile, final ITile destination) {
-        return tile.getPosition().manhattanDistanceTo(destination.getPosition()) + tile.getCost();
+        final Position position = tile.getPosition();
+        return position.manhattanDistanceTo(destination.getPosition())
+               + world.getCostAt((int) position.getX(), (int) position.getY());
     }
 
 }
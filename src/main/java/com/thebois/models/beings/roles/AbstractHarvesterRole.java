@@ -81,7 +81,7 @@ abstract class AbstractHarvesterRole extends AbstractRole {
             isEmptying = true;
             return ActionFactory.createDoNext();
         }
-        return ActionFactory.createHarvest(resource);
+        return ActionFactory.createHarvest(resource, world);
     }
 
     private IAction createMoveToStockpile(final IActionPerformer performer) {
@@ -2,6 +2,7 @@ package com.thebois.models.beings.roles;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import com.thebois.models.beings.IActionPerformer;
 import com.thebois.models.beings.actions.ActionFactory;
@@ -21,6 +22,11 @@ class IdleRole extends AbstractRole {
      * The radius at which random positions to move to are picked, in tiles.
      */
     private static final int ROAM_RADIUS = 5;
+    /**
+     * How long to wait before looking for a position again, when every position nearby is
+     * occupied, in seconds.
+     */
+    private static final float WAIT_TIME = 1f;
     private final IWorld world;
 
     /**
@@ -43,9 +49,10 @@ class IdleRole extends AbstractRole {
     }
 
     private IAction getRandomMove(final IActionPerformer performer) {
-        final ITile randomVacantTile =
+        final Optional<ITile> randomVacantTile =
             world.getRandomVacantSpotInRadiusOf(performer.getPosition(), ROAM_RADIUS);
-        return ActionFactory.createMoveTo(randomVacantTile.getPosition());
+        if (randomVacantTile.isEmpty()) return ActionFactory.createWait(WAIT_TIME);
+        return ActionFactory.createMoveTo(randomVacantTile.get().getPosition());
     }
 
 }
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Objects;
 
+import com.thebois.Simulation;
 import com.thebois.abstractions.IResourceFinder;
 import com.thebois.abstractions.IStructureFinder;
 import com.thebois.models.world.IWorld;
@@ -11,6 +12,11 @@ import com.thebois.models.world.IWorld;
 /**
  * Creates requested instances of specific roles.
  *
+ * <p>
+ * Roles are given the world of the simulation that the current thread is running, or the ones
+ * that were set if none.
+ * </p>
+ *
  * @author Martin
  */
 public final class RoleFactory {
@@ -72,7 +78,7 @@ public final class RoleFactory {
      */
     public static AbstractRole lumberjack() {
         assertDependenciesNotNull();
-        return new LumberjackRole(resourceFinder, structureFinder, world);
+        return new LumberjackRole(resourceFinder(), structureFinder(), world());
     }
 
     /**
@@ -82,7 +88,7 @@ public final class RoleFactory {
      */
     public static AbstractRole miner() {
         assertDependenciesNotNull();
-        return new MinerRole(resourceFinder, structureFinder, world);
+        return new MinerRole(resourceFinder(), structureFinder(), world());
     }
 
     /**
@@ -92,7 +98,7 @@ public final class RoleFactory {
      */
     public static AbstractRole fisher() {
         assertDependenciesNotNull();
-        return new FisherRole(resourceFinder, structureFinder, world);
+        return new FisherRole(resourceFinder(), structureFinder(), world());
     }
 
     /**
@@ -101,7 +107,7 @@ public final class RoleFactory {
      * @return A new builder role.
      */
     public static AbstractRole builder() {
-        return new BuilderRole(structureFinder, world);
+        return new BuilderRole(structureFinder(), world());
     }
 
     /**
@@ -111,10 +117,27 @@ public final class RoleFactory {
      */
     public static AbstractRole idle() {
         assertDependenciesNotNull();
-        return new IdleRole(world);
+        return new IdleRole(world());
+    }
+
+    private static IWorld world() {
+        return Simulation.current().<IWorld>map(Simulation::getWorld).orElse(world);
+    }
+
+    private static IResourceFinder resourceFinder() {
+        return Simulation.current()
+                         .<IResourceFinder>map(Simulation::getWorld)
+                         .orElse(resourceFinder);
+    }
+
+    private static IStructureFinder structureFinder() {
+        return Simulation.current()
+                         .<IStructureFinder>map(Simulation::getWorld)
+                         .orElse(structureFinder);
     }
 
     private static void assertDependenciesNotNull() {
+        if (Simulation.current().isPresent()) return;
         Objects.requireNonNull(world,
                                "World can not be null. Call RoleFactory.setWorld to set it.");
         Objects.requireNonNull(
@@ -0,0 +1,75 @@
+package com.thebois.models.world;
+
+import com.thebois.models.world.resources.ResourceFactory;
+import com.thebois.models.world.resources.ResourceType;
+import com.thebois.models.world.terrains.TerrainFactory;
+import com.thebois.models.world.terrains.TerrainType;
+
+/**
+ * Works out the cost of moving across cells from their packed type ids.
+ *
+ * <p>
+ * Terrain and resource costs only depend on the type, so they are looked up once per type.
+ * Structures are asked for their cost, which changes when they are completed.
+ * </p>
+ *
+ * @author Martin
+ */
+final class CellCosts {
+
+    /**
+     * The id used in the resource and structure layers for cells that have nothing in them.
+     */
+    private static final byte NONE = 0;
+    private static final float[] TERRAIN_COSTS = createTerrainCosts();
+    private static final float[] RESOURCE_COSTS = createResourceCosts();
+
+    private CellCosts() {
+    }
+
+    private static float[] createTerrainCosts() {
+        final TerrainType[] types = TerrainType.values();
+        final float[] costs = new float[types.length];
+        for (final TerrainType type : types) {
+            costs[type.ordinal()] = TerrainFactory.createTerrain(type, 0, 0).getCost();
+        }
+        return costs;
+    }
+
+    private static float[] createResourceCosts() {
+        final ResourceType[] types = ResourceType.values();
+        final float[] costs = new float[types.length];
+        for (final ResourceType type : types) {
+            costs[type.ordinal()] = ResourceFactory.createResource(type, 0, 0).getCost();
+        }
+        return costs;
+    }
+
+    /**
+     * Gets the cost of moving across a cell with only terrain in it.
+     *
+     * @param terrainType The terrain type id of the cell.
+     *
+     * @return The cost of the terrain.
+     */
+    static float ofTerrain(final byte terrainType) {
+        return TERRAIN_COSTS[terrainType];
+    }
+
+    /**
+     * Works out the cost of moving across the most important tile of a cell. The chunk has to be
+     * resident.
+     *
+     * @param chunk The chunk of the cell.
+     * @param index The index of the cell in the chunk.
+     *
+     * @return The cost of moving across the cell.
+     */
+    static float ofCell(final Chunk chunk, final int index) {
+        if (chunk.getStructureType(index) != NONE) return chunk.getStructure(index).getCost();
+        final byte resourceType = chunk.getResourceType(index);
+        if (resourceType != NONE) return RESOURCE_COSTS[resourceType - 1];
+        return ofTerrain(chunk.getTerrainType(index));
+    }
+
+}
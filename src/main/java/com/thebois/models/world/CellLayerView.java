@@ -0,0 +1,86 @@
+package com.thebois.models.world;
+
+import com.thebois.models.world.resources.ResourceType;
+import com.thebois.models.world.terrains.TerrainType;
+
+/**
+ * A view of one layer of packed tile layers, which reads the type of each cell from the layers
+ * whenever it is asked for.
+ *
+ * @param <TType> The type of what is in each cell of the layer.
+ *
+ * @author Martin
+ */
+final class CellLayerView<TType> implements ILayerView<TType> {
+
+    private final PackedTileLayers layers;
+    private final ICellReader<TType> reader;
+
+    private CellLayerView(final PackedTileLayers layers, final ICellReader<TType> reader) {
+        this.layers = layers;
+        this.reader = reader;
+    }
+
+    /**
+     * Creates a view of the terrain layer.
+     *
+     * @param layers The layers to view.
+     *
+     * @return The view.
+     */
+    static ILayerView<TerrainType> terrainOf(final PackedTileLayers layers) {
+        return new CellLayerView<>(layers, layers::getTerrainTypeAt);
+    }
+
+    /**
+     * Creates a view of the resource layer.
+     *
+     * @param layers The layers to view.
+     *
+     * @return The view.
+     */
+    static ILayerView<ResourceType> resourcesOf(final PackedTileLayers layers) {
+        return new CellLayerView<>(layers, layers::getResourceTypeAt);
+    }
+
+    @Override
+    public int size() {
+        return layers.getCellCount();
+    }
+
+    @Override
+    public int getX(final int index) {
+        return layers.getCellX(index);
+    }
+
+    @Override
+    public int getY(final int index) {
+        return layers.getCellY(index);
+    }
+
+    @Override
+    public TType getType(final int index) {
+        return reader.read(layers.getCellX(index), layers.getCellY(index));
+    }
+
+    /**
+     * Reads what is in a layer at a cell.
+     *
+     * @param <TType> The type of what is in each cell of the layer.
+     */
+    @FunctionalInterface
+    private interface ICellReader<TType> {
+
+        /**
+         * Reads what is in the layer at a cell.
+         *
+         * @param x The x-coordinate of the cell.
+         * @param y The y-coordinate of the cell.
+         *
+         * @return The type, or null if the layer has nothing in the cell.
+         */
+        TType read(int x, int y);
+
+    }
+
+}
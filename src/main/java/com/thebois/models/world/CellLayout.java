@@ -0,0 +1,57 @@
+package com.thebois.models.world;
+
+/**
+ * The order in which the cells of a chunk are stored in memory.
+ *
+ * @author Martin
+ */
+public enum CellLayout {
+    /**
+     * Stores the cells one row after the other, so cells next to each other on the same row are
+     * next to each other in memory, but cells above each other are a whole row apart.
+     */
+    ROW_MAJOR {
+        @Override
+        int indexOf(final int localX, final int localY) {
+            return (localY << Chunk.SHIFT) | localX;
+        }
+    },
+    /**
+     * Stores the cells along a Z-order (Morton) curve, by interleaving the bits of the x- and
+     * y-coordinates. Cells that are close to each other in any direction are mostly close to each
+     * other in memory too, which suits searches that spread out in every direction, like
+     * pathfinding and neighbourhood queries.
+     */
+    MORTON {
+        @Override
+        int indexOf(final int localX, final int localY) {
+            return SPREAD_BITS[localX] | (SPREAD_BITS[localY] << 1);
+        }
+    };
+
+    /**
+     * The coordinates inside of a chunk with a zero bit inserted above each of their bits.
+     */
+    private static final int[] SPREAD_BITS = createSpreadBits();
+
+    private static int[] createSpreadBits() {
+        final int[] spread = new int[Chunk.SIZE];
+        for (int coordinate = 0; coordinate < Chunk.SIZE; coordinate++) {
+            for (int bit = 0; bit < Chunk.SHIFT; bit++) {
+                spread[coordinate] |= ((coordinate >> bit) & 1) << (2 * bit);
+            }
+        }
+        return spread;
+    }
+
+    /**
+     * Gets the index of a cell in its chunk.
+     *
+     * @param localX The x-coordinate of the cell inside of its chunk.
+     * @param localY The y-coordinate of the cell inside of its chunk.
+     *
+     * @return The index of the cell, which is unique within the chunk and less than the number of
+     *     cells in a chunk.
+     */
+    abstract int indexOf(int localX, int localY);
+}
@@ -0,0 +1,51 @@
+package com.thebois.models.world;
+
+import java.util.List;
+
+/**
+ * A subscription to the changes recorded in a change journal.
+ *
+ * @author Martin
+ */
+public final class ChangeFeed {
+
+    private final ChangeJournal journal;
+    private long nextSequence;
+
+    /**
+     * Instantiates a feed that starts at a given change.
+     *
+     * @param journal      Where the changes are recorded.
+     * @param nextSequence The sequence number of the first change to get.
+     */
+    ChangeFeed(final ChangeJournal journal, final long nextSequence) {
+        this.journal = journal;
+        this.nextSequence = nextSequence;
+    }
+
+    /**
+     * Takes every change made since the last time the feed was drained.
+     *
+     * @return The changes, oldest first.
+     */
+    public List<TileChange> drain() {
+        final List<TileChange> drained = journal.changesFrom(nextSequence);
+        nextSequence = journal.nextSequence();
+        journal.discardDrainedChanges();
+        return drained;
+    }
+
+    /**
+     * Whether every change recorded so far has been drained, without draining anything.
+     *
+     * @return Whether there are no changes to drain.
+     */
+    boolean isDrained() {
+        return nextSequence == journal.nextSequence();
+    }
+
+    long getNextSequence() {
+        return nextSequence;
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.thebois.models.world;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the changes made to the tiles of the world, so that anything derived from the world can
+ * be updated one change at a time instead of rebuilt from the whole world.
+ *
+ * <p>
+ * Each subscriber gets its own feed and drains it in batches whenever it suits it, usually once
+ * per tick. A change is kept until every feed has drained it, and changes made while nobody is
+ * subscribed are not kept at all.
+ * </p>
+ *
+ * @author Martin
+ */
+public final class ChangeJournal {
+
+    private final List<TileChange> changes = new ArrayList<>();
+    private final List<ChangeFeed> feeds = new ArrayList<>();
+    /**
+     * The sequence number of the first change that is still kept.
+     */
+    private long firstSequence = 0;
+
+    /**
+     * Starts a feed of every change made from now on.
+     *
+     * @return The new feed.
+     */
+    public ChangeFeed subscribe() {
+        final ChangeFeed feed = new ChangeFeed(this, nextSequence());
+        feeds.add(feed);
+        return feed;
+    }
+
+    /**
+     * Stops a feed, so that the journal no longer keeps changes for it.
+     *
+     * @param feed The feed to stop.
+     */
+    public void unsubscribe(final ChangeFeed feed) {
+        feeds.remove(feed);
+        discardDrainedChanges();
+    }
+
+    /**
+     * Records a change, if anyone is subscribed.
+     *
+     * @param change The change to record.
+     */
+    void add(final TileChange change) {
+        if (feeds.isEmpty()) {
+            firstSequence++;
+            return;
+        }
+        changes.add(change);
+    }
+
+    /**
+     * Gets the changes from a given change until the latest one.
+     *
+     * @param fromSequence The sequence number of the first change to get.
+     *
+     * @return The changes, oldest first.
+     */
+    List<TileChange> changesFrom(final long fromSequence) {
+        final int from = (int) (fromSequence - firstSequence);
+        return new ArrayList<>(changes.subList(from, changes.size()));
+    }
+
+    /**
+     * Gets the sequence number that the next recorded change will get.
+     *
+     * @return The next sequence number.
+     */
+    long nextSequence() {
+        return firstSequence + changes.size();
+    }
+
+    /**
+     * Forgets every change that all feeds have drained.
+     */
+    void discardDrainedChanges() {
+        long oldestUndrained = nextSequence();
+        for (final ChangeFeed feed : feeds) {
+            oldestUndrained = Math.min(oldestUndrained, feed.getNextSequence());
+        }
+        final int drainedCount = (int) (oldestUndrained - firstSequence);
+        changes.subList(0, drainedCount).clear();
+        firstSequence = oldestUndrained;
+    }
+
+}
@@ -0,0 +1,374 @@
+package com.thebois.models.world;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.thebois.models.world.structures.IStructure;
+
+/**
+ * A square piece of the world that stores the packed type ids of its cells.
+ *
+ * <p>
+ * Every change to a chunk gives it a new version, so that anything derived from the chunk can tell
+ * whether it is stale by comparing versions.
+ * </p>
+ *
+ * <p>
+ * The type ids of all layers are kept in a single array so that the chunk can be paged out to
+ * disk and back in with one read or write, along with the costs of the cells. Structures stay in
+ * memory even when the chunk is paged out, since the rest of the world refers to them.
+ * </p>
+ *
+ * <p>
+ * The cells are serialized as raw bytes rather than as arrays, so that the stream does not keep
+ * them alive after the chunk has been paged out.
+ * </p>
+ *
+ * @author Martin
+ */
+final class Chunk implements Serializable {
+
+    /**
+     * The width and height of a chunk, in tiles.
+     */
+    static final int SIZE = 32;
+    /**
+     * How many bits to shift a tile coordinate by to get the coordinate of its chunk.
+     */
+    static final int SHIFT = Integer.numberOfTrailingZeros(SIZE);
+    /**
+     * The mask that gives the coordinate of a tile inside of its chunk.
+     */
+    static final int MASK = SIZE - 1;
+    /**
+     * The number of cells in a chunk.
+     */
+    static final int CELL_COUNT = SIZE * SIZE;
+    /**
+     * The number of bytes needed to store the type ids of all layers of a chunk.
+     */
+    static final int CELL_BYTES = 3 * CELL_COUNT;
+    /**
+     * The number of bytes that a chunk takes up in the page file, which is also how many bytes
+     * paging it in takes up in memory: the type ids and the costs of its cells.
+     */
+    static final int PAGE_BYTES = CELL_BYTES + Float.BYTES * CELL_COUNT;
+    private static final int ALL_VACANT = -1;
+    /* The layers are stored after each other in the cells. */
+    private static final int TERRAIN_OFFSET = 0;
+    private static final int RESOURCE_OFFSET = CELL_COUNT;
+    private static final int STRUCTURE_OFFSET = 2 * CELL_COUNT;
+    /**
+     * The structures of the cells that have one, keyed by cell index.
+     */
+    private final Map<Integer, IStructure> structures = new HashMap<>();
+    /**
+     * Where in the page file the chunk is stored.
+     */
+    private final int pageSlot;
+    /**
+     * One bit per cell telling whether the cell is vacant, with one int for each row of the
+     * chunk. Kept in memory when the chunk is paged out, so that vacant cells can be found
+     * without paging chunks in.
+     */
+    private final int[] vacantRows = new int[SIZE];
+    /**
+     * The type ids of the terrain, resource and structure layers, or null while paged out.
+     *
+     * <p>
+     * Terrain ids are the ordinal of the terrain type. Resource and structure ids are the ordinal
+     * of the type plus one, or zero if the cell has none.
+     * </p>
+     */
+    private transient byte[] cells;
+    /**
+     * The cost of moving across each cell, by cell index, worked out whenever a cell changes so
+     * that pathfinding never has to ask the tiles. Null while paged out, along with the cells.
+     */
+    private transient float[] costs;
+    private long version = 0;
+    /* Whether the page file has the same cells as the chunk, or the chunk is blank and unpaged. */
+    private transient boolean pageCurrent;
+    /* Whether the chunk has ever been written to the page file. */
+    private transient boolean paged;
+    /* The snapshot epoch of the chunk table when the chunk was created or copied. */
+    private transient long epoch;
+
+    /**
+     * Creates a chunk where every cell has the first terrain type and nothing else.
+     *
+     * @param resident Whether the cells should be kept in memory from the start. If not, they
+     *                 are created the first time the chunk is paged in.
+     * @param pageSlot Where in the page file the chunk is stored, unique for each chunk.
+     */
+    Chunk(final boolean resident, final int pageSlot) {
+        this.pageSlot = pageSlot;
+        Arrays.fill(vacantRows, ALL_VACANT);
+        pageCurrent = true;
+        if (resident) {
+            pageInBlank();
+        }
+    }
+
+    /**
+     * Creates a chunk with the same cells, structures and version as another resident chunk.
+     *
+     * @param source The chunk to copy.
+     * @param epoch  The snapshot epoch of the chunk table that the copy is for.
+     */
+    Chunk(final Chunk source, final long epoch) {
+        this.pageSlot = source.pageSlot;
+        this.epoch = epoch;
+        System.arraycopy(source.vacantRows, 0, vacantRows, 0, SIZE);
+        structures.putAll(source.structures);
+        cells = source.cells.clone();
+        costs = source.costs.clone();
+        version = source.version;
+        pageCurrent = false;
+    }
+
+    /**
+     * Gets the version of the latest change to the chunk.
+     *
+     * @return The version.
+     */
+    long getVersion() {
+        return version;
+    }
+
+    /**
+     * Marks the chunk as changed.
+     *
+     * @param newVersion The version of the change, which must be newer than the current one.
+     */
+    void setVersion(final long newVersion) {
+        this.version = newVersion;
+    }
+
+    /**
+     * Gets the snapshot epoch of the chunk table when the chunk was created or copied. The chunk
+     * is shared with a snapshot if the table has taken a snapshot since then.
+     *
+     * @return The epoch of the chunk.
+     */
+    long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Sets the snapshot epoch of the chunk table that the chunk belongs to.
+     *
+     * @param epoch The current epoch of the table.
+     */
+    void setEpoch(final long epoch) {
+        this.epoch = epoch;
+    }
+
+    /**
+     * Gets where in the page file the chunk is stored.
+     *
+     * @return The slot of the chunk.
+     */
+    int getPageSlot() {
+        return pageSlot;
+    }
+
+    /**
+     * Whether the cells of the chunk are in memory.
+     *
+     * @return Whether the chunk is resident.
+     */
+    boolean isResident() {
+        return cells != null;
+    }
+
+    /**
+     * Whether the chunk has to be written to the page file before its cells can be dropped.
+     *
+     * @return Whether the page file is out of date.
+     */
+    boolean needsWrite() {
+        return !pageCurrent;
+    }
+
+    /**
+     * Whether the cells of the chunk have been written to the page file, so that they have to be
+     * read back from it when paging the chunk in.
+     *
+     * @return Whether the chunk is in the page file.
+     */
+    boolean isPaged() {
+        return paged;
+    }
+
+    /**
+     * Writes the cells of the chunk and their costs to a page, and marks them as written.
+     *
+     * @param page Where to write the chunk, with {@link #PAGE_BYTES} bytes remaining.
+     */
+    void writePage(final ByteBuffer page) {
+        putCells(page);
+        paged = true;
+        pageCurrent = true;
+    }
+
+    private void putCells(final ByteBuffer page) {
+        page.put(cells);
+        page.asFloatBuffer().put(costs);
+        page.position(page.position() + Float.BYTES * CELL_COUNT);
+    }
+
+    /**
+     * Drops the cells of the chunk and their costs from memory. Only call this when the page file
+     * is up to date.
+     */
+    void pageOut() {
+        cells = null;
+        costs = null;
+    }
+
+    /**
+     * Gives the chunk back its cells and their costs, as they were written to the page.
+     *
+     * @param page The page read from the page file, with {@link #PAGE_BYTES} bytes remaining.
+     */
+    void pageIn(final ByteBuffer page) {
+        cells = new byte[CELL_BYTES];
+        costs = new float[CELL_COUNT];
+        page.get(cells);
+        page.asFloatBuffer().get(costs);
+        page.position(page.position() + Float.BYTES * CELL_COUNT);
+    }
+
+    /**
+     * Gives the chunk blank cells, for when it has never been paged. Every cell has the first
+     * terrain type and nothing else.
+     */
+    void pageInBlank() {
+        cells = new byte[CELL_BYTES];
+        costs = new float[CELL_COUNT];
+        Arrays.fill(costs, CellCosts.ofTerrain((byte) 0));
+    }
+
+    byte getTerrainType(final int index) {
+        return cells[TERRAIN_OFFSET + index];
+    }
+
+    void setTerrainType(final int index, final byte type) {
+        cells[TERRAIN_OFFSET + index] = type;
+        pageCurrent = false;
+    }
+
+    byte getResourceType(final int index) {
+        return cells[RESOURCE_OFFSET + index];
+    }
+
+    void setResourceType(final int index, final byte type) {
+        cells[RESOURCE_OFFSET + index] = type;
+        pageCurrent = false;
+    }
+
+    byte getStructureType(final int index) {
+        return cells[STRUCTURE_OFFSET + index];
+    }
+
+    /**
+     * Gets which cells of a row of the chunk are vacant.
+     *
+     * @param localY The y-coordinate of the row inside of the chunk.
+     *
+     * @return A bit for each cell of the row, set if the cell is vacant, where the lowest bit is
+     *     the leftmost cell.
+     */
+    int getVacantRow(final int localY) {
+        return vacantRows[localY];
+    }
+
+    /**
+     * Sets whether a cell is vacant.
+     *
+     * @param x      The x-coordinate of the cell in the world.
+     * @param y      The y-coordinate of the cell in the world.
+     * @param vacant Whether the cell is vacant.
+     */
+    void setVacant(final int x, final int y, final boolean vacant) {
+        final int bit = 1 << (x & MASK);
+        if (vacant) {
+            vacantRows[y & MASK] |= bit;
+        }
+        else {
+            vacantRows[y & MASK] &= ~bit;
+        }
+    }
+
+    /**
+     * Gets the cost of moving across a cell, as of the last time it was set. The chunk has to be
+     * resident.
+     *
+     * @param index The index of the cell in the chunk.
+     *
+     * @return The cost of the cell.
+     */
+    float getCost(final int index) {
+        return costs[index];
+    }
+
+    /**
+     * Sets the cost of moving across a cell.
+     *
+     * @param index The index of the cell in the chunk.
+     * @param cost  The cost of the cell.
+     */
+    void setCost(final int index, final float cost) {
+        costs[index] = cost;
+    }
+
+    IStructure getStructure(final int index) {
+        return structures.get(index);
+    }
+
+    Collection<IStructure> getStructures() {
+        return structures.values();
+    }
+
+    /**
+     * Places a structure in a cell.
+     *
+     * <p>
+     * The structure is stored before the type of the cell is set, so that the cell never tells
+     * that it has a structure before the structure can be got.
+     * </p>
+     *
+     * @param index     The index of the cell in the chunk.
+     * @param type      The structure type id of the structure.
+     * @param structure The structure.
+     */
+    void setStructure(final int index, final byte type, final IStructure structure) {
+        structures.put(index, structure);
+        cells[STRUCTURE_OFFSET + index] = type;
+        pageCurrent = false;
+    }
+
+    private void writeObject(final ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        final ByteBuffer page = ByteBuffer.allocate(PAGE_BYTES);
+        putCells(page);
+        out.write(page.array());
+    }
+
+    private void readObject(final ObjectInputStream in) throws IOException,
+                                                              ClassNotFoundException {
+        in.defaultReadObject();
+        final byte[] page = new byte[PAGE_BYTES];
+        in.readFully(page);
+        pageIn(ByteBuffer.wrap(page));
+    }
+
+}
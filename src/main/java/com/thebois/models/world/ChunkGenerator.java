@@ -0,0 +1,101 @@
+package com.thebois.models.world;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Optional;
+
+import com.thebois.models.world.generation.ResourceGenerator;
+import com.thebois.models.world.generation.TerrainGenerator;
+import com.thebois.models.world.resources.IResource;
+import com.thebois.models.world.resources.ResourceFactory;
+import com.thebois.models.world.resources.ResourceType;
+import com.thebois.models.world.terrains.ITerrain;
+
+/**
+ * Generates the terrain and resources of one chunk at a time, for worlds without any bounds.
+ *
+ * <p>
+ * Since the noise only depends on the seed and the position, chunks look the same no matter in
+ * which order they are generated.
+ * </p>
+ *
+ * @author Martin
+ */
+final class ChunkGenerator implements Serializable {
+
+    /**
+     * The generators only need a world size when generating whole matrices, which is never done
+     * here.
+     */
+    private static final int UNUSED_WORLD_SIZE = 0;
+    private final int seed;
+    /**
+     * Where generated resources are indexed, so that they can be found.
+     */
+    private final Map<ResourceType, SpatialIndex<IResource>> resourceIndexes;
+    private transient TerrainGenerator terrainGenerator;
+    private transient ResourceGenerator resourceGenerator;
+
+    /**
+     * Creates a generator.
+     *
+     * @param seed            The seed used to generate the world.
+     * @param resourceIndexes Where to index generated resources, by type.
+     */
+    ChunkGenerator(
+        final int seed, final Map<ResourceType, SpatialIndex<IResource>> resourceIndexes) {
+        this.seed = seed;
+        this.resourceIndexes = resourceIndexes;
+    }
+
+    /**
+     * Generates the terrain of a whole bounded world at once.
+     *
+     * @param worldSize The width and height of the world.
+     * @param seed      The seed used to generate the world.
+     *
+     * @return The terrain, by row and then column.
+     */
+    static ITerrain[][] generateTerrain(final int worldSize, final int seed) {
+        return new TerrainGenerator(worldSize, seed).generateTerrainMatrix();
+    }
+
+    /**
+     * Generates the resources of a whole bounded world at once.
+     *
+     * @param worldSize The width and height of the world.
+     * @param seed      The seed used to generate the world.
+     *
+     * @return The resources, by row and then column, with null where there is none.
+     */
+    static IResource[][] generateResources(final int worldSize, final int seed) {
+        return new ResourceGenerator(worldSize, seed).generateResourceMatrix();
+    }
+
+    /**
+     * Fills every cell of a chunk with generated terrain and resources.
+     *
+     * @param layers  The layers that the chunk belongs to.
+     * @param originX The x-coordinate of the bottom left cell of the chunk.
+     * @param originY The y-coordinate of the bottom left cell of the chunk.
+     */
+    void generate(final PackedTileLayers layers, final int originX, final int originY) {
+        if (terrainGenerator == null) {
+            terrainGenerator = new TerrainGenerator(UNUSED_WORLD_SIZE, seed);
+            resourceGenerator = new ResourceGenerator(UNUSED_WORLD_SIZE, seed);
+        }
+        for (int y = originY; y < originY + Chunk.SIZE; y++) {
+            for (int x = originX; x < originX + Chunk.SIZE; x++) {
+                layers.setTerrainAt(x, y, terrainGenerator.generateTerrainTypeAt(x, y));
+                final Optional<ResourceType> resourceType =
+                    resourceGenerator.generateResourceTypeAt(x, y);
+                if (resourceType.isPresent()) {
+                    layers.setResourceAt(x, y, resourceType.get());
+                    resourceIndexes.get(resourceType.get())
+                                   .add(ResourceFactory.createResource(resourceType.get(), x, y));
+                }
+            }
+        }
+    }
+
+}
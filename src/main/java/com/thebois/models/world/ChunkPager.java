@@ -0,0 +1,157 @@
+package com.thebois.models.world;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps a limited number of chunks in memory and pages the rest out to a file.
+ *
+ * <p>
+ * Chunks are evicted in least recently used order. Each chunk has a fixed slot in the page file
+ * that holds its cells and their costs, and is only written to it when it has changed since it
+ * was last paged in.
+ * </p>
+ *
+ * @author Martin
+ */
+final class ChunkPager {
+
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int MAX_INITIAL_CAPACITY = 1024;
+    private static final int NO_CHUNK = -1;
+    private final Path pagePath;
+    private final FileChannel pageFile;
+    private final int maxResidentChunks;
+    /**
+     * The chunks that are in memory, keyed by page slot, from least to most recently used.
+     */
+    private final Map<Integer, Chunk> residentChunks;
+    /**
+     * The page that every chunk is read into and written from, one at a time.
+     */
+    private final ByteBuffer page = ByteBuffer.allocate(Chunk.PAGE_BYTES);
+    private int lastTouched = NO_CHUNK;
+
+    /**
+     * Creates a pager with a new page file, which is deleted when the pager is closed.
+     *
+     * @param paging The settings to page with.
+     *
+     * @throws UncheckedIOException When the page file could not be created.
+     */
+    ChunkPager(final ChunkPaging paging) {
+        this.maxResidentChunks = paging.getMaxResidentChunks();
+        this.residentChunks = new LinkedHashMap<>(
+            Math.min(maxResidentChunks, MAX_INITIAL_CAPACITY) + 1,
+            LOAD_FACTOR,
+            true);
+        try {
+            this.pagePath =
+                Files.createTempFile(paging.getPageDirectory(), "chunks", ".page");
+            this.pageFile = FileChannel.open(pagePath,
+                                             StandardOpenOption.READ,
+                                             StandardOpenOption.WRITE);
+        }
+        catch (final IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private static long offsetOf(final Chunk chunk) {
+        return (long) chunk.getPageSlot() * Chunk.PAGE_BYTES;
+    }
+
+    /**
+     * Makes sure that a chunk is in memory, and marks it as the most recently used one.
+     *
+     * @param chunk The chunk.
+     *
+     * @throws UncheckedIOException When the page file could not be read or written.
+     */
+    void touch(final Chunk chunk) {
+        final int slot = chunk.getPageSlot();
+        if (slot == lastTouched) return;
+        lastTouched = slot;
+        if (residentChunks.get(slot) != null) return;
+
+        if (!chunk.isResident()) {
+            pageIn(chunk);
+        }
+        residentChunks.put(slot, chunk);
+        evictOverBudget();
+    }
+
+    /**
+     * Closes the page file and deletes it. The chunks that are paged out can not be paged in
+     * afterwards.
+     *
+     * @throws UncheckedIOException When the page file could not be closed or deleted.
+     */
+    void close() {
+        try {
+            pageFile.close();
+            Files.deleteIfExists(pagePath);
+        }
+        catch (final IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private void evictOverBudget() {
+        final Iterator<Map.Entry<Integer, Chunk>> leastRecentlyUsed =
+            residentChunks.entrySet().iterator();
+        while (residentChunks.size() > maxResidentChunks) {
+            final Map.Entry<Integer, Chunk> entry = leastRecentlyUsed.next();
+            final Chunk chunk = entry.getValue();
+            if (chunk.needsWrite()) {
+                write(chunk);
+            }
+            chunk.pageOut();
+            leastRecentlyUsed.remove();
+        }
+    }
+
+    private void pageIn(final Chunk chunk) {
+        if (!chunk.isPaged()) {
+            chunk.pageInBlank();
+            return;
+        }
+        page.clear();
+        try {
+            while (page.hasRemaining()) {
+                final int position = page.position();
+                if (pageFile.read(page, offsetOf(chunk) + position) < 0) {
+                    throw new IOException("Page file ended in the middle of a chunk.");
+                }
+            }
+        }
+        catch (final IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        page.flip();
+        chunk.pageIn(page);
+    }
+
+    private void write(final Chunk chunk) {
+        page.clear();
+        chunk.writePage(page);
+        page.flip();
+        try {
+            while (page.hasRemaining()) {
+                pageFile.write(page, offsetOf(chunk) + page.position());
+            }
+        }
+        catch (final IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.thebois.models.world;
+
+import java.io.Serializable;
+import java.nio.file.Path;
+
+/**
+ * Settings for keeping only part of a world in memory, paging the rest of its chunks out to disk.
+ *
+ * @author Martin
+ */
+public final class ChunkPaging implements Serializable {
+
+    /**
+     * Stored as a string since paths can not be serialized.
+     */
+    private final String pageDirectory;
+    private final long memoryBudget;
+
+    /**
+     * Creates the settings.
+     *
+     * @param pageDirectory The directory to create page files in. Every world gets its own file,
+     *                      which is deleted when the world is disposed.
+     * @param memoryBudget  How many bytes the chunks kept in memory are allowed to use, counting
+     *                      the type ids and the costs of their cells. The least recently used
+     *                      chunks are paged out to stay within the budget.
+     *
+     * @throws IllegalArgumentException When the budget can not fit a single chunk.
+     */
+    public ChunkPaging(final Path pageDirectory, final long memoryBudget) {
+        if (memoryBudget < Chunk.PAGE_BYTES) {
+            throw new IllegalArgumentException("Memory budget must fit at least one chunk.");
+        }
+        this.pageDirectory = pageDirectory.toString();
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * Gets the directory to create page files in.
+     *
+     * @return The directory.
+     */
+    public Path getPageDirectory() {
+        return Path.of(pageDirectory);
+    }
+
+    /**
+     * Gets how many bytes the chunks kept in memory are allowed to use.
+     *
+     * @return The budget, in bytes.
+     */
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Gets how many chunks fit in the memory budget. What a chunk keeps in memory while paged
+     * out, such as which of its cells are vacant, is not counted.
+     *
+     * @return The most chunks that are allowed to be in memory at once.
+     */
+    int getMaxResidentChunks() {
+        return (int) Math.min(Integer.MAX_VALUE, memoryBudget / Chunk.PAGE_BYTES);
+    }
+
+}
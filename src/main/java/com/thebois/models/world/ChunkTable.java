@@ -0,0 +1,326 @@
+package com.thebois.models.world;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps track of the chunks of a world, either as a square of chunks or as the chunks of an
+ * unbounded world that have been generated so far.
+ *
+ * <p>
+ * Snapshots of the table share every chunk with it. Taking a snapshot starts a new epoch, and a
+ * chunk from an earlier epoch is copied before the table lets anyone change it, so the snapshot
+ * never sees a change. Taking a snapshot only copies references to the chunks, and only the chunks
+ * that are changed afterwards ever have their cells copied.
+ * </p>
+ *
+ * <p>
+ * Forks share chunks the same way, but can be changed as well. A fork gets an epoch of its own,
+ * so the table and the fork each copy a shared chunk before changing it. Epochs are handed out by
+ * a counter shared by every table, so that no two tables sharing a chunk ever have the same epoch.
+ * </p>
+ *
+ * @author Martin
+ */
+final class ChunkTable implements Serializable {
+
+    private static final long LOWER_HALF_MASK = 0xFFFFFFFFL;
+    /**
+     * The last epoch handed out to any table.
+     */
+    private static final AtomicLong EPOCHS = new AtomicLong();
+    private final int chunksPerSide;
+    private final boolean unbounded;
+    /**
+     * How to page chunks, or null if every chunk is kept in memory.
+     */
+    private final ChunkPaging paging;
+    /**
+     * The chunks in row-major order, or null if the table is unbounded. Written one at a time
+     * when serializing, so that paged out chunks do not all have to be in memory at once. The
+     * chunks write their cells as raw bytes, so the stream does not keep the cells alive either.
+     */
+    private transient Chunk[] chunks;
+    /**
+     * The chunks that have been generated, in the order they were generated, keyed by their
+     * packed chunk coordinates. Null if the table has bounds.
+     */
+    private transient Map<Long, Chunk> generatedChunks;
+    /**
+     * The keys of the generated chunks, in the order they were generated, so that chunks can be
+     * looked up by when they were generated. Null if the table has bounds.
+     */
+    private transient List<Long> generatedKeys;
+    private transient ChunkPager pager;
+    /**
+     * How many snapshots have been taken of the table.
+     */
+    private transient long epoch = 0;
+
+    /**
+     * Creates a square of blank chunks.
+     *
+     * @param chunksPerSide How many chunks there are along each side of the square.
+     * @param paging        How to page chunks out to disk, or null to keep every chunk in memory.
+     */
+    ChunkTable(final int chunksPerSide, final ChunkPaging paging) {
+        this.chunksPerSide = chunksPerSide;
+        this.unbounded = false;
+        this.paging = paging;
+        this.chunks = new Chunk[chunksPerSide * chunksPerSide];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = new Chunk(paging == null, i);
+        }
+        createPager();
+    }
+
+    /**
+     * Creates a table without bounds and without any chunks.
+     *
+     * @param paging How to page chunks out to disk, or null to keep every chunk in memory.
+     */
+    ChunkTable(final ChunkPaging paging) {
+        this.chunksPerSide = 0;
+        this.unbounded = true;
+        this.paging = paging;
+        this.generatedChunks = new LinkedHashMap<>();
+        this.generatedKeys = new ArrayList<>();
+        createPager();
+    }
+
+    // Creates a snapshot that shares the chunks of another table.
+    private ChunkTable(final ChunkTable source) {
+        this.chunksPerSide = source.chunksPerSide;
+        this.unbounded = source.unbounded;
+        this.paging = null;
+        if (unbounded) {
+            this.generatedChunks = new LinkedHashMap<>(source.generatedChunks);
+            this.generatedKeys = new ArrayList<>(source.generatedKeys);
+        }
+        else {
+            this.chunks = source.chunks.clone();
+        }
+    }
+
+    private static long packChunkCoordinates(final int x, final int y) {
+        return ((long) (x >> Chunk.SHIFT) << Integer.SIZE) | ((y >> Chunk.SHIFT) & LOWER_HALF_MASK);
+    }
+
+    private void createPager() {
+        if (paging != null) {
+            pager = new ChunkPager(paging);
+        }
+    }
+
+    /**
+     * Closes the page file of the table, if it pages chunks out to disk. The table can not be
+     * used afterwards.
+     */
+    void dispose() {
+        if (pager != null) {
+            pager.close();
+        }
+    }
+
+    /**
+     * Takes a snapshot of the table, which shares every chunk with it but never sees any changes
+     * made to the table afterwards.
+     *
+     * @return The snapshot.
+     *
+     * @throws IllegalStateException When the table pages chunks out to disk, since the chunks
+     *                               would then change underneath the snapshot.
+     */
+    ChunkTable snapshot() {
+        if (pager != null) {
+            throw new IllegalStateException(
+                "Can not take a snapshot of a world that is paged out to disk.");
+        }
+        epoch = EPOCHS.incrementAndGet();
+        return new ChunkTable(this);
+    }
+
+    /**
+     * Forks the table, so that the table and the fork share every chunk but never see any changes
+     * made to each other afterwards.
+     *
+     * <p>
+     * Forking changes the epoch of the table, so a table must not be forked from more than one
+     * thread at a time.
+     * </p>
+     *
+     * @return The fork.
+     *
+     * @throws IllegalStateException When the table pages chunks out to disk.
+     */
+    ChunkTable fork() {
+        final ChunkTable fork = snapshot();
+        fork.epoch = EPOCHS.incrementAndGet();
+        return fork;
+    }
+
+    /**
+     * Gets the chunk that contains a cell, paging it in if needed.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     *
+     * @return The chunk, or null if the table is unbounded and the chunk has not been added.
+     */
+    Chunk get(final int x, final int y) {
+        return touch(peek(x, y));
+    }
+
+    /**
+     * Gets the chunk that contains a cell, without paging it in.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     *
+     * @return The chunk, or null if the table is unbounded and the chunk has not been added.
+     */
+    Chunk peek(final int x, final int y) {
+        if (unbounded) return generatedChunks.get(packChunkCoordinates(x, y));
+        return chunks[(y >> Chunk.SHIFT) * chunksPerSide + (x >> Chunk.SHIFT)];
+    }
+
+    /**
+     * Gets the chunk that contains a cell so that it can be changed, copying it first if it is
+     * shared with a snapshot.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     *
+     * @return The chunk, or null if the table is unbounded and the chunk has not been added.
+     */
+    Chunk getWritable(final int x, final int y) {
+        final Chunk chunk = get(x, y);
+        if (chunk == null || chunk.getEpoch() == epoch) return chunk;
+
+        final Chunk copy = new Chunk(chunk, epoch);
+        if (unbounded) {
+            generatedChunks.put(packChunkCoordinates(x, y), copy);
+        }
+        else {
+            chunks[(y >> Chunk.SHIFT) * chunksPerSide + (x >> Chunk.SHIFT)] = copy;
+        }
+        return copy;
+    }
+
+    /**
+     * Adds a blank chunk to an unbounded table.
+     *
+     * @param x The x-coordinate of a cell in the chunk.
+     * @param y The y-coordinate of a cell in the chunk.
+     *
+     * @return The added chunk.
+     */
+    Chunk add(final int x, final int y) {
+        final Chunk chunk = new Chunk(true, generatedChunks.size());
+        chunk.setEpoch(epoch);
+        final long key = packChunkCoordinates(x, y);
+        generatedChunks.put(key, chunk);
+        generatedKeys.add(key);
+        return touch(chunk);
+    }
+
+    // Pages the chunk in if it is not in memory.
+    private Chunk touch(final Chunk chunk) {
+        if (pager != null && chunk != null) {
+            pager.touch(chunk);
+        }
+        return chunk;
+    }
+
+    /**
+     * Gets how many chunks there are in the table.
+     *
+     * @return The number of chunks.
+     */
+    int getChunkCount() {
+        if (unbounded) return generatedKeys.size();
+        return chunks.length;
+    }
+
+    /**
+     * Gets the x-coordinate of the cell at the lower left corner of a chunk.
+     *
+     * @param ordinal Where the chunk is in row-major order, or in the order the chunks were
+     *                added if the table is unbounded.
+     *
+     * @return The x-coordinate.
+     */
+    int getChunkOriginX(final int ordinal) {
+        if (unbounded) return (int) (generatedKeys.get(ordinal) >> Integer.SIZE) << Chunk.SHIFT;
+        return (ordinal % chunksPerSide) << Chunk.SHIFT;
+    }
+
+    /**
+     * Gets the y-coordinate of the cell at the lower left corner of a chunk.
+     *
+     * @param ordinal Where the chunk is in row-major order, or in the order the chunks were
+     *                added if the table is unbounded.
+     *
+     * @return The y-coordinate.
+     */
+    int getChunkOriginY(final int ordinal) {
+        if (unbounded) return (int) (long) generatedKeys.get(ordinal) << Chunk.SHIFT;
+        return (ordinal / chunksPerSide) << Chunk.SHIFT;
+    }
+
+    /**
+     * Gets every chunk in the table, without paging any of them in.
+     *
+     * @return The chunks.
+     */
+    Collection<Chunk> getChunks() {
+        if (unbounded) return generatedChunks.values();
+        return Arrays.asList(chunks);
+    }
+
+    private void writeObject(final ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        if (!unbounded) {
+            for (int i = 0; i < chunks.length; i++) {
+                out.writeObject(touch(chunks[i]));
+            }
+            return;
+        }
+        out.writeInt(generatedChunks.size());
+        for (final Map.Entry<Long, Chunk> entry : generatedChunks.entrySet()) {
+            out.writeLong(entry.getKey());
+            out.writeObject(touch(entry.getValue()));
+        }
+    }
+
+    private void readObject(final ObjectInputStream in) throws IOException,
+                                                              ClassNotFoundException {
+        in.defaultReadObject();
+        createPager();
+        if (!unbounded) {
+            chunks = new Chunk[chunksPerSide * chunksPerSide];
+            for (int i = 0; i < chunks.length; i++) {
+                chunks[i] = touch((Chunk) in.readObject());
+            }
+            return;
+        }
+        generatedChunks = new LinkedHashMap<>();
+        generatedKeys = new ArrayList<>();
+        final int chunkCount = in.readInt();
+        for (int i = 0; i < chunkCount; i++) {
+            final long key = in.readLong();
+            generatedChunks.put(key, touch((Chunk) in.readObject()));
+            generatedKeys.add(key);
+        }
+    }
+
+}
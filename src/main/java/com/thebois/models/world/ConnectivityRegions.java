@@ -0,0 +1,434 @@
+package com.thebois.models.world;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Labels every walkable cell of a bounded world with the region it belongs to, where two cells are
+ * in the same region if one can be walked to from the other.
+ *
+ * <p>
+ * The labels follow the change journal of the world, so they are only updated for cells whose
+ * walk cost changed. A cell that becomes walkable merges the regions around it by relabeling the
+ * smaller ones. A cell that becomes blocked might split its region in two, which is found out by
+ * searching from each of its neighbours at the same time. The searches stop as soon as they all
+ * meet, and otherwise only the parts that were cut off get new labels, so the work is
+ * proportional to the smaller parts rather than to the whole region.
+ * </p>
+ *
+ * @author Martin
+ */
+final class ConnectivityRegions {
+
+    /**
+     * The label of cells that can not be walked on.
+     */
+    private static final int BLOCKED = 0;
+    /**
+     * The offsets to the horizontal and vertical neighbours of a cell, the ones a path can move to.
+     */
+    private static final int[][] NEIGHBOUR_OFFSETS = {
+        {0, -1}, {-1, 0}, {1, 0}, {0, 1},
+    };
+    private final PackedTileLayers layers;
+    private final ChangeFeed feed;
+    private final int worldSize;
+    /**
+     * The region label of each cell, in row-major order.
+     */
+    private final int[] labels;
+    /**
+     * How many cells there are in each region, by label.
+     */
+    private final Map<Integer, Integer> regionSizes = new HashMap<>();
+    /**
+     * The search that visited each cell, while looking for a split.
+     */
+    private final int[] visitedBy;
+    /**
+     * The split check that visited each cell, so that the marks never have to be cleared.
+     */
+    private final int[] visitedDuring;
+    private int nextLabel = BLOCKED + 1;
+    private int splitChecks = 0;
+
+    private ConnectivityRegions(
+        final PackedTileLayers layers, final ChangeJournal journal, final int worldSize) {
+        this.layers = layers;
+        this.worldSize = worldSize;
+        // Subscribed before labeling, so that no change after the labeling can be missed.
+        this.feed = journal.subscribe();
+        this.labels = new int[worldSize * worldSize];
+        this.visitedBy = new int[labels.length];
+        this.visitedDuring = new int[labels.length];
+        for (int cell = 0; cell < labels.length; cell++) {
+            if (labels[cell] == BLOCKED && isWalkable(cell)) {
+                floodFill(cell, BLOCKED, nextLabel++);
+            }
+        }
+    }
+
+    // Creates a copy of other regions that follows the changes of a fork of their world.
+    private ConnectivityRegions(
+        final ConnectivityRegions source,
+        final PackedTileLayers layers,
+        final ChangeJournal journal) {
+        this.layers = layers;
+        this.worldSize = source.worldSize;
+        this.feed = journal.subscribe();
+        this.labels = source.labels.clone();
+        this.visitedBy = new int[labels.length];
+        this.visitedDuring = new int[labels.length];
+        this.regionSizes.putAll(source.regionSizes);
+        this.nextLabel = source.nextLabel;
+    }
+
+    /**
+     * Labels the cells of a bounded world and starts following its changes.
+     *
+     * @param layers    The layers of the world.
+     * @param journal   The journal of the changes to the walk costs of the world.
+     * @param worldSize The width and height of the world.
+     *
+     * @return The regions of the world.
+     */
+    static ConnectivityRegions follow(
+        final PackedTileLayers layers, final ChangeJournal journal, final int worldSize) {
+        return new ConnectivityRegions(layers, journal, worldSize);
+    }
+
+    /**
+     * Copies the regions for a fork of the world, so that the fork does not have to label every
+     * cell anew. The copy follows the changes of the fork from now on.
+     *
+     * @param forkLayers  The layers of the fork.
+     * @param forkJournal The journal of the changes to the walk costs of the fork.
+     *
+     * @return The regions of the fork.
+     */
+    ConnectivityRegions fork(final PackedTileLayers forkLayers, final ChangeJournal forkJournal) {
+        applyChanges();
+        return new ConnectivityRegions(this, forkLayers, forkJournal);
+    }
+
+    /**
+     * Whether a path can lead from one cell to another.
+     *
+     * <p>
+     * A path can start on a walkable cell and end on any cell, since the destination of a path
+     * does not have to be walked across. So a blocked destination is reachable if one of its
+     * neighbours is.
+     * </p>
+     *
+     * @param fromX The x-coordinate of the start of the path.
+     * @param fromY The y-coordinate of the start of the path.
+     * @param toX   The x-coordinate of the destination of the path.
+     * @param toY   The y-coordinate of the destination of the path.
+     *
+     * @return Whether there is a path.
+     */
+    boolean isReachable(final int fromX, final int fromY, final int toX, final int toY) {
+        applyChanges();
+        return isReachableAsLabeled(fromX, fromY, toX, toY);
+    }
+
+    /**
+     * Whether a path can lead from one cell to another, going by the regions as they are labeled,
+     * without applying the changes made to the world since they were last applied. Does not
+     * change anything, so it can be read optimistically, but is only right if the regions are
+     * {@link #isCurrent() current}.
+     *
+     * @param fromX The x-coordinate of the start of the path.
+     * @param fromY The y-coordinate of the start of the path.
+     * @param toX   The x-coordinate of the destination of the path.
+     * @param toY   The y-coordinate of the destination of the path.
+     *
+     * @return Whether there is a path.
+     */
+    boolean isReachableAsLabeled(final int fromX, final int fromY, final int toX, final int toY) {
+        if (fromX == toX && fromY == toY) return true;
+
+        final int region = labels[cellOf(fromX, fromY)];
+        if (region == BLOCKED) return false;
+
+        final int destination = cellOf(toX, toY);
+        if (labels[destination] != BLOCKED) return labels[destination] == region;
+        for (final int[] offset : NEIGHBOUR_OFFSETS) {
+            final int neighbour = neighbourOf(destination, offset);
+            if (neighbour >= 0 && labels[neighbour] == region) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Whether every change made to the world has been applied to the regions.
+     *
+     * @return Whether the regions are up to date.
+     */
+    boolean isCurrent() {
+        return feed.isDrained();
+    }
+
+    /**
+     * Gets how many regions there are.
+     *
+     * @return The number of regions.
+     */
+    int countRegions() {
+        applyChanges();
+        return regionSizes.size();
+    }
+
+    // Brings the labels up to date with every cell that changed since last time.
+    private void applyChanges() {
+        for (final TileChange change : feed.drain()) {
+            final int cell = cellOf(change.getX(), change.getY());
+            final boolean walkable = isWalkable(cell);
+            if (walkable && labels[cell] == BLOCKED) {
+                opened(cell);
+            }
+            else if (!walkable && labels[cell] != BLOCKED) {
+                blocked(cell);
+            }
+        }
+    }
+
+    // Joins the regions around a cell that became walkable, keeping the label of the largest.
+    private void opened(final int cell) {
+        int largest = BLOCKED;
+        for (final int[] offset : NEIGHBOUR_OFFSETS) {
+            final int neighbour = neighbourOf(cell, offset);
+            if (neighbour >= 0 && labels[neighbour] != BLOCKED
+                && sizeOf(labels[neighbour]) > sizeOf(largest)) {
+                largest = labels[neighbour];
+            }
+        }
+        if (largest == BLOCKED) {
+            largest = nextLabel++;
+        }
+        labels[cell] = largest;
+        regionSizes.merge(largest, 1, Integer::sum);
+        for (final int[] offset : NEIGHBOUR_OFFSETS) {
+            final int neighbour = neighbourOf(cell, offset);
+            if (neighbour >= 0 && labels[neighbour] != BLOCKED && labels[neighbour] != largest) {
+                final int merged = labels[neighbour];
+                regionSizes.remove(merged);
+                floodFill(neighbour, merged, largest);
+            }
+        }
+    }
+
+    // Removes a cell that became blocked from its region, and splits the region if the cell was
+    // the only connection between its parts.
+    private void blocked(final int cell) {
+        final int region = labels[cell];
+        labels[cell] = BLOCKED;
+        shrink(region, 1);
+
+        final int[] starts = new int[NEIGHBOUR_OFFSETS.length];
+        int searchCount = 0;
+        for (final int[] offset : NEIGHBOUR_OFFSETS) {
+            final int neighbour = neighbourOf(cell, offset);
+            if (neighbour >= 0 && labels[neighbour] == region) {
+                starts[searchCount++] = neighbour;
+            }
+        }
+        if (searchCount > 1) {
+            new SplitSearch(Arrays.copyOf(starts, searchCount), region).run();
+        }
+    }
+
+    // Gives every cell connected to the start that has the old label the new label instead.
+    private void floodFill(final int start, final int oldLabel, final int newLabel) {
+        final IntQueue queue = new IntQueue();
+        labels[start] = newLabel;
+        queue.add(start);
+        int filled = 0;
+        while (!queue.isEmpty()) {
+            final int current = queue.remove();
+            filled++;
+            for (final int[] offset : NEIGHBOUR_OFFSETS) {
+                final int neighbour = neighbourOf(current, offset);
+                if (neighbour >= 0 && labels[neighbour] == oldLabel
+                    && (oldLabel != BLOCKED || isWalkable(neighbour))) {
+                    labels[neighbour] = newLabel;
+                    queue.add(neighbour);
+                }
+            }
+        }
+        regionSizes.merge(newLabel, filled, Integer::sum);
+    }
+
+    private void shrink(final int region, final int cellCount) {
+        final int size = sizeOf(region) - cellCount;
+        if (size > 0) {
+            regionSizes.put(region, size);
+        }
+        else {
+            regionSizes.remove(region);
+        }
+    }
+
+    private int sizeOf(final int region) {
+        return regionSizes.getOrDefault(region, 0);
+    }
+
+    private boolean isWalkable(final int cell) {
+        return layers.getCostAt(cell % worldSize, cell / worldSize) < Float.MAX_VALUE;
+    }
+
+    private int cellOf(final int x, final int y) {
+        return y * worldSize + x;
+    }
+
+    // Gives the neighbouring cell in the direction of the offset, or -1 if it is outside.
+    private int neighbourOf(final int cell, final int[] offset) {
+        final int x = cell % worldSize + offset[0];
+        final int y = cell / worldSize + offset[1];
+        if (x < 0 || y < 0 || x >= worldSize || y >= worldSize) return -1;
+        return cellOf(x, y);
+    }
+
+    /**
+     * Searches from each neighbour of a blocked cell at the same time, one cell per search in
+     * turn. Searches that run into each other are joined, and a group of joined searches that
+     * runs out of cells before meeting the rest has found a part that was cut off.
+     */
+    private final class SplitSearch {
+
+        private final int region;
+        private final int[] groupOf;
+        private final IntQueue[] frontiers;
+        private final IntQueue[] visited;
+        private final int check;
+        private int groupCount;
+
+        SplitSearch(final int[] starts, final int region) {
+            this.region = region;
+            this.check = ++splitChecks;
+            this.groupCount = starts.length;
+            this.groupOf = new int[starts.length];
+            this.frontiers = new IntQueue[starts.length];
+            this.visited = new IntQueue[starts.length];
+            for (int search = 0; search < starts.length; search++) {
+                groupOf[search] = search;
+                frontiers[search] = new IntQueue();
+                visited[search] = new IntQueue();
+                visit(starts[search], search);
+            }
+        }
+
+        void run() {
+            while (groupCount > 1) {
+                for (int search = 0; search < frontiers.length && groupCount > 1; search++) {
+                    if (!frontiers[search].isEmpty()) {
+                        expand(search, frontiers[search].remove());
+                    }
+                }
+                relabelExhaustedGroups();
+            }
+        }
+
+        private void expand(final int search, final int cell) {
+            for (final int[] offset : NEIGHBOUR_OFFSETS) {
+                final int neighbour = neighbourOf(cell, offset);
+                if (neighbour < 0 || labels[neighbour] != region) continue;
+
+                if (visitedDuring[neighbour] != check) {
+                    visit(neighbour, search);
+                }
+                else {
+                    join(search, visitedBy[neighbour]);
+                }
+            }
+        }
+
+        private void visit(final int cell, final int search) {
+            visitedDuring[cell] = check;
+            visitedBy[cell] = search;
+            frontiers[search].add(cell);
+            visited[search].add(cell);
+        }
+
+        private void join(final int search, final int other) {
+            final int group = groupOf[search];
+            final int otherGroup = groupOf[other];
+            if (group == otherGroup) return;
+
+            for (int i = 0; i < groupOf.length; i++) {
+                if (groupOf[i] == otherGroup) {
+                    groupOf[i] = group;
+                }
+            }
+            groupCount--;
+        }
+
+        // Gives each group that can not search any further a region of its own.
+        private void relabelExhaustedGroups() {
+            for (int group = 0; group < groupOf.length && groupCount > 1; group++) {
+                if (isExhausted(group)) {
+                    relabel(group);
+                }
+            }
+        }
+
+        private boolean isExhausted(final int group) {
+            boolean hasSearch = false;
+            for (int search = 0; search < groupOf.length; search++) {
+                if (groupOf[search] == group) {
+                    if (!frontiers[search].isEmpty()) return false;
+                    hasSearch = true;
+                }
+            }
+            return hasSearch;
+        }
+
+        private void relabel(final int group) {
+            final int newLabel = nextLabel++;
+            int cellCount = 0;
+            for (int search = 0; search < groupOf.length; search++) {
+                if (groupOf[search] != group) continue;
+
+                final IntQueue cells = visited[search];
+                while (!cells.isEmpty()) {
+                    labels[cells.remove()] = newLabel;
+                    cellCount++;
+                }
+                // Taken out of every group, so that it is never looked at again.
+                groupOf[search] = -1;
+            }
+            regionSizes.put(newLabel, cellCount);
+            shrink(region, cellCount);
+            groupCount--;
+        }
+
+    }
+
+    /**
+     * A first in, first out queue of ints that grows as needed.
+     */
+    private static final class IntQueue {
+
+        private int[] elements = new int[Chunk.SIZE];
+        private int head = 0;
+        private int tail = 0;
+
+        void add(final int element) {
+            if (tail == elements.length) {
+                elements = Arrays.copyOf(elements, elements.length * 2);
+            }
+            elements[tail++] = element;
+        }
+
+        int remove() {
+            return elements[head++];
+        }
+
+        boolean isEmpty() {
+            return head == tail;
+        }
+
+    }
+
+}
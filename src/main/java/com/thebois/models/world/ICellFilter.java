@@ -0,0 +1,21 @@
+package com.thebois.models.world;
+
+/**
+ * Decides which cells of the world to keep, by their coordinates.
+ *
+ * @author Martin
+ */
+@FunctionalInterface
+interface ICellFilter {
+
+    /**
+     * Decides whether to keep a cell.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     *
+     * @return Whether to keep the cell.
+     */
+    boolean test(int x, int y);
+
+}
@@ -0,0 +1,19 @@
+package com.thebois.models.world;
+
+/**
+ * Visits cells of the world by their coordinates.
+ *
+ * @author Martin
+ */
+@FunctionalInterface
+interface ICellVisitor {
+
+    /**
+     * Visits a cell.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     */
+    void visit(int x, int y);
+
+}
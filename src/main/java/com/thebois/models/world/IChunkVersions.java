@@ -0,0 +1,43 @@
+package com.thebois.models.world;
+
+/**
+ * Tells which parts of the world have changed, by splitting the world into square chunks that
+ * each carry a version number.
+ *
+ * <p>
+ * A chunk gets a new version whenever a resource or structure in it changes. Versions only ever
+ * increase and are shared between all chunks, so anything derived from the world can remember
+ * the version it was made at and later check whether the chunks it depends on are newer.
+ * </p>
+ *
+ * @author Martin
+ */
+public interface IChunkVersions {
+
+    /**
+     * Gets the width and height of a chunk, in tiles.
+     *
+     * @return The size of a chunk.
+     */
+    int getChunkSize();
+
+    /**
+     * Gets the newest version of any chunk.
+     *
+     * @return The version of the latest change to the world.
+     */
+    long getVersion();
+
+    /**
+     * Gets the version of the chunk that contains the given tile coordinates.
+     *
+     * @param x The x-coordinate of a tile in the chunk.
+     * @param y The y-coordinate of a tile in the chunk.
+     *
+     * @return The version of the latest change to the chunk.
+     *
+     * @throws IndexOutOfBoundsException When the coordinates are outside of the world.
+     */
+    long getChunkVersionAt(int x, int y);
+
+}
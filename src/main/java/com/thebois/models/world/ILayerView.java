@@ -0,0 +1,53 @@
+package com.thebois.models.world;
+
+/**
+ * A read-only view of one layer of the cells of the world, indexed by cell.
+ *
+ * <p>
+ * The view reads straight from the world, so it always shows the current state of the layer
+ * without copying it, and reading from it does not create any objects. Look the cells up by index,
+ * from 0 up to the size of the view, which is every cell of the world or, if the world is
+ * unbounded, every cell that has been generated.
+ * </p>
+ *
+ * @param <TType> The type of what is in each cell of the layer.
+ *
+ * @author Martin
+ */
+public interface ILayerView<TType> {
+
+    /**
+     * Gets how many cells there are in the view.
+     *
+     * @return The number of cells.
+     */
+    int size();
+
+    /**
+     * Gets the x-coordinate of a cell.
+     *
+     * @param index The index of the cell.
+     *
+     * @return The x-coordinate.
+     */
+    int getX(int index);
+
+    /**
+     * Gets the y-coordinate of a cell.
+     *
+     * @param index The index of the cell.
+     *
+     * @return The y-coordinate.
+     */
+    int getY(int index);
+
+    /**
+     * Gets the type of what is in the layer at a cell.
+     *
+     * @param index The index of the cell.
+     *
+     * @return The type, or null if the layer has nothing in the cell.
+     */
+    TType getType(int index);
+
+}
@@ -41,14 +41,41 @@ public interface IWorld extends Serializable {
     ITile getTileAt(int x, int y);
 
     /**
-     * Finds a randomly generated vacant spot inside the radius of the given origin and returns it.
+     * Gets the cost of moving across the tile at a given location, without creating the tile.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     *
+     * @return The cost of moving across the tile.
+     */
+    float getCostAt(int x, int y);
+
+    /**
+     * Whether a path can lead from one position to another. The destination itself does not have
+     * to be walkable, as long as the path can get next to it.
+     *
+     * @param from The start of the path.
+     * @param to   The destination of the path.
+     *
+     * @return Whether there is a path.
+     *
+     * @throws IndexOutOfBoundsException When either position is outside of the world.
+     */
+    boolean isReachable(Position from, Position to);
+
+    /**
+     * Finds a random vacant spot inside the radius of the given origin and returns it.
+     *
+     * <p>
+     * Every vacant spot inside the radius is equally likely to be picked.
+     * </p>
      *
      * @param origin Where to center the random locations around.
      * @param radius The search radius in which to randomly find a vacant spot.
      *
-     * @return The vacant tile.
+     * @return The vacant tile, or nothing if there is no vacant spot inside the radius.
      */
-    ITile getRandomVacantSpotInRadiusOf(Position origin, int radius);
+    Optional<ITile> getRandomVacantSpotInRadiusOf(Position origin, int radius);
 
     /**
      * Finds an empty neighbour of a tile that is closest to the given position, if there is any.
@@ -0,0 +1,193 @@
+package com.thebois.models.world;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * Lets many threads read the world while a single thread changes it, without the readers ever
+ * blocking each other or the writer as long as they do not overlap with a change.
+ *
+ * <p>
+ * Reads are optimistic: they run without taking any lock, and afterwards check whether a change
+ * was made in the meantime. If one was, what they read might be torn, so they are run again while
+ * holding the read lock. Since an optimistic read can see the world halfway through a change, it
+ * might fail in any way that torn state makes code fail, e.g. by indexing out of bounds or by
+ * finding null where something should be. Such a failure is only thrown if no change got in the
+ * way.
+ * </p>
+ *
+ * <p>
+ * Changes hold the write lock, and run the actions deferred with {@link #afterWrite(Runnable)},
+ * e.g. announcing events, only once it is released, so that whatever reacts to them can read the
+ * world. The thread that holds the write lock can read and change the world again without
+ * blocking itself, but a thread must not start a change from inside a read.
+ * </p>
+ *
+ * <p>
+ * Worlds whose reads change them, such as worlds that generate or page in their chunks when they
+ * are read, can not be read optimistically, so their reads hold the write lock instead.
+ * </p>
+ *
+ * @author Martin
+ */
+final class OptimisticLock implements Serializable {
+
+    private final boolean exclusiveReads;
+    /**
+     * Not saved, since no thread holds it after loading.
+     */
+    private transient StampedLock lock = new StampedLock();
+    /**
+     * The thread that holds the write lock, or null. Only ever equal to the current thread when
+     * the current thread itself set it, so it can be read without holding the lock.
+     */
+    private transient Thread writer;
+    /**
+     * The actions to run once the write lock is released, only touched by the writer.
+     */
+    private transient List<Runnable> deferred = new ArrayList<>();
+
+    private OptimisticLock(final boolean exclusiveReads) {
+        this.exclusiveReads = exclusiveReads;
+    }
+
+    /**
+     * Creates a lock.
+     *
+     * @param exclusiveReads Whether reading changes what is guarded, so that reads have to hold
+     *                       the write lock.
+     *
+     * @return The lock.
+     */
+    static OptimisticLock create(final boolean exclusiveReads) {
+        return new OptimisticLock(exclusiveReads);
+    }
+
+    /**
+     * Reads what is guarded, optimistically if possible.
+     *
+     * @param reader    What to read. Might be run twice, so it must not change anything.
+     * @param <TResult> The type of what is read.
+     *
+     * @return What was read.
+     */
+    <TResult> TResult read(final Supplier<TResult> reader) {
+        if (exclusiveReads || writer == Thread.currentThread()) return write(reader);
+
+        final long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                final TResult result = reader.get();
+                if (lock.validate(stamp)) return result;
+            }
+            catch (final RuntimeException exception) {
+                // Only fails for real if nothing was changed while reading.
+                if (lock.validate(stamp)) throw exception;
+            }
+        }
+
+        final long readStamp = lock.readLock();
+        try {
+            return reader.get();
+        }
+        finally {
+            lock.unlockRead(readStamp);
+        }
+    }
+
+    /**
+     * Starts reading what is guarded without going through a reader, for reads so small and
+     * frequent that creating a reader for each of them would cost more than the read itself.
+     *
+     * <p>
+     * What is read has to be checked with {@link #validate(long)} before it is used, and read
+     * again with {@link #read(Supplier)} if it is not valid.
+     * </p>
+     *
+     * @return The stamp to validate the read with, or zero if it can not be read optimistically.
+     */
+    long tryOptimisticRead() {
+        if (exclusiveReads) return 0;
+        return lock.tryOptimisticRead();
+    }
+
+    /**
+     * Whether nothing was changed since an optimistic read started.
+     *
+     * @param stamp The stamp that the read started with.
+     *
+     * @return Whether what was read is valid.
+     */
+    boolean validate(final long stamp) {
+        return stamp != 0 && lock.validate(stamp);
+    }
+
+    /**
+     * Changes what is guarded while holding the write lock, and then runs the actions that were
+     * deferred until the change was done.
+     *
+     * @param change    The change to make.
+     * @param <TResult> The type of what the change gives.
+     *
+     * @return What the change gave.
+     */
+    <TResult> TResult write(final Supplier<TResult> change) {
+        if (writer == Thread.currentThread()) return change.get();
+
+        final long stamp = lock.writeLock();
+        writer = Thread.currentThread();
+        final TResult result;
+        final List<Runnable> actions;
+        try {
+            result = change.get();
+        }
+        finally {
+            actions = deferred;
+            deferred = new ArrayList<>();
+            writer = null;
+            lock.unlockWrite(stamp);
+        }
+        actions.forEach(Runnable::run);
+        return result;
+    }
+
+    /**
+     * Changes what is guarded while holding the write lock, and then runs the actions that were
+     * deferred until the change was done.
+     *
+     * @param change The change to make.
+     */
+    void write(final Runnable change) {
+        write(() -> {
+            change.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs an action once the change that the current thread is making is done, or right away if
+     * the current thread is not making any change.
+     *
+     * @param action The action to run.
+     */
+    void afterWrite(final Runnable action) {
+        if (writer == Thread.currentThread()) {
+            deferred.add(action);
+        }
+        else {
+            action.run();
+        }
+    }
+
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        lock = new StampedLock();
+        deferred = new ArrayList<>();
+    }
+
+}
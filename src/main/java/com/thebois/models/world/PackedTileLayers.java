@@ -0,0 +1,538 @@
+package com.thebois.models.world;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+
+import com.thebois.models.world.resources.IResource;
+import com.thebois.models.world.resources.ResourceFactory;
+import com.thebois.models.world.resources.ResourceType;
+import com.thebois.models.world.structures.IStructure;
+import com.thebois.models.world.terrains.ITerrain;
+import com.thebois.models.world.terrains.TerrainFactory;
+import com.thebois.models.world.terrains.TerrainType;
+
+/**
+ * Stores the terrain, resource and structure layers of a square world as packed type ids, split
+ * up into square chunks.
+ *
+ * <p>
+ * Terrain and resource tiles carry no state besides their type and position, so they are not
+ * stored as objects at all. Instead a new tile is created whenever one is asked for. Structures
+ * do carry state, so the few cells that contain one keep a reference to it.
+ * </p>
+ *
+ * <p>
+ * Placing a resource or structure gives its chunk the next version of the layers, so versions
+ * only ever increase and can be compared between chunks.
+ * </p>
+ *
+ * <p>
+ * With paging enabled, only the most recently used chunks are kept in memory and the rest are
+ * paged out to disk, to be paged back in when a cell in them is accessed.
+ * </p>
+ *
+ * <p>
+ * Layers can also be unbounded, in which case chunks are generated the first time a cell in them
+ * is accessed, and only generated chunks take up any memory.
+ * </p>
+ *
+ * <p>
+ * Snapshots and forks of the layers share their chunks, which are copied only when they are
+ * changed after the snapshot or fork was taken.
+ * </p>
+ *
+ * @author Martin
+ */
+final class PackedTileLayers implements IChunkVersions, Serializable {
+
+    /**
+     * The id used in the resource and structure layers for cells that have nothing in them.
+     */
+    private static final byte NONE = 0;
+    private static final TerrainType[] TERRAIN_TYPES = TerrainType.values();
+    private static final ResourceType[] RESOURCE_TYPES = ResourceType.values();
+    /**
+     * The version of chunks that have not been generated yet.
+     */
+    private static final long UNGENERATED_VERSION = 0;
+    /**
+     * The world size of layers without bounds.
+     */
+    private static final int UNBOUNDED_SIZE = Integer.MAX_VALUE;
+    private final int worldSize;
+    /**
+     * Generates chunks the first time they are used, or null if the layers have bounds or are a
+     * snapshot or fork.
+     */
+    private final ChunkGenerator generator;
+    private final ChunkTable table;
+    private final CellLayout layout;
+    private long version = 0;
+
+    /**
+     * Creates layers for a world filled with the first terrain type, without any resources or
+     * structures, that keeps every chunk in memory.
+     *
+     * @param worldSize The amount of tiles in length for X and Y, e.g. worldSize x worldSize.
+     */
+    PackedTileLayers(final int worldSize) {
+        this(worldSize, null);
+    }
+
+    /**
+     * Creates layers for a world filled with the first terrain type, without any resources or
+     * structures.
+     *
+     * @param worldSize The amount of tiles in length for X and Y, e.g. worldSize x worldSize.
+     * @param paging    How to page chunks out to disk, or null to keep every chunk in memory.
+     */
+    PackedTileLayers(final int worldSize, final ChunkPaging paging) {
+        this(worldSize, paging, CellLayout.ROW_MAJOR);
+    }
+
+    /**
+     * Creates layers for a world filled with the first terrain type, without any resources or
+     * structures, with the cells of each chunk stored in a given order.
+     *
+     * @param worldSize The amount of tiles in length for X and Y, e.g. worldSize x worldSize.
+     * @param paging    How to page chunks out to disk, or null to keep every chunk in memory.
+     * @param layout    The order to store the cells of each chunk in.
+     */
+    PackedTileLayers(final int worldSize, final ChunkPaging paging, final CellLayout layout) {
+        this.worldSize = worldSize;
+        this.generator = null;
+        this.layout = layout;
+        this.table = new ChunkTable(Math.max(0, (worldSize + Chunk.SIZE - 1) >> Chunk.SHIFT),
+                                    paging);
+    }
+
+    /**
+     * Creates layers without bounds, where each chunk is generated the first time it is used.
+     *
+     * @param seed            The seed used to generate chunks.
+     * @param resourceIndexes Where to index generated resources, by type.
+     * @param paging          How to page chunks out to disk, or null to keep every chunk in
+     *                        memory.
+     */
+    PackedTileLayers(
+        final int seed,
+        final Map<ResourceType, SpatialIndex<IResource>> resourceIndexes,
+        final ChunkPaging paging) {
+        this.worldSize = UNBOUNDED_SIZE;
+        this.generator = new ChunkGenerator(seed, resourceIndexes);
+        this.table = new ChunkTable(paging);
+        this.layout = CellLayout.ROW_MAJOR;
+    }
+
+    // Creates a snapshot or fork of other layers, which uses the given snapshot or fork of their
+    // table.
+    private PackedTileLayers(final PackedTileLayers source, final ChunkTable table) {
+        this.worldSize = source.worldSize;
+        this.generator = null;
+        this.table = table;
+        this.layout = source.layout;
+        this.version = source.version;
+    }
+
+    /**
+     * Whether the coordinates are inside of the world.
+     *
+     * @param x The x-coordinate.
+     * @param y The y-coordinate.
+     *
+     * @return Whether the coordinates are inside of the world.
+     */
+    boolean isInside(final int x, final int y) {
+        if (generator != null) return true;
+        // A snapshot of unbounded layers only has the chunks that had been generated.
+        if (worldSize == UNBOUNDED_SIZE) return table.peek(x, y) != null;
+        return x >= 0 && y >= 0 && x < worldSize && y < worldSize;
+    }
+
+    /**
+     * Moves a coordinate to the closest coordinate that is inside of the world.
+     *
+     * @param coordinate The x- or y-coordinate.
+     *
+     * @return The coordinate, limited to the bounds of the world.
+     */
+    int clampToWorld(final int coordinate) {
+        if (worldSize == UNBOUNDED_SIZE) return coordinate;
+        return Math.max(0, Math.min(worldSize - 1, coordinate));
+    }
+
+    /**
+     * Visits every cell of the world, or every generated cell if the world is unbounded.
+     *
+     * <p>
+     * Bounded worlds are visited in row-major order. Unbounded worlds are visited one chunk at a
+     * time, in the order the chunks were generated.
+     * </p>
+     *
+     * @param visitor What to do with each cell.
+     */
+    void forEachCell(final ICellVisitor visitor) {
+        // Counted up front, since visiting cells of unbounded layers could generate more chunks.
+        final int cellCount = getCellCount();
+        for (int i = 0; i < cellCount; i++) {
+            visitor.visit(getCellX(i), getCellY(i));
+        }
+    }
+
+    /**
+     * Gets how many cells {@link #forEachCell} visits.
+     *
+     * @return The number of cells of the world, or of the generated chunks if it is unbounded.
+     */
+    int getCellCount() {
+        if (worldSize != UNBOUNDED_SIZE) return worldSize * worldSize;
+        return table.getChunkCount() * Chunk.CELL_COUNT;
+    }
+
+    /**
+     * Gets the x-coordinate of a cell by where it is in the order of {@link #forEachCell}.
+     *
+     * @param ordinal Where the cell is in the order, from 0 to the cell count.
+     *
+     * @return The x-coordinate.
+     */
+    int getCellX(final int ordinal) {
+        if (worldSize != UNBOUNDED_SIZE) return ordinal % worldSize;
+        return table.getChunkOriginX(ordinal / Chunk.CELL_COUNT) + ordinal % Chunk.SIZE;
+    }
+
+    /**
+     * Gets the y-coordinate of a cell by where it is in the order of {@link #forEachCell}.
+     *
+     * @param ordinal Where the cell is in the order, from 0 to the cell count.
+     *
+     * @return The y-coordinate.
+     */
+    int getCellY(final int ordinal) {
+        if (worldSize != UNBOUNDED_SIZE) return ordinal / worldSize;
+        final int chunkOrdinal = ordinal / Chunk.CELL_COUNT;
+        return table.getChunkOriginY(chunkOrdinal) + ordinal % Chunk.CELL_COUNT / Chunk.SIZE;
+    }
+
+    /**
+     * Takes a snapshot of the layers, which shares every chunk with them but never sees any
+     * changes made to them afterwards.
+     *
+     * <p>
+     * A snapshot of unbounded layers only has the chunks that had been generated, and does not
+     * generate any more.
+     * </p>
+     *
+     * @return The snapshot, which must not be changed.
+     *
+     * @throws IllegalStateException When the layers page chunks out to disk.
+     */
+    PackedTileLayers snapshot() {
+        return new PackedTileLayers(this, table.snapshot());
+    }
+
+    /**
+     * Forks the layers, so that the layers and the fork share every chunk, can both be changed,
+     * and never see any changes made to each other afterwards.
+     *
+     * <p>
+     * Like a snapshot, a fork of unbounded layers only has the chunks that had been generated.
+     * Forking only copies references to the chunks, and only the chunks that are changed
+     * afterwards ever have their cells copied. The structures of the cells are shared as well, so
+     * replace them in the fork before changing them.
+     * </p>
+     *
+     * @return The fork.
+     *
+     * @throws IllegalStateException When the layers page chunks out to disk.
+     */
+    PackedTileLayers fork() {
+        return new PackedTileLayers(this, table.fork());
+    }
+
+    private int indexOf(final int x, final int y) {
+        return layout.indexOf(x & Chunk.MASK, y & Chunk.MASK);
+    }
+
+    private Chunk chunkOf(final int x, final int y) {
+        final Chunk chunk = table.get(x, y);
+        if (chunk != null) return chunk;
+        return generateChunkOf(x, y);
+    }
+
+    private Chunk writableChunkOf(final int x, final int y) {
+        final Chunk chunk = table.getWritable(x, y);
+        if (chunk != null) return chunk;
+        return generateChunkOf(x, y);
+    }
+
+    private Chunk generateChunkOf(final int x, final int y) {
+        if (generator == null) {
+            throw new IndexOutOfBoundsException("Position is outside of the snapshot.");
+        }
+        // Added before generating, since generating accesses the cells of the chunk.
+        final Chunk chunk = table.add(x, y);
+        generator.generate(this, x & ~Chunk.MASK, y & ~Chunk.MASK);
+        return chunk;
+    }
+
+    /**
+     * Deletes the page file of the layers, if they page chunks out to disk. The layers can not be
+     * used afterwards.
+     */
+    void dispose() {
+        table.dispose();
+    }
+
+    /**
+     * Counts the chunks whose cells are in memory.
+     *
+     * @return The number of resident chunks.
+     */
+    int countResidentChunks() {
+        int count = 0;
+        for (final Chunk chunk : table.getChunks()) {
+            if (chunk.isResident()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gets every structure in the layers.
+     *
+     * @return The structures, in no particular order.
+     */
+    Collection<IStructure> getStructures() {
+        final Collection<IStructure> structures = new ArrayList<>();
+        for (final Chunk chunk : table.getChunks()) {
+            structures.addAll(chunk.getStructures());
+        }
+        return structures;
+    }
+
+    @Override
+    public int getChunkSize() {
+        return Chunk.SIZE;
+    }
+
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public long getChunkVersionAt(final int x, final int y) {
+        if (!isInside(x, y)) {
+            throw new IndexOutOfBoundsException("Position is outside of the world.");
+        }
+        final Chunk chunk = table.peek(x, y);
+        if (chunk == null) return UNGENERATED_VERSION;
+        return chunk.getVersion();
+    }
+
+    private void markChanged(final Chunk chunk) {
+        version++;
+        chunk.setVersion(version);
+    }
+
+    /**
+     * Gets the most important tile of the cell.
+     *
+     * <p>
+     * A structure hides any resource, which hides the terrain.
+     * </p>
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     *
+     * @return The tile that represents the cell.
+     */
+    ITile getTileAt(final int x, final int y) {
+        final Chunk chunk = chunkOf(x, y);
+        final int index = indexOf(x, y);
+        if (chunk.getStructureType(index) != NONE) return chunk.getStructure(index);
+        if (chunk.getResourceType(index) != NONE) return createResource(chunk, index, x, y);
+        return getTerrainAt(x, y);
+    }
+
+    /**
+     * Gets the cost of moving across the most important tile of the cell, without creating the
+     * tile.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     *
+     * @return The cost of moving across the cell.
+     */
+    float getCostAt(final int x, final int y) {
+        return chunkOf(x, y).getCost(indexOf(x, y));
+    }
+
+    /**
+     * Works out the cost of moving across a cell with a structure again, e.g. when the structure
+     * has been completed, and gives the chunk of the cell a new version if the cost changed.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     */
+    void refreshCostAt(final int x, final int y) {
+        final int index = indexOf(x, y);
+        final float cost = CellCosts.ofCell(chunkOf(x, y), index);
+        if (Float.compare(cost, chunkOf(x, y).getCost(index)) == 0) return;
+
+        final Chunk chunk = writableChunkOf(x, y);
+        chunk.setCost(index, cost);
+        markChanged(chunk);
+    }
+
+    // Works out the cost of the cell again. A structure always occupies its cell, otherwise the
+    // cell is vacant if it can be walked on.
+    private static void updateCell(final Chunk chunk, final int index, final int x, final int y) {
+        final float cost = CellCosts.ofCell(chunk, index);
+        chunk.setCost(index, cost);
+        chunk.setVacant(x, y, chunk.getStructureType(index) == NONE && cost < Float.MAX_VALUE);
+    }
+
+    /**
+     * Gets which cells are vacant in the part of a row that lies in the same chunk as the given
+     * cell.
+     *
+     * @param x The x-coordinate of a cell in the chunk.
+     * @param y The y-coordinate of the row.
+     *
+     * @return A bit for each cell of the row in the chunk, set if the cell is vacant, where the
+     *     lowest bit is the leftmost cell of the chunk.
+     */
+    int getVacantRowBits(final int x, final int y) {
+        return unpagedChunkOf(x, y).getVacantRow(y & Chunk.MASK);
+    }
+
+    // Vacancy is kept in memory, so the chunk does not have to be paged in.
+    private Chunk unpagedChunkOf(final int x, final int y) {
+        final Chunk chunk = table.peek(x, y);
+        if (chunk != null) return chunk;
+        return generateChunkOf(x, y);
+    }
+
+    /**
+     * Gets the terrain of the cell, no matter what is on top of it.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     *
+     * @return A newly created terrain tile.
+     */
+    ITerrain getTerrainAt(final int x, final int y) {
+        return TerrainFactory.createTerrain(getTerrainTypeAt(x, y), x, y);
+    }
+
+    /**
+     * Gets the type of terrain of the cell.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     *
+     * @return The terrain type.
+     */
+    TerrainType getTerrainTypeAt(final int x, final int y) {
+        return TERRAIN_TYPES[chunkOf(x, y).getTerrainType(indexOf(x, y))];
+    }
+
+    /**
+     * Replaces the terrain of the cell.
+     *
+     * @param x    The x-coordinate of the cell.
+     * @param y    The y-coordinate of the cell.
+     * @param type The new type of terrain.
+     */
+    void setTerrainAt(final int x, final int y, final TerrainType type) {
+        final Chunk chunk = writableChunkOf(x, y);
+        final int index = indexOf(x, y);
+        chunk.setTerrainType(index, (byte) type.ordinal());
+        updateCell(chunk, index, x, y);
+    }
+
+    /**
+     * Gets the type of resource in the cell, without creating the resource.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     *
+     * @return The resource type, or null if there is no resource in the cell.
+     */
+    ResourceType getResourceTypeAt(final int x, final int y) {
+        final byte id = chunkOf(x, y).getResourceType(indexOf(x, y));
+        if (id == NONE) return null;
+        return RESOURCE_TYPES[id - 1];
+    }
+
+    /**
+     * Gets the resource of the cell. Only call this if there is a resource in the cell.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     *
+     * @return A newly created resource tile.
+     */
+    IResource getResourceAt(final int x, final int y) {
+        return createResource(chunkOf(x, y), indexOf(x, y), x, y);
+    }
+
+    private IResource createResource(
+        final Chunk chunk, final int index, final int x, final int y) {
+        final ResourceType type = RESOURCE_TYPES[chunk.getResourceType(index) - 1];
+        return ResourceFactory.createResource(type, x, y);
+    }
+
+    /**
+     * Places a resource in the cell, replacing any previous resource, and gives the chunk of the
+     * cell a new version.
+     *
+     * @param x    The x-coordinate of the cell.
+     * @param y    The y-coordinate of the cell.
+     * @param type The type of resource, or null to remove the resource of the cell.
+     */
+    void setResourceAt(final int x, final int y, final ResourceType type) {
+        final Chunk chunk = writableChunkOf(x, y);
+        final int index = indexOf(x, y);
+        byte id = NONE;
+        if (type != null) {
+            id = (byte) (type.ordinal() + 1);
+        }
+        chunk.setResourceType(index, id);
+        updateCell(chunk, index, x, y);
+        markChanged(chunk);
+    }
+
+    /**
+     * Whether there is a structure in the cell.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     *
+     * @return Whether there is a structure.
+     */
+    boolean hasStructureAt(final int x, final int y) {
+        return chunkOf(x, y).getStructureType(indexOf(x, y)) != NONE;
+    }
+
+    /**
+     * Places a structure in the cell and gives the chunk of the cell a new version.
+     *
+     * @param x         The x-coordinate of the cell.
+     * @param y         The y-coordinate of the cell.
+     * @param structure The structure to place.
+     */
+    void setStructureAt(final int x, final int y, final IStructure structure) {
+        final Chunk chunk = writableChunkOf(x, y);
+        final int index = indexOf(x, y);
+        chunk.setStructure(index, (byte) (structure.getType().ordinal() + 1), structure);
+        updateCell(chunk, index, x, y);
+        markChanged(chunk);
+    }
+
+}
@@ -0,0 +1,254 @@
+package com.thebois.models.world;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
+
+import com.thebois.Pawntastic;
+import com.thebois.abstractions.IPositionable;
+import com.thebois.listeners.events.ResourceHarvestedEvent;
+import com.thebois.models.Position;
+import com.thebois.models.world.resources.IResource;
+import com.thebois.models.world.resources.ResourceType;
+import com.thebois.utils.TimingWheel;
+
+/**
+ * Depletes the resources of the world as they are harvested, and grows them back after a while.
+ *
+ * <p>
+ * Only resources that have been harvested are tracked, so untouched resources cost nothing. The
+ * pending regrowths are timers in a timing wheel, so moving time forward only looks at the
+ * resources that grow back, no matter how many are waiting. Depleting a resource and growing it
+ * back change a single cell, which is updated in the layers, the resource index and the change
+ * journal on its own. Harvests are announced outside of the world, so they are handled while
+ * holding the write lock of the world.
+ * </p>
+ *
+ * @author Martin
+ */
+final class ResourceDepletion implements Serializable {
+
+    /**
+     * How many seconds a tick of the timing wheel lasts.
+     */
+    static final float TICK_TIME = 0.1f;
+    private final PackedTileLayers layers;
+    private final Map<ResourceType, SpatialIndex<IResource>> resourceIndexes;
+    private final TileChangeRecorder changeRecorder;
+    private final OptimisticLock lock;
+    /**
+     * How many more times each harvested resource can be harvested. Resources that have never
+     * been harvested are not in here.
+     */
+    private final Map<Position, Integer> harvestsLeft = new HashMap<>();
+    /**
+     * The depleted resources, each waiting to grow back.
+     */
+    private final TimingWheel<Regrowth> regrowths;
+    private float unspentTime = 0f;
+    /**
+     * The event bus that the depletion listens on, which is not saved.
+     */
+    private transient EventBus eventBus;
+
+    private ResourceDepletion(
+        final PackedTileLayers layers,
+        final Map<ResourceType, SpatialIndex<IResource>> resourceIndexes,
+        final TileChangeRecorder changeRecorder,
+        final OptimisticLock lock) {
+        this.layers = layers;
+        this.resourceIndexes = resourceIndexes;
+        this.changeRecorder = changeRecorder;
+        this.lock = lock;
+        this.regrowths = new TimingWheel<>();
+        listen();
+    }
+
+    // Creates a copy for a fork of a world.
+    private ResourceDepletion(
+        final ResourceDepletion source,
+        final PackedTileLayers layers,
+        final Map<ResourceType, SpatialIndex<IResource>> resourceIndexes,
+        final TileChangeRecorder changeRecorder,
+        final OptimisticLock lock) {
+        this.layers = layers;
+        this.resourceIndexes = resourceIndexes;
+        this.changeRecorder = changeRecorder;
+        this.lock = lock;
+        this.regrowths = source.regrowths.copy();
+        this.harvestsLeft.putAll(source.harvestsLeft);
+        this.unspentTime = source.unspentTime;
+        listen();
+    }
+
+    /**
+     * Starts depleting the resources of a world as they are harvested.
+     *
+     * @param layers          The layers of the world.
+     * @param resourceIndexes The resources of the world, by type.
+     * @param changeRecorder  What to announce depleted and regrown resources with.
+     * @param lock            The lock that guards the world.
+     *
+     * @return The depletion of the resources of the world.
+     */
+    static ResourceDepletion track(
+        final PackedTileLayers layers,
+        final Map<ResourceType, SpatialIndex<IResource>> resourceIndexes,
+        final TileChangeRecorder changeRecorder,
+        final OptimisticLock lock) {
+        return new ResourceDepletion(layers, resourceIndexes, changeRecorder, lock);
+    }
+
+    /**
+     * Creates a copy for a fork of the world, with the same resources waiting to grow back. The
+     * copy listens for harvests on the event bus that is current when it is created.
+     *
+     * @param forkLayers   The layers of the fork.
+     * @param forkIndexes  The resources of the fork, by type.
+     * @param forkRecorder The recorder of the fork.
+     * @param forkLock     The lock that guards the fork.
+     *
+     * @return The depletion of the resources of the fork.
+     */
+    ResourceDepletion fork(
+        final PackedTileLayers forkLayers,
+        final Map<ResourceType, SpatialIndex<IResource>> forkIndexes,
+        final TileChangeRecorder forkRecorder,
+        final OptimisticLock forkLock) {
+        return new ResourceDepletion(this, forkLayers, forkIndexes, forkRecorder, forkLock);
+    }
+
+    // Listens on the event bus that is current, which is that of the simulation being set up.
+    private void listen() {
+        eventBus = Pawntastic.getEventBus();
+        eventBus.register(this);
+    }
+
+    /**
+     * Stops listening for harvests, once the world has been thrown away.
+     */
+    void dispose() {
+        eventBus.unregister(this);
+    }
+
+    /**
+     * Moves time forward, growing back the resources whose time has come.
+     *
+     * @param deltaTime The time since the last update, in seconds.
+     * @param occupants What stands in the world, which resources do not grow back on.
+     */
+    void update(final float deltaTime, final Collection<? extends IPositionable> occupants) {
+        unspentTime += deltaTime;
+        final long ticks = (long) (unspentTime / TICK_TIME);
+        unspentTime -= ticks * TICK_TIME;
+        regrowths.advance(ticks, regrowth -> regrow(regrowth, occupants));
+    }
+
+    /**
+     * Gets how many depleted resources are waiting to grow back.
+     *
+     * @return The number of depleted resources.
+     */
+    int countDepleted() {
+        return regrowths.size();
+    }
+
+    /**
+     * Depletes the harvested resource a bit, and removes it from the world when nothing is left
+     * of it.
+     *
+     * @param event The published event.
+     */
+    @Subscribe
+    public void onResourceHarvestedEvent(final ResourceHarvestedEvent event) {
+        lock.write(() -> deplete(event));
+    }
+
+    private void deplete(final ResourceHarvestedEvent event) {
+        final ResourceType type = event.getResourceType();
+        final int x = (int) event.getPosition().getX();
+        final int y = (int) event.getPosition().getY();
+        // Other worlds might share the event bus, and the resource might already be depleted.
+        if (type.getHarvestCount() == 0 || !layers.isInside(x, y)
+            || layers.getResourceTypeAt(x, y) != type) {
+            return;
+        }
+
+        final Position position = new Position(x, y);
+        final int left = harvestsLeft.getOrDefault(position, type.getHarvestCount()) - 1;
+        if (left > 0) {
+            harvestsLeft.put(position, left);
+            return;
+        }
+        harvestsLeft.remove(position);
+        final float oldCost = layers.getCostAt(x, y);
+        resourceIndexes.get(type).remove(layers.getResourceAt(x, y));
+        layers.setResourceAt(x, y, null);
+        changeRecorder.resourceChanged(x, y, oldCost);
+        regrowths.schedule(new Regrowth(type, x, y), ticksOf(type.getRegrowthTime()));
+    }
+
+    // Grows the resource back, unless something has been built on its cell in the meantime or
+    // something stands on it, in which case it tries again later.
+    private void regrow(
+        final Regrowth regrowth, final Collection<? extends IPositionable> occupants) {
+        final int x = regrowth.x;
+        final int y = regrowth.y;
+        final ResourceType type = regrowth.type;
+        if (layers.hasStructureAt(x, y) || layers.getResourceTypeAt(x, y) != null
+            || isOccupied(x, y, occupants)) {
+            regrowths.schedule(regrowth, ticksOf(type.getRegrowthTime()));
+            return;
+        }
+        final float oldCost = layers.getCostAt(x, y);
+        layers.setResourceAt(x, y, type);
+        resourceIndexes.get(type).add(layers.getResourceAt(x, y));
+        changeRecorder.resourceChanged(x, y, oldCost);
+    }
+
+    // Whether something overlaps the cell, also when it is on its way to or from a neighbour.
+    private static boolean isOccupied(
+        final int x, final int y, final Collection<? extends IPositionable> occupants) {
+        for (final IPositionable occupant : occupants) {
+            final Position position = occupant.getPosition();
+            if (Math.abs(position.getX() - x) < 1 && Math.abs(position.getY() - y) < 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long ticksOf(final float seconds) {
+        return (long) Math.ceil(seconds / TICK_TIME);
+    }
+
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        // Has to subscribe after being read, since the event bus is not saved.
+        listen();
+    }
+
+    /**
+     * A depleted resource that is waiting to grow back.
+     */
+    private static final class Regrowth implements Serializable {
+
+        private final ResourceType type;
+        private final int x;
+        private final int y;
+
+        Regrowth(final ResourceType type, final int x, final int y) {
+            this.type = type;
+            this.x = x;
+            this.y = y;
+        }
+
+    }
+
+}
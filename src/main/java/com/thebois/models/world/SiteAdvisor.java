@@ -0,0 +1,195 @@
+package com.thebois.models.world;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.thebois.Simulation;
+import com.thebois.models.Position;
+import com.thebois.models.inventory.items.ItemType;
+import com.thebois.models.world.resources.ResourceType;
+import com.thebois.models.world.structures.IStructure;
+import com.thebois.models.world.structures.StructureType;
+
+/**
+ * Advises where to place a structure, by trying out each candidate site on a fork of the
+ * simulation.
+ *
+ * <p>
+ * Every site gets a fork of its own, where the structure is placed and the colony is left to go
+ * about its work for a short while. A site is then scored by how far it is from the origin and
+ * from the resources that the items the structure still needs are harvested from, so that sites
+ * that the colony gets further with building score better. The simulation is forked on the
+ * calling thread, and the forks are played out on a fork/join pool, so the simulation is never
+ * changed.
+ * </p>
+ *
+ * <p>
+ * Town halls can not be advised on, since there is only ever one.
+ * </p>
+ *
+ * @author Martin
+ */
+public final class SiteAdvisor {
+
+    /**
+     * How many sites a task plays out on its own, instead of splitting them between two tasks.
+     */
+    private static final int SITES_PER_TASK = 2;
+    /**
+     * How many seconds each update of a fork moves it forward.
+     */
+    private static final float TIME_STEP = 0.1f;
+    private final Simulation simulation;
+    private final ForkJoinPool pool;
+    private final float horizon;
+
+    /**
+     * Instantiates with the simulation to advise on.
+     *
+     * @param simulation The simulation to place structures in.
+     * @param pool       The pool to play out the sites on.
+     * @param horizon    How many seconds to play out each site for.
+     */
+    public SiteAdvisor(final Simulation simulation, final ForkJoinPool pool, final float horizon) {
+        this.simulation = simulation;
+        this.pool = pool;
+        this.horizon = horizon;
+    }
+
+    /**
+     * Ranks the sites where a structure could be placed, from the best to the worst.
+     *
+     * <p>
+     * Sites where the structure can not be placed, that can not be reached from the origin, or
+     * where the structure still needs items that there are no resources for, are left out. Call
+     * this from the thread that runs the simulation.
+     * </p>
+     *
+     * @param type       The type of structure to place.
+     * @param candidates The sites to try.
+     * @param origin     Where the structure is reached from, e.g. the town hall.
+     *
+     * @return The scores of the sites, lowest first.
+     *
+     * @throws IllegalArgumentException When the type is a town hall.
+     * @throws IllegalStateException    When the world pages parts of itself out to disk.
+     */
+    public List<SiteScore> rank(
+        final StructureType type, final Collection<Position> candidates, final Position origin) {
+        if (type == StructureType.TOWN_HALL) {
+            throw new IllegalArgumentException("Town halls can not be advised on.");
+        }
+
+        final World world = simulation.getWorld();
+        // Labels the regions first, so that the forks share the labels.
+        world.isReachable(origin, origin);
+        final List<Trial> trials = new ArrayList<>(candidates.size());
+        for (final Position site : candidates) {
+            if (world.canCreateStructure(type, site)) {
+                trials.add(new Trial(simulation.fork(), site));
+            }
+        }
+
+        final List<SiteScore> scores = pool.invoke(new ScoreTask(trials, type, origin));
+        Collections.sort(scores);
+        return scores;
+    }
+
+    // Places the structure on the fork of the trial and plays it out, then scores the site, or
+    // gives nothing if it is no good.
+    private Optional<SiteScore> play(
+        final Trial trial, final StructureType type, final Position origin) {
+        final Simulation fork = trial.fork;
+        final World world = fork.getWorld();
+        final Position site = trial.site;
+        // Blueprints can be walked over, so what can be reached is known as soon as it is placed.
+        if (!world.tryCreateStructure(type, site) || !world.isReachable(origin, site)) {
+            return Optional.empty();
+        }
+        final IStructure structure = (IStructure) world.getTileAt(site);
+
+        final int steps = (int) Math.ceil(horizon / TIME_STEP);
+        for (int step = 0; step < steps; step++) {
+            fork.update(TIME_STEP);
+        }
+
+        float score = origin.distanceTo(site);
+        for (final ItemType itemType : structure.getNeededItems()) {
+            final Optional<Float> distance = distanceToSource(world, site, itemType);
+            if (distance.isEmpty()) return Optional.empty();
+            score += distance.get();
+        }
+        return Optional.of(new SiteScore(site, score));
+    }
+
+    // Gives the distance to the nearest resource that the item is harvested from, if there is one.
+    // Every item is harvested from a single type of resource.
+    private static Optional<Float> distanceToSource(
+        final World world, final Position site, final ItemType itemType) {
+        for (final ResourceType resourceType : ResourceType.values()) {
+            if (resourceType.getItemType() == itemType) {
+                return world.getNearbyOfType(site, resourceType)
+                            .map(resource -> site.distanceTo(resource.getPosition()));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * A site to try out, with the fork of the simulation to try it out on.
+     */
+    private static final class Trial {
+
+        private final Simulation fork;
+        private final Position site;
+
+        Trial(final Simulation fork, final Position site) {
+            this.fork = fork;
+            this.site = site;
+        }
+
+    }
+
+    /**
+     * Plays out trials, splitting them in halves until few enough are left to play out directly.
+     */
+    private final class ScoreTask extends RecursiveTask<List<SiteScore>> {
+
+        private final List<Trial> trials;
+        private final StructureType type;
+        private final Position origin;
+
+        ScoreTask(final List<Trial> trials, final StructureType type, final Position origin) {
+            this.trials = trials;
+            this.type = type;
+            this.origin = origin;
+        }
+
+        @Override
+        protected List<SiteScore> compute() {
+            if (trials.size() <= SITES_PER_TASK) {
+                final List<SiteScore> scores = new ArrayList<>();
+                for (final Trial trial : trials) {
+                    trial.fork.call(() -> play(trial, type, origin)).ifPresent(scores::add);
+                }
+                return scores;
+            }
+
+            final int middle = trials.size() / 2;
+            final ScoreTask left = new ScoreTask(trials.subList(0, middle), type, origin);
+            final ScoreTask right =
+                new ScoreTask(trials.subList(middle, trials.size()), type, origin);
+            left.fork();
+            final List<SiteScore> scores = right.compute();
+            scores.addAll(left.join());
+            return scores;
+        }
+
+    }
+
+}
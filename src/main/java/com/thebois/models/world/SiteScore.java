@@ -0,0 +1,39 @@
+package com.thebois.models.world;
+
+import com.thebois.models.Position;
+
+/**
+ * How good a site is for placing a structure on, where a lower score is better.
+ *
+ * @author Martin
+ */
+public final class SiteScore implements Comparable<SiteScore> {
+
+    private final Position position;
+    private final float score;
+
+    /**
+     * Instantiates with the site and its score.
+     *
+     * @param position The position of the site.
+     * @param score    The score of the site, lower is better.
+     */
+    public SiteScore(final Position position, final float score) {
+        this.position = position;
+        this.score = score;
+    }
+
+    public Position getPosition() {
+        return position;
+    }
+
+    public float getScore() {
+        return score;
+    }
+
+    @Override
+    public int compareTo(final SiteScore other) {
+        return Float.compare(score, other.score);
+    }
+
+}
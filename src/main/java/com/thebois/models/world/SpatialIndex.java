@@ -0,0 +1,374 @@
+package com.thebois.models.world;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import com.thebois.abstractions.IPositionable;
+import com.thebois.models.Position;
+
+/**
+ * Indexes positioned elements in a uniform grid of buckets, so that the elements closest to a
+ * position can be found without looking at every element.
+ *
+ * <p>
+ * Searches start in the bucket containing the origin and expand outwards one ring of buckets at a
+ * time, stopping as soon as no unvisited bucket can contain anything closer than what has already
+ * been found.
+ * </p>
+ *
+ * <p>
+ * Forks of the index share its buckets, and a shared bucket is copied by whichever index changes
+ * it first, so forking only copies references to the buckets.
+ * </p>
+ *
+ * @param <TElement> The type of element to index.
+ *
+ * @author Martin
+ */
+final class SpatialIndex<TElement extends IPositionable> implements Serializable {
+
+    /**
+     * The default width and height of a bucket, in tiles.
+     */
+    static final int DEFAULT_BUCKET_SIZE = 8;
+    private static final long LOWER_HALF_MASK = 0xFFFFFFFFL;
+    private final int bucketSize;
+    /**
+     * The elements of each bucket, keyed by the packed coordinates of the bucket. Buckets without
+     * any elements are not stored.
+     */
+    private final Map<Long, List<TElement>> buckets = new HashMap<>();
+    /**
+     * The keys of the buckets that no fork shares, which can be changed in place. Every other
+     * bucket is copied before it is changed.
+     */
+    private final Set<Long> ownedBuckets = new HashSet<>();
+    private int size = 0;
+    /* The bounds of all buckets that have ever contained an element. */
+    private int minBucketX = Integer.MAX_VALUE;
+    private int maxBucketX = Integer.MIN_VALUE;
+    private int minBucketY = Integer.MAX_VALUE;
+    private int maxBucketY = Integer.MIN_VALUE;
+
+    /**
+     * Creates an empty index with the default bucket size.
+     */
+    SpatialIndex() {
+        this(DEFAULT_BUCKET_SIZE);
+    }
+
+    /**
+     * Creates an empty index.
+     *
+     * @param bucketSize The width and height of a bucket, in tiles.
+     *
+     * @throws IllegalArgumentException When the bucket size is not positive.
+     */
+    SpatialIndex(final int bucketSize) {
+        if (bucketSize <= 0) {
+            throw new IllegalArgumentException("Bucket size must be positive.");
+        }
+        this.bucketSize = bucketSize;
+    }
+
+    // Creates a fork that shares the buckets of another index.
+    private SpatialIndex(final SpatialIndex<TElement> source) {
+        this.bucketSize = source.bucketSize;
+        this.buckets.putAll(source.buckets);
+        this.size = source.size;
+        this.minBucketX = source.minBucketX;
+        this.maxBucketX = source.maxBucketX;
+        this.minBucketY = source.minBucketY;
+        this.maxBucketY = source.maxBucketY;
+        // Every bucket is now shared with the fork.
+        source.ownedBuckets.clear();
+    }
+
+    /**
+     * Forks every index of a map of indexes.
+     *
+     * @param indexes    The indexes to fork, by constant.
+     * @param <TKey>     The type of the enum.
+     * @param <TElement> The type of element to index.
+     *
+     * @return The forks, by constant.
+     */
+    static <TKey extends Enum<TKey>, TElement extends IPositionable>
+        Map<TKey, SpatialIndex<TElement>> forkEach(
+        final Map<TKey, SpatialIndex<TElement>> indexes) {
+        final Map<TKey, SpatialIndex<TElement>> forks = new EnumMap<>(indexes);
+        forks.replaceAll((key, index) -> index.fork());
+        return forks;
+    }
+
+    private static long packBucketCoordinates(final int bucketX, final int bucketY) {
+        return ((long) bucketX << Integer.SIZE) | (bucketY & LOWER_HALF_MASK);
+    }
+
+    /**
+     * Adds an element to the index.
+     *
+     * @param element The element to add.
+     */
+    void add(final TElement element) {
+        final int bucketX = bucketOf(element.getPosition().getX());
+        final int bucketY = bucketOf(element.getPosition().getY());
+        final long key = packBucketCoordinates(bucketX, bucketY);
+        List<TElement> bucket = writableBucket(key);
+        if (bucket == null) {
+            bucket = new ArrayList<>();
+            buckets.put(key, bucket);
+            ownedBuckets.add(key);
+        }
+        bucket.add(element);
+        minBucketX = Math.min(minBucketX, bucketX);
+        maxBucketX = Math.max(maxBucketX, bucketX);
+        minBucketY = Math.min(minBucketY, bucketY);
+        maxBucketY = Math.max(maxBucketY, bucketY);
+        size++;
+    }
+
+    /**
+     * Removes an element from the index.
+     *
+     * @param element The element to remove.
+     *
+     * @return Whether the element was in the index.
+     */
+    boolean remove(final TElement element) {
+        final int bucketX = bucketOf(element.getPosition().getX());
+        final int bucketY = bucketOf(element.getPosition().getY());
+        final long key = packBucketCoordinates(bucketX, bucketY);
+        final List<TElement> bucket = buckets.get(key);
+        if (bucket == null || !bucket.contains(element)) return false;
+
+        final List<TElement> writable = writableBucket(key);
+        writable.remove(element);
+        if (writable.isEmpty()) {
+            buckets.remove(key);
+            ownedBuckets.remove(key);
+        }
+        size--;
+        return true;
+    }
+
+    // Gets the bucket so that it can be changed, copying it first if it might be shared.
+    private List<TElement> writableBucket(final long key) {
+        final List<TElement> bucket = buckets.get(key);
+        if (bucket == null || ownedBuckets.contains(key)) return bucket;
+
+        final List<TElement> copy = new ArrayList<>(bucket);
+        buckets.put(key, copy);
+        ownedBuckets.add(key);
+        return copy;
+    }
+
+    /**
+     * Forks the index, so that the index and the fork have the same elements but never see any
+     * elements added to or removed from each other afterwards.
+     *
+     * @return The fork.
+     */
+    SpatialIndex<TElement> fork() {
+        return new SpatialIndex<>(this);
+    }
+
+    /**
+     * Gets the number of elements in the index.
+     *
+     * @return The number of elements.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Finds the element closest to the origin that fulfills the filter.
+     *
+     * @param origin The position to search around.
+     * @param filter Which elements are allowed to be found.
+     *
+     * @return The closest matching element, if there is any.
+     */
+    Optional<TElement> nearest(final Position origin, final Predicate<TElement> filter) {
+        final List<TElement> found = nearest(origin, 1, filter);
+        if (found.isEmpty()) return Optional.empty();
+        return Optional.of(found.get(0));
+    }
+
+    /**
+     * Finds the elements closest to the origin that fulfill the filter, closest first.
+     *
+     * @param origin The position to search around.
+     * @param count  The maximum number of elements to find.
+     * @param filter Which elements are allowed to be found.
+     *
+     * @return At most count elements, ordered by increasing distance to the origin.
+     */
+    List<TElement> nearest(
+        final Position origin, final int count, final Predicate<TElement> filter) {
+        final NearestCollector<TElement> collector = new NearestCollector<>(origin, count);
+        // An optimistic reader racing the first add can see a size without any bounds.
+        if (size == 0 || count <= 0 || minBucketX > maxBucketX) return collector.getFound();
+
+        final int originBucketX = bucketOf(origin.getX());
+        final int originBucketY = bucketOf(origin.getY());
+        final int lastRing = distanceToFurthestBucket(originBucketX, originBucketY);
+        for (int ring = 0; ring <= lastRing; ring++) {
+            visitRing(originBucketX, originBucketY, ring, element -> {
+                if (filter.test(element)) {
+                    collector.offer(element);
+                }
+            });
+            // Anything in the next ring is at least this far away from the origin.
+            final float closestPossibleInNextRing = (float) ring * bucketSize;
+            if (collector.isFull() && collector.worstDistance() <= closestPossibleInNextRing) {
+                break;
+            }
+        }
+        return collector.getFound();
+    }
+
+    /**
+     * Visits every element that is within the radius of the origin.
+     *
+     * @param origin The center of the search.
+     * @param radius How far from the origin elements can be, inclusive.
+     * @param action What to do with each element.
+     */
+    void forEachWithinRadius(
+        final Position origin, final float radius, final Consumer<TElement> action) {
+        if (size == 0) return;
+        final int firstBucketX = Math.max(minBucketX, bucketOf(origin.getX() - radius));
+        final int lastBucketX = Math.min(maxBucketX, bucketOf(origin.getX() + radius));
+        final int firstBucketY = Math.max(minBucketY, bucketOf(origin.getY() - radius));
+        final int lastBucketY = Math.min(maxBucketY, bucketOf(origin.getY() + radius));
+        for (int bucketY = firstBucketY; bucketY <= lastBucketY; bucketY++) {
+            for (int bucketX = firstBucketX; bucketX <= lastBucketX; bucketX++) {
+                visitBucket(bucketX, bucketY, element -> {
+                    if (origin.distanceTo(element.getPosition()) <= radius) {
+                        action.accept(element);
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Gets every element that is within the radius of the origin.
+     *
+     * @param origin The center of the search.
+     * @param radius How far from the origin elements can be, inclusive.
+     *
+     * @return The elements within the radius.
+     */
+    Collection<TElement> withinRadius(final Position origin, final float radius) {
+        final Collection<TElement> found = new ArrayList<>();
+        forEachWithinRadius(origin, radius, found::add);
+        return found;
+    }
+
+    private int bucketOf(final float coordinate) {
+        return Math.floorDiv((int) Math.floor(coordinate), bucketSize);
+    }
+
+    private int distanceToFurthestBucket(final int bucketX, final int bucketY) {
+        final int horizontal = Math.max(Math.abs(bucketX - minBucketX),
+                                        Math.abs(bucketX - maxBucketX));
+        final int vertical = Math.max(Math.abs(bucketY - minBucketY),
+                                      Math.abs(bucketY - maxBucketY));
+        return Math.max(horizontal, vertical);
+    }
+
+    // Visits all buckets at exactly the given Chebyshev distance from the center bucket.
+    private void visitRing(
+        final int centerX, final int centerY, final int ring, final Consumer<TElement> action) {
+        if (ring == 0) {
+            visitBucket(centerX, centerY, action);
+            return;
+        }
+        for (int bucketX = centerX - ring; bucketX <= centerX + ring; bucketX++) {
+            visitBucket(bucketX, centerY - ring, action);
+            visitBucket(bucketX, centerY + ring, action);
+        }
+        for (int bucketY = centerY - ring + 1; bucketY < centerY + ring; bucketY++) {
+            visitBucket(centerX - ring, bucketY, action);
+            visitBucket(centerX + ring, bucketY, action);
+        }
+    }
+
+    private void visitBucket(
+        final int bucketX, final int bucketY, final Consumer<TElement> action) {
+        if (bucketX < minBucketX || bucketX > maxBucketX) return;
+        if (bucketY < minBucketY || bucketY > maxBucketY) return;
+        final List<TElement> bucket = buckets.get(packBucketCoordinates(bucketX, bucketY));
+        if (bucket == null) return;
+        for (final TElement element : bucket) {
+            // An optimistic reader racing an add can see a slot that has not been filled in yet.
+            if (element != null) {
+                action.accept(element);
+            }
+        }
+    }
+
+    /**
+     * Keeps track of the closest elements seen so far during a search.
+     *
+     * @param <TElement> The type of element being searched for.
+     */
+    private static final class NearestCollector<TElement extends IPositionable> {
+
+        private final Position origin;
+        private final int capacity;
+        private final List<TElement> found;
+        private final float[] distances;
+
+        NearestCollector(final Position origin, final int capacity) {
+            this.origin = origin;
+            this.capacity = Math.max(0, capacity);
+            this.found = new ArrayList<>(this.capacity);
+            this.distances = new float[this.capacity];
+        }
+
+        // Keeps the element if it is closer than the worst element found so far.
+        void offer(final TElement element) {
+            final float distance = origin.distanceTo(element.getPosition());
+            if (isFull() && distance >= worstDistance()) return;
+            if (isFull()) {
+                found.remove(found.size() - 1);
+            }
+            // Insertion sort, ties keep the element that was found first.
+            int index = found.size();
+            while (index > 0 && distances[index - 1] > distance) {
+                distances[index] = distances[index - 1];
+                index--;
+            }
+            distances[index] = distance;
+            found.add(index, element);
+        }
+
+        boolean isFull() {
+            return found.size() >= capacity;
+        }
+
+        float worstDistance() {
+            return distances[found.size() - 1];
+        }
+
+        List<TElement> getFound() {
+            return found;
+        }
+
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.thebois.models.world;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import com.thebois.models.Position;
+
+/**
+ * Finds the cells closest to a position, visiting only the cells inside of a radius.
+ *
+ * <p>
+ * The cells are visited in square rings around the origin, one ring at a time. Since every cell of
+ * a later ring is further away than the current ring, the cells found so far that are closer than
+ * that can be handed out in order of distance without looking any further. The search stops as
+ * soon as enough cells have been found, so it costs O(d^2) where d is the distance to the last cell
+ * found, and never more than O(radius^2).
+ * </p>
+ *
+ * @author Martin
+ */
+final class SpiralSearch {
+
+    private SpiralSearch() {
+    }
+
+    /**
+     * Finds the cells closest to an origin that pass a filter.
+     *
+     * @param origin   Where to search from.
+     * @param radius   How far from the origin to search, exclusive.
+     * @param maxCount The most cells to find.
+     * @param filter   Which cells to find. Only called for cells inside of the radius.
+     *
+     * @return The positions of the found cells, closest to the origin first.
+     */
+    static List<Position> findClosest(
+        final Position origin, final float radius, final int maxCount, final ICellFilter filter) {
+        final List<Position> found = new ArrayList<>();
+        final PriorityQueue<Position> candidates =
+            new PriorityQueue<>(Comparator.comparingDouble(position -> origin.distanceTo(
+                position)));
+        final int centerX = (int) Math.floor(origin.getX());
+        final int centerY = (int) Math.floor(origin.getY());
+        // The origin can be anywhere inside of the center cell, so the rings reach one further.
+        final int lastRing = (int) Math.ceil(radius) + 1;
+
+        for (int ring = 0; ring <= lastRing && found.size() < maxCount; ring++) {
+            visitRing(centerX, centerY, ring, (x, y) -> {
+                if (radius > origin.distanceTo(x, y) && filter.test(x, y)) {
+                    candidates.add(new Position(x, y));
+                }
+            });
+            // Every cell of the next ring is at least this far away from the origin.
+            final float nextRingDistance = ring;
+            while (found.size() < maxCount
+                   && !candidates.isEmpty()
+                   && origin.distanceTo(candidates.peek()) < nextRingDistance) {
+                found.add(candidates.poll());
+            }
+        }
+        while (found.size() < maxCount && !candidates.isEmpty()) {
+            found.add(candidates.poll());
+        }
+        return found;
+    }
+
+    private static void visitRing(
+        final int centerX, final int centerY, final int ring, final ICellVisitor visitor) {
+        if (ring == 0) {
+            visitor.visit(centerX, centerY);
+            return;
+        }
+        for (int x = centerX - ring; x <= centerX + ring; x++) {
+            visitor.visit(x, centerY - ring);
+            visitor.visit(x, centerY + ring);
+        }
+        for (int y = centerY - ring + 1; y < centerY + ring; y++) {
+            visitor.visit(centerX - ring, y);
+            visitor.visit(centerX + ring, y);
+        }
+    }
+
+}
@@ -0,0 +1,329 @@
+package com.thebois.models.world;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
+
+import com.thebois.Pawntastic;
+import com.thebois.listeners.events.StructureCompletedEvent;
+import com.thebois.models.Position;
+import com.thebois.models.world.structures.IStructure;
+import com.thebois.models.world.structures.StructureFactory;
+import com.thebois.models.world.structures.StructureType;
+
+/**
+ * Keeps track of the structures of the world, from where they can be placed to when they are
+ * completed.
+ *
+ * <p>
+ * A structure is a blueprint that costs nothing to walk across until every item it needs has
+ * been delivered. The registry remembers the cost of each blueprint, so that the change of cost
+ * is recorded exactly once, when the structure is completed.
+ * </p>
+ *
+ * <p>
+ * The world holds its lock while it calls the registry. Completed structures are announced from
+ * outside of the world, so the registry takes the write lock of the world itself to record them.
+ * </p>
+ *
+ * @author Martin
+ */
+final class StructureRegistry implements Serializable {
+
+    private final PackedTileLayers layers;
+    private final VacancySampler vacancySampler;
+    private final TileChangeRecorder changeRecorder;
+    private final OptimisticLock lock;
+    /**
+     * Every structure in the world, in the order they were placed.
+     */
+    private final Collection<IStructure> structures = new ArrayList<>();
+    private final Collection<IStructure> readOnlyStructures =
+        Collections.unmodifiableCollection(structures);
+    private final Map<StructureType, SpatialIndex<IStructure>> structureIndexes =
+        new EnumMap<>(StructureType.class);
+    /**
+     * Structures that were not completed the last time they were looked at. Completed structures
+     * are removed lazily when a search finds them.
+     */
+    private final SpatialIndex<IStructure> blueprintIndex = new SpatialIndex<>();
+    /**
+     * The walk cost of every structure whose completion has not been recorded yet.
+     */
+    private final Map<IStructure, Float> blueprintCosts = new HashMap<>();
+    private boolean townHallPlaced = false;
+    /**
+     * The event bus that the registry listens on, which is not saved.
+     */
+    private transient EventBus eventBus;
+
+    /**
+     * Instantiates a registry without any structures, which listens for structures being
+     * completed.
+     *
+     * @param layers         The layers of the world, to place the structures in.
+     * @param vacancySampler Tells where structures can be placed.
+     * @param changeRecorder What to record placed and completed structures with.
+     * @param lock           The lock that guards the world.
+     */
+    StructureRegistry(
+        final PackedTileLayers layers,
+        final VacancySampler vacancySampler,
+        final TileChangeRecorder changeRecorder,
+        final OptimisticLock lock) {
+        this.layers = layers;
+        this.vacancySampler = vacancySampler;
+        this.changeRecorder = changeRecorder;
+        this.lock = lock;
+        setUpIndexes();
+        listen();
+    }
+
+    // Creates a copy for a fork of a world, with a clone of every structure.
+    private StructureRegistry(
+        final StructureRegistry source,
+        final PackedTileLayers layers,
+        final VacancySampler vacancySampler,
+        final TileChangeRecorder changeRecorder,
+        final OptimisticLock lock) {
+        this.layers = layers;
+        this.vacancySampler = vacancySampler;
+        this.changeRecorder = changeRecorder;
+        this.lock = lock;
+        this.townHallPlaced = source.townHallPlaced;
+        setUpIndexes();
+        for (final IStructure structure : source.structures) {
+            final IStructure clone = StructureFactory.forkStructure(structure);
+            final Position position = clone.getPosition();
+            add(clone);
+            if (!clone.isCompleted()) {
+                blueprintIndex.add(clone);
+            }
+            final Float blueprintCost = source.blueprintCosts.get(structure);
+            if (blueprintCost != null) {
+                blueprintCosts.put(clone, blueprintCost);
+            }
+            layers.setStructureAt((int) position.getX(), (int) position.getY(), clone);
+        }
+        listen();
+    }
+
+    // Listens on the event bus that is current, which is that of the simulation being set up.
+    private void listen() {
+        eventBus = Pawntastic.getEventBus();
+        eventBus.register(this);
+    }
+
+    /**
+     * Stops listening on the event bus, once the world has been thrown away.
+     */
+    void dispose() {
+        eventBus.unregister(this);
+    }
+
+    private void setUpIndexes() {
+        for (final StructureType type : StructureType.values()) {
+            structureIndexes.put(type, new SpatialIndex<>());
+        }
+    }
+
+    /**
+     * Creates a copy for a fork of the world, placing a clone of every structure in the layers of
+     * the fork. The copy listens for completed structures on the event bus that is current when it
+     * is created.
+     *
+     * @param forkLayers   The layers of the fork.
+     * @param forkSampler  Tells where structures can be placed in the fork.
+     * @param forkRecorder The recorder of the fork.
+     * @param forkLock     The lock that guards the fork.
+     *
+     * @return The registry of the fork.
+     */
+    StructureRegistry fork(
+        final PackedTileLayers forkLayers,
+        final VacancySampler forkSampler,
+        final TileChangeRecorder forkRecorder,
+        final OptimisticLock forkLock) {
+        return new StructureRegistry(this, forkLayers, forkSampler, forkRecorder, forkLock);
+    }
+
+    /**
+     * Places structures of a given type at every given position, if all of them can be placed,
+     * and records them with a single change.
+     *
+     * @param type      The type of structures to place.
+     * @param positions The positions to place them at.
+     *
+     * @return Whether the structures were placed.
+     */
+    boolean place(final StructureType type, final Collection<Position> positions) {
+        if (!canPlace(type, positions)) return false;
+
+        final List<IStructure> placed = new ArrayList<>(positions.size());
+        final float[] oldCosts = new float[positions.size()];
+        for (final Position position : positions) {
+            final int x = (int) position.getX();
+            final int y = (int) position.getY();
+            final IStructure structure = StructureFactory.createStructure(type, x, y);
+            oldCosts[placed.size()] = layers.getCostAt(x, y);
+            layers.setStructureAt(x, y, structure);
+            add(structure);
+            blueprintIndex.add(structure);
+            blueprintCosts.put(structure, structure.getCost());
+            placed.add(structure);
+        }
+        if (type.equals(StructureType.TOWN_HALL)) {
+            townHallPlaced = true;
+        }
+        changeRecorder.structuresPlaced(placed, oldCosts);
+        return true;
+    }
+
+    private void add(final IStructure structure) {
+        structures.add(structure);
+        structureIndexes.get(structure.getType()).add(structure);
+    }
+
+    /**
+     * Checks whether structures of a given type could be placed at every given position.
+     *
+     * @param type      The type of structures.
+     * @param positions The positions to check.
+     *
+     * @return Whether the structures could be placed.
+     */
+    boolean canPlace(final StructureType type, final Collection<Position> positions) {
+        if (positions.isEmpty()) return false;
+        // There can only be one town hall.
+        final boolean isTownHall = type.equals(StructureType.TOWN_HALL);
+        if (isTownHall && (townHallPlaced || positions.size() > 1)) return false;
+
+        final Set<Position> cells = new HashSet<>();
+        for (final Position position : positions) {
+            final int x = (int) position.getX();
+            final int y = (int) position.getY();
+            if (!cells.add(new Position(x, y)) || !layers.isInside(x, y)
+                || !vacancySampler.isVacant(x, y)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    boolean isTownHallPlaced() {
+        return townHallPlaced;
+    }
+
+    /**
+     * Gets every structure.
+     *
+     * @return A read-only view of the structures, which shows structures placed later as well.
+     */
+    Collection<IStructure> getStructures() {
+        return readOnlyStructures;
+    }
+
+    /**
+     * Finds the nearest completed structure of a type. Town halls count as stockpiles, since
+     * they can store items just like a stockpile can.
+     *
+     * @param origin The position to search from.
+     * @param type   The type of structure.
+     *
+     * @return The nearest completed structure, if there is one.
+     */
+    Optional<IStructure> findNearbyCompleted(final Position origin, final StructureType type) {
+        final Optional<IStructure> nearestOfType =
+            structureIndexes.get(type).nearest(origin, IStructure::isCompleted);
+        if (!type.equals(StructureType.STOCKPILE)) return nearestOfType;
+
+        final Optional<IStructure> nearestTownHall = structureIndexes
+            .get(StructureType.TOWN_HALL)
+            .nearest(origin, IStructure::isCompleted);
+        if (nearestOfType.isEmpty()) return nearestTownHall;
+        if (nearestTownHall.isEmpty()) return nearestOfType;
+        final float distanceToTownHall =
+            origin.distanceTo(nearestTownHall.get().getPosition());
+        if (distanceToTownHall < origin.distanceTo(nearestOfType.get().getPosition())) {
+            return nearestTownHall;
+        }
+        return nearestOfType;
+    }
+
+    /**
+     * Finds the nearest structure that was not completed the last time it was looked at, without
+     * changing anything.
+     *
+     * @param origin The position to search from.
+     *
+     * @return The nearest blueprint, which might have been completed since.
+     */
+    Optional<IStructure> findNearbyBlueprint(final Position origin) {
+        return blueprintIndex.nearest(origin, structure -> true);
+    }
+
+    /**
+     * Finds the nearest structure that has not been completed, forgetting the completed
+     * structures that are found on the way.
+     *
+     * @param origin The position to search from.
+     *
+     * @return The nearest structure that has not been completed.
+     */
+    Optional<IStructure> findNearbyIncomplete(final Position origin) {
+        Optional<IStructure> incomplete = findNearbyBlueprint(origin);
+        while (incomplete.isPresent() && incomplete.get().isCompleted()) {
+            blueprintIndex.remove(incomplete.get());
+            incomplete = findNearbyBlueprint(origin);
+        }
+        return incomplete;
+    }
+
+    /**
+     * Records the change of walk cost when a structure in the world is completed.
+     *
+     * @param event The published event.
+     */
+    @Subscribe
+    public void onStructureCompletedEvent(final StructureCompletedEvent event) {
+        // Other worlds might share the event bus, so the structure might not be in this world.
+        final Position position = event.getPosition();
+        lock.write(() -> structureIndexes.get(event.getStructureType())
+                                         .nearest(position,
+                                                  structure -> structure.getPosition()
+                                                                        .equals(position))
+                                         .ifPresent(this::recordCompletion));
+    }
+
+    private void recordCompletion(final IStructure structure) {
+        // A structure at the same position in another world might be the one completed.
+        if (!structure.isCompleted()) return;
+        final Float blueprintCost = blueprintCosts.remove(structure);
+        if (blueprintCost == null) return;
+
+        final int x = (int) structure.getPosition().getX();
+        final int y = (int) structure.getPosition().getY();
+        layers.refreshCostAt(x, y);
+        changeRecorder.structureCompleted(x, y, blueprintCost);
+    }
+
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        // Has to subscribe after being read, since the event bus is not saved.
+        listen();
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.thebois.models.world;
+
+import java.util.Objects;
+
+import com.thebois.models.Position;
+
+/**
+ * Describes a change to one layer of a tile of the world.
+ *
+ * @author Martin
+ */
+public final class TileChange {
+
+    private final int x;
+    private final int y;
+    private final TileLayer layer;
+    private final float oldCost;
+    private final float newCost;
+
+    /**
+     * Instantiates with what changed, where it changed and how it changed the cost of walking on
+     * the tile.
+     *
+     * @param x       The x-coordinate of the changed tile.
+     * @param y       The y-coordinate of the changed tile.
+     * @param layer   The layer of the tile that changed.
+     * @param oldCost The cost of walking on the tile before the change.
+     * @param newCost The cost of walking on the tile after the change.
+     */
+    public TileChange(
+        final int x, final int y, final TileLayer layer, final float oldCost, final float newCost) {
+        this.x = x;
+        this.y = y;
+        this.layer = layer;
+        this.oldCost = oldCost;
+        this.newCost = newCost;
+    }
+
+    public Position getPosition() {
+        return new Position(getX(), getY());
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public TileLayer getLayer() {
+        return layer;
+    }
+
+    public float getOldCost() {
+        return oldCost;
+    }
+
+    public float getNewCost() {
+        return newCost;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(x, y, layer, oldCost, newCost);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        final TileChange that = (TileChange) o;
+        return x == that.x
+               && y == that.y
+               && layer == that.layer
+               && Float.compare(that.oldCost, oldCost) == 0
+               && Float.compare(that.newCost, newCost) == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "TileChange{" + layer + " at (" + x + ", " + y + "), cost " + oldCost + " -> "
+               + newCost + '}';
+    }
+
+}
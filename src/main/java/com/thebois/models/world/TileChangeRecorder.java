@@ -0,0 +1,124 @@
+package com.thebois.models.world;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import com.thebois.Pawntastic;
+import com.thebois.listeners.events.ObstaclePlacedEvent;
+import com.thebois.models.Position;
+import com.thebois.models.world.structures.IStructure;
+
+/**
+ * Announces the changes made to the tiles of the world, both to the change journal and as events.
+ *
+ * <p>
+ * The recorder is called while the write lock of the world is held, and only announces the
+ * changes once the lock is released, so that whatever reacts to them can read the world.
+ * </p>
+ *
+ * @author Martin
+ */
+final class TileChangeRecorder implements Serializable {
+
+    /**
+     * The layers of the world, to read the cost of changed cells from.
+     */
+    private final PackedTileLayers layers;
+    private final OptimisticLock lock;
+    /**
+     * Not saved, since whoever was subscribed to it is gone after loading.
+     */
+    private transient ChangeJournal journal = new ChangeJournal();
+
+    /**
+     * Instantiates a recorder that announces the changes of the world.
+     *
+     * @param layers The layers of the world.
+     * @param lock   The lock that guards the world.
+     */
+    TileChangeRecorder(final PackedTileLayers layers, final OptimisticLock lock) {
+        this.layers = layers;
+        this.lock = lock;
+    }
+
+    /**
+     * Creates a recorder for a fork of the world of this recorder, which announces the changes of
+     * the fork on the event bus that is current when they are made.
+     *
+     * @param forkLayers The layers of the fork.
+     * @param forkLock   The lock that guards the fork.
+     *
+     * @return The recorder of the fork, with an empty journal.
+     */
+    TileChangeRecorder fork(final PackedTileLayers forkLayers, final OptimisticLock forkLock) {
+        return new TileChangeRecorder(forkLayers, forkLock);
+    }
+
+    ChangeJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Announces that structures have been placed in the world, with a single event for all of
+     * them.
+     *
+     * @param placed   The placed structures.
+     * @param oldCosts The walk cost of the tile of each structure before it was placed.
+     */
+    void structuresPlaced(final List<IStructure> placed, final float[] oldCosts) {
+        final Collection<Position> positions = new ArrayList<>(placed.size());
+        for (int i = 0; i < placed.size(); i++) {
+            final IStructure structure = placed.get(i);
+            final Position position = structure.getPosition();
+            journal.add(new TileChange((int) position.getX(),
+                                       (int) position.getY(),
+                                       TileLayer.STRUCTURE,
+                                       oldCosts[i],
+                                       structure.getCost()));
+            positions.add(position);
+        }
+        announce(new ObstaclePlacedEvent(positions));
+    }
+
+    /**
+     * Records that the structure of a cell has been completed, which changes its walk cost. The
+     * completion has already been announced by the structure.
+     *
+     * @param x       The x-coordinate of the cell.
+     * @param y       The y-coordinate of the cell.
+     * @param oldCost The walk cost of the cell while the structure was a blueprint.
+     */
+    void structureCompleted(final int x, final int y, final float oldCost) {
+        journal.add(new TileChange(x, y, TileLayer.STRUCTURE, oldCost, layers.getCostAt(x, y)));
+    }
+
+    /**
+     * Announces that the resource of a cell has been depleted or has grown back. A resource that
+     * grows back is announced as an obstacle, since it blocks whatever was walking there.
+     *
+     * @param x       The x-coordinate of the cell.
+     * @param y       The y-coordinate of the cell.
+     * @param oldCost The walk cost of the cell before the change.
+     */
+    void resourceChanged(final int x, final int y, final float oldCost) {
+        final float cost = layers.getCostAt(x, y);
+        journal.add(new TileChange(x, y, TileLayer.RESOURCE, oldCost, cost));
+        if (cost > oldCost) {
+            announce(new ObstaclePlacedEvent(x, y));
+        }
+    }
+
+    private void announce(final ObstaclePlacedEvent event) {
+        lock.afterWrite(() -> Pawntastic.getEventBus().post(event));
+    }
+
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        journal = new ChangeJournal();
+    }
+
+}
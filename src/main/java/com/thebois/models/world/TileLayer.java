@@ -0,0 +1,21 @@
+package com.thebois.models.world;
+
+/**
+ * The layers that a tile of the world is made up of, from the bottom up.
+ *
+ * @author Martin
+ */
+public enum TileLayer {
+    /**
+     * The ground of the tile, which every tile has.
+     */
+    TERRAIN,
+    /**
+     * A resource on top of the terrain.
+     */
+    RESOURCE,
+    /**
+     * A structure or blueprint on top of everything else.
+     */
+    STRUCTURE
+}
@@ -0,0 +1,150 @@
+package com.thebois.models.world;
+
+import java.io.Serializable;
+import java.util.Optional;
+import java.util.Random;
+
+import com.thebois.models.Position;
+
+/**
+ * Finds vacant cells using the vacancy bits of the tile layers, and picks them uniformly at
+ * random.
+ *
+ * <p>
+ * Instead of guessing positions until a vacant one is found, the vacant cells of the area are
+ * counted a row of a chunk at a time, and then one of them is picked. The cost is bounded by the
+ * size of the area, even when there are no vacant cells at all.
+ * </p>
+ *
+ * @author Martin
+ */
+final class VacancySampler implements Serializable {
+
+    /**
+     * The offsets to the neighbours of a cell, only horizontal and vertical ones.
+     */
+    private static final int[][] NEIGHBOUR_OFFSETS = {
+        {0, -1}, {-1, 0}, {1, 0}, {0, 1},
+    };
+    private final PackedTileLayers layers;
+    private final Random random;
+
+    /**
+     * Creates a sampler.
+     *
+     * @param layers The layers to pick vacant cells from.
+     * @param random The generator used to pick cells.
+     */
+    VacancySampler(final PackedTileLayers layers, final Random random) {
+        this.layers = layers;
+        this.random = random;
+    }
+
+    private static int nthSetBit(final int bits, final int n) {
+        int remaining = bits;
+        for (int i = 0; i < n; i++) {
+            remaining &= remaining - 1;
+        }
+        return Integer.numberOfTrailingZeros(remaining);
+    }
+
+    private static int endOfChunk(final int x) {
+        return x | Chunk.MASK;
+    }
+
+    /**
+     * Whether there is nothing in the cell that occupies it, so that a structure could be placed
+     * there or a being could stand there.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     *
+     * @return Whether the cell is vacant.
+     */
+    boolean isVacant(final int x, final int y) {
+        return (layers.getVacantRowBits(x, y) & (1 << (x & Chunk.MASK))) != 0;
+    }
+
+    /**
+     * Finds the vacant neighbour of a cell that is closest to a position.
+     *
+     * @param x    The x-coordinate of the cell.
+     * @param y    The y-coordinate of the cell.
+     * @param from The position to measure the distance from.
+     *
+     * @return The closest vacant neighbour, or nothing if every neighbour is occupied or outside
+     *     of the layers.
+     */
+    Optional<Position> findClosestVacantNeighbour(final int x, final int y, final Position from) {
+        Position closest = null;
+        for (final int[] offset : NEIGHBOUR_OFFSETS) {
+            final int neighbourX = x + offset[0];
+            final int neighbourY = y + offset[1];
+            if (!layers.isInside(neighbourX, neighbourY) || !isVacant(neighbourX, neighbourY)) {
+                continue;
+            }
+            final Position current = new Position(neighbourX, neighbourY);
+            if (closest == null || from.distanceTo(current) < from.distanceTo(closest)) {
+                closest = current;
+            }
+        }
+        return Optional.ofNullable(closest);
+    }
+
+    /**
+     * Counts the vacant cells inside of a rectangle.
+     *
+     * @param minX The smallest x-coordinate of the rectangle, inclusive.
+     * @param minY The smallest y-coordinate of the rectangle, inclusive.
+     * @param maxX The largest x-coordinate of the rectangle, inclusive.
+     * @param maxY The largest y-coordinate of the rectangle, inclusive.
+     *
+     * @return The number of vacant cells.
+     */
+    int countVacant(final int minX, final int minY, final int maxX, final int maxY) {
+        int count = 0;
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX && x >= minX; x = endOfChunk(x) + 1) {
+                count += Integer.bitCount(vacantBits(x, y, maxX));
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Picks a vacant cell inside of a rectangle, where every vacant cell is equally likely.
+     *
+     * @param minX The smallest x-coordinate of the rectangle, inclusive.
+     * @param minY The smallest y-coordinate of the rectangle, inclusive.
+     * @param maxX The largest x-coordinate of the rectangle, inclusive.
+     * @param maxY The largest y-coordinate of the rectangle, inclusive.
+     *
+     * @return The position of the picked cell, or nothing if no cell in the rectangle is vacant.
+     */
+    Optional<Position> sample(final int minX, final int minY, final int maxX, final int maxY) {
+        final int count = countVacant(minX, minY, maxX, maxY);
+        if (count == 0) return Optional.empty();
+
+        int remaining = random.nextInt(count);
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX && x >= minX; x = endOfChunk(x) + 1) {
+                final int bits = vacantBits(x, y, maxX);
+                final int vacantInSegment = Integer.bitCount(bits);
+                if (remaining < vacantInSegment) {
+                    final int chunkStartX = x & ~Chunk.MASK;
+                    return Optional.of(new Position(chunkStartX + nthSetBit(bits, remaining), y));
+                }
+                remaining -= vacantInSegment;
+            }
+        }
+        return Optional.empty();
+    }
+
+    // Gets the vacancy bits of the row from x to the end of its chunk, or to maxX if it is closer.
+    private int vacantBits(final int x, final int y, final int maxX) {
+        final int width = Math.min(maxX, endOfChunk(x)) - x + 1;
+        final int mask = (int) (((1L << width) - 1) << (x & Chunk.MASK));
+        return layers.getVacantRowBits(x, y) & mask;
+    }
+
+}
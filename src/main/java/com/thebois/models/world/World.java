@@ -3,30 +3,35 @@ package com.thebois.models.world;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ThreadLocalRandom;
-import java.util.stream.Collectors;
 
-import com.thebois.Pawntastic;
 import com.thebois.abstractions.IPositionFinder;
+import com.thebois.abstractions.IPositionable;
 import com.thebois.abstractions.IResourceFinder;
 import com.thebois.abstractions.IStructureFinder;
-import com.thebois.listeners.events.ObstaclePlacedEvent;
 import com.thebois.models.Position;
-import com.thebois.models.world.generation.ResourceGenerator;
-import com.thebois.models.world.generation.TerrainGenerator;
 import com.thebois.models.world.resources.IResource;
 import com.thebois.models.world.resources.ResourceType;
 import com.thebois.models.world.structures.IStructure;
-import com.thebois.models.world.structures.StructureFactory;
 import com.thebois.models.world.structures.StructureType;
 import com.thebois.models.world.terrains.ITerrain;
+import com.thebois.models.world.terrains.TerrainType;
 import com.thebois.utils.MatrixUtils;
 
 /**
  * World creates a matrix and keeps track of all the structures and resources in the game world.
  *
+ * <p>
+ * Many threads can read the world while one thread changes it. The tiles, finders and placement
+ * checks are read optimistically, without taking any lock, and are read again under a lock only
+ * if the world was changed while they were being read. The structures, the change journal and the
+ * layer views are not guarded, so they should only be used from the thread that changes the world.
+ * </p>
+ *
  * @author Jacob
  * @author Jonathan
  * @author Martin
@@ -35,14 +40,42 @@ import com.thebois.utils.MatrixUtils;
 public class World
     implements IWorld, IStructureFinder, IResourceFinder, IPositionFinder, Serializable {
 
-    private final ITerrain[][] terrainMatrix;
-    private final IStructure[][] structureMatrix;
-    private final IResource[][] resourceMatrix;
-    private final ITile[][] canonicalMatrix;
+    /**
+     * The number of tiles along each side of the chunks that the world is stored in, which are
+     * aligned to multiples of the size.
+     */
+    public static final int CHUNK_SIZE = Chunk.SIZE;
+    /**
+     * The offsets to the neighbours of a tile. Only horizontal and vertical neighbours, no
+     * diagonals.
+     */
+    private static final int[][] NEIGHBOUR_OFFSETS = {
+        {0, -1}, {-1, 0}, {1, 0}, {0, 1},
+    };
+
     private final int worldSize;
-    private final ThreadLocalRandom random;
-    private Collection<IStructure> structuresCache = new ArrayList<>();
-    private boolean townHallPlaced = false;
+    private final boolean unbounded;
+    private final PackedTileLayers layers;
+    private final VacancySampler vacancySampler;
+    private final Map<ResourceType, SpatialIndex<IResource>> resourceIndexes =
+        new EnumMap<>(ResourceType.class);
+    private final OptimisticLock lock;
+    private final TileChangeRecorder changeRecorder;
+    private final StructureRegistry structureRegistry;
+    private final ResourceDepletion resourceDepletion;
+    /**
+     * Created when first asked for, since the views are not saved with the world.
+     */
+    private transient ILayerView<TerrainType> terrainLayer;
+    /**
+     * Created when first asked for, since the views are not saved with the world.
+     */
+    private transient ILayerView<ResourceType> resourceLayer;
+    /**
+     * Created the first time reachability is asked for, and again after loading, since it can be
+     * worked out from the tiles.
+     */
+    private transient ConnectivityRegions regions;
 
     /**
      * Initiates the world with the given size.
@@ -52,57 +85,142 @@ public class World
      * @param random    A generator of random numbers.
      */
     public World(final int worldSize, final int seed, final ThreadLocalRandom random) {
-        this.worldSize = worldSize;
-        this.random = random;
-        terrainMatrix = setUpTerrain(worldSize, seed);
-        structureMatrix = setUpStructures();
-        resourceMatrix = setUpResources(worldSize, seed);
-        canonicalMatrix = new ITile[worldSize][worldSize];
-        updateCanonicalMatrix();
-    }
-
-    protected ITerrain[][] setUpTerrain(final int size, final int seed) {
-        return new TerrainGenerator(worldSize, seed).generateTerrainMatrix();
+        this(worldSize, seed, random, null, CellLayout.ROW_MAJOR, false);
     }
 
-    private IStructure[][] setUpStructures() {
-        final IStructure[][] newStructureMatrix = new IStructure[worldSize][worldSize];
-        MatrixUtils.populateElements(newStructureMatrix, (x, y) -> null);
-        return newStructureMatrix;
+    /**
+     * Initiates the world with the given size, keeping only part of it in memory.
+     *
+     * @param worldSize The amount of tiles in length for X and Y, e.g. worldSize x worldSize.
+     * @param seed      The seed used to generate the world.
+     * @param random    A generator of random numbers.
+     * @param paging    How to page the parts of the world that are not in use out to disk.
+     */
+    public World(
+        final int worldSize,
+        final int seed,
+        final ThreadLocalRandom random,
+        final ChunkPaging paging) {
+        this(worldSize, seed, random, paging, CellLayout.ROW_MAJOR);
     }
 
-    protected IResource[][] setUpResources(final int size, final int seed) {
-        return new ResourceGenerator(worldSize, seed).generateResourceMatrix();
+    /**
+     * Initiates the world with the given size, storing its tiles in a given order.
+     *
+     * @param worldSize The amount of tiles in length for X and Y, e.g. worldSize x worldSize.
+     * @param seed      The seed used to generate the world.
+     * @param random    A generator of random numbers.
+     * @param paging    How to page the parts of the world that are not in use out to disk, or
+     *                  null to keep the whole world in memory.
+     * @param layout    The order to store the tiles of each chunk of the world in.
+     */
+    public World(
+        final int worldSize,
+        final int seed,
+        final ThreadLocalRandom random,
+        final ChunkPaging paging,
+        final CellLayout layout) {
+        this(worldSize, seed, random, paging, layout, false);
+    }
+
+    private World(
+        final int worldSize,
+        final int seed,
+        final ThreadLocalRandom random,
+        final ChunkPaging paging,
+        final CellLayout layout,
+        final boolean unbounded) {
+        this.worldSize = worldSize;
+        this.unbounded = unbounded;
+        setUpIndexes();
+        if (unbounded) {
+            layers = new PackedTileLayers(seed, resourceIndexes, paging);
+        }
+        else {
+            layers = new PackedTileLayers(worldSize, paging, layout);
+            pack(setUpTerrain(worldSize, seed), setUpResources(worldSize, seed));
+        }
+        vacancySampler = new VacancySampler(layers, random);
+        // Reading chunks generates them or pages them in, so reads change the world.
+        lock = OptimisticLock.create(unbounded || paging != null);
+        changeRecorder = new TileChangeRecorder(layers, lock);
+        structureRegistry = new StructureRegistry(layers, vacancySampler, changeRecorder, lock);
+        resourceDepletion =
+            ResourceDepletion.track(layers, resourceIndexes, changeRecorder, lock);
+    }
+
+    // Creates a fork of another world, see fork().
+    private World(final World source) {
+        this.worldSize = source.worldSize;
+        this.unbounded = source.unbounded;
+        layers = source.layers.fork();
+        resourceIndexes.putAll(SpatialIndex.forkEach(source.resourceIndexes));
+        vacancySampler = new VacancySampler(layers, ThreadLocalRandom.current());
+        lock = OptimisticLock.create(false);
+        changeRecorder = source.changeRecorder.fork(layers, lock);
+        structureRegistry =
+            source.structureRegistry.fork(layers, vacancySampler, changeRecorder, lock);
+        resourceDepletion =
+            source.resourceDepletion.fork(layers, resourceIndexes, changeRecorder, lock);
+        if (source.regions != null) {
+            regions = source.regions.fork(layers, changeRecorder.getJournal());
+        }
     }
 
     /**
-     * The canonical matrix is a mash-up of all the different layers of the world. It replaces less
-     * important tiles like grass with a structure if it is located at the same coordinates.
+     * Creates a world without any bounds, where each part of the world is generated the first
+     * time it is used.
      *
      * <p>
-     * Warning: expensive method, do not call every frame!
+     * Nothing is generated up front, so creating the world takes the same time no matter how far
+     * the colony will explore, and only the explored parts of the world take up memory.
      * </p>
+     *
+     * @param startSize The size of the area at the origin where positions for the colony are
+     *                  picked, e.g. startSize x startSize.
+     * @param seed      The seed used to generate the world.
+     * @param random    A generator of random numbers.
+     * @param paging    How to page the parts of the world that are not in use out to disk, or
+     *                  null to keep everything that has been generated in memory.
+     *
+     * @return The created world.
      */
-    private void updateCanonicalMatrix() {
-        // Fill with terrain.
-        replaceTilesInCanonicalMatrix(terrainMatrix);
-        // Replace with any possible resource.
-        replaceTilesInCanonicalMatrix(resourceMatrix);
-        // Replace with any possible structure.
-        replaceTilesInCanonicalMatrix(structureMatrix);
+    public static World createUnbounded(
+        final int startSize,
+        final int seed,
+        final ThreadLocalRandom random,
+        final ChunkPaging paging) {
+        return new World(startSize, seed, random, paging, CellLayout.ROW_MAJOR, true);
     }
 
-    private void replaceTilesInCanonicalMatrix(final ITile[][] tiles) {
-        MatrixUtils.forEachElement(tiles, this::replaceTileInCanonicalMatrix);
+    private void setUpIndexes() {
+        for (final ResourceType type : ResourceType.values()) {
+            resourceIndexes.put(type, new SpatialIndex<>());
+        }
     }
 
-    private void replaceTileInCanonicalMatrix(final ITile tile) {
-        if (tile != null) {
-            final Position position = tile.getPosition();
-            final int y = (int) position.getY();
-            final int x = (int) position.getX();
-            canonicalMatrix[y][x] = tile;
-        }
+    private void pack(final ITerrain[][] terrainMatrix, final IResource[][] resourceMatrix) {
+        MatrixUtils.forEachElement(terrainMatrix, terrain -> {
+            final Position position = terrain.getPosition();
+            layers.setTerrainAt((int) position.getX(), (int) position.getY(), terrain.getType());
+        });
+        MatrixUtils.forEachElement(resourceMatrix, resource -> {
+            if (resource != null) {
+                final Position position = resource.getPosition();
+                layers.setResourceAt((int) position.getX(),
+                                     (int) position.getY(),
+                                     resource.getType());
+                resourceIndexes.get(resource.getType()).add(resource);
+            }
+        });
+    }
+
+    protected ITerrain[][] setUpTerrain(final int size, final int seed) {
+        return ChunkGenerator.generateTerrain(worldSize, seed);
+    }
+
+    protected IResource[][] setUpResources(final int size, final int seed) {
+        return ChunkGenerator.generateResources(worldSize, seed);
     }
 
     /**
@@ -122,59 +240,71 @@ public class World
                 "Can not find more empty positions than there are tiles in the world.");
         }
 
-        final List<Position> emptyPositions = new ArrayList<>();
-        while (emptyPositions.size() < count) {
-            final ITile vacantTile = getRandomVacantSpotInRadiusOf(new Position(0, 0), worldSize);
-            final Position vacantPosition = vacantTile.getPosition();
-
-            emptyPositions.add(vacantPosition);
-        }
-        return emptyPositions;
+        return lock.read(() -> {
+            final List<Position> emptyPositions = new ArrayList<>();
+            while (emptyPositions.size() < count) {
+                emptyPositions.add(vacancySampler
+                    .sample(0, 0, worldSize - 1, worldSize - 1)
+                    .orElseThrow(() -> new IllegalArgumentException(
+                        "Can not find empty positions when every tile is occupied.")));
+            }
+            return emptyPositions;
+        });
     }
 
     @Override
     public Collection<Position> tryGetEmptyPositionsNextTo(
         final Position position, final int maxCount, final float radius) {
-        return MatrixUtils.toCollection(canonicalMatrix)
-                          .stream()
-                          .filter(iTile -> !iTile.getPosition().equals(position)
-                                           && isVacant(iTile.getPosition())
-                                           && isTileWithinRadiusOf(iTile, position, radius))
-                          .limit(maxCount)
-                          .map(ITile::getPosition)
-                          .collect(Collectors.toList());
-    }
-
-    private boolean isTileWithinRadiusOf(
-        final ITile tile, final Position position, final float radius) {
-        return radius > position.distanceTo(tile.getPosition());
+        final int originX = (int) position.getX();
+        final int originY = (int) position.getY();
+        return lock.read(() -> SpiralSearch.findClosest(position, radius, maxCount, (x, y) -> {
+            final boolean isOrigin = originX == x && originY == y;
+            return !isOrigin && layers.isInside(x, y) && vacancySampler.isVacant(x, y);
+        }));
     }
 
-    private Position createRandomPosition(
-        final int minX, final int maxX, final int minY, final int maxY) {
-        final int randomX = random.nextInt(minX, maxX + 1);
-        final int randomY = random.nextInt(minY, maxY + 1);
-        return new Position(randomX, randomY);
+    /**
+     * Returns a copy of the terrain of every tile of the world.
+     *
+     * <p>
+     * Creates every terrain tile anew, so use {@link #getTerrainLayer()} to read the terrain
+     * often, e.g. every frame.
+     * </p>
+     *
+     * @return The terrain tiles.
+     */
+    public Collection<ITerrain> getTerrainTiles() {
+        return lock.read(() -> {
+            final Collection<ITerrain> copy = new ArrayList<>(worldSize * worldSize);
+            layers.forEachCell((x, y) -> copy.add(layers.getTerrainAt(x, y)));
+            return copy;
+        });
     }
 
-    private boolean isVacant(final Position position) {
-        final int x = (int) position.getX();
-        final int y = (int) position.getY();
-        final ITile tile = this.canonicalMatrix[y][x];
-        if (tile instanceof IStructure) return false;
-        return tile.getCost() < Float.MAX_VALUE;
+    /**
+     * Gets a read-only view of the terrain layer, which reads the terrain of the world as it is
+     * whenever it is looked at, without copying it or creating any tiles.
+     *
+     * @return The view of the terrain.
+     */
+    public ILayerView<TerrainType> getTerrainLayer() {
+        if (terrainLayer == null) {
+            terrainLayer = CellLayerView.terrainOf(layers);
+        }
+        return terrainLayer;
     }
 
     /**
-     * Returns the matrix of the world.
+     * Gets a read-only view of the resource layer, which reads the resources of the world as they
+     * are whenever it is looked at, without copying them or creating any tiles.
      *
-     * @return ITile[][]
+     * @return The view of the resources, which has no type for cells without a resource.
      */
-    public Collection<ITerrain> getTerrainTiles() {
-        final Collection<ITerrain> copy = new ArrayList<>();
-        MatrixUtils.forEachElement(terrainMatrix,
-                                   maybeTerrain -> copy.add(maybeTerrain.deepClone()));
-        return copy;
+    public ILayerView<ResourceType> getResourceLayer() {
+        if (resourceLayer == null) {
+            resourceLayer = CellLayerView.resourcesOf(layers);
+        }
+        return resourceLayer;
     }
 
     /**
@@ -199,33 +329,54 @@ public class World
      * @return Whether the structure was built.
      */
     public boolean tryCreateStructure(final StructureType type, final int x, final int y) {
-        final Position position = new Position(x, y);
-        if (isTownHallPlaced() && type.equals(StructureType.TOWN_HALL)) {
-            return false;
-        }
-        if (isPositionPlaceable(position)) {
-            structureMatrix[y][x] = StructureFactory.createStructure(type, x, y);
-            if (type.equals(StructureType.TOWN_HALL)) {
-                townHallPlaced = true;
-            }
-            updateCanonicalMatrix();
-            postObstacleEvent(x, y);
-            generateStructuresCache();
-            return true;
-        }
-        return false;
+        return tryCreateStructures(type, List.of(new Position(x, y)));
     }
 
-    private boolean isPositionPlaceable(final Position position) {
-        final int posIntX = (int) position.getX();
-        final int posIntY = (int) position.getY();
-        if (posIntY < 0 || posIntY >= structureMatrix.length) {
-            return false;
-        }
-        if (posIntX < 0 || posIntX >= structureMatrix[posIntY].length) {
-            return false;
-        }
-        return isVacant(position);
+    /**
+     * Builds structures of a given type at every given position, if all of them can be built.
+     *
+     * <p>
+     * Either every structure is built or none of them is. The whole batch is announced with a
+     * single ObstaclePlacedEvent that has every affected position, so that anything reacting to
+     * obstacles reacts once for the batch instead of once for each structure.
+     * </p>
+     *
+     * @param type      The type of structures to be built.
+     * @param positions The positions where the structures should be built.
+     *
+     * @return Whether the structures were built.
+     */
+    public boolean tryCreateStructures(
+        final StructureType type, final Collection<Position> positions) {
+        return lock.write(() -> structureRegistry.place(type, positions));
+    }
+
+    /**
+     * Checks whether a structure of a given type could be built at a given position, without
+     * building it.
+     *
+     * @param type     The type of structure.
+     * @param position The position to check.
+     *
+     * @return Whether the structure could be built.
+     */
+    public boolean canCreateStructure(final StructureType type, final Position position) {
+        return lock.read(() -> structureRegistry.canPlace(type, List.of(position)));
+    }
+
+    /**
+     * Moves the time of the world forward, growing back depleted resources whose time has come.
+     *
+     * <p>
+     * Resources do not grow back on cells where something stands, but wait until it has moved.
+     * </p>
+     *
+     * @param deltaTime The time since the last update, in seconds.
+     * @param occupants What stands in the world, such as the beings of the colony.
+     */
+    public void update(
+        final float deltaTime, final Collection<? extends IPositionable> occupants) {
+        lock.write(() -> resourceDepletion.update(deltaTime, occupants));
     }
 
     /**
@@ -234,94 +385,149 @@ public class World
      * @return Returns whether the first and only town hall has been placed.
      */
     public boolean isTownHallPlaced() {
-        return townHallPlaced;
+        return lock.read(structureRegistry::isTownHallPlaced);
     }
 
-    private void postObstacleEvent(final int x, final int y) {
-        final ObstaclePlacedEvent obstacleEvent = new ObstaclePlacedEvent(x, y);
-        Pawntastic.getEventBus().post(obstacleEvent);
+    /**
+     * Forks the world, so that the world and the fork can both be changed without ever seeing the
+     * changes made to each other, e.g. to try out what placing a structure would lead to.
+     *
+     * <p>
+     * The fork shares the tiles and resources of the world, and only copies a part of them when
+     * either of them changes it, so forking takes time in proportion to the number of chunks and
+     * structures rather than to the number of tiles. Every structure is cloned, so that the
+     * structures of the fork can be built on their own.
+     * </p>
+     *
+     * <p>
+     * The fork belongs to the simulation that is bound while it is forked. It listens on and
+     * announces its changes to the event bus of that simulation, and its stockpiles store their
+     * items in the inventory of that simulation, just like new stockpiles do. So fork the world
+     * while the simulation of the fork is bound, as {@link com.thebois.Simulation#fork()} does.
+     * Forking changes how the world shares its tiles, so fork a world from one thread at a time,
+     * but the forks can then be used on other threads.
+     * </p>
+     *
+     * @return The fork.
+     *
+     * @throws IllegalStateException When the world pages parts of itself out to disk.
+     */
+    public World fork() {
+        // Forking changes how the world shares its tiles.
+        return lock.write(() -> new World(this));
     }
 
-    private void generateStructuresCache() {
-        structuresCache = MatrixUtils.toCollection(this.structureMatrix);
+    /**
+     * Stops the world from listening on the event bus it was created on, so that a world that is
+     * no longer used can be garbage collected instead of reacting to the events of whatever
+     * replaced it, e.g. a world loaded from a save on the same bus. A world that pages its chunks
+     * out to disk deletes its page file, and can not be used afterwards.
+     */
+    public void dispose() {
+        structureRegistry.dispose();
+        resourceDepletion.dispose();
+        lock.write(layers::dispose);
     }
 
-    @Override
-    public Optional<IStructure> getNearbyCompletedStructureOfType(
-        final Position origin, final StructureType type) {
-        return getStructures().stream()
-                              .filter(structure -> structure.isCompleted()
-                                                   && isSameTypeOrIsStorable(type, structure))
-                              .min((o1, o2) -> Float.compare(origin.distanceTo(o1.getPosition()),
-                                                             origin.distanceTo(o2.getPosition())));
+    /**
+     * Gets the versions of the chunks of the world, which tell what parts of the world have
+     * changed.
+     *
+     * @return The chunk versions, which stay up to date as the world changes.
+     */
+    public IChunkVersions getChunkVersions() {
+        return layers;
     }
 
-    private boolean isSameTypeOrIsStorable(final StructureType type, final IStructure structure) {
-        return structure.getType().equals(type) || isStorable(structure, type);
+    /**
+     * Takes a snapshot of the tiles of the world, which can be read from other threads while the
+     * world keeps changing.
+     *
+     * @return The snapshot.
+     *
+     * @throws IllegalStateException When the world pages parts of itself out to disk.
+     */
+    public WorldSnapshot createSnapshot() {
+        return lock.write(() -> WorldSnapshot.of(layers));
     }
 
-    private boolean isStorable(final IStructure structure, final StructureType type) {
-        return type.equals(StructureType.STOCKPILE) && structure.getType()
-                                                                .equals(StructureType.TOWN_HALL);
+    /**
+     * Gets the journal of changes made to the tiles of the world.
+     *
+     * @return The change journal.
+     */
+    public ChangeJournal getChangeJournal() {
+        return changeRecorder.getJournal();
+    }
+
+    @Override
+    public Optional<IStructure> getNearbyCompletedStructureOfType(
+        final Position origin, final StructureType type) {
+        return lock.read(() -> structureRegistry.findNearbyCompleted(origin, type));
     }
 
     /**
      * Returns the structures in a Collection as the interface IStructure.
      *
-     * @return The list to be returned.
+     * @return A read-only view of the structures, which shows structures placed later as well.
      */
     public Collection<IStructure> getStructures() {
-        return structuresCache;
+        return structureRegistry.getStructures();
     }
 
     @Override
     public Optional<IStructure> getNearbyIncompleteStructure(
         final Position origin) {
-        return getStructures().stream()
-                              .filter(structure -> !structure.isCompleted())
-                              .min((o1, o2) -> Float.compare(origin.distanceTo(o1.getPosition()),
-                                                             origin.distanceTo(o2.getPosition())));
+        final Optional<IStructure> nearest =
+            lock.read(() -> structureRegistry.findNearbyBlueprint(origin));
+        if (nearest.isEmpty() || !nearest.get().isCompleted()) return nearest;
+
+        // Completed structures have to be removed, which changes the world.
+        return lock.write(() -> structureRegistry.findNearbyIncomplete(origin));
     }
 
     @Override
     public Optional<IResource> getNearbyOfType(final Position origin, final ResourceType type) {
-        return getResources().stream()
-                             .filter(resource -> resource.getType().equals(type))
-                             .min((o1, o2) -> Float.compare(origin.distanceTo(o1.getPosition()),
-                                                            origin.distanceTo(o2.getPosition())));
+        return lock.read(() -> resourceIndexes.get(type).nearest(origin, resource -> true));
     }
 
     /**
      * Returns the resources in a Collection as the interface IResource.
      *
+     * <p>
+     * Creates every resource tile anew, so use {@link #getResourceLayer()} to read the resources
+     * often, e.g. every frame.
+     * </p>
+     *
      * @return The list to be returned.
      */
     public Collection<IResource> getResources() {
-        return MatrixUtils.toCollection(this.resourceMatrix);
+        return lock.read(() -> {
+            final Collection<IResource> resources = new ArrayList<>();
+            layers.forEachCell((x, y) -> {
+                if (layers.getResourceTypeAt(x, y) != null) {
+                    resources.add(layers.getResourceAt(x, y));
+                }
+            });
+            return resources;
+        });
     }
 
     @Override
     public Collection<ITile> getNeighboursOf(final ITile tile) {
-        final ArrayList<ITile> tiles = new ArrayList<>(8);
         final Position position = tile.getPosition();
         final int y = (int) position.getY();
         final int x = (int) position.getX();
 
-        final int startY = Math.max(0, y - 1);
-        final int endY = Math.min(worldSize - 1, y + 1);
-        final int startX = Math.max(0, x - 1);
-        final int endX = Math.min(worldSize - 1, x + 1);
-
-        for (int neighbourY = startY; neighbourY <= endY; neighbourY++) {
-            for (int neighbourX = startX; neighbourX <= endX; neighbourX++) {
-                final ITile neighbour = canonicalMatrix[neighbourY][neighbourX];
-                if (position.equals(neighbour.getPosition())) continue;
-                if (isDiagonalTo(tile, neighbour)) continue;
-                tiles.add(neighbour);
+        return lock.read(() -> {
+            final ArrayList<ITile> tiles = new ArrayList<>(NEIGHBOUR_OFFSETS.length);
+            for (final int[] offset : NEIGHBOUR_OFFSETS) {
+                if (layers.isInside(x + offset[0], y + offset[1])) {
+                    tiles.add(layers.getTileAt(x + offset[0], y + offset[1]));
+                }
             }
-        }
-
-        return tiles;
+            return tiles;
+        });
     }
 
     @Override
@@ -331,59 +537,90 @@ public class World
 
     @Override
     public ITile getTileAt(final int x, final int y) {
-        if (x < 0 || y < 0 || x >= worldSize || y >= worldSize) {
+        return lock.read(() -> {
+            checkInside(x, y);
+            return layers.getTileAt(x, y);
+        });
+    }
+
+    @Override
+    public float getCostAt(final int x, final int y) {
+        // Pathfinding reads the cost of every cell it expands, so the common case does not even
+        // create a reader.
+        final long stamp = lock.tryOptimisticRead();
+        if (stamp != 0 && layers.isInside(x, y)) {
+            final float cost = layers.getCostAt(x, y);
+            if (lock.validate(stamp)) return cost;
+        }
+        return lock.read(() -> {
+            checkInside(x, y);
+            return layers.getCostAt(x, y);
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Answered from regions of connected cells that are kept up to date as the world changes, so
+     * it takes constant time. Unbounded worlds do not keep any regions, since there is no end to
+     * label, so every position counts as reachable.
+     * </p>
+     *
+     * <p>
+     * Read optimistically when the regions are up to date. Otherwise the changes to the world are
+     * first applied to the regions, which changes them.
+     * </p>
+     */
+    @Override
+    public boolean isReachable(final Position from, final Position to) {
+        if (unbounded) return true;
+
+        final int fromX = (int) from.getX();
+        final int fromY = (int) from.getY();
+        final int toX = (int) to.getX();
+        final int toY = (int) to.getY();
+        final Optional<Boolean> labeled = lock.read(() -> {
+            checkInside(fromX, fromY);
+            checkInside(toX, toY);
+            if (regions == null || !regions.isCurrent()) return Optional.empty();
+            return Optional.of(regions.isReachableAsLabeled(fromX, fromY, toX, toY));
+        });
+        return labeled.orElseGet(() -> lock.write(() -> {
+            if (regions == null) {
+                regions = ConnectivityRegions.follow(layers, getChangeJournal(), worldSize);
+            }
+            return regions.isReachable(fromX, fromY, toX, toY);
+        }));
+    }
+
+    private void checkInside(final int x, final int y) {
+        if (!layers.isInside(x, y)) {
             throw new IndexOutOfBoundsException("Given position is outside of the world.");
         }
-        return canonicalMatrix[y][x];
     }
 
     @Override
-    public ITile getRandomVacantSpotInRadiusOf(final Position origin, final int radius) {
+    public Optional<ITile> getRandomVacantSpotInRadiusOf(
+        final Position origin, final int radius) {
         final int x = (int) origin.getX();
         final int y = (int) origin.getY();
-        final int minX = Math.max(0, x - radius);
-        final int maxX = Math.min(worldSize - 1, x + radius);
-        final int minY = Math.max(0, y - radius);
-        final int maxY = Math.min(worldSize - 1, y + radius);
-        Position randomPosition;
-        do {
-            randomPosition = createRandomPosition(minX, maxX, minY, maxY);
-        } while (!isVacant(randomPosition));
-
-        return getTileAt(randomPosition);
+        final int minX = layers.clampToWorld(x - radius);
+        final int maxX = layers.clampToWorld(x + radius);
+        final int minY = layers.clampToWorld(y - radius);
+        final int maxY = layers.clampToWorld(y + radius);
+        return lock.read(() -> vacancySampler.sample(minX, minY, maxX, maxY)
+                                             .map(spot -> layers.getTileAt((int) spot.getX(),
+                                                                           (int) spot.getY())));
     }
 
     @Override
     public Optional<Position> getClosestNeighbourOf(final ITile tile, final Position from) {
-        final Collection<ITile> neighbours = getNeighboursOf(tile);
-
-        final Optional<ITile> firstVacantNeighbour = neighbours.stream()
-                                                               .filter(neighbourTile -> isVacant(
-                                                                   neighbourTile.getPosition()))
-                                                               .findFirst();
-        if (firstVacantNeighbour.isEmpty()) return Optional.empty();
-
-        Position closest = firstVacantNeighbour.get().getPosition();
-
-        for (final ITile neighbour : neighbours) {
-            final Position current = neighbour.getPosition();
-            final boolean isCloser = from.distanceTo(current) < from.distanceTo(closest);
-            if (isCloser && isVacant(current)) {
-                closest = current;
-            }
-        }
-
-        return Optional.of(closest);
-    }
+        final Position position = tile.getPosition();
+        final int x = (int) position.getX();
+        final int y = (int) position.getY();
 
-    private boolean isDiagonalTo(final ITile tile, final ITile neighbour) {
-        final int tileX = (int) tile.getPosition().getX();
-        final int tileY = (int) tile.getPosition().getY();
-        final int neighbourX = (int) neighbour.getPosition().getX();
-        final int neighbourY = (int) neighbour.getPosition().getY();
-        final int deltaX = Math.abs(tileX - neighbourX);
-        final int deltaY = Math.abs(tileY - neighbourY);
-        return deltaX == 1 && deltaY == 1;
+        return lock.read(() -> vacancySampler.findClosestVacantNeighbour(x, y, from));
     }
 
 }
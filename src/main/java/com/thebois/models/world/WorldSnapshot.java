@@ -0,0 +1,168 @@
+package com.thebois.models.world;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+import com.thebois.models.Position;
+import com.thebois.models.world.resources.IResource;
+import com.thebois.models.world.resources.ResourceType;
+import com.thebois.models.world.structures.IStructure;
+import com.thebois.models.world.terrains.ITerrain;
+import com.thebois.models.world.terrains.TerrainType;
+
+/**
+ * A view of the tiles of the world as they were at one point in time.
+ *
+ * <p>
+ * A snapshot never changes, no matter how the world changes afterwards, so it can be read from
+ * another thread while the world keeps changing, e.g. to render or save the world. Hand it over
+ * through something that publishes it safely, like an executor or a concurrent queue.
+ * </p>
+ *
+ * <p>
+ * Taking a snapshot does not copy the world. The snapshot shares every chunk with the world, and a
+ * chunk is only copied when the world changes it, so the cost is proportional to the number of
+ * chunks that change while the snapshot is in use. The structures themselves are shared with the
+ * world, so their build progress is not frozen, but which structures there are and where is.
+ * </p>
+ *
+ * @author Martin
+ */
+public final class WorldSnapshot {
+
+    private final PackedTileLayers layers;
+    private final ILayerView<TerrainType> terrainLayer;
+    private final ILayerView<ResourceType> resourceLayer;
+
+    private WorldSnapshot(final PackedTileLayers layers) {
+        this.layers = layers;
+        this.terrainLayer = CellLayerView.terrainOf(layers);
+        this.resourceLayer = CellLayerView.resourcesOf(layers);
+    }
+
+    /**
+     * Takes a snapshot of the given layers.
+     *
+     * @param layers The layers of the world.
+     *
+     * @return The snapshot.
+     */
+    static WorldSnapshot of(final PackedTileLayers layers) {
+        return new WorldSnapshot(layers.snapshot());
+    }
+
+    /**
+     * Gets the version of the world when the snapshot was taken.
+     *
+     * @return The version, which is the same for snapshots of an unchanged world.
+     */
+    public long getVersion() {
+        return layers.getVersion();
+    }
+
+    /**
+     * Gets the versions of the chunks of the world when the snapshot was taken.
+     *
+     * @return The chunk versions.
+     */
+    public IChunkVersions getChunkVersions() {
+        return layers;
+    }
+
+    /**
+     * Whether a position was inside of the world. For an unbounded world, only the parts that had
+     * been generated are inside of the snapshot.
+     *
+     * @param x The x-coordinate.
+     * @param y The y-coordinate.
+     *
+     * @return Whether the position is inside of the snapshot.
+     */
+    public boolean isInside(final int x, final int y) {
+        return layers.isInside(x, y);
+    }
+
+    /**
+     * Gets the tile at a position.
+     *
+     * @param position The position of the tile.
+     *
+     * @return The tile.
+     *
+     * @throws IndexOutOfBoundsException When the position is outside of the snapshot.
+     */
+    public ITile getTileAt(final Position position) {
+        return getTileAt((int) position.getX(), (int) position.getY());
+    }
+
+    /**
+     * Gets the tile at a position.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     *
+     * @return The tile.
+     *
+     * @throws IndexOutOfBoundsException When the position is outside of the snapshot.
+     */
+    public ITile getTileAt(final int x, final int y) {
+        if (!layers.isInside(x, y)) {
+            throw new IndexOutOfBoundsException("Given position is outside of the snapshot.");
+        }
+        return layers.getTileAt(x, y);
+    }
+
+    /**
+     * Gets a view of the terrain layer, which reads the terrain without creating any tiles.
+     *
+     * @return The view of the terrain.
+     */
+    public ILayerView<TerrainType> getTerrainLayer() {
+        return terrainLayer;
+    }
+
+    /**
+     * Gets a view of the resource layer, which reads the resources without creating any tiles.
+     *
+     * @return The view of the resources, which has no type for cells without a resource.
+     */
+    public ILayerView<ResourceType> getResourceLayer() {
+        return resourceLayer;
+    }
+
+    /**
+     * Gets the terrain of every tile.
+     *
+     * @return The terrain tiles.
+     */
+    public Collection<ITerrain> getTerrainTiles() {
+        final Collection<ITerrain> terrain = new ArrayList<>();
+        layers.forEachCell((x, y) -> terrain.add(layers.getTerrainAt(x, y)));
+        return terrain;
+    }
+
+    /**
+     * Gets every resource.
+     *
+     * @return The resources.
+     */
+    public Collection<IResource> getResources() {
+        final Collection<IResource> resources = new ArrayList<>();
+        layers.forEachCell((x, y) -> {
+            if (layers.getResourceTypeAt(x, y) != null) {
+                resources.add(layers.getResourceAt(x, y));
+            }
+        });
+        return resources;
+    }
+
+    /**
+     * Gets every structure.
+     *
+     * @return The structures, in no particular order.
+     */
+    public Collection<IStructure> getStructures() {
+        return layers.getStructures();
+    }
+
+}
@@ -1,5 +1,7 @@
 package com.thebois.models.world.generation;
 
+import java.util.Optional;
+
 import com.thebois.models.world.resources.IResource;
 import com.thebois.models.world.resources.ResourceFactory;
 import com.thebois.models.world.resources.ResourceType;
@@ -33,29 +35,36 @@ public class ResourceGenerator extends AbstractGenerator {
      */
     public IResource[][] generateResourceMatrix() {
         final IResource[][] resourceMatrix = new IResource[getWorldSize()][getWorldSize()];
-        MatrixUtils.populateElements(resourceMatrix, (x, y) -> null);
-
-        // Add all resource types to the world.
-        for (final ResourceType type : ResourceType.values()) {
-            setNoise(type.getNoise());
-            final int newSeed = getSeed() + type.getSeedPermutation();
-            setSeed(newSeed);
-            MatrixUtils.populateElements(resourceMatrix,
-                                         (x, y) -> generateResource(resourceMatrix, type, x, y));
-        }
+        MatrixUtils.populateElements(resourceMatrix,
+                                     (x, y) -> generateResourceTypeAt(x, y)
+                                         .map(type -> ResourceFactory.createResource(type, x, y))
+                                         .orElse(null));
         return resourceMatrix;
     }
 
-    private IResource generateResource(
-        final IResource[][] resourceMatrix, final ResourceType type, final int x, final int y) {
-        if (resourceMatrix[y][x] == null) {
-            final float height = sample(x, y);
-            if (height >= type.getThreshold()) {
-                return ResourceFactory.createResource(type, x, y);
+    /**
+     * Generates the type of resource at a single position.
+     *
+     * <p>
+     * The result only depends on the seed and the position, so any part of the world can be
+     * generated at any time, in any order, and still look the same.
+     * </p>
+     *
+     * @param x The x-coordinate of the position, which may be outside of the world size.
+     * @param y The y-coordinate of the position, which may be outside of the world size.
+     *
+     * @return The first resource type whose noise reaches its threshold, or nothing if none
+     *     does.
+     */
+    public Optional<ResourceType> generateResourceTypeAt(final int x, final int y) {
+        for (final ResourceType type : ResourceType.values()) {
+            setNoise(type.getNoise());
+            setSeed(getSeed() + type.getSeedPermutation());
+            if (sample(x, y) >= type.getThreshold()) {
+                return Optional.of(type);
             }
         }
-        // Keep resource if position is occupied.
-        return resourceMatrix[y][x];
+        return Optional.empty();
     }
 
 }
@@ -29,29 +29,39 @@ public class TerrainGenerator extends AbstractGenerator {
      */
     public ITerrain[][] generateTerrainMatrix() {
         final ITerrain[][] terrainMatrix = new ITerrain[getWorldSize()][getWorldSize()];
-
-        for (final TerrainType terrainType : TerrainType.values()) {
-            setNoise(terrainType.getNoise());
-            final int newSeed = getSeed() + terrainType.getSeedPermutation();
-            setSeed(newSeed);
-            MatrixUtils.populateElements(terrainMatrix,
-                                         (x, y) -> generateTerrain(terrainMatrix,
-                                                                   terrainType,
-                                                                   x,
-                                                                   y));
-        }
+        MatrixUtils.populateElements(terrainMatrix,
+                                     (x, y) -> TerrainFactory.createTerrain(
+                                         generateTerrainTypeAt(x, y),
+                                         x,
+                                         y));
         return terrainMatrix;
     }
 
-    private ITerrain generateTerrain(
-        final ITerrain[][] terrainMatrix, final TerrainType terrainType, final int x, final int y) {
-        final float height = sample(x, y);
-        if (height >= terrainType.getThreshold()) {
-            return TerrainFactory.createTerrain(terrainType, x, y);
-        }
-        else {
-            return terrainMatrix[y][x];
+    /**
+     * Generates the type of terrain at a single position.
+     *
+     * <p>
+     * The result only depends on the seed and the position, so any part of the world can be
+     * generated at any time, in any order, and still look the same.
+     * </p>
+     *
+     * @param x The x-coordinate of the position, which may be outside of the world size.
+     * @param y The y-coordinate of the position, which may be outside of the world size.
+     *
+     * @return The last terrain type whose noise reaches its threshold, or the first terrain type
+     *     if none does.
+     */
+    public TerrainType generateTerrainTypeAt(final int x, final int y) {
+        final TerrainType[] terrainTypes = TerrainType.values();
+        TerrainType generated = terrainTypes[0];
+        for (final TerrainType terrainType : terrainTypes) {
+            setNoise(terrainType.getNoise());
+            setSeed(getSeed() + terrainType.getSeedPermutation());
+            if (sample(x, y) >= terrainType.getThreshold()) {
+                generated = terrainType;
+            }
         }
+        return generated;
     }
 
 }
@@ -2,7 +2,11 @@ package com.thebois.models.world.resources;
 
 import java.util.Objects;
 
+import com.thebois.Pawntastic;
+import com.thebois.listeners.events.ResourceHarvestedEvent;
 import com.thebois.models.Position;
+import com.thebois.models.inventory.items.IItem;
+import com.thebois.models.inventory.items.ItemFactory;
 
 /**
  * A resource tile in the world, containing harvestable materials.
@@ -27,6 +31,20 @@ public abstract class AbstractResource implements IResource {
         return position;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Announces the harvest with a ResourceHarvestedEvent, so that the world can deplete the
+     * resource.
+     * </p>
+     */
+    @Override
+    public final IItem harvest() {
+        Pawntastic.getEventBus().post(new ResourceHarvestedEvent(getType(), position));
+        return ItemFactory.fromType(getType().getItemType());
+    }
+
     @Override
     public boolean equals(final Object object) {
         if (this == object) return true;
@@ -11,31 +11,37 @@ import com.thebois.models.world.generation.noises.NoiseFactory;
  */
 public enum ResourceType {
     /**
-     * A body of water.
+     * A body of water, which never runs out of fish.
      */
-    WATER(0.5f, 0, NoiseFactory.createLargeChunksNoise(), ItemType.FISH),
+    WATER(0.5f, 0, NoiseFactory.createLargeChunksNoise(), ItemType.FISH, 0, 0f),
     /**
      * A natural tree.
      */
-    TREE(0.5f, 31, NoiseFactory.createSmallChunksNoise(), ItemType.LOG),
+    TREE(0.5f, 31, NoiseFactory.createSmallChunksNoise(), ItemType.LOG, 5, 60f),
     /**
      * A large stone on the ground.
      */
-    STONE(0.5f, 27, NoiseFactory.createVerySmallChunksNoise(), ItemType.ROCK);
+    STONE(0.5f, 27, NoiseFactory.createVerySmallChunksNoise(), ItemType.ROCK, 5, 300f);
     private final float threshold;
     private final int seedPermutation;
     private final INoise noise;
     private final ItemType itemType;
+    private final int harvestCount;
+    private final float regrowthTime;
 
     ResourceType(
         final float threshold,
         final int seedPermutation,
         final INoise noise,
-        final ItemType itemType) {
+        final ItemType itemType,
+        final int harvestCount,
+        final float regrowthTime) {
         this.threshold = threshold;
         this.seedPermutation = seedPermutation;
         this.noise = noise;
         this.itemType = itemType;
+        this.harvestCount = harvestCount;
+        this.regrowthTime = regrowthTime;
     }
 
     /**
@@ -89,4 +95,23 @@ public enum ResourceType {
     public ItemType getItemType() {
         return itemType;
     }
+
+    /**
+     * Gets how many times a resource of the type can be harvested before it is depleted and
+     * disappears from the world.
+     *
+     * @return The number of harvests, or 0 if the resource is never depleted.
+     */
+    public int getHarvestCount() {
+        return harvestCount;
+    }
+
+    /**
+     * Gets how long it takes for a depleted resource of the type to grow back, in seconds.
+     *
+     * @return The time until it grows back.
+     */
+    public float getRegrowthTime() {
+        return regrowthTime;
+    }
 }
@@ -1,9 +1,6 @@
 package com.thebois.models.world.resources;
 
 import com.thebois.models.Position;
-import com.thebois.models.inventory.items.IItem;
-import com.thebois.models.inventory.items.ItemFactory;
-import com.thebois.models.inventory.items.ItemType;
 
 /**
  * A large stone on the ground.
@@ -41,11 +38,6 @@ class Stone extends AbstractResource {
         return ResourceType.STONE;
     }
 
-    @Override
-    public IItem harvest() {
-        return ItemFactory.fromType(ItemType.ROCK);
-    }
-
     @Override
     public float getHarvestTime() {
         return HARVEST_TIME;
@@ -1,9 +1,6 @@
 package com.thebois.models.world.resources;
 
 import com.thebois.models.Position;
-import com.thebois.models.inventory.items.IItem;
-import com.thebois.models.inventory.items.ItemFactory;
-import com.thebois.models.inventory.items.ItemType;
 
 /**
  * Resource of type tree.
@@ -41,11 +38,6 @@ class Tree extends AbstractResource {
         return ResourceType.TREE;
     }
 
-    @Override
-    public IItem harvest() {
-        return ItemFactory.fromType(ItemType.LOG);
-    }
-
     @Override
     public float getHarvestTime() {
         return HARVEST_TIME;
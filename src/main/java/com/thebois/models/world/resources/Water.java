@@ -1,9 +1,6 @@
 package com.thebois.models.world.resources;
 
 import com.thebois.models.Position;
-import com.thebois.models.inventory.items.IItem;
-import com.thebois.models.inventory.items.ItemFactory;
-import com.thebois.models.inventory.items.ItemType;
 
 /**
  * Resource of type water.
@@ -31,11 +28,6 @@ class Water extends AbstractResource {
         return ResourceType.WATER;
     }
 
-    @Override
-    public IItem harvest() {
-        return ItemFactory.fromType(ItemType.FISH);
-    }
-
     @Override
     public float getHarvestTime() {
         return HARVEST_TIME;
@@ -11,6 +11,7 @@ import com.thebois.models.Position;
 import com.thebois.models.inventory.IInventory;
 import com.thebois.models.inventory.Inventory;
 import com.thebois.models.inventory.items.IItem;
+import com.thebois.models.inventory.items.ItemFactory;
 import com.thebois.models.inventory.items.ItemType;
 
 /**
@@ -46,6 +47,21 @@ abstract class AbstractStructure implements IStructure {
         this.allNeededItems = allNeededItems;
     }
 
+    /**
+     * Creates a copy of a structure for a fork of the world, which has had as many items
+     * delivered to it as the structure.
+     *
+     * @param source The structure to copy.
+     */
+    AbstractStructure(final AbstractStructure source) {
+        this(source.position, source.structureType, source.allNeededItems);
+        for (final ItemType itemType : allNeededItems.keySet()) {
+            for (int i = 0; i < source.deliveredItems.numberOf(itemType); i++) {
+                deliveredItems.tryAdd(ItemFactory.fromType(itemType));
+            }
+        }
+    }
+
     @Override
     public Position getPosition() {
         return position;
@@ -23,6 +23,10 @@ class House extends AbstractStructure {
         super(position, StructureType.HOUSE, getBuildMaterials());
     }
 
+    private House(final House source) {
+        super(source);
+    }
+
     private static Map<ItemType, Integer> getBuildMaterials() {
         final Map<ItemType, Integer> neededItems = new EnumMap<>(ItemType.class);
 
@@ -34,6 +38,11 @@ class House extends AbstractStructure {
         return neededItems;
     }
 
+    @Override
+    public IStructure deepClone() {
+        return new House(this);
+    }
+
     @Override
     protected float getCostWhenBuilt() {
         return Float.MAX_VALUE;
@@ -2,6 +2,7 @@ package com.thebois.models.world.structures;
 
 import java.io.Serializable;
 
+import com.thebois.abstractions.IDeepClonable;
 import com.thebois.models.world.ITile;
 
 /**
@@ -9,7 +10,7 @@ import com.thebois.models.world.ITile;
  *
  * @author Mathias
  */
-public interface IStructure extends ITile, IBuildable, Serializable {
+public interface IStructure extends ITile, IBuildable, IDeepClonable<IStructure>, Serializable {
 
     /**
      * Returns the specific type of terrain.
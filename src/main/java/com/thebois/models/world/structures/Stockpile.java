@@ -7,7 +7,9 @@ import java.util.Map;
 
 import com.thebois.models.Position;
 import com.thebois.models.inventory.IInventory;
+import com.thebois.models.inventory.Inventory;
 import com.thebois.models.inventory.items.IItem;
+import com.thebois.models.inventory.items.ItemFactory;
 import com.thebois.models.inventory.items.ItemType;
 
 /**
@@ -42,6 +44,36 @@ class Stockpile extends AbstractStructure implements IInventory {
         this.inventory = inventory;
     }
 
+    /**
+     * Instantiate as a copy of another stockpile for a fork of the world, which stores its items
+     * in an inventory of the fork rather than in that of the player.
+     *
+     * @param source    The stockpile to copy.
+     * @param inventory The storage inventory of the fork.
+     */
+    protected Stockpile(final Stockpile source, final IInventory inventory) {
+        super(source);
+        this.inventory = inventory;
+    }
+
+    /**
+     * Copies the items of an inventory into a new inventory without a capacity, like that of the
+     * player.
+     *
+     * @param source The inventory to copy.
+     *
+     * @return The copy.
+     */
+    static IInventory copyOf(final IInventory source) {
+        final IInventory copy = new Inventory();
+        for (final ItemType itemType : ItemType.values()) {
+            for (int i = 0; i < source.numberOf(itemType); i++) {
+                copy.tryAdd(ItemFactory.fromType(itemType));
+            }
+        }
+        return copy;
+    }
+
     private static Map<ItemType, Integer> getBuildMaterials() {
         final Map<ItemType, Integer> neededItems = new EnumMap<>(ItemType.class);
 
@@ -53,6 +85,22 @@ class Stockpile extends AbstractStructure implements IInventory {
         return neededItems;
     }
 
+    @Override
+    public IStructure deepClone() {
+        return withInventory(copyOf(inventory));
+    }
+
+    /**
+     * Copies the stockpile for a fork of the world.
+     *
+     * @param storage The storage inventory of the fork.
+     *
+     * @return The copy.
+     */
+    Stockpile withInventory(final IInventory storage) {
+        return new Stockpile(this, storage);
+    }
+
     @Override
     protected float getCostWhenBuilt() {
         return Float.MAX_VALUE;
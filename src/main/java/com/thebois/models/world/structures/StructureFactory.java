@@ -2,12 +2,18 @@ package com.thebois.models.world.structures;
 
 import java.util.Objects;
 
+import com.thebois.Simulation;
 import com.thebois.models.Position;
 import com.thebois.models.inventory.IInventory;
 
 /**
  * A factory that instantiates structures.
  *
+ * <p>
+ * Stockpiles and town halls store items in the inventory of the simulation that the current
+ * thread is running, or the one that was set if none.
+ * </p>
+ *
  * @author Mathias
  */
 public final class StructureFactory {
@@ -53,18 +59,47 @@ public final class StructureFactory {
         return createStructure(type, new Position(x, y));
     }
 
+    /**
+     * Creates the inventory of the player of a fork, with copies of the items in the inventory of
+     * the player.
+     *
+     * @param playerInventory The inventory of the player.
+     *
+     * @return The inventory of the fork.
+     */
+    public static IInventory forkInventory(final IInventory playerInventory) {
+        return Stockpile.copyOf(playerInventory);
+    }
+
+    /**
+     * Copies a structure for a fork of a world. Stockpiles and town halls store their items in the
+     * inventory of the simulation that the current thread is running, like new ones do, which is
+     * the simulation of the fork while it is being forked.
+     *
+     * @param structure The structure to copy.
+     *
+     * @return The copy.
+     */
+    public static IStructure forkStructure(final IStructure structure) {
+        if (structure instanceof Stockpile) {
+            return ((Stockpile) structure).withInventory(inventory());
+        }
+        return structure.deepClone();
+    }
+
     private static Stockpile stockpile(final Position position) {
-        assertDependenciesNotNull();
-        return new Stockpile(position, inventory);
+        return new Stockpile(position, inventory());
     }
 
     private static TownHall townHall(final Position position) {
-        assertDependenciesNotNull();
-        return new TownHall(position, inventory);
+        return new TownHall(position, inventory());
     }
 
-    private static void assertDependenciesNotNull() {
-        Objects.requireNonNull(inventory, "Inventory is null. Call StructureFactory.setInventory.");
+    private static IInventory inventory() {
+        final IInventory currentInventory =
+            Simulation.current().map(Simulation::getInventory).orElse(inventory);
+        return Objects.requireNonNull(currentInventory,
+                                      "Inventory is null. Call StructureFactory.setInventory.");
     }
 
 }
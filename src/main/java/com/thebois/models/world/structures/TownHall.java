@@ -18,6 +18,11 @@ public class TownHall extends Stockpile {
         postStructureCompletedEvent();
     }
 
+    // Does not announce the copy as completed, since it is the same town hall.
+    private TownHall(final TownHall source, final IInventory inventory) {
+        super(source, inventory);
+    }
+
     // The town hall is always completely built.
     @Override
     public float getBuiltRatio() {
@@ -30,6 +35,11 @@ public class TownHall extends Stockpile {
         return true;
     }
 
+    @Override
+    TownHall withInventory(final IInventory storage) {
+        return new TownHall(this, storage);
+    }
+
     @Override
     protected float getCostWhenBuilt() {
         return Float.MAX_VALUE;
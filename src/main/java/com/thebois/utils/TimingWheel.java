@@ -0,0 +1,179 @@
+package com.thebois.utils;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Keeps track of timers that expire after a number of ticks, in a hierarchy of wheels.
+ *
+ * <p>
+ * Each wheel has a slot for every tick of its span. The lowest wheel has one slot per tick, and
+ * the slots of each wheel above it span a whole turn of the wheel below. A timer is put in the
+ * lowest wheel whose span reaches its deadline, and whenever a wheel completes a turn, the timers
+ * in the next slot of the wheel above are moved down into it. So advancing a tick only looks at
+ * the timers that expire during it and the timers moved down, never at every pending timer.
+ * </p>
+ *
+ * <p>
+ * Timers whose deadline is further away than the span of every wheel wait in the last slot of the
+ * top wheel, and are scheduled again each time they are moved down.
+ * </p>
+ *
+ * @param <TElement> The type of what each timer carries.
+ *
+ * @author Martin
+ */
+public final class TimingWheel<TElement extends Serializable> implements Serializable {
+
+    /**
+     * How many bits of a tick count select the slot in one wheel.
+     */
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS_PER_WHEEL = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS_PER_WHEEL - 1;
+    private static final int WHEEL_COUNT = 4;
+    /**
+     * The wheels, from the lowest up, each with its slots of pending timers.
+     */
+    private final List<List<List<Timer<TElement>>>> wheels = new ArrayList<>(WHEEL_COUNT);
+    private long currentTick = 0;
+    private int size = 0;
+
+    /**
+     * Instantiates without any timers, at tick 0.
+     */
+    public TimingWheel() {
+        for (int wheel = 0; wheel < WHEEL_COUNT; wheel++) {
+            final List<List<Timer<TElement>>> slots = new ArrayList<>(SLOTS_PER_WHEEL);
+            for (int slot = 0; slot < SLOTS_PER_WHEEL; slot++) {
+                slots.add(new ArrayList<>());
+            }
+            wheels.add(slots);
+        }
+    }
+
+    /**
+     * Creates a copy of the wheel, with the same pending timers at the same tick. The timers carry
+     * the same elements, so the elements should not be changed.
+     *
+     * @return The copy.
+     */
+    public TimingWheel<TElement> copy() {
+        final TimingWheel<TElement> copy = new TimingWheel<>();
+        for (int wheel = 0; wheel < WHEEL_COUNT; wheel++) {
+            for (int slot = 0; slot < SLOTS_PER_WHEEL; slot++) {
+                copy.wheels.get(wheel).get(slot).addAll(wheels.get(wheel).get(slot));
+            }
+        }
+        copy.currentTick = currentTick;
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * Starts a timer.
+     *
+     * @param element What the timer carries, handed back when it expires.
+     * @param ticks   How many ticks until the timer expires, at least 1.
+     */
+    public void schedule(final TElement element, final long ticks) {
+        insert(new Timer<>(element, currentTick + Math.max(1, ticks)));
+        size++;
+    }
+
+    /**
+     * Moves time forward, expiring every timer whose deadline is reached on the way.
+     *
+     * @param ticks   How many ticks to move forward.
+     * @param expired What to do with what each expired timer carries, in order of expiry.
+     */
+    public void advance(final long ticks, final Consumer<TElement> expired) {
+        for (long i = 0; i < ticks; i++) {
+            currentTick++;
+            cascade(1);
+            final List<Timer<TElement>> slot = wheels.get(0).get((int) (currentTick & SLOT_MASK));
+            if (slot.isEmpty()) continue;
+
+            // Replaced before expiring, since expiring can schedule new timers into the slot.
+            final List<Timer<TElement>> expiring = new ArrayList<>(slot);
+            slot.clear();
+            size -= expiring.size();
+            for (final Timer<TElement> timer : expiring) {
+                expired.accept(timer.element);
+            }
+        }
+    }
+
+    /**
+     * Gets how many timers have not expired yet.
+     *
+     * @return The number of pending timers.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets how many ticks have passed.
+     *
+     * @return The current tick.
+     */
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    // Moves the timers of the next slot of the wheel down, when the wheel below completed a turn.
+    private void cascade(final int wheel) {
+        if (wheel == WHEEL_COUNT || (currentTick & spanOf(wheel) - 1) != 0) return;
+
+        cascade(wheel + 1);
+        final List<Timer<TElement>> slot = wheels.get(wheel).get(slotOf(currentTick, wheel));
+        final List<Timer<TElement>> moving = new ArrayList<>(slot);
+        slot.clear();
+        for (final Timer<TElement> timer : moving) {
+            insert(timer);
+        }
+    }
+
+    private void insert(final Timer<TElement> timer) {
+        final long remaining = timer.deadline - currentTick;
+        for (int wheel = 0; wheel < WHEEL_COUNT; wheel++) {
+            if (remaining < spanOf(wheel + 1)) {
+                wheels.get(wheel).get(slotOf(timer.deadline, wheel)).add(timer);
+                return;
+            }
+        }
+        // Too far away for any wheel, so it waits in the slot that is moved down last.
+        final int topWheel = WHEEL_COUNT - 1;
+        wheels.get(topWheel).get(slotOf(currentTick - 1, topWheel)).add(timer);
+    }
+
+    // Gives how many ticks the slots of the wheels below the given wheel span altogether.
+    private static long spanOf(final int wheel) {
+        return 1L << (SLOT_BITS * wheel);
+    }
+
+    private static int slotOf(final long tick, final int wheel) {
+        return (int) ((tick >> (SLOT_BITS * wheel)) & SLOT_MASK);
+    }
+
+    /**
+     * A pending timer.
+     *
+     * @param <TElement> The type of what the timer carries.
+     */
+    private static final class Timer<TElement extends Serializable> implements Serializable {
+
+        private final TElement element;
+        private final long deadline;
+
+        Timer(final TElement element, final long deadline) {
+            this.element = element;
+            this.deadline = deadline;
+        }
+
+    }
+
+}
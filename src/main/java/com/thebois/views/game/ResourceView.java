@@ -1,12 +1,11 @@
 package com.thebois.views.game;
 
-import java.util.ArrayList;
-
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.Batch;
 
 import com.thebois.Pawntastic;
-import com.thebois.models.world.resources.IResource;
+import com.thebois.models.world.ILayerView;
+import com.thebois.models.world.resources.ResourceType;
 
 /**
  * View that renders the resources that exist in the world.
@@ -16,7 +15,7 @@ import com.thebois.models.world.resources.IResource;
 public class ResourceView implements IView {
 
     private static final int TILE_SIZE = Pawntastic.getTileSize();
-    private Iterable<IResource> resourceTiles = new ArrayList<>();
+    private ILayerView<ResourceType> resourceLayer;
 
     /**
      * Creates the Resource view.
@@ -25,24 +24,29 @@ public class ResourceView implements IView {
     }
 
     /**
-     * Updates the resource grid for the view.
+     * Sets the resources for the view to draw.
      *
-     * @param updatedResourceGrid Matrix of the world.
+     * @param updatedResourceLayer A view of the resources of the world.
      */
-    public void update(final Iterable<IResource> updatedResourceGrid) {
-        this.resourceTiles = updatedResourceGrid;
+    public void update(final ILayerView<ResourceType> updatedResourceLayer) {
+        this.resourceLayer = updatedResourceLayer;
     }
 
     @Override
     public void draw(final Batch batch, final float offsetX, final float offsetY) {
-        for (final IResource resource : resourceTiles) {
-            final ViewableResource viewableResource =
-                ViewableResource.valueByType(resource.getType());
+        if (resourceLayer == null) return;
+
+        final int cellCount = resourceLayer.size();
+        for (int i = 0; i < cellCount; i++) {
+            final ResourceType type = resourceLayer.getType(i);
+            if (type == null) continue;
+
+            final ViewableResource viewableResource = ViewableResource.valueByType(type);
             batch.setColor(Color.WHITE);
             batch.draw(
                 viewableResource.getTexture(),
-                offsetX + resource.getPosition().getX() * TILE_SIZE,
-                offsetY + resource.getPosition().getY() * TILE_SIZE,
+                offsetX + resourceLayer.getX(i) * TILE_SIZE,
+                offsetY + resourceLayer.getY(i) * TILE_SIZE,
                 TILE_SIZE,
                 TILE_SIZE);
         }
@@ -1,12 +1,10 @@
 package com.thebois.views.game;
 
-import java.util.ArrayList;
-import java.util.Collection;
-
 import com.badlogic.gdx.graphics.g2d.Batch;
 
 import com.thebois.Pawntastic;
-import com.thebois.models.world.terrains.ITerrain;
+import com.thebois.models.world.ILayerView;
+import com.thebois.models.world.terrains.TerrainType;
 
 /**
  * World view handles all the drawing of the world itself and its information on how to draw it.
@@ -16,27 +14,31 @@ import com.thebois.models.world.terrains.ITerrain;
 public class TerrainView implements IView {
 
     private static final int TILE_SIZE = Pawntastic.getTileSize();
-    private Collection<ITerrain> terrainTiles = new ArrayList<>();
+    private ILayerView<TerrainType> terrainLayer;
 
     /**
-     * Creates the world grid for the view.
+     * Sets the terrain for the view to draw.
      *
-     * @param updatedTerrainTiles Matrix of the world.
+     * @param updatedTerrainLayer A view of the terrain of the world.
      */
-    public void update(final Collection<ITerrain> updatedTerrainTiles) {
-        this.terrainTiles = updatedTerrainTiles;
+    public void update(final ILayerView<TerrainType> updatedTerrainLayer) {
+        this.terrainLayer = updatedTerrainLayer;
     }
 
     @Override
     public void draw(final Batch batch, final float offsetX, final float offsetY) {
-        for (final ITerrain terrain : terrainTiles) {
-            final ViewableTerrain viewableTerrain = ViewableTerrain.valueByType(terrain.getType());
+        if (terrainLayer == null) return;
+
+        final int cellCount = terrainLayer.size();
+        for (int i = 0; i < cellCount; i++) {
+            final ViewableTerrain viewableTerrain =
+                ViewableTerrain.valueByType(terrainLayer.getType(i));
 
             batch.setColor(viewableTerrain.getColor());
             batch.draw(
                 viewableTerrain.getTexture(),
-                offsetX + terrain.getPosition().getX() * TILE_SIZE,
-                offsetY + terrain.getPosition().getY() * TILE_SIZE,
+                offsetX + terrainLayer.getX(i) * TILE_SIZE,
+                offsetY + terrainLayer.getY(i) * TILE_SIZE,
                 TILE_SIZE,
                 TILE_SIZE);
         }
@@ -0,0 +1,241 @@
+package com.thebois;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.eventbus.Subscribe;
+
+import com.thebois.listeners.events.StructureCompletedEvent;
+import com.thebois.models.beings.IBeing;
+import com.thebois.models.beings.roles.RoleFactory;
+import com.thebois.models.beings.roles.RoleType;
+import com.thebois.models.inventory.IInventory;
+import com.thebois.models.inventory.items.ItemFactory;
+import com.thebois.models.inventory.items.ItemType;
+import com.thebois.models.world.World;
+import com.thebois.models.world.structures.IStructure;
+import com.thebois.models.world.structures.StructureFactory;
+import com.thebois.models.world.structures.StructureType;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class SimulationTests {
+
+    private static final int WORLD_SIZE = 30;
+
+    @AfterEach
+    public void teardown() {
+        StructureFactory.setInventory(null);
+        RoleFactory.setWorld(null);
+    }
+
+    // Places a town hall on the first spot where it fits, which spawns the pawns of the colony.
+    private static void placeTownHall(final Simulation simulation) {
+        simulation.run(() -> {
+            final World world = simulation.getWorld();
+            for (int i = 0; i < WORLD_SIZE * WORLD_SIZE; i++) {
+                if (world.tryCreateStructure(StructureType.TOWN_HALL,
+                                             i % WORLD_SIZE,
+                                             i / WORLD_SIZE)) {
+                    return;
+                }
+            }
+        });
+    }
+
+    @Test
+    public void generatedSimulationsHaveTheirOwnEventBus() {
+        // Act
+        final Simulation first = Simulation.generate(WORLD_SIZE, 1);
+        final Simulation second = Simulation.generate(WORLD_SIZE, 1);
+
+        // Assert
+        assertThat(first.getEventBus()).isNotSameAs(second.getEventBus())
+                                       .isNotSameAs(Pawntastic.getEventBus());
+    }
+
+    @Test
+    public void eventBusIsTheOneOfTheBoundSimulation() {
+        // Arrange
+        final Simulation simulation = Simulation.generate(WORLD_SIZE, 1);
+
+        // Act
+        final Object bound = simulation.call(Pawntastic::getEventBus);
+
+        // Assert
+        assertThat(bound).isSameAs(simulation.getEventBus());
+        assertThat(Pawntastic.getEventBus()).isNotSameAs(bound);
+    }
+
+    @Test
+    public void previousSimulationIsBoundAgainAfterRunningInsideIt() {
+        // Arrange
+        final Simulation outer = Simulation.generate(WORLD_SIZE, 1);
+        final Simulation inner = Simulation.generate(WORLD_SIZE, 2);
+
+        // Act
+        final Object bound = outer.call(() -> {
+            inner.run(() -> { });
+            return Simulation.current().orElseThrow();
+        });
+
+        // Assert
+        assertThat(bound).isSameAs(outer);
+        assertThat(Simulation.current()).isEmpty();
+    }
+
+    @Test
+    public void factoriesUseDependenciesOfBoundSimulation() {
+        // Arrange
+        final Simulation simulation = Simulation.generate(WORLD_SIZE, 1);
+        StructureFactory.setInventory(null);
+        RoleFactory.setWorld(null);
+
+        // Act
+        final IStructure stockpile = simulation.call(
+            () -> StructureFactory.createStructure(StructureType.STOCKPILE, 0, 0));
+        final Object role = simulation.call(RoleFactory::lumberjack);
+
+        // Assert
+        assertThat(stockpile).isNotNull();
+        assertThat(role).isNotNull();
+        assertThatThrownBy(() -> StructureFactory.createStructure(StructureType.STOCKPILE, 0, 0))
+            .isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    public void eventsOfSimulationDoNotReachGlobalEventBus() {
+        // Arrange
+        final Simulation simulation = Simulation.generate(WORLD_SIZE, 1);
+        final CompletedListener listener = new CompletedListener();
+        Pawntastic.getEventBus().register(listener);
+
+        // Act
+        placeTownHall(simulation);
+        Pawntastic.getEventBus().unregister(listener);
+
+        // Assert
+        assertThat(listener.events).isEmpty();
+        assertThat(simulation.getColony().getBeings()).isNotEmpty();
+    }
+
+    @Test
+    public void simulationsRunSideBySideOnThreadPool()
+        throws ExecutionException, InterruptedException {
+        // Arrange
+        final List<Simulation> simulations = new ArrayList<>();
+        for (int seed = 0; seed < 4; seed++) {
+            final Simulation simulation = Simulation.generate(WORLD_SIZE, seed);
+            placeTownHall(simulation);
+            simulation.run(() -> simulation.getColony()
+                                           .tryIncreaseAllocation(RoleType.LUMBERJACK, 2));
+            simulations.add(simulation);
+        }
+        final ExecutorService pool = Executors.newFixedThreadPool(simulations.size());
+
+        // Act
+        final List<Future<?>> runs = new ArrayList<>();
+        for (final Simulation simulation : simulations) {
+            runs.add(pool.submit(() -> {
+                for (int i = 0; i < 100; i++) {
+                    simulation.update(0.1f);
+                }
+            }));
+        }
+        for (final Future<?> run : runs) {
+            run.get();
+        }
+        pool.shutdown();
+
+        // Assert
+        for (final Simulation simulation : simulations) {
+            assertThat(simulation.call(() -> simulation.getColony()
+                                                       .countBeingsWithRole(RoleType.LUMBERJACK)))
+                .isEqualTo(2);
+        }
+    }
+
+    @Test
+    public void forkHasCopiesOfTheBeingsInForkOfTheWorld() {
+        // Arrange
+        final Simulation simulation = Simulation.generate(WORLD_SIZE, 1);
+        placeTownHall(simulation);
+        simulation.update(0.1f);
+
+        // Act
+        final Simulation fork = simulation.fork();
+
+        // Assert
+        assertThat(fork.getEventBus()).isNotSameAs(simulation.getEventBus());
+        assertThat(fork.getWorld()).isNotSameAs(simulation.getWorld());
+        assertThat(fork.getColony().getBeings())
+            .hasSameSizeAs(simulation.getColony().getBeings())
+            .extracting(IBeing::getPosition)
+            .containsExactlyInAnyOrderElementsOf(simulation.getColony()
+                                                           .getBeings()
+                                                           .stream()
+                                                           .map(IBeing::getPosition)
+                                                           .toList());
+    }
+
+    @Test
+    public void forkAnnouncesOnlyOnItsOwnEventBus() {
+        // Arrange
+        final Simulation simulation = Simulation.generate(WORLD_SIZE, 1);
+        final Simulation fork = simulation.fork();
+        final CompletedListener listener = new CompletedListener();
+        final CompletedListener forkListener = new CompletedListener();
+        simulation.getEventBus().register(listener);
+        fork.getEventBus().register(forkListener);
+
+        // Act
+        placeTownHall(fork);
+
+        // Assert
+        assertThat(listener.events).isEmpty();
+        assertThat(forkListener.events).hasSize(1);
+        assertThat(fork.getColony().getBeings()).isNotEmpty();
+        assertThat(simulation.getColony().getBeings()).isEmpty();
+        assertThat(simulation.getWorld().isTownHallPlaced()).isFalse();
+    }
+
+    @Test
+    public void forkStoresItemsInCopyOfInventory() {
+        // Arrange
+        final Simulation simulation = Simulation.generate(WORLD_SIZE, 1);
+        simulation.getInventory().tryAdd(ItemFactory.fromType(ItemType.LOG));
+        placeTownHall(simulation);
+        final Simulation fork = simulation.fork();
+
+        // Act
+        fork.getInventory().tryAdd(ItemFactory.fromType(ItemType.LOG));
+
+        // Assert
+        assertThat(fork.getInventory().numberOf(ItemType.LOG)).isEqualTo(2);
+        assertThat(simulation.getInventory().numberOf(ItemType.LOG)).isEqualTo(1);
+        assertThat(fork.getWorld().getStructures()).singleElement()
+                                                   .isInstanceOf(IInventory.class)
+                                                   .satisfies(townHall -> assertThat(
+                                                       ((IInventory) townHall).numberOf(
+                                                           ItemType.LOG)).isEqualTo(2));
+    }
+
+    private static class CompletedListener {
+
+        private final List<StructureCompletedEvent> events = new ArrayList<>();
+
+        @Subscribe
+        public void onStructureCompleted(final StructureCompletedEvent event) {
+            events.add(event);
+        }
+
+    }
+
+}
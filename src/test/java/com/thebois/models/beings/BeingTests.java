@@ -29,6 +29,7 @@ import com.thebois.models.beings.roles.RoleType;
 import com.thebois.models.inventory.IInventory;
 import com.thebois.models.inventory.Inventory;
 import com.thebois.models.inventory.items.IConsumableItem;
+import com.thebois.models.inventory.items.ItemFactory;
 import com.thebois.models.inventory.items.ItemType;
 import com.thebois.models.world.IWorld;
 import com.thebois.testutils.InMemorySerialize;
@@ -649,4 +650,24 @@ public class BeingTests {
         verify(inventory, times(1)).isEmpty();
     }
 
+    @Test
+    public void forkCarriesCopiesOfTheItemsAtTheSamePlace() {
+        // Arrange
+        final IInventory items = new Inventory();
+        items.tryAdd(ItemFactory.fromType(ItemType.LOG));
+        final Being original = createBeing(new Position(2, 3), new NothingRole(), items);
+        original.setDestination(new Position(4, 3));
+        final IInventory forkItems = new Inventory();
+
+        // Act
+        final IBeing fork = original.fork(forkItems);
+        forkItems.take(ItemType.LOG);
+
+        // Assert
+        assertThat(fork.getPosition()).isEqualTo(original.getPosition());
+        assertThat(fork.getDestination()).isEqualTo(new Position(4, 3));
+        assertThat(fork.getHealthRatio()).isEqualTo(original.getHealthRatio());
+        assertThat(original.hasItem(ItemType.LOG)).isTrue();
+    }
+
 }
@@ -1,5 +1,6 @@
 package com.thebois.models.beings.actions;
 
+import java.util.List;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -12,6 +13,8 @@ import com.thebois.models.Position;
 import com.thebois.models.beings.IActionPerformer;
 import com.thebois.models.inventory.items.IItem;
 import com.thebois.models.inventory.items.ItemType;
+import com.thebois.models.world.ITile;
+import com.thebois.models.world.IWorld;
 import com.thebois.models.world.resources.IResource;
 import com.thebois.models.world.resources.ResourceType;
 import com.thebois.testutils.MockFactory;
@@ -27,24 +30,27 @@ public class HarvestActionTests {
     private IItem resourceItem;
     private final ItemType itemType = ItemType.ROCK;
     private Position resourcePosition;
+    private IWorld world;
 
     public static Stream<Arguments> getEqualHarvests() {
         final IResource sameResource = mock(IResource.class);
-        final IAction sameInstance = ActionFactory.createHarvest(sameResource);
+        final IWorld world = mock(IWorld.class);
+        final IAction sameInstance = ActionFactory.createHarvest(sameResource, world);
         return Stream.of(Arguments.of(sameInstance, sameInstance),
-                         Arguments.of(ActionFactory.createHarvest(sameResource),
-                                      ActionFactory.createHarvest(sameResource)));
+                         Arguments.of(ActionFactory.createHarvest(sameResource, world),
+                                      ActionFactory.createHarvest(sameResource, world)));
     }
 
     public static Stream<Arguments> getNotEqualHarvests() {
         final IResource sameResource = mock(IResource.class);
-        final IAction sameResourceNotHarvested = ActionFactory.createHarvest(sameResource);
-        final IAction sameResourceHarvested = ActionFactory.createHarvest(sameResource);
+        final IWorld world = mock(IWorld.class);
+        final IAction sameResourceNotHarvested = ActionFactory.createHarvest(sameResource, world);
+        final IAction sameResourceHarvested = ActionFactory.createHarvest(sameResource, world);
         sameResourceHarvested.perform(mock(IActionPerformer.class), 0.1f);
-        return Stream.of(Arguments.of(ActionFactory.createHarvest(mock(IResource.class)),
-                                      ActionFactory.createHarvest(sameResource)),
-                         Arguments.of(ActionFactory.createHarvest(sameResource), null),
-                         Arguments.of(ActionFactory.createHarvest(sameResource),
+        return Stream.of(Arguments.of(ActionFactory.createHarvest(mock(IResource.class), world),
+                                      ActionFactory.createHarvest(sameResource, world)),
+                         Arguments.of(ActionFactory.createHarvest(sameResource, world), null),
+                         Arguments.of(ActionFactory.createHarvest(sameResource, world),
                                       mock(IAction.class)),
                          Arguments.of(sameResourceNotHarvested, sameResourceHarvested));
     }
@@ -56,7 +62,9 @@ public class HarvestActionTests {
         when(resourceItem.getType()).thenReturn(itemType);
         resourcePosition = new Position(1, 0);
         resource = MockFactory.createResource(resourcePosition, resourceItem, 10f);
-        action = ActionFactory.createHarvest(resource);
+        world = mock(IWorld.class);
+        when(world.getTileAt(resourcePosition)).thenReturn(resource);
+        action = ActionFactory.createHarvest(resource, world);
     }
 
     @Test
@@ -118,6 +126,35 @@ public class HarvestActionTests {
         verify(performer, times(1)).tryAdd(eq(resourceItem));
     }
 
+    @Test
+    public void onlyOneOfTwoHarvestersGetsTheLastHarvestOfResource() {
+        // Arrange
+        final IActionPerformer otherPerformer = mock(IActionPerformer.class);
+        final IAction otherAction = ActionFactory.createHarvest(resource, world);
+        for (final IActionPerformer harvester : List.of(performer, otherPerformer)) {
+            when(harvester.getPosition()).thenReturn(resourcePosition.subtract(1, 0));
+            when(harvester.canFitItem(any())).thenReturn(true);
+        }
+        // The last harvest depletes the resource, which removes it from the world.
+        when(resource.harvest()).thenAnswer(invocation -> {
+            when(world.getTileAt(resourcePosition)).thenReturn(mock(ITile.class));
+            return resourceItem;
+        });
+        final boolean otherCouldPerform = otherAction.canPerform(otherPerformer);
+
+        // Act
+        action.perform(performer, resource.getHarvestTime());
+        final boolean otherCanPerform = otherAction.canPerform(otherPerformer);
+        otherAction.perform(otherPerformer, resource.getHarvestTime());
+
+        // Assert
+        assertThat(otherCouldPerform).isTrue();
+        assertThat(otherCanPerform).isFalse();
+        verify(performer, times(1)).tryAdd(eq(resourceItem));
+        verify(otherPerformer, never()).tryAdd(any());
+        verify(resource, times(1)).harvest();
+    }
+
     @Test
     public void isCompletedIsFalseIfInventoryOfPerformerIsNotFull() {
         // Arrange
@@ -149,8 +186,8 @@ public class HarvestActionTests {
     public void hashCodeIsSameForEqualActions() {
         // Arrange
         final IResource same = mock(IResource.class);
-        final IAction first = ActionFactory.createHarvest(same);
-        final IAction second = ActionFactory.createHarvest(same);
+        final IAction first = ActionFactory.createHarvest(same, world);
+        final IAction second = ActionFactory.createHarvest(same, world);
 
         // Assert
         assertThat(first.hashCode()).isEqualTo(second.hashCode());
@@ -1,7 +1,9 @@
 package com.thebois.models.beings.actions;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.AfterEach;
@@ -17,6 +19,9 @@ import com.thebois.listeners.events.ObstaclePlacedEvent;
 import com.thebois.models.Position;
 import com.thebois.models.beings.IActionPerformer;
 import com.thebois.models.beings.pathfinding.IPathFinder;
+import com.thebois.models.beings.pathfinding.IPathPlanner;
+import com.thebois.models.beings.pathfinding.PathFinderFactory;
+import com.thebois.models.world.IWorld;
 import com.thebois.testutils.InMemorySerialize;
 
 import static org.assertj.core.api.Assertions.*;
@@ -207,6 +212,23 @@ public class MoveActionTests {
         verify(pathFinder, times(2)).path(any(), any());
     }
 
+    @Test
+    public void pathIsRecalculatedOnceWhenSeveralObstaclesAreInWay() {
+        // Arrange
+        when(performer.getPosition()).thenReturn(start);
+        when(pathFinder.path(any(), any())).thenReturn(workingPath);
+
+        final ObstaclePlacedEvent obstacleEvent =
+            new ObstaclePlacedEvent(List.of(new Position(1, 1), new Position(2, 2)));
+
+        // Act
+        action.perform(performer, 0.1f);
+        Pawntastic.getEventBus().post(obstacleEvent);
+
+        // Assert
+        verify(pathFinder, times(2)).path(any(), any());
+    }
+
     @Test
     public void pathIsRecalculatedFromCurrentPositionWhenPerformerNotNearStartOfPath() {
         // Arrange
@@ -243,6 +265,128 @@ public class MoveActionTests {
         verify(pathFinder, times(1)).path(any(), any());
     }
 
+    @Test
+    public void pathAroundObstacleIsPlannedFromPositionBeforeObstacle() {
+        // Arrange
+        final IPathPlanner planner = mock(IPathPlanner.class);
+        final IAction cut = new MoveAction(end, planner, Pawntastic::getEventBus);
+        when(performer.getPosition()).thenReturn(start);
+        when(planner.path(start)).thenReturn(workingPath);
+        when(planner.path(new Position(1, 1))).thenReturn(List.of(new Position(1, 1), end));
+
+        final ObstaclePlacedEvent obstacleEvent = new ObstaclePlacedEvent(2, 2);
+
+        // Act
+        cut.perform(performer, 0.1f);
+        Pawntastic.getEventBus().post(obstacleEvent);
+
+        // Assert
+        verify(planner, times(1)).path(start);
+        verify(planner, times(1)).path(new Position(1, 1));
+    }
+
+    @Test
+    public void plannerIsToldOfObstaclesThatAreNotInWay() {
+        // Arrange
+        final IPathPlanner planner = mock(IPathPlanner.class);
+        final IAction cut = new MoveAction(end, planner, Pawntastic::getEventBus);
+        when(performer.getPosition()).thenReturn(start);
+        when(planner.path(start)).thenReturn(workingPath);
+
+        final ObstaclePlacedEvent obstacleEvent = new ObstaclePlacedEvent(5, 5);
+
+        // Act
+        cut.perform(performer, 0.1f);
+        Pawntastic.getEventBus().post(obstacleEvent);
+
+        // Assert
+        verify(planner, times(1)).cellsChanged(obstacleEvent.getPositions());
+        verify(planner, times(1)).path(any());
+    }
+
+    @Test
+    public void obstaclesAreIgnoredOnceLastStepOfPathIsTaken() {
+        // Arrange
+        final IPathPlanner planner = mock(IPathPlanner.class);
+        final IAction cut = new MoveAction(end, planner, Pawntastic::getEventBus);
+        when(performer.getPosition()).thenReturn(start);
+        when(planner.path(start)).thenReturn(workingPath);
+        cut.perform(performer, 0.1f);
+        when(performer.getPosition()).thenReturn(new Position(1, 1));
+        cut.perform(performer, 0.1f);
+        when(performer.getPosition()).thenReturn(new Position(2, 2));
+
+        // Act
+        cut.perform(performer, 0.1f);
+        Pawntastic.getEventBus().post(new ObstaclePlacedEvent(5, 5));
+
+        // Assert
+        verify(planner, never()).cellsChanged(any());
+    }
+
+    @Test
+    public void obstaclesAreIgnoredOnceDestinationTurnsOutUnreachable() {
+        // Arrange
+        final IPathPlanner planner = mock(IPathPlanner.class);
+        final IAction cut = new MoveAction(end, planner, Pawntastic::getEventBus);
+        when(performer.getPosition()).thenReturn(start);
+        when(planner.path(start)).thenReturn(workingPath);
+        when(planner.path(new Position(1, 1))).thenReturn(noPath);
+        cut.perform(performer, 0.1f);
+
+        // Act
+        Pawntastic.getEventBus().post(new ObstaclePlacedEvent(2, 2));
+        Pawntastic.getEventBus().post(new ObstaclePlacedEvent(5, 5));
+
+        // Assert
+        assertThat(cut.canPerform(performer)).isFalse();
+        verify(planner, times(1)).cellsChanged(any());
+    }
+
+    @Test
+    public void firstPathAroundObstacleReadsFewerCellsThanPlanningAnew() {
+        // Arrange
+        final int worldSize = 32;
+        final float[][] costs = new float[worldSize][worldSize];
+        // A wall that the path has to go all the way around.
+        for (int y = 0; y < worldSize - 1; y++) {
+            costs[y][worldSize / 2] = Float.MAX_VALUE;
+        }
+        final AtomicInteger reads = new AtomicInteger();
+        final IWorld world = mock(IWorld.class);
+        when(world.getCostAt(anyInt(), anyInt())).thenAnswer(invocation -> {
+            reads.incrementAndGet();
+            return costs[(int) invocation.getArgument(1)][(int) invocation.getArgument(0)];
+        });
+        final Position begin = new Position(1, worldSize / 2);
+        final Position destination = new Position(worldSize - 2, worldSize / 2);
+        final List<Position> firstPath = new ArrayList<>(
+            PathFinderFactory.createReplanning(world, worldSize, destination).path(begin));
+        final int obstacleIndex = firstPath.size() / 4;
+        final int obstacleX = (int) firstPath.get(obstacleIndex).getX();
+        final int obstacleY = (int) firstPath.get(obstacleIndex).getY();
+        when(performer.getPosition()).thenReturn(begin);
+        final IAction cut = new MoveAction(destination,
+                                           PathFinderFactory.createReplanning(world,
+                                                                              worldSize,
+                                                                              destination),
+                                           Pawntastic::getEventBus);
+        cut.perform(performer, 0.1f);
+        costs[obstacleY][obstacleX] = Float.MAX_VALUE;
+        reads.set(0);
+        PathFinderFactory.createReplanning(world, worldSize, destination)
+                         .path(firstPath.get(obstacleIndex - 1));
+        final int readsAnew = reads.getAndSet(0);
+
+        // Act
+        Pawntastic.getEventBus().post(new ObstaclePlacedEvent(obstacleX, obstacleY));
+
+        // Assert
+        assertThat(cut.canPerform(performer)).isTrue();
+        assertThat(reads.get()).isPositive();
+        assertThat(reads.get() * 2).isLessThan(readsAnew);
+    }
+
     @Test
     public void performDoesNothingWhenAtEnd() {
         // Arrange
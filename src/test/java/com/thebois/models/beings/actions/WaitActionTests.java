@@ -0,0 +1,68 @@
+package com.thebois.models.beings.actions;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.thebois.models.Position;
+import com.thebois.models.beings.IActionPerformer;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class WaitActionTests {
+
+    private IActionPerformer performer;
+    private IAction wait;
+
+    @BeforeEach
+    public void setup() {
+        performer = mock(IActionPerformer.class);
+        when(performer.getPosition()).thenReturn(new Position());
+
+        wait = ActionFactory.createWait(1f);
+    }
+
+    @Test
+    public void canPerformReturnsTrue() {
+        // Act
+        final boolean canPerform = wait.canPerform(performer);
+
+        // Assert
+        assertThat(canPerform).isTrue();
+    }
+
+    @Test
+    public void isCompletedReturnsFalseBeforeWaitTimeHasPassed() {
+        // Arrange
+        wait.perform(performer, 0.5f);
+
+        // Act
+        final boolean isCompleted = wait.isCompleted(performer);
+
+        // Assert
+        assertThat(isCompleted).isFalse();
+    }
+
+    @Test
+    public void isCompletedReturnsTrueAfterWaitTimeHasPassed() {
+        // Arrange
+        wait.perform(performer, 0.5f);
+        wait.perform(performer, 0.5f);
+
+        // Act
+        final boolean isCompleted = wait.isCompleted(performer);
+
+        // Assert
+        assertThat(isCompleted).isTrue();
+    }
+
+    @Test
+    public void performDoesNotSetDestination() {
+        // Act
+        wait.perform(performer, 1f);
+
+        // Assert
+        verify(performer, never()).setDestination(any());
+    }
+
+}
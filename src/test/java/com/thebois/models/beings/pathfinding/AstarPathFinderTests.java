@@ -125,12 +125,30 @@ public class AstarPathFinderTests {
         return world;
     }
 
+    @Test
+    public void pathToUnreachableDestinationDoesNotSearch() {
+        // Arrange
+        final IWorld world = mock(IWorld.class);
+        final Position from = new Position(0, 0);
+        final Position destination = new Position(2, 2);
+        when(world.isReachable(from, destination)).thenReturn(false);
+        final IPathFinder cut = new AstarPathFinder(world);
+
+        // Act
+        final Collection<Position> path = cut.path(from, destination);
+
+        // Assert
+        assertThat(path).isEmpty();
+        verify(world, never()).getNeighboursOf(any());
+    }
+
     @Test
     public void pathReturnsEmptyIfNotAbleToReachDestination() {
         // Arrange
         final Position from = new Position();
         final Position destination = new Position(2, 2);
         final IWorld world = Mockito.mock(IWorld.class);
+        when(world.isReachable(from, destination)).thenReturn(true);
         final ITile fromTile = TerrainFactory.createTerrain(TerrainType.GRASS, from);
         when(world.getTileAt(from)).thenReturn(fromTile);
         when(world.getTileAt(destination)).thenReturn(TerrainFactory.createTerrain(TerrainType.GRASS, destination));
@@ -0,0 +1,333 @@
+package com.thebois.models.beings.pathfinding;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.thebois.Pawntastic;
+import com.thebois.listeners.events.ObstaclePlacedEvent;
+import com.thebois.models.Position;
+import com.thebois.models.world.World;
+import com.thebois.testutils.InMemorySerialize;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CachingPathFinderTests {
+
+    private static final int WORLD_SIZE = 64;
+    private static final long BUDGET = 1024 * 1024;
+
+    // A straight path along the x-axis, from one x-coordinate to another.
+    private static List<Position> straightPath(final int fromX, final int toX, final int y) {
+        final List<Position> path = new ArrayList<>();
+        for (int x = fromX; x <= toX; x++) {
+            path.add(new Position(x, y));
+        }
+        return path;
+    }
+
+    private static IPathFinder mockStraightPathFinder() {
+        final IPathFinder pathFinder = mock(IPathFinder.class);
+        when(pathFinder.path(any(), any())).thenAnswer(invocation -> {
+            final Position from = invocation.getArgument(0);
+            final Position to = invocation.getArgument(1);
+            return straightPath((int) from.getX(), (int) to.getX(), (int) from.getY());
+        });
+        return pathFinder;
+    }
+
+    private static GridWorld createOpenWorld() {
+        return new GridWorld(new float[WORLD_SIZE][WORLD_SIZE]);
+    }
+
+    @Test
+    public void repeatedRequestIsAnsweredFromCache() {
+        // Arrange
+        final IPathFinder pathFinder = mockStraightPathFinder();
+        final CachingPathFinder cut = new CachingPathFinder(pathFinder, createOpenWorld(), BUDGET);
+        final Position from = new Position(1, 1);
+        final Position destination = new Position(10, 1);
+
+        // Act
+        final Collection<Position> first = cut.path(from, destination);
+        final Collection<Position> second = cut.path(from, destination);
+
+        // Assert
+        assertThat(second).isEqualTo(first).isEqualTo(straightPath(1, 10, 1));
+        verify(pathFinder, times(1)).path(from, destination);
+        assertThat(cut.getStatistics().getHits()).isEqualTo(1);
+        assertThat(cut.getStatistics().getMisses()).isEqualTo(1);
+        assertThat(cut.getStatistics().getHitRate()).isEqualTo(0.5f);
+    }
+
+    @Test
+    public void missingPathIsNotCached() {
+        // Arrange
+        final IPathFinder pathFinder = mock(IPathFinder.class);
+        when(pathFinder.path(any(), any())).thenReturn(List.of());
+        final CachingPathFinder cut = new CachingPathFinder(pathFinder, createOpenWorld(), BUDGET);
+        final Position from = new Position(1, 1);
+        final Position destination = new Position(10, 1);
+
+        // Act
+        cut.path(from, destination);
+        cut.path(from, destination);
+
+        // Assert
+        verify(pathFinder, times(2)).path(from, destination);
+        assertThat(cut.getStatistics().getCachedPaths()).isZero();
+    }
+
+    @Test
+    public void leastRecentlyUsedPathIsEvictedWhenOverBudget() {
+        // Arrange
+        final IPathFinder pathFinder = mockStraightPathFinder();
+        final CachingPathFinder cut = new CachingPathFinder(pathFinder, createOpenWorld(), 1000);
+        final Position from = new Position(0, 0);
+        final Position first = new Position(5, 0);
+        final Position second = new Position(6, 0);
+        final Position third = new Position(7, 0);
+        cut.path(from, first);
+        cut.path(from, second);
+        cut.path(from, first);
+
+        // Act
+        cut.path(from, third);
+        cut.path(from, first);
+        cut.path(from, second);
+
+        // Assert
+        verify(pathFinder, times(1)).path(from, first);
+        verify(pathFinder, times(2)).path(from, second);
+        assertThat(cut.getStatistics().getEvictions()).isPositive();
+        assertThat(cut.getStatistics().getCachedBytes()).isLessThanOrEqualTo(1000);
+    }
+
+    @Test
+    public void obstacleInChunkOfPathInvalidatesIt() {
+        // Arrange
+        final IPathFinder pathFinder = mockStraightPathFinder();
+        final CachingPathFinder cut = new CachingPathFinder(pathFinder, createOpenWorld(), BUDGET);
+        final Position from = new Position(1, 1);
+        final Position destination = new Position(10, 1);
+        cut.path(from, destination);
+
+        // Act
+        cut.onObstaclePlaced(new ObstaclePlacedEvent(3, World.CHUNK_SIZE - 1));
+        cut.path(from, destination);
+
+        // Assert
+        verify(pathFinder, times(2)).path(from, destination);
+        assertThat(cut.getStatistics().getInvalidations()).isEqualTo(1);
+    }
+
+    @Test
+    public void obstacleInOtherChunkKeepsPath() {
+        // Arrange
+        final IPathFinder pathFinder = mockStraightPathFinder();
+        final CachingPathFinder cut = new CachingPathFinder(pathFinder, createOpenWorld(), BUDGET);
+        final Position from = new Position(1, 1);
+        final Position destination = new Position(10, 1);
+        cut.path(from, destination);
+
+        // Act
+        cut.onObstaclePlaced(new ObstaclePlacedEvent(3, World.CHUNK_SIZE));
+        cut.path(from, destination);
+
+        // Assert
+        verify(pathFinder, times(1)).path(from, destination);
+        assertThat(cut.getStatistics().getInvalidations()).isZero();
+    }
+
+    @Test
+    public void cachedPathThroughUnannouncedObstacleIsSearchedAgain() {
+        // Arrange
+        final float[][] costs = new float[WORLD_SIZE][WORLD_SIZE];
+        final IPathFinder pathFinder = mockStraightPathFinder();
+        final CachingPathFinder cut = new CachingPathFinder(pathFinder, new GridWorld(costs), BUDGET);
+        final Position from = new Position(1, 1);
+        final Position destination = new Position(10, 1);
+        cut.path(from, destination);
+        costs[1][5] = Float.MAX_VALUE;
+
+        // Act
+        cut.path(from, destination);
+
+        // Assert
+        verify(pathFinder, times(2)).path(from, destination);
+    }
+
+    @Test
+    public void concurrentRequestsForSamePathAreCoalesced() throws Exception {
+        // Arrange
+        final CountDownLatch searching = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final IPathFinder pathFinder = mock(IPathFinder.class);
+        when(pathFinder.path(any(), any())).thenAnswer(invocation -> {
+            searching.countDown();
+            release.await();
+            return straightPath(1, 10, 1);
+        });
+        final CachingPathFinder cut = new CachingPathFinder(pathFinder, createOpenWorld(), BUDGET);
+        final Position from = new Position(1, 1);
+        final Position destination = new Position(10, 1);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // Act
+            final Future<Collection<Position>> first =
+                executor.submit(() -> cut.path(from, destination));
+            searching.await();
+            final Future<Collection<Position>> second =
+                executor.submit(() -> cut.path(from, destination));
+            while (cut.getStatistics().getCoalesced() == 0) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            // Assert
+            assertThat(second.get(1, TimeUnit.MINUTES)).isEqualTo(first.get(1, TimeUnit.MINUTES));
+            verify(pathFinder, times(1)).path(from, destination);
+            assertThat(cut.getStatistics().getHitRate()).isEqualTo(0.5f);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void failedSearchFailsRequestsThatWaitedForIt() throws Exception {
+        // Arrange
+        final CountDownLatch searching = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final IPathFinder pathFinder = mock(IPathFinder.class);
+        when(pathFinder.path(any(), any())).thenAnswer(invocation -> {
+            searching.countDown();
+            release.await();
+            throw new IllegalArgumentException("The destination is outside of the world.");
+        });
+        final CachingPathFinder cut = new CachingPathFinder(pathFinder, createOpenWorld(), BUDGET);
+        final Position from = new Position(1, 1);
+        final Position destination = new Position(10, 1);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // Act
+            final Future<Collection<Position>> first =
+                executor.submit(() -> cut.path(from, destination));
+            searching.await();
+            final Future<Collection<Position>> second =
+                executor.submit(() -> cut.path(from, destination));
+            while (cut.getStatistics().getCoalesced() == 0) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            // Assert
+            assertThatThrownBy(() -> first.get(1, TimeUnit.MINUTES))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> second.get(1, TimeUnit.MINUTES))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+            assertThat(cut.getStatistics().getCachedPaths()).isZero();
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void pathFoundWhileObstacleWasPlacedIsNotCached() {
+        // Arrange
+        final IPathFinder pathFinder = mock(IPathFinder.class);
+        when(pathFinder.path(any(), any())).thenAnswer(invocation -> {
+            Pawntastic.getEventBus().post(new ObstaclePlacedEvent(3, 1));
+            return straightPath(1, 10, 1);
+        });
+        final CachingPathFinder cut = new CachingPathFinder(pathFinder, createOpenWorld(), BUDGET);
+        final Position from = new Position(1, 1);
+        final Position destination = new Position(10, 1);
+
+        // Act
+        cut.path(from, destination);
+        cut.path(from, destination);
+
+        // Assert
+        verify(pathFinder, times(2)).path(from, destination);
+        assertThat(cut.getStatistics().getCachedPaths()).isZero();
+    }
+
+    @Test
+    public void pathLargerThanBudgetIsNotCached() {
+        // Arrange
+        final IPathFinder pathFinder = mockStraightPathFinder();
+        final CachingPathFinder cut = new CachingPathFinder(pathFinder, createOpenWorld(), 200);
+        final Position from = new Position(1, 1);
+        final Position destination = new Position(10, 1);
+
+        // Act
+        cut.path(from, destination);
+        cut.path(from, destination);
+
+        // Assert
+        verify(pathFinder, times(2)).path(from, destination);
+        assertThat(cut.getStatistics().getCachedBytes()).isZero();
+    }
+
+    @Test
+    public void statisticsWithoutRequestsHaveNoHitRate() {
+        // Arrange
+        final CachingPathFinder cut =
+            new CachingPathFinder(mock(IPathFinder.class), createOpenWorld(), BUDGET);
+
+        // Act
+        final PathCacheStatistics statistics = cut.getStatistics();
+
+        // Assert
+        assertThat(statistics.getHitRate()).isZero();
+        assertThat(statistics.toString()).contains("hits=0", "cachedPaths=0");
+    }
+
+    @Test
+    public void deserializedFinderStartsWithEmptyCache() throws ClassNotFoundException,
+                                                               IOException {
+        // Arrange
+        final GridWorld world = createOpenWorld();
+        final CachingPathFinder cut =
+            new CachingPathFinder(new IndexedAstarPathFinder(world, WORLD_SIZE), world, BUDGET);
+        final Position from = new Position(1, 1);
+        final Position destination = new Position(10, 1);
+        final Collection<Position> path = cut.path(from, destination);
+
+        // Act
+        final CachingPathFinder deserialized =
+            (CachingPathFinder) InMemorySerialize.deserialize(InMemorySerialize.serialize(cut));
+
+        // Assert
+        assertThat(deserialized.getStatistics().getCachedPaths()).isZero();
+        assertThat(deserialized.path(from, destination)).isEqualTo(path);
+        assertThat(deserialized.getStatistics().getCachedPaths()).isOne();
+    }
+
+    @Test
+    public void budgetMustFitAPath() {
+        // Arrange
+        final IPathFinder pathFinder = mock(IPathFinder.class);
+
+        // Assert
+        assertThatThrownBy(() -> new CachingPathFinder(pathFinder, createOpenWorld(), 1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.thebois.models.beings.pathfinding;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class ClusterGraphTests {
+
+    private static final int WORLD_SIZE = 16;
+    private static final int CLUSTER_SIZE = 4;
+
+    private static ClusterGraph createOpenGraph() {
+        final ClusterGraph graph = new ClusterGraph(new GridWorld(new float[WORLD_SIZE][WORLD_SIZE]),
+                                                    WORLD_SIZE,
+                                                    CLUSTER_SIZE);
+        graph.repair();
+        return graph;
+    }
+
+    private static int cellAt(final int x, final int y) {
+        return y * WORLD_SIZE + x;
+    }
+
+    // Finds the clusters whose entrances were gathered anew by the last repair.
+    private static List<Integer> rebuiltClusters(final ClusterGraph graph, final int[][] before) {
+        final List<Integer> rebuilt = new ArrayList<>();
+        for (int cluster = 0; cluster < before.length; cluster++) {
+            if (graph.getEntrances(cluster) != before[cluster]) rebuilt.add(cluster);
+        }
+        return rebuilt;
+    }
+
+    private static int[][] entrancesOfEveryCluster(final ClusterGraph graph) {
+        final int clusterCount = (WORLD_SIZE / CLUSTER_SIZE) * (WORLD_SIZE / CLUSTER_SIZE);
+        final int[][] entrances = new int[clusterCount][];
+        for (int cluster = 0; cluster < clusterCount; cluster++) {
+            entrances[cluster] = graph.getEntrances(cluster);
+        }
+        return entrances;
+    }
+
+    @Test
+    public void shortOpenBorderHasTransitionInTheMiddle() {
+        // Arrange
+        final ClusterGraph graph = createOpenGraph();
+        final int entrance = graph.entranceIndexOf(cellAt(3, 2));
+
+        // Act
+        final int other = graph.transitionOf(0, entrance, 0);
+
+        // Assert
+        assertThat(entrance).isNotEqualTo(ClusterGraph.NO_ENTRANCE);
+        assertThat(other).isEqualTo(cellAt(4, 2));
+        assertThat(graph.entranceIndexOf(cellAt(3, 1))).isEqualTo(ClusterGraph.NO_ENTRANCE);
+    }
+
+    @Test
+    public void costBetweenEntrancesIsThatOfCheapestPathInsideCluster() {
+        // Arrange
+        final ClusterGraph graph = createOpenGraph();
+        final int from = graph.entranceIndexOf(cellAt(3, 2));
+        final int to = graph.entranceIndexOf(cellAt(2, 3));
+
+        // Act
+        final float cost = graph.costBetween(0, from, to);
+
+        // Assert
+        assertThat(cost).isEqualTo(2f);
+        assertThat(graph.previousOnRoute(0, from, cellAt(2, 3))).isIn(cellAt(2, 2), cellAt(3, 3));
+    }
+
+    @Test
+    public void changedInnerCellOnlyRebuildsItsCluster() {
+        // Arrange
+        final ClusterGraph graph = createOpenGraph();
+        final int[][] before = entrancesOfEveryCluster(graph);
+
+        // Act
+        graph.cellChanged(5, 5);
+        graph.repair();
+
+        // Assert
+        assertThat(rebuiltClusters(graph, before)).containsExactly(5);
+    }
+
+    @Test
+    public void changedBorderCellAlsoRebuildsClusterOnOtherSide() {
+        // Arrange
+        final ClusterGraph graph = createOpenGraph();
+        final int[][] before = entrancesOfEveryCluster(graph);
+
+        // Act
+        graph.cellChanged(7, 5);
+        graph.repair();
+
+        // Assert
+        assertThat(rebuiltClusters(graph, before)).containsExactly(5, 6);
+    }
+
+}
@@ -0,0 +1,207 @@
+package com.thebois.models.beings.pathfinding;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.thebois.models.Position;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class DstarLitePlannerTests {
+
+    private static final float OBSTACLE = Float.MAX_VALUE;
+    private static final int WORLD_SIZE = 32;
+
+    public static Stream<Arguments> getSeeds() {
+        return Stream.of(Arguments.of(1L), Arguments.of(2L), Arguments.of(3L), Arguments.of(4L));
+    }
+
+    // The cost of walking a path, where leaving a cell costs one more than the cell.
+    private static float costOf(final List<Position> path, final float[][] costs) {
+        float cost = 0;
+        for (int i = 0; i < path.size() - 1; i++) {
+            final Position position = path.get(i);
+            cost += 1 + costs[(int) position.getY()][(int) position.getX()];
+        }
+        return cost;
+    }
+
+    private static float randomCost(final Random random) {
+        final float roll = random.nextFloat();
+        if (roll < 0.25f) return OBSTACLE;
+        if (roll < 0.35f) return random.nextInt(3) + 0.5f;
+        return 0;
+    }
+
+    private static Position randomPosition(final Random random) {
+        return new Position(random.nextInt(WORLD_SIZE), random.nextInt(WORLD_SIZE));
+    }
+
+    private static void assertPathIsConnected(final List<Position> path) {
+        for (int i = 1; i < path.size(); i++) {
+            assertThat(path.get(i - 1).manhattanDistanceTo(path.get(i))).isEqualTo(1);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("getSeeds")
+    public void replannedPathsAreAsCheapAsAstarPaths(final long seed) {
+        // Arrange
+        final Random random = new Random(seed);
+        final float[][] costs = new float[WORLD_SIZE][WORLD_SIZE];
+        for (int y = 0; y < WORLD_SIZE; y++) {
+            for (int x = 0; x < WORLD_SIZE; x++) {
+                costs[y][x] = randomCost(random);
+            }
+        }
+        final GridWorld world = new GridWorld(costs);
+        final Position destination = randomPosition(random);
+        final IPathPlanner cut = new DstarLitePlanner(world, WORLD_SIZE, destination);
+        final IPathFinder astar = new IndexedAstarPathFinder(world, WORLD_SIZE);
+        Position start = randomPosition(random);
+
+        for (int round = 0; round < 30; round++) {
+            final List<Position> changed = new ArrayList<>();
+            for (int change = 0; change < 4; change++) {
+                final Position position = randomPosition(random);
+                costs[(int) position.getY()][(int) position.getX()] = randomCost(random);
+                changed.add(position);
+            }
+            // Some changes are never announced.
+            if (round % 3 != 0) cut.cellsChanged(changed);
+
+            // Act
+            final List<Position> path = new ArrayList<>(cut.path(start));
+            final List<Position> cheapest = new ArrayList<>(astar.path(start, destination));
+
+            // Assert
+            if (!path.isEmpty()) {
+                assertThat(path).first().isEqualTo(start);
+                assertThat(path).last().isEqualTo(destination);
+                assertPathIsConnected(path);
+                assertThat(costOf(path, costs)).isEqualTo(costOf(cheapest, costs));
+                start = path.get(path.size() / 2);
+            }
+            else {
+                assertThat(cheapest).isEmpty();
+                start = randomPosition(random);
+            }
+        }
+    }
+
+    @Test
+    public void replanningAroundNewObstacleExpandsFewerCellsThanPlanningAnew() {
+        // Arrange
+        final float[][] costs = new float[WORLD_SIZE][WORLD_SIZE];
+        // A wall that the path has to go all the way around.
+        for (int y = 0; y < WORLD_SIZE - 1; y++) {
+            costs[y][16] = OBSTACLE;
+        }
+        final Position destination = new Position(30, 16);
+        final DstarLitePlanner cut =
+            new DstarLitePlanner(new GridWorld(costs), WORLD_SIZE, destination);
+        final List<Position> firstPath = new ArrayList<>(cut.path(new Position(1, 16)));
+        final int obstacleIndex = firstPath.size() / 4;
+        final Position obstacle = firstPath.get(obstacleIndex);
+        final Position before = firstPath.get(obstacleIndex - 1);
+        costs[(int) obstacle.getY()][(int) obstacle.getX()] = OBSTACLE;
+        cut.cellsChanged(List.of(obstacle));
+        final DstarLitePlanner anew =
+            new DstarLitePlanner(new GridWorld(costs), WORLD_SIZE, destination);
+        final List<Position> expected = new ArrayList<>(anew.path(before));
+
+        // Act
+        final List<Position> path = new ArrayList<>(cut.path(before));
+
+        // Assert
+        assertThat(path).doesNotContain(obstacle);
+        assertThat(path).hasSameSizeAs(expected);
+        assertThat(cut.countExpansions() * 4).isLessThan(anew.countExpansions());
+    }
+
+    @Test
+    public void pathFromStartThatMovedAwayIsAsCheapAsPlanningAnew() {
+        // Arrange
+        final float[][] costs = new float[WORLD_SIZE][WORLD_SIZE];
+        final Position destination = new Position(20, 10);
+        final DstarLitePlanner cut =
+            new DstarLitePlanner(new GridWorld(costs), WORLD_SIZE, destination);
+        cut.path(new Position(0, 10));
+        for (int y = 0; y < WORLD_SIZE - 1; y++) {
+            costs[y][10] = OBSTACLE;
+        }
+        cut.cellsChanged(List.of(new Position(10, 10)));
+        final Position movedStart = new Position(3, 14);
+        final DstarLitePlanner anew =
+            new DstarLitePlanner(new GridWorld(costs), WORLD_SIZE, destination);
+        final List<Position> expected = new ArrayList<>(anew.path(movedStart));
+
+        // Act
+        final List<Position> path = new ArrayList<>(cut.path(movedStart));
+
+        // Assert
+        assertThat(path).hasSameSizeAs(expected).startsWith(movedStart).endsWith(destination);
+        assertPathIsConnected(path);
+    }
+
+    @Test
+    public void unannouncedObstacleIsNoticedWhilePathIsRead() {
+        // Arrange
+        final float[][] costs = new float[WORLD_SIZE][WORLD_SIZE];
+        final IPathPlanner cut =
+            new DstarLitePlanner(new GridWorld(costs), WORLD_SIZE, new Position(20, 10));
+        final Position start = new Position(0, 10);
+        cut.path(start);
+        for (int y = 0; y < WORLD_SIZE - 1; y++) {
+            costs[y][10] = OBSTACLE;
+        }
+
+        // Act
+        final List<Position> path = new ArrayList<>(cut.path(start));
+
+        // Assert
+        assertThat(path).contains(new Position(10, WORLD_SIZE - 1));
+        assertThat(path).last().isEqualTo(new Position(20, 10));
+        assertPathIsConnected(path);
+    }
+
+    @Test
+    public void pathIsEmptyWhenDestinationIsWalledIn() {
+        // Arrange
+        final float[][] costs = new float[WORLD_SIZE][WORLD_SIZE];
+        costs[4][5] = OBSTACLE;
+        costs[6][5] = OBSTACLE;
+        costs[5][4] = OBSTACLE;
+        costs[5][6] = OBSTACLE;
+        final IPathPlanner cut =
+            new DstarLitePlanner(new GridWorld(costs), WORLD_SIZE, new Position(5, 5));
+
+        // Act
+        final List<Position> path = new ArrayList<>(cut.path(new Position(20, 20)));
+
+        // Assert
+        assertThat(path).isEmpty();
+    }
+
+    @Test
+    public void pathFromOutsideOfWorldIsEmpty() {
+        // Arrange
+        final IPathPlanner cut = new DstarLitePlanner(new GridWorld(new float[2][2]),
+                                                      2,
+                                                      new Position(1, 1));
+
+        // Act
+        final List<Position> path = new ArrayList<>(cut.path(new Position(-1, 0)));
+
+        // Assert
+        assertThat(path).isEmpty();
+    }
+
+}
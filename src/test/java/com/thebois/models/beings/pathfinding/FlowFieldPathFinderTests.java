@@ -0,0 +1,360 @@
+package com.thebois.models.beings.pathfinding;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.thebois.abstractions.IStructureFinder;
+import com.thebois.listeners.events.ObstaclePlacedEvent;
+import com.thebois.models.Position;
+import com.thebois.models.inventory.IInventory;
+import com.thebois.models.world.IWorld;
+import com.thebois.models.world.TestWorld;
+import com.thebois.models.world.World;
+import com.thebois.models.world.structures.IStructure;
+import com.thebois.models.world.structures.StructureFactory;
+import com.thebois.models.world.structures.StructureType;
+import com.thebois.testutils.InMemorySerialize;
+import com.thebois.testutils.MockFactory;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class FlowFieldPathFinderTests {
+
+    private static final int WORLD_SIZE = 30;
+
+    @BeforeEach
+    public void setup() {
+        StructureFactory.setInventory(mock(IInventory.class));
+    }
+
+    @AfterEach
+    public void teardown() {
+        StructureFactory.setInventory(null);
+    }
+
+    public static Stream<Arguments> getPathsWithAnEndOutsideOfWorld() {
+        final Position inside = new Position(14, 15);
+        return Stream.of(
+            Arguments.of(new Position(-1, 0), inside),
+            Arguments.of(new Position(0, -1), inside),
+            Arguments.of(new Position(WORLD_SIZE, 0), inside),
+            Arguments.of(new Position(0, WORLD_SIZE), inside),
+            Arguments.of(inside, new Position(WORLD_SIZE, 15)));
+    }
+
+    private static World createWorld() {
+        return new TestWorld(WORLD_SIZE, mock(ThreadLocalRandom.class));
+    }
+
+    private static void assertPathIsConnected(final List<Position> path) {
+        for (int i = 1; i < path.size(); i++) {
+            assertThat(path.get(i - 1).manhattanDistanceTo(path.get(i))).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void pathsNextToBlueprintFollowOneFieldWithoutSearching() {
+        // Arrange
+        final World world = createWorld();
+        world.tryCreateStructure(StructureType.STOCKPILE, 15, 15);
+        final IPathFinder pathFinder = mock(IPathFinder.class);
+        final FlowFieldPathFinder cut =
+            new FlowFieldPathFinder(pathFinder, world, world, WORLD_SIZE);
+        final Position destination = new Position(14, 15);
+
+        for (final Position start : List.of(new Position(0, 0), new Position(29, 3))) {
+            // Act
+            final List<Position> path = new ArrayList<>(cut.path(start, destination));
+
+            // Assert
+            assertThat(path).first().isEqualTo(start);
+            assertThat(path).last().isEqualTo(destination);
+            assertThat(path).hasSize(start.manhattanDistanceTo(destination) + 1);
+            assertPathIsConnected(path);
+        }
+        assertThat(cut.countFields()).isEqualTo(1);
+        verify(pathFinder, never()).path(any(), any());
+    }
+
+    @Test
+    public void pathToPlaceAwayFromStructuresIsLeftToOtherPathFinder() {
+        // Arrange
+        final World world = createWorld();
+        world.tryCreateStructure(StructureType.STOCKPILE, 15, 15);
+        final IPathFinder pathFinder = mock(IPathFinder.class);
+        final Position from = new Position(0, 0);
+        final Position destination = new Position(5, 5);
+        final Collection<Position> expected = List.of(from, destination);
+        when(pathFinder.path(from, destination)).thenReturn(expected);
+        final FlowFieldPathFinder cut =
+            new FlowFieldPathFinder(pathFinder, world, world, WORLD_SIZE);
+
+        // Act
+        final Collection<Position> path = cut.path(from, destination);
+
+        // Assert
+        assertThat(path).isSameAs(expected);
+        assertThat(cut.countFields()).isZero();
+    }
+
+    @Test
+    public void completedHouseIsNoLongerFollowedByField() {
+        // Arrange
+        final World world = createWorld();
+        world.tryCreateStructure(StructureType.HOUSE, 15, 15);
+        MockFactory.completeAllStructures(world);
+        final IPathFinder pathFinder = mock(IPathFinder.class);
+        final FlowFieldPathFinder cut =
+            new FlowFieldPathFinder(pathFinder, world, world, WORLD_SIZE);
+        final Position from = new Position(0, 0);
+        final Position destination = new Position(14, 15);
+
+        // Act
+        cut.path(from, destination);
+
+        // Assert
+        verify(pathFinder).path(from, destination);
+        assertThat(cut.countFields()).isZero();
+    }
+
+    @Test
+    public void completedStockpileIsStillFollowedByField() {
+        // Arrange
+        final World world = createWorld();
+        world.tryCreateStructure(StructureType.STOCKPILE, 15, 15);
+        MockFactory.completeAllStructures(world);
+        final IPathFinder pathFinder = mock(IPathFinder.class);
+        final FlowFieldPathFinder cut =
+            new FlowFieldPathFinder(pathFinder, world, world, WORLD_SIZE);
+
+        // Act
+        final Collection<Position> path = cut.path(new Position(0, 0), new Position(15, 16));
+
+        // Assert
+        assertThat(path).last().isEqualTo(new Position(15, 16));
+        verify(pathFinder, never()).path(any(), any());
+    }
+
+    @Test
+    public void pathAvoidsObstaclesPlacedAfterFieldWasWorkedOut() {
+        // Arrange
+        final World world = createWorld();
+        world.tryCreateStructure(StructureType.STOCKPILE, 25, 10);
+        final FlowFieldPathFinder cut =
+            new FlowFieldPathFinder(mock(IPathFinder.class), world, world, WORLD_SIZE);
+        final Position start = new Position(0, 10);
+        final Position destination = new Position(24, 10);
+        cut.path(start, destination);
+        for (int y = 0; y < WORLD_SIZE - 1; y++) {
+            world.tryCreateStructure(StructureType.HOUSE, 15, y);
+        }
+        MockFactory.completeAllStructures(world);
+
+        // Act
+        final List<Position> path = new ArrayList<>(cut.path(start, destination));
+
+        // Assert
+        assertThat(path).contains(new Position(15, WORLD_SIZE - 1));
+        assertThat(path).last().isEqualTo(destination);
+        assertPathIsConnected(path);
+    }
+
+    @Test
+    public void leastRecentlyUsedFieldIsDroppedWhenOverBudget() {
+        // Arrange
+        final World world = createWorld();
+        world.tryCreateStructure(StructureType.STOCKPILE, 5, 5);
+        world.tryCreateStructure(StructureType.STOCKPILE, 20, 20);
+        final int area = WORLD_SIZE * WORLD_SIZE;
+        final long budget = FlowFieldBuffers.bytesFor(area) + FlowField.bytesFor(area) * 3 / 2;
+        final FlowFieldPathFinder cut =
+            new FlowFieldPathFinder(mock(IPathFinder.class), world, world, WORLD_SIZE, budget);
+        final Position from = new Position(0, 0);
+
+        // Act
+        cut.path(from, new Position(4, 5));
+        cut.path(from, new Position(19, 20));
+
+        // Assert
+        assertThat(cut.countFields()).isEqualTo(1);
+    }
+
+    @Test
+    public void pathsAreLeftToOtherPathFinderWhenNoFieldFitsBudget() {
+        // Arrange
+        final World world = createWorld();
+        world.tryCreateStructure(StructureType.STOCKPILE, 15, 15);
+        final IPathFinder pathFinder = mock(IPathFinder.class);
+        final long budget = FlowField.bytesFor(WORLD_SIZE * WORLD_SIZE);
+        final FlowFieldPathFinder cut =
+            new FlowFieldPathFinder(pathFinder, world, world, WORLD_SIZE, budget);
+        final Position from = new Position(0, 0);
+        final Position destination = new Position(14, 15);
+
+        // Act
+        cut.path(from, destination);
+
+        // Assert
+        verify(pathFinder).path(from, destination);
+        assertThat(cut.countFields()).isZero();
+    }
+
+    @ParameterizedTest
+    @MethodSource("getPathsWithAnEndOutsideOfWorld")
+    public void pathsWithAnEndOutsideOfWorldAreLeftToOtherPathFinder(
+        final Position from, final Position destination) {
+        // Arrange
+        final World world = createWorld();
+        world.tryCreateStructure(StructureType.STOCKPILE, 15, 15);
+        final IPathFinder pathFinder = mock(IPathFinder.class);
+        final FlowFieldPathFinder cut =
+            new FlowFieldPathFinder(pathFinder, world, world, WORLD_SIZE);
+
+        // Act
+        cut.path(from, destination);
+
+        // Assert
+        verify(pathFinder).path(from, destination);
+        assertThat(cut.countFields()).isZero();
+    }
+
+    @Test
+    public void pathFromWhereFieldDoesNotLeadIsLeftToOtherPathFinder() {
+        // Arrange
+        final World world = createWorld();
+        world.tryCreateStructure(StructureType.HOUSE, 1, 0);
+        world.tryCreateStructure(StructureType.HOUSE, 0, 1);
+        world.tryCreateStructure(StructureType.HOUSE, 1, 1);
+        MockFactory.completeAllStructures(world);
+        world.tryCreateStructure(StructureType.STOCKPILE, 15, 15);
+        final IPathFinder pathFinder = mock(IPathFinder.class);
+        final Position from = new Position(0, 0);
+        final Position destination = new Position(14, 15);
+        final Collection<Position> expected = List.of();
+        when(pathFinder.path(from, destination)).thenReturn(expected);
+        final FlowFieldPathFinder cut =
+            new FlowFieldPathFinder(pathFinder, world, world, WORLD_SIZE);
+
+        // Act
+        final Collection<Position> path = cut.path(from, destination);
+
+        // Assert
+        assertThat(path).isSameAs(expected);
+        assertThat(cut.countFields()).isOne();
+    }
+
+    @Test
+    public void spotNextToBlueprintIsFollowedByFieldWhenStorageIsElsewhere() {
+        // Arrange
+        final World world = createWorld();
+        world.tryCreateStructure(StructureType.STOCKPILE, 5, 5);
+        MockFactory.completeAllStructures(world);
+        world.tryCreateStructure(StructureType.HOUSE, 15, 15);
+        final IPathFinder pathFinder = mock(IPathFinder.class);
+        final FlowFieldPathFinder cut =
+            new FlowFieldPathFinder(pathFinder, world, world, WORLD_SIZE);
+
+        // Act
+        final Collection<Position> path = cut.path(new Position(0, 0), new Position(14, 15));
+
+        // Assert
+        assertThat(path).last().isEqualTo(new Position(14, 15));
+        verify(pathFinder, never()).path(any(), any());
+    }
+
+    @Test
+    public void obstacleOutsideOfWorldIsIgnored() {
+        // Arrange
+        final World world = createWorld();
+        world.tryCreateStructure(StructureType.STOCKPILE, 15, 15);
+        final FlowFieldPathFinder cut =
+            new FlowFieldPathFinder(mock(IPathFinder.class), world, world, WORLD_SIZE);
+        final Position from = new Position(0, 0);
+        final Position destination = new Position(14, 15);
+        final Collection<Position> before = cut.path(from, destination);
+
+        // Act
+        cut.onObstaclePlaced(new ObstaclePlacedEvent(WORLD_SIZE, WORLD_SIZE));
+
+        // Assert
+        assertThat(cut.path(from, destination)).isEqualTo(before);
+    }
+
+    @Test
+    public void deserializedFinderStillFindsPaths() throws ClassNotFoundException, IOException {
+        // Arrange
+        final IWorld world = new GridWorld(new float[WORLD_SIZE][WORLD_SIZE]);
+        final IStructureFinder structureFinder =
+            mock(IStructureFinder.class, withSettings().serializable());
+        final FlowFieldPathFinder cut =
+            new FlowFieldPathFinder(new IndexedAstarPathFinder(world, WORLD_SIZE),
+                                    world,
+                                    structureFinder,
+                                    WORLD_SIZE);
+        final Position from = new Position(0, 0);
+        final Position destination = new Position(14, 15);
+        final Collection<Position> path = cut.path(from, destination);
+
+        // Act
+        final FlowFieldPathFinder deserialized =
+            (FlowFieldPathFinder) InMemorySerialize.deserialize(InMemorySerialize.serialize(cut));
+
+        // Assert
+        assertThat(deserialized.path(from, destination)).isEqualTo(path).isNotEmpty();
+        assertThat(deserialized.countFields()).isZero();
+    }
+
+    @Test
+    public void memoryBudgetCanNotBeNegative() {
+        // Arrange
+        final IWorld world = mock(IWorld.class);
+        final IStructureFinder structureFinder = mock(IStructureFinder.class);
+        final IPathFinder pathFinder = mock(IPathFinder.class);
+
+        // Assert
+        assertThatThrownBy(() -> new FlowFieldPathFinder(pathFinder,
+                                                         world,
+                                                         structureFinder,
+                                                         WORLD_SIZE,
+                                                         -1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void spotNextToStorageIsToldWithoutReadingTiles() {
+        // Arrange
+        final IWorld world = mock(IWorld.class);
+        final IStructureFinder structureFinder = mock(IStructureFinder.class);
+        final IStructure stockpile = mock(IStructure.class);
+        when(stockpile.getPosition()).thenReturn(new Position(15, 15));
+        when(structureFinder.getNearbyCompletedStructureOfType(any(), eq(StructureType.STOCKPILE)))
+            .thenReturn(Optional.of(stockpile));
+        final IPathFinder pathFinder = mock(IPathFinder.class);
+        final FlowFieldPathFinder cut =
+            new FlowFieldPathFinder(pathFinder, world, structureFinder, WORLD_SIZE);
+
+        // Act
+        final Collection<Position> path = cut.path(new Position(0, 0), new Position(14, 15));
+
+        // Assert
+        assertThat(path).last().isEqualTo(new Position(14, 15));
+        assertThat(cut.countFields()).isOne();
+        verify(world, never()).getTileAt(anyInt(), anyInt());
+        verify(world, never()).getTileAt(any());
+        verify(pathFinder, never()).path(any(), any());
+    }
+
+}
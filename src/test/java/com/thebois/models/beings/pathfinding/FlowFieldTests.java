@@ -0,0 +1,137 @@
+package com.thebois.models.beings.pathfinding;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.thebois.models.Position;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class FlowFieldTests {
+
+    private static final float OBSTACLE = Float.MAX_VALUE;
+    private static final int WORLD_SIZE = 24;
+
+    public static Stream<Arguments> getSeeds() {
+        return Stream.of(Arguments.of(1L), Arguments.of(2L), Arguments.of(3L), Arguments.of(4L));
+    }
+
+    private static FlowField createField(final float[][] costs, final int destination) {
+        return new FlowField(new GridWorld(costs),
+                             WORLD_SIZE,
+                             destination,
+                             new FlowFieldBuffers(WORLD_SIZE * WORLD_SIZE));
+    }
+
+    private static float[][] createRandomCosts(final Random random) {
+        final float[][] costs = new float[WORLD_SIZE][WORLD_SIZE];
+        for (int y = 0; y < WORLD_SIZE; y++) {
+            for (int x = 0; x < WORLD_SIZE; x++) {
+                costs[y][x] = randomCost(random);
+            }
+        }
+        return costs;
+    }
+
+    // The cost of walking a path, where leaving a cell costs one more than the cell.
+    private static float costOf(final List<Position> path, final float[][] costs) {
+        float cost = 0;
+        for (int i = 0; i < path.size() - 1; i++) {
+            final Position position = path.get(i);
+            cost += 1 + costs[(int) position.getY()][(int) position.getX()];
+        }
+        return cost;
+    }
+
+    private static float randomCost(final Random random) {
+        final float roll = random.nextFloat();
+        if (roll < 0.25f) return OBSTACLE;
+        if (roll < 0.35f) return random.nextInt(3) + 0.5f;
+        return 0;
+    }
+
+    @ParameterizedTest
+    @MethodSource("getSeeds")
+    public void repairedFieldMatchesFieldWorkedOutAnew(final long seed) {
+        // Arrange
+        final Random random = new Random(seed);
+        final float[][] costs = createRandomCosts(random);
+        final int destination = random.nextInt(WORLD_SIZE * WORLD_SIZE);
+        final FlowField cut = createField(costs, destination);
+
+        for (int round = 0; round < 20; round++) {
+            for (int change = 0; change < 5; change++) {
+                final int x = random.nextInt(WORLD_SIZE);
+                final int y = random.nextInt(WORLD_SIZE);
+                costs[y][x] = randomCost(random);
+                cut.cellChanged(y * WORLD_SIZE + x);
+            }
+
+            // Act
+            cut.pathFrom(destination);
+            final FlowField expected = createField(costs, destination);
+
+            // Assert
+            for (int cell = 0; cell < WORLD_SIZE * WORLD_SIZE; cell++) {
+                assertThat(cut.distanceOf(cell)).isEqualTo(expected.distanceOf(cell));
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("getSeeds")
+    public void pathIsAsCheapAsAstarPath(final long seed) {
+        // Arrange
+        final Random random = new Random(seed);
+        final float[][] costs = createRandomCosts(random);
+        final Position destination = new Position(random.nextInt(WORLD_SIZE),
+                                                  random.nextInt(WORLD_SIZE));
+        final int destinationCell = (int) (destination.getY() * WORLD_SIZE + destination.getX());
+        final FlowField cut = createField(costs, destinationCell);
+        final IPathFinder astar = new IndexedAstarPathFinder(new GridWorld(costs), WORLD_SIZE);
+
+        for (int cell = 0; cell < WORLD_SIZE * WORLD_SIZE; cell++) {
+            final Position start = new Position(cell % WORLD_SIZE, cell / WORLD_SIZE);
+
+            // Act
+            final List<Position> path = cut.pathFrom(cell);
+            final List<Position> cheapest = new ArrayList<>(astar.path(start, destination));
+
+            // Assert
+            assertThat(path.isEmpty()).isEqualTo(cheapest.isEmpty());
+            if (!path.isEmpty()) {
+                assertThat(path).first().isEqualTo(start);
+                assertThat(path).last().isEqualTo(destination);
+                assertThat(costOf(path, costs)).isEqualTo(costOf(cheapest, costs));
+            }
+        }
+    }
+
+    @Test
+    public void unannouncedObstacleIsNoticedWhileFollowingPath() {
+        // Arrange
+        final float[][] costs = new float[WORLD_SIZE][WORLD_SIZE];
+        final FlowField cut = createField(costs, 10 * WORLD_SIZE + 20);
+        for (int y = 0; y < WORLD_SIZE - 1; y++) {
+            costs[y][10] = OBSTACLE;
+        }
+
+        // Act
+        final List<Position> path = cut.pathFrom(10 * WORLD_SIZE);
+
+        // Assert
+        assertThat(path).contains(new Position(10, WORLD_SIZE - 1));
+        assertThat(path).last().isEqualTo(new Position(20, 10));
+        for (final Position position : path.subList(0, path.size() - 1)) {
+            assertThat(costs[(int) position.getY()][(int) position.getX()]).isZero();
+        }
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.thebois.models.beings.pathfinding;
+
+import java.util.Optional;
+
+import com.thebois.models.Position;
+import com.thebois.models.world.ITile;
+import com.thebois.models.world.IWorld;
+
+/**
+ * A world that only knows the cost of its cells, and lets the search find out what is reachable.
+ */
+final class GridWorld implements IWorld {
+
+    private final float[][] costs;
+
+    GridWorld(final float[][] costs) {
+        this.costs = costs;
+    }
+
+    @Override
+    public float getCostAt(final int x, final int y) {
+        return costs[y][x];
+    }
+
+    @Override
+    public boolean isReachable(final Position from, final Position to) {
+        return true;
+    }
+
+    @Override
+    public Iterable<ITile> getNeighboursOf(final ITile tile) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ITile getTileAt(final Position position) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ITile getTileAt(final int x, final int y) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Optional<ITile> getRandomVacantSpotInRadiusOf(final Position origin, final int radius) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Optional<Position> getClosestNeighbourOf(final ITile tile, final Position from) {
+        throw new UnsupportedOperationException();
+    }
+
+}
@@ -0,0 +1,295 @@
+package com.thebois.models.beings.pathfinding;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.thebois.listeners.events.ObstaclePlacedEvent;
+import com.thebois.models.Position;
+import com.thebois.models.world.IWorld;
+import com.thebois.models.world.TestWorld;
+import com.thebois.models.world.World;
+import com.thebois.models.world.structures.StructureType;
+import com.thebois.testutils.InMemorySerialize;
+import com.thebois.testutils.MockFactory;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class HierarchicalPathFinderTests {
+
+    private static final float OBSTACLE = Float.MAX_VALUE;
+    private static final int WORLD_SIZE = 30;
+    private static final int CLUSTER_SIZE = 8;
+
+    public static Stream<Arguments> getPositionsAndDestinations() {
+        return Stream.of(
+            Arguments.of(new Position(0, 0), new Position(0, 0)),
+            Arguments.of(new Position(10, 10), new Position(0, 0)),
+            Arguments.of(new Position(0, 0), new Position(10, 10)),
+            Arguments.of(new Position(0, 0), new Position(11, 23)),
+            Arguments.of(new Position(29, 3), new Position(10, 23)),
+            Arguments.of(new Position(2, 2), new Position(5, 6)));
+    }
+
+    public static Stream<Arguments> getSeeds() {
+        return Stream.of(Arguments.of(1L), Arguments.of(2L), Arguments.of(3L), Arguments.of(4L));
+    }
+
+    // The cost of walking a path, where leaving a cell costs one more than the cell.
+    private static float costOf(final List<Position> path, final float[][] costs) {
+        float cost = 0;
+        for (int i = 0; i < path.size() - 1; i++) {
+            final Position position = path.get(i);
+            cost += 1 + costs[(int) position.getY()][(int) position.getX()];
+        }
+        return cost;
+    }
+
+    private static void assertPathIsConnected(final List<Position> path) {
+        for (int i = 1; i < path.size(); i++) {
+            assertThat(path.get(i - 1).manhattanDistanceTo(path.get(i))).isEqualTo(1);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("getPositionsAndDestinations")
+    public void pathIsShortestInOpenWorld(final Position start, final Position destination) {
+        // Arrange
+        final GridWorld world = new GridWorld(new float[WORLD_SIZE][WORLD_SIZE]);
+        final IPathFinder cut = new HierarchicalPathFinder(world, WORLD_SIZE, CLUSTER_SIZE);
+
+        // Act
+        final List<Position> path = new ArrayList<>(cut.path(start, destination));
+
+        // Assert
+        assertThat(path).first().isEqualTo(start);
+        assertThat(path).last().isEqualTo(destination);
+        assertThat(path).hasSize(start.manhattanDistanceTo(destination) + 1);
+        assertPathIsConnected(path);
+    }
+
+    @ParameterizedTest
+    @MethodSource("getSeeds")
+    public void pathsAreCloseToCheapest(final long seed) {
+        // Arrange
+        final int size = 40;
+        final Random random = new Random(seed);
+        final float[][] costs = new float[size][size];
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                final float roll = random.nextFloat();
+                if (roll < 0.25f) {
+                    costs[y][x] = OBSTACLE;
+                }
+                else if (roll < 0.3f) {
+                    costs[y][x] = random.nextInt(3) + 0.5f;
+                }
+            }
+        }
+        final GridWorld world = new GridWorld(costs);
+        final IPathFinder cut = new HierarchicalPathFinder(world, size, CLUSTER_SIZE);
+        final IPathFinder astar = new IndexedAstarPathFinder(world, size);
+
+        for (int i = 0; i < 100; i++) {
+            final Position start = new Position(random.nextInt(size), random.nextInt(size));
+            final Position destination = new Position(random.nextInt(size), random.nextInt(size));
+            if (costs[(int) start.getY()][(int) start.getX()] != 0) continue;
+
+            // Act
+            final List<Position> path = new ArrayList<>(cut.path(start, destination));
+            final List<Position> cheapest = new ArrayList<>(astar.path(start, destination));
+
+            // Assert
+            assertThat(path.isEmpty()).isEqualTo(cheapest.isEmpty());
+            if (!path.isEmpty()) {
+                assertPathIsConnected(path);
+                assertThat(path).first().isEqualTo(start);
+                assertThat(path).last().isEqualTo(destination);
+                assertThat(costOf(path, costs)).isBetween(costOf(cheapest, costs),
+                                                          costOf(cheapest, costs) * 1.5f);
+            }
+        }
+    }
+
+    @Test
+    public void pathAvoidsObstaclesPlacedAfterPreviousSearch() {
+        // Arrange
+        final World world = new TestWorld(WORLD_SIZE, mock(ThreadLocalRandom.class));
+        final IPathFinder cut = new HierarchicalPathFinder(world, WORLD_SIZE, CLUSTER_SIZE);
+        final Position start = new Position(0, 10);
+        final Position destination = new Position(29, 10);
+        cut.path(start, destination);
+        for (int y = 0; y < WORLD_SIZE - 1; y++) {
+            world.tryCreateStructure(StructureType.HOUSE, 15, y);
+        }
+        MockFactory.completeAllStructures(world);
+
+        // Act
+        final List<Position> path = new ArrayList<>(cut.path(start, destination));
+
+        // Assert
+        assertThat(path).contains(new Position(15, WORLD_SIZE - 1));
+        assertThat(path).last().isEqualTo(destination);
+        assertPathIsConnected(path);
+    }
+
+    @Test
+    public void pathAvoidsObstaclesThatWereNotAnnounced() {
+        // Arrange
+        final float[][] costs = new float[WORLD_SIZE][WORLD_SIZE];
+        final IPathFinder cut = new HierarchicalPathFinder(new GridWorld(costs),
+                                                           WORLD_SIZE,
+                                                           CLUSTER_SIZE);
+        final Position start = new Position(0, 10);
+        final Position destination = new Position(29, 10);
+        cut.path(start, destination);
+        for (int y = 1; y < WORLD_SIZE; y++) {
+            costs[y][15] = OBSTACLE;
+        }
+
+        // Act
+        final List<Position> path = new ArrayList<>(cut.path(start, destination));
+
+        // Assert
+        assertThat(path).contains(new Position(15, 0));
+        assertThat(path).last().isEqualTo(destination);
+        assertPathIsConnected(path);
+    }
+
+    @Test
+    public void pathCanEndInObstacle() {
+        // Arrange
+        final float[][] costs = new float[WORLD_SIZE][WORLD_SIZE];
+        costs[20][20] = OBSTACLE;
+        final IPathFinder cut = new HierarchicalPathFinder(new GridWorld(costs),
+                                                           WORLD_SIZE,
+                                                           CLUSTER_SIZE);
+        final Position destination = new Position(20, 20);
+
+        // Act
+        final List<Position> path = new ArrayList<>(cut.path(new Position(1, 1), destination));
+
+        // Assert
+        assertThat(path).last().isEqualTo(destination);
+        assertPathIsConnected(path);
+    }
+
+    @Test
+    public void longRouteExpandsFarFewerCellsThanAstar() {
+        // Arrange
+        final GridWorld world = new GridWorld(new float[128][128]);
+        final HierarchicalPathFinder hierarchical = new HierarchicalPathFinder(world, 128);
+        final IndexedAstarPathFinder astar = new IndexedAstarPathFinder(world, 128);
+        final Position start = new Position(3, 5);
+        final Position destination = new Position(120, 126);
+
+        // Act
+        hierarchical.path(start, destination);
+        astar.path(start, destination);
+
+        // Assert
+        assertThat(hierarchical.countExpansions() * 10).isLessThan(astar.countExpansions());
+    }
+
+    @Test
+    public void pathToUnreachableDestinationDoesNotSearch() {
+        // Arrange
+        final IWorld world = mock(IWorld.class);
+        final Position from = new Position(0, 0);
+        final Position destination = new Position(2, 2);
+        when(world.isReachable(from, destination)).thenReturn(false);
+        final IPathFinder cut = new HierarchicalPathFinder(world, 3, 2);
+
+        // Act
+        final Collection<Position> path = cut.path(from, destination);
+
+        // Assert
+        assertThat(path).isEmpty();
+        verify(world, never()).getCostAt(anyInt(), anyInt());
+    }
+
+    @Test
+    public void graphIsRebuiltOnceForDestinationThatWrongfullySeemsReachable() {
+        // Arrange
+        final float[][] costs = new float[WORLD_SIZE][WORLD_SIZE];
+        for (int i = 20; i <= 26; i++) {
+            costs[20][i] = OBSTACLE;
+            costs[26][i] = OBSTACLE;
+            costs[i][20] = OBSTACLE;
+            costs[i][26] = OBSTACLE;
+        }
+        final IWorld grid = new GridWorld(costs);
+        final IWorld world = mock(IWorld.class);
+        when(world.getCostAt(anyInt(), anyInt())).thenAnswer(
+            invocation -> grid.getCostAt(invocation.getArgument(0), invocation.getArgument(1)));
+        when(world.isReachable(any(), any())).thenReturn(true);
+        final IPathFinder cut = new HierarchicalPathFinder(world, WORLD_SIZE, CLUSTER_SIZE);
+        final Position start = new Position(1, 1);
+        final Position destination = new Position(23, 23);
+        cut.path(start, destination);
+        final int firstReads = mockingDetails(world).getInvocations().size();
+        clearInvocations(world);
+
+        // Act
+        final Collection<Position> path = cut.path(start, destination);
+
+        // Assert
+        assertThat(path).isEmpty();
+        assertThat(mockingDetails(world).getInvocations().size() * 2).isLessThan(firstReads);
+    }
+
+    @Test
+    public void clustersMustBeAtLeastTwoCellsWide() {
+        // Arrange
+        final IWorld world = mock(IWorld.class);
+
+        // Assert
+        assertThatThrownBy(() -> new HierarchicalPathFinder(world, WORLD_SIZE, 1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void obstacleOutsideOfWorldIsIgnored() {
+        // Arrange
+        final HierarchicalPathFinder cut = new HierarchicalPathFinder(
+            new GridWorld(new float[WORLD_SIZE][WORLD_SIZE]), WORLD_SIZE, CLUSTER_SIZE);
+        final Position start = new Position(0, 10);
+        final Position destination = new Position(29, 10);
+        final Collection<Position> before = cut.path(start, destination);
+
+        // Act
+        cut.onObstaclePlaced(new ObstaclePlacedEvent(WORLD_SIZE, 10));
+
+        // Assert
+        assertThat(cut.path(start, destination)).isEqualTo(before);
+    }
+
+    @Test
+    public void deserializedPathFinderFindsSamePaths() throws ClassNotFoundException,
+                                                              IOException {
+        // Arrange
+        final IPathFinder cut =
+            new HierarchicalPathFinder(new GridWorld(new float[WORLD_SIZE][WORLD_SIZE]), WORLD_SIZE, CLUSTER_SIZE);
+        final Position start = new Position(0, 10);
+        final Position destination = new Position(29, 10);
+        final Collection<Position> path = cut.path(start, destination);
+
+        // Act
+        final IPathFinder deserialized =
+            (IPathFinder) InMemorySerialize.deserialize(InMemorySerialize.serialize(cut));
+
+        // Assert
+        assertThat(deserialized.path(start, destination)).isEqualTo(path);
+    }
+
+}
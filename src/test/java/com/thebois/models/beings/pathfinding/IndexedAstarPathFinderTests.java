@@ -0,0 +1,182 @@
+package com.thebois.models.beings.pathfinding;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.thebois.models.Position;
+import com.thebois.models.world.IWorld;
+import com.thebois.models.world.TestWorld;
+import com.thebois.models.world.World;
+import com.thebois.models.world.structures.StructureType;
+import com.thebois.testutils.MockFactory;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class IndexedAstarPathFinderTests {
+
+    private static final int WORLD_SIZE = 30;
+
+    public static Stream<Arguments> getPositionsAndDestinations() {
+        return Stream.of(
+            Arguments.of(new Position(0, 0), new Position(0, 0)),
+            Arguments.of(new Position(10, 10), new Position(0, 0)),
+            Arguments.of(new Position(0, 0), new Position(10, 10)),
+            Arguments.of(new Position(0, 0), new Position(11, 23)),
+            Arguments.of(new Position(29, 3), new Position(10, 23)));
+    }
+
+    private static World createTestWorld(final int size) {
+        return new TestWorld(size, mock(ThreadLocalRandom.class));
+    }
+
+    // Places completed houses, which are obstacles, on the given positions.
+    private static World createTestWorldWithObstacles(
+        final int size, final Collection<Position> obstacles) {
+        final World world = createTestWorld(size);
+        for (final Position obstacle : obstacles) {
+            world.tryCreateStructure(StructureType.HOUSE, obstacle);
+        }
+        MockFactory.completeAllStructures(world);
+        return world;
+    }
+
+    private static void assertPathIsConnected(final List<Position> path) {
+        for (int i = 1; i < path.size(); i++) {
+            assertThat(path.get(i - 1).manhattanDistanceTo(path.get(i))).isEqualTo(1);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("getPositionsAndDestinations")
+    public void pathLeadsFromStartToDestination(final Position start, final Position destination) {
+        // Arrange
+        final IPathFinder cut = new IndexedAstarPathFinder(createTestWorld(WORLD_SIZE), WORLD_SIZE);
+
+        // Act
+        final List<Position> path = new ArrayList<>(cut.path(start, destination));
+
+        // Assert
+        assertThat(path).first().isEqualTo(start);
+        assertThat(path).last().isEqualTo(destination);
+        assertPathIsConnected(path);
+    }
+
+    @ParameterizedTest
+    @MethodSource("getPositionsAndDestinations")
+    public void pathIsShortestInOpenWorld(final Position start, final Position destination) {
+        // Arrange
+        final IPathFinder cut = new IndexedAstarPathFinder(createTestWorld(WORLD_SIZE), WORLD_SIZE);
+
+        // Act
+        final Collection<Position> path = cut.path(start, destination);
+
+        // Assert
+        assertThat(path).hasSize(start.manhattanDistanceTo(destination) + 1);
+    }
+
+    @Test
+    public void pathGoesAroundWallTheShortestWay() {
+        // Arrange
+        final List<Position> wall = new ArrayList<>();
+        for (int y = 0; y < 9; y++) {
+            wall.add(new Position(5, y));
+        }
+        final IWorld world = createTestWorldWithObstacles(10, wall);
+        final IPathFinder cut = new IndexedAstarPathFinder(world, 10);
+
+        // Act
+        final List<Position> path =
+            new ArrayList<>(cut.path(new Position(0, 0), new Position(9, 0)));
+
+        // Assert
+        assertThat(path).doesNotContainAnyElementsOf(wall);
+        assertThat(path).contains(new Position(5, 9));
+        assertThat(path).hasSize(9 + 9 + 9 + 1);
+        assertPathIsConnected(path);
+    }
+
+    @Test
+    public void pathCanEndInObstacle() {
+        // Arrange
+        final Position house = new Position(2, 2);
+        final IWorld world = createTestWorldWithObstacles(5, List.of(house));
+        final IPathFinder cut = new IndexedAstarPathFinder(world, 5);
+
+        // Act
+        final Collection<Position> path = cut.path(new Position(0, 0), house);
+
+        // Assert
+        assertThat(path).hasSize(5).last().isEqualTo(house);
+    }
+
+    @Test
+    public void searchesDoNotSeeEachOther() {
+        // Arrange
+        final IWorld world =
+            createTestWorldWithObstacles(10, List.of(new Position(1, 0), new Position(1, 1)));
+        final IPathFinder cut = new IndexedAstarPathFinder(world, 10);
+        cut.path(new Position(9, 9), new Position(0, 9));
+
+        // Act
+        final Collection<Position> path = cut.path(new Position(0, 0), new Position(2, 0));
+
+        // Assert
+        assertThat(path).hasSize(7).doesNotContain(new Position(1, 0), new Position(1, 1));
+    }
+
+    @Test
+    public void pathToUnreachableDestinationDoesNotSearch() {
+        // Arrange
+        final IWorld world = mock(IWorld.class);
+        final Position from = new Position(0, 0);
+        final Position destination = new Position(2, 2);
+        when(world.isReachable(from, destination)).thenReturn(false);
+        final IPathFinder cut = new IndexedAstarPathFinder(world, 3);
+
+        // Act
+        final Collection<Position> path = cut.path(from, destination);
+
+        // Assert
+        assertThat(path).isEmpty();
+        verify(world, never()).getCostAt(anyInt(), anyInt());
+    }
+
+    @Test
+    public void pathIsEmptyWhenStartIsWalledIn() {
+        // Arrange
+        final IWorld world = mock(IWorld.class);
+        final Position from = new Position(0, 0);
+        final Position destination = new Position(2, 2);
+        when(world.isReachable(from, destination)).thenReturn(true);
+        when(world.getCostAt(anyInt(), anyInt())).thenReturn(Float.MAX_VALUE);
+        final IPathFinder cut = new IndexedAstarPathFinder(world, 3);
+
+        // Act
+        final Collection<Position> path = cut.path(from, destination);
+
+        // Assert
+        assertThat(path).isEmpty();
+    }
+
+    @Test
+    public void pathThrowsWhenOutsideOfWorld() {
+        // Arrange
+        final IWorld world = mock(IWorld.class);
+        when(world.isReachable(any(), any())).thenReturn(true);
+        final IPathFinder cut = new IndexedAstarPathFinder(world, 3);
+
+        // Assert
+        assertThatThrownBy(() -> cut.path(new Position(0, 0), new Position(3, 0))).isInstanceOf(
+            IndexOutOfBoundsException.class);
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.thebois.models.beings.pathfinding;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class IndexedMinHeapTests {
+
+    private static List<Integer> drain(final IndexedMinHeap heap) {
+        final List<Integer> cells = new ArrayList<>();
+        while (!heap.isEmpty()) {
+            cells.add(heap.poll());
+        }
+        return cells;
+    }
+
+    @Test
+    public void pollGivesCellsInOrderOfTheirKeys() {
+        // Arrange
+        final IndexedMinHeap heap = new IndexedMinHeap(5);
+        heap.offer(0, 3f);
+        heap.offer(1, 1f);
+        heap.offer(2, 4f);
+        heap.offer(3, 0f);
+        heap.offer(4, 2f);
+
+        // Act
+        final List<Integer> cells = drain(heap);
+
+        // Assert
+        assertThat(cells).containsExactly(3, 1, 4, 0, 2);
+    }
+
+    @Test
+    public void offerLowersKeyOfCellAlreadyInHeap() {
+        // Arrange
+        final IndexedMinHeap heap = new IndexedMinHeap(3);
+        heap.offer(0, 1f);
+        heap.offer(1, 2f);
+        heap.offer(2, 3f);
+
+        // Act
+        heap.offer(2, 0f);
+
+        // Assert
+        assertThat(drain(heap)).containsExactly(2, 0, 1);
+    }
+
+    @Test
+    public void offerDoesNotRaiseKeyOfCellAlreadyInHeap() {
+        // Arrange
+        final IndexedMinHeap heap = new IndexedMinHeap(2);
+        heap.offer(0, 1f);
+        heap.offer(1, 2f);
+
+        // Act
+        heap.offer(0, 5f);
+
+        // Assert
+        assertThat(drain(heap)).containsExactly(0, 1);
+    }
+
+    @Test
+    public void cellCanBeOfferedAgainAfterBeingPolled() {
+        // Arrange
+        final IndexedMinHeap heap = new IndexedMinHeap(2);
+        heap.offer(0, 1f);
+        heap.poll();
+
+        // Act
+        heap.offer(0, 2f);
+        heap.offer(1, 3f);
+
+        // Assert
+        assertThat(drain(heap)).containsExactly(0, 1);
+    }
+
+    @Test
+    public void clearEmptiesHeapSoThatItCanBeReused() {
+        // Arrange
+        final IndexedMinHeap heap = new IndexedMinHeap(3);
+        heap.offer(0, 1f);
+        heap.offer(1, 2f);
+
+        // Act
+        heap.clear();
+        heap.offer(1, 5f);
+        heap.offer(2, 4f);
+
+        // Assert
+        assertThat(drain(heap)).containsExactly(2, 1);
+    }
+
+    @Test
+    public void pollThrowsWhenEmpty() {
+        // Arrange
+        final IndexedMinHeap heap = new IndexedMinHeap(1);
+
+        // Assert
+        assertThatThrownBy(heap::poll).isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    public void pollGivesRandomKeysSorted() {
+        // Arrange
+        final int count = 1000;
+        final IndexedMinHeap heap = new IndexedMinHeap(count);
+        final float[] keys = new float[count];
+        final Random random = new Random(1);
+        for (int cell = 0; cell < count; cell++) {
+            keys[cell] = random.nextFloat();
+            heap.offer(cell, keys[cell]);
+        }
+        for (int cell = 0; cell < count; cell += 3) {
+            keys[cell] /= 2;
+            heap.offer(cell, keys[cell]);
+        }
+
+        // Act
+        final List<Integer> cells = drain(heap);
+
+        // Assert
+        assertThat(cells).hasSize(count);
+        for (int i = 1; i < count; i++) {
+            assertThat(keys[cells.get(i)]).isGreaterThanOrEqualTo(keys[cells.get(i - 1)]);
+        }
+    }
+
+}
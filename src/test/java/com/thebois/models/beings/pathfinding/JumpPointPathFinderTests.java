@@ -0,0 +1,340 @@
+package com.thebois.models.beings.pathfinding;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.thebois.listeners.events.ResourceHarvestedEvent;
+import com.thebois.models.Position;
+import com.thebois.models.world.IWorld;
+import com.thebois.models.world.TestWorld;
+import com.thebois.models.world.World;
+import com.thebois.models.world.resources.ResourceType;
+import com.thebois.models.world.structures.StructureType;
+import com.thebois.testutils.InMemorySerialize;
+import com.thebois.testutils.MockFactory;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class JumpPointPathFinderTests {
+
+    private static final float OBSTACLE = Float.MAX_VALUE;
+    private static final int WORLD_SIZE = 30;
+
+    public static Stream<Arguments> getPositionsAndDestinations() {
+        return Stream.of(
+            Arguments.of(new Position(0, 0), new Position(0, 0)),
+            Arguments.of(new Position(10, 10), new Position(0, 0)),
+            Arguments.of(new Position(0, 0), new Position(10, 10)),
+            Arguments.of(new Position(0, 0), new Position(11, 23)),
+            Arguments.of(new Position(29, 3), new Position(10, 23)));
+    }
+
+    public static Stream<Arguments> getSeeds() {
+        return Stream.of(Arguments.of(1L), Arguments.of(2L), Arguments.of(3L), Arguments.of(4L));
+    }
+
+    // The cost of walking a path, where leaving a cell costs one more than the cell.
+    private static float costOf(final List<Position> path, final float[][] costs) {
+        float cost = 0;
+        for (int i = 0; i < path.size() - 1; i++) {
+            final Position position = path.get(i);
+            cost += 1 + costs[(int) position.getY()][(int) position.getX()];
+        }
+        return cost;
+    }
+
+    private static void assertPathIsConnected(final List<Position> path) {
+        for (int i = 1; i < path.size(); i++) {
+            assertThat(path.get(i - 1).manhattanDistanceTo(path.get(i))).isEqualTo(1);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("getPositionsAndDestinations")
+    public void pathIsShortestInOpenWorld(final Position start, final Position destination) {
+        // Arrange
+        final GridWorld world = new GridWorld(new float[30][30]);
+        final IPathFinder cut = new JumpPointPathFinder(world, 30);
+
+        // Act
+        final List<Position> path = new ArrayList<>(cut.path(start, destination));
+
+        // Assert
+        assertThat(path).hasSize(start.manhattanDistanceTo(destination) + 1);
+        assertThat(path).first().isEqualTo(start);
+        assertThat(path).last().isEqualTo(destination);
+        assertPathIsConnected(path);
+    }
+
+    @Test
+    public void pathGoesAroundWallTheShortestWay() {
+        // Arrange
+        final float[][] costs = new float[10][10];
+        for (int y = 0; y < 9; y++) {
+            costs[y][5] = OBSTACLE;
+        }
+        final IPathFinder cut = new JumpPointPathFinder(new GridWorld(costs), 10);
+
+        // Act
+        final List<Position> path =
+            new ArrayList<>(cut.path(new Position(0, 0), new Position(9, 0)));
+
+        // Assert
+        assertThat(path).hasSize(9 + 9 + 9 + 1).contains(new Position(5, 9));
+        assertPathIsConnected(path);
+    }
+
+    @Test
+    public void pathCanEndInObstacle() {
+        // Arrange
+        final float[][] costs = new float[5][5];
+        costs[2][2] = OBSTACLE;
+        final IPathFinder cut = new JumpPointPathFinder(new GridWorld(costs), 5);
+
+        // Act
+        final Collection<Position> path = cut.path(new Position(0, 0), new Position(2, 2));
+
+        // Assert
+        assertThat(path).hasSize(5).last().isEqualTo(new Position(2, 2));
+    }
+
+    @Test
+    public void pathGoesThroughCheaperCellsWhenTheyAreCheaperInTotal() {
+        // Arrange
+        final float[][] costs = new float[10][10];
+        for (int x = 0; x < 10; x++) {
+            costs[0][x] = 1;
+            costs[1][x] = 0;
+            for (int y = 2; y < 10; y++) {
+                costs[y][x] = Float.MAX_VALUE;
+            }
+            costs[2][x] = 1;
+        }
+        final IPathFinder cut = new JumpPointPathFinder(new GridWorld(costs), 10);
+
+        // Act
+        final List<Position> path =
+            new ArrayList<>(cut.path(new Position(0, 0), new Position(9, 0)));
+
+        // Assert
+        assertThat(costOf(path, costs)).isEqualTo(2 + 9 + 1);
+        assertThat(path).contains(new Position(5, 1));
+    }
+
+    @Test
+    public void longRouteExpandsFarFewerCellsThanAstar() {
+        // Arrange
+        final float[][] costs = new float[100][100];
+        final GridWorld world = new GridWorld(costs);
+        final JumpPointPathFinder jumpPoint = new JumpPointPathFinder(world, 100);
+        final IndexedAstarPathFinder astar = new IndexedAstarPathFinder(world, 100);
+        final Position start = new Position(0, 0);
+        final Position destination = new Position(99, 99);
+
+        // Act
+        jumpPoint.path(start, destination);
+        astar.path(start, destination);
+
+        // Assert
+        assertThat(jumpPoint.countExpansions() * 10).isLessThan(astar.countExpansions());
+    }
+
+    @ParameterizedTest
+    @MethodSource("getSeeds")
+    public void pathsCostAsMuchAsThoseOfAstar(final long seed) {
+        // Arrange
+        final int size = 24;
+        final Random random = new Random(seed);
+        final float[][] costs = new float[size][size];
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                final float roll = random.nextFloat();
+                if (roll < 0.25f) {
+                    costs[y][x] = OBSTACLE;
+                }
+                else if (roll < 0.3f) {
+                    costs[y][x] = random.nextInt(3) + 0.5f;
+                }
+            }
+        }
+        final GridWorld world = new GridWorld(costs);
+        final IPathFinder cut = new JumpPointPathFinder(world, size);
+        final IPathFinder astar = new IndexedAstarPathFinder(world, size);
+
+        for (int i = 0; i < 200; i++) {
+            final Position start = new Position(random.nextInt(size), random.nextInt(size));
+            final Position destination = new Position(random.nextInt(size), random.nextInt(size));
+            if (costs[(int) start.getY()][(int) start.getX()] != 0) continue;
+
+            // Act
+            final List<Position> path = new ArrayList<>(cut.path(start, destination));
+            final List<Position> expected = new ArrayList<>(astar.path(start, destination));
+
+            // Assert
+            assertThat(path.isEmpty()).isEqualTo(expected.isEmpty());
+            if (!path.isEmpty()) {
+                assertPathIsConnected(path);
+                assertThat(path).first().isEqualTo(start);
+                assertThat(path).last().isEqualTo(destination);
+                assertThat(costOf(path, costs)).isEqualTo(costOf(expected, costs));
+            }
+        }
+    }
+
+    @Test
+    public void pathAvoidsObstaclesPlacedAfterPreviousSearch() {
+        // Arrange
+        final World world = new TestWorld(WORLD_SIZE, mock(ThreadLocalRandom.class));
+        final IPathFinder cut = new JumpPointPathFinder(world, WORLD_SIZE);
+        final Position start = new Position(0, 10);
+        final Position destination = new Position(29, 10);
+        cut.path(start, destination);
+        for (int y = 0; y < WORLD_SIZE - 1; y++) {
+            world.tryCreateStructure(StructureType.HOUSE, 15, y);
+        }
+        MockFactory.completeAllStructures(world);
+
+        // Act
+        final List<Position> path = new ArrayList<>(cut.path(start, destination));
+
+        // Assert
+        assertThat(path).contains(new Position(15, WORLD_SIZE - 1));
+        assertThat(path).last().isEqualTo(destination);
+        assertPathIsConnected(path);
+    }
+
+    @Test
+    public void pathAvoidsObstaclesThatWereNotAnnounced() {
+        // Arrange
+        final float[][] costs = new float[WORLD_SIZE][WORLD_SIZE];
+        final IPathFinder cut = new JumpPointPathFinder(new GridWorld(costs), WORLD_SIZE);
+        final Position start = new Position(0, 10);
+        final Position destination = new Position(29, 10);
+        cut.path(start, destination);
+        for (int y = 1; y < WORLD_SIZE; y++) {
+            costs[y][15] = OBSTACLE;
+        }
+
+        // Act
+        final List<Position> path = new ArrayList<>(cut.path(start, destination));
+
+        // Assert
+        assertThat(path).contains(new Position(15, 0));
+        assertThat(path).last().isEqualTo(destination);
+        assertPathIsConnected(path);
+    }
+
+    @Test
+    public void pathReachesDestinationThatWasWalledInUnannounced() {
+        // Arrange
+        final float[][] costs = new float[WORLD_SIZE][WORLD_SIZE];
+        final IPathFinder cut = new JumpPointPathFinder(new GridWorld(costs), WORLD_SIZE);
+        final Position start = new Position(0, 0);
+        final Position destination = new Position(20, 20);
+        cut.path(start, destination);
+        for (int i = 18; i <= 22; i++) {
+            costs[18][i] = OBSTACLE;
+            costs[22][i] = OBSTACLE;
+            costs[i][18] = OBSTACLE;
+        }
+        costs[19][22] = OBSTACLE;
+        costs[21][22] = OBSTACLE;
+
+        // Act
+        final List<Position> path = new ArrayList<>(cut.path(start, destination));
+
+        // Assert
+        assertThat(path).contains(new Position(22, 20));
+        assertThat(path).last().isEqualTo(destination);
+        assertPathIsConnected(path);
+    }
+
+    @Test
+    public void laterSearchesOnlyReadTheCellsOfTheirPath() {
+        // Arrange
+        final GridWorld grid = new GridWorld(new float[WORLD_SIZE][WORLD_SIZE]);
+        final IWorld world = mock(IWorld.class);
+        when(world.getCostAt(anyInt(), anyInt())).thenAnswer(
+            invocation -> grid.getCostAt(invocation.getArgument(0), invocation.getArgument(1)));
+        when(world.isReachable(any(), any())).thenReturn(true);
+        final IPathFinder cut = new JumpPointPathFinder(world, WORLD_SIZE);
+        cut.path(new Position(1, 1), new Position(28, 28));
+        clearInvocations(world);
+
+        // Act
+        final Collection<Position> path = cut.path(new Position(2, 27), new Position(27, 3));
+
+        // Assert
+        verify(world, atMost(path.size() + 1)).getCostAt(anyInt(), anyInt());
+    }
+
+    @Test
+    public void pathToUnreachableDestinationDoesNotSearch() {
+        // Arrange
+        final IWorld world = mock(IWorld.class);
+        final Position from = new Position(0, 0);
+        final Position destination = new Position(2, 2);
+        when(world.isReachable(from, destination)).thenReturn(false);
+        final IPathFinder cut = new JumpPointPathFinder(world, 3);
+
+        // Act
+        final Collection<Position> path = cut.path(from, destination);
+
+        // Assert
+        assertThat(path).isEmpty();
+        verify(world, never()).getCostAt(anyInt(), anyInt());
+    }
+
+    @Test
+    public void pathGoesThroughResourceThatWasHarvestedAway() {
+        // Arrange
+        final float[][] costs = new float[WORLD_SIZE][WORLD_SIZE];
+        for (int y = 0; y < WORLD_SIZE - 1; y++) {
+            costs[y][15] = OBSTACLE;
+        }
+        final JumpPointPathFinder cut = new JumpPointPathFinder(new GridWorld(costs), WORLD_SIZE);
+        final Position start = new Position(0, 10);
+        final Position destination = new Position(29, 10);
+        cut.path(start, destination);
+        costs[10][15] = 0;
+
+        // Act
+        cut.onResourceHarvested(new ResourceHarvestedEvent(ResourceType.STONE,
+                                                           new Position(15, 10)));
+        final List<Position> path = new ArrayList<>(cut.path(start, destination));
+
+        // Assert
+        assertThat(path).hasSize(WORLD_SIZE).contains(new Position(15, 10));
+        assertPathIsConnected(path);
+    }
+
+    @Test
+    public void deserializedPathFinderFindsSamePaths() throws ClassNotFoundException,
+                                                              IOException {
+        // Arrange
+        final IPathFinder cut =
+            new JumpPointPathFinder(new GridWorld(new float[WORLD_SIZE][WORLD_SIZE]), WORLD_SIZE);
+        final Position start = new Position(0, 10);
+        final Position destination = new Position(29, 10);
+        final Collection<Position> path = cut.path(start, destination);
+
+        // Act
+        final IPathFinder deserialized =
+            (IPathFinder) InMemorySerialize.deserialize(InMemorySerialize.serialize(cut));
+
+        // Assert
+        assertThat(deserialized.path(start, destination)).isEqualTo(path);
+    }
+
+}
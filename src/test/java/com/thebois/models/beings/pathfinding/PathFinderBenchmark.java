@@ -0,0 +1,215 @@
+package com.thebois.models.beings.pathfinding;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+import com.sun.management.ThreadMXBean;
+
+import com.thebois.models.Position;
+import com.thebois.models.world.IWorld;
+import com.thebois.models.world.World;
+import com.thebois.models.world.resources.IResource;
+import com.thebois.models.world.resources.ResourceFactory;
+import com.thebois.models.world.resources.ResourceType;
+import com.thebois.models.world.terrains.ITerrain;
+import com.thebois.models.world.terrains.TerrainFactory;
+import com.thebois.models.world.terrains.TerrainType;
+import com.thebois.utils.MatrixUtils;
+
+/**
+ * Compares the throughput, the allocations and the expanded cells of the pathfinders.
+ *
+ * <p>
+ * Not run with the tests, since it takes a while. Run the main method with the test classpath,
+ * e.g. from the IDE or with java -cp target/classes:target/test-classes:[dependencies]
+ * com.thebois.models.beings.pathfinding.PathFinderBenchmark.
+ * </p>
+ *
+ * <p>
+ * Every pathfinder gets the same worlds and paths, so that only the pathfinder differs between
+ * the measurements. A single pathfinder is reused for every path, like the one of a simulation,
+ * so anything it builds up front is built during the warmup.
+ * </p>
+ *
+ * @author Martin
+ */
+public final class PathFinderBenchmark {
+
+    private static final int[] WORLD_SIZES = {128, 512};
+    private static final int SEED = 1337;
+    /**
+     * How many cells are obstacles, from open grass land to dense forest.
+     */
+    private static final float[] OBSTACLE_RATIOS = {0.01f, 0.1f};
+    private static final int PATH_COUNT = 50;
+    private static final int MAX_PATH_SPAN = 40;
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int MEASURED_ROUNDS = 3;
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private PathFinderBenchmark() {
+    }
+
+    /**
+     * Runs the benchmarks and prints the results.
+     *
+     * @param args Not used.
+     */
+    public static void main(final String[] args) {
+        System.out.printf("%-6s %-10s %-24s %12s %14s %16s%n",
+                          "size",
+                          "obstacles",
+                          "pathfinder",
+                          "paths/s",
+                          "bytes/path",
+                          "expanded/path");
+        for (final int size : WORLD_SIZES) {
+            for (final float obstacleRatio : OBSTACLE_RATIOS) {
+                final IWorld world = new ObstacleWorld(size, obstacleRatio);
+                final String setting = String.format("%-6d %-10.2f", size, obstacleRatio);
+                measure(setting, "AstarPathFinder", new AstarPathFinder(world), world, size);
+                measure(setting,
+                        "IndexedAstarPathFinder",
+                        new IndexedAstarPathFinder(world, size),
+                        world,
+                        size);
+                measure(setting,
+                        "JumpPointPathFinder",
+                        new JumpPointPathFinder(world, size),
+                        world,
+                        size);
+                measure(setting,
+                        "HierarchicalPathFinder",
+                        new HierarchicalPathFinder(world, size),
+                        world,
+                        size);
+            }
+        }
+    }
+
+    private static void measure(
+        final String setting,
+        final String name,
+        final IPathFinder pathFinder,
+        final IWorld world,
+        final int size) {
+        final Function<Integer, Long> task = rounds -> {
+            long found = 0;
+            for (int i = 0; i < rounds; i++) {
+                found += findPaths(pathFinder, world, size);
+            }
+            return found;
+        };
+        task.apply(WARMUP_ROUNDS);
+
+        final ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+        final long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        final long start = System.nanoTime();
+        consume(task.apply(MEASURED_ROUNDS));
+        final long elapsed = System.nanoTime() - start;
+        final long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        final int paths = MEASURED_ROUNDS * PATH_COUNT;
+        System.out.printf("%s %-24s %12.1f %14d %16s%n",
+                          setting,
+                          name,
+                          paths * NANOS_PER_SECOND / elapsed,
+                          allocated / paths,
+                          countExpansions(pathFinder, world, size));
+    }
+
+    // Counts the cells expanded per path by the pathfinders that keep count, outside of the
+    // measurements.
+    private static String countExpansions(
+        final IPathFinder pathFinder, final IWorld world, final int size) {
+        if (!(pathFinder instanceof AbstractIndexedPathFinder)) return "-";
+
+        final AbstractIndexedPathFinder indexedPathFinder = (AbstractIndexedPathFinder) pathFinder;
+        final Random random = new Random(SEED);
+        long expansions = 0;
+        for (int i = 0; i < PATH_COUNT; i++) {
+            final Position start = randomVacantPosition(world, random, size, size);
+            final Position end =
+                randomVacantPosition(world, random, (int) start.getX() + MAX_PATH_SPAN, size);
+            indexedPathFinder.path(start, end);
+            expansions += indexedPathFinder.countExpansions();
+        }
+        return String.valueOf(expansions / PATH_COUNT);
+    }
+
+    private static long findPaths(final IPathFinder pathFinder, final IWorld world, final int size) {
+        final Random random = new Random(SEED);
+        long found = 0;
+        for (int i = 0; i < PATH_COUNT; i++) {
+            final Position start = randomVacantPosition(world, random, size, size);
+            final Position end =
+                randomVacantPosition(world, random, (int) start.getX() + MAX_PATH_SPAN, size);
+            found += pathFinder.path(start, end).size();
+        }
+        return found;
+    }
+
+    private static Position randomVacantPosition(
+        final IWorld world, final Random random, final int near, final int size) {
+        while (true) {
+            final int x = Math.floorMod(near + random.nextInt(MAX_PATH_SPAN), size);
+            final int y = random.nextInt(size);
+            if (world.getCostAt(x, y) == 0) return new Position(x, y);
+        }
+    }
+
+    // Keeps the JIT from removing the benchmarked work as dead code.
+    private static void consume(final long result) {
+        if (result == Long.MIN_VALUE) {
+            System.out.println(result);
+        }
+    }
+
+    /**
+     * A world of grass with randomly scattered resources.
+     *
+     * <p>
+     * The resources are set up while the world is constructed, before any field of this class is
+     * set, so the seed is used to tell how many cells in a thousand are obstacles.
+     * </p>
+     */
+    private static final class ObstacleWorld extends World {
+
+        private static final float PER_MILLE = 1000f;
+
+        ObstacleWorld(final int worldSize, final float obstacleRatio) {
+            super(worldSize, Math.round(obstacleRatio * PER_MILLE), ThreadLocalRandom.current());
+        }
+
+        @Override
+        protected ITerrain[][] setUpTerrain(final int size, final int seed) {
+            final ITerrain[][] terrainMatrix = new ITerrain[size][size];
+            MatrixUtils.populateElements(terrainMatrix,
+                                         (x, y) -> TerrainFactory.createTerrain(TerrainType.GRASS,
+                                                                                x,
+                                                                                y));
+            return terrainMatrix;
+        }
+
+        @Override
+        protected IResource[][] setUpResources(final int size, final int seed) {
+            final Random random = new Random(SEED);
+            final ResourceType[] types = ResourceType.values();
+            final IResource[][] obstacles = new IResource[size][size];
+            for (int y = 0; y < size; y++) {
+                for (int x = 0; x < size; x++) {
+                    if (random.nextFloat() < seed / PER_MILLE) {
+                        final ResourceType type = types[random.nextInt(types.length)];
+                        obstacles[y][x] = ResourceFactory.createResource(type, x, y);
+                    }
+                }
+            }
+            return obstacles;
+        }
+
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.thebois.models.beings.pathfinding;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class SparseCellIndexTests {
+
+    @Test
+    public void cellsGetSlotsInTheOrderTheyWereAdded() {
+        // Arrange
+        final SparseCellIndex index = new SparseCellIndex();
+
+        // Act
+        final int first = index.add(400);
+        final int second = index.add(0);
+        final int third = index.add(7);
+
+        // Assert
+        assertThat(first).isZero();
+        assertThat(second).isOne();
+        assertThat(third).isEqualTo(2);
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    public void slotOfCellWithoutSlotIsAbsent() {
+        // Arrange
+        final SparseCellIndex index = new SparseCellIndex();
+        index.add(3);
+
+        // Act
+        final int slot = index.slotOf(4);
+
+        // Assert
+        assertThat(slot).isEqualTo(SparseCellIndex.ABSENT);
+    }
+
+    @Test
+    public void cellsKeepTheirSlotsWhenIndexGrows() {
+        // Arrange
+        final SparseCellIndex index = new SparseCellIndex();
+        final int cellCount = 1000;
+
+        // Act
+        for (int i = 0; i < cellCount; i++) {
+            index.add(i * 31);
+        }
+
+        // Assert
+        assertThat(index.size()).isEqualTo(cellCount);
+        for (int slot = 0; slot < cellCount; slot++) {
+            assertThat(index.cellAt(slot)).isEqualTo(slot * 31);
+            assertThat(index.slotOf(slot * 31)).isEqualTo(slot);
+        }
+    }
+
+}
@@ -10,6 +10,7 @@ import org.mockito.Mockito;
 
 import com.thebois.models.Position;
 import com.thebois.models.world.ITile;
+import com.thebois.models.world.IWorld;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -36,7 +37,7 @@ public class TileCostCalculatorTests {
     public void costOfReturnsGreaterCostWhenTileFurtherAwayFromDestination(
         final ITile destination, final ITile greater, final ITile lesser) {
         // Arrange
-        final TileCostCalculator cut = new TileCostCalculator();
+        final TileCostCalculator cut = new TileCostCalculator(Mockito.mock(IWorld.class));
         cut.setCostFromStartTo(greater, 0f);
         cut.setCostFromStartTo(lesser, 0f);
 
@@ -51,7 +52,7 @@ public class TileCostCalculatorTests {
     @Test
     public void costOfRetainsLatestSetCostFromStart() {
         // Arrange
-        final TileCostCalculator cut = new TileCostCalculator();
+        final TileCostCalculator cut = new TileCostCalculator(Mockito.mock(IWorld.class));
         final ITile tile = mockTile(0, 0);
         final float lastSetCost = 123.4f;
 
@@ -54,7 +54,8 @@ public class BuilderRoleTests {
         final ITile mockTile = mock(ITile.class);
         final Position randomPosition = new Position(2, 3);
         when(mockTile.getPosition()).thenReturn(randomPosition);
-        when(world.getRandomVacantSpotInRadiusOf(any(), anyInt())).thenReturn(mockTile);
+        when(world.getRandomVacantSpotInRadiusOf(any(), anyInt()))
+            .thenReturn(Optional.of(mockTile));
 
         this.inventory = mock(IInventory.class);
         StructureFactory.setInventory(inventory);
@@ -49,7 +49,8 @@ public class HarvesterRoleTests {
         final ITile mockTile = mock(ITile.class);
         final Position randomPosition = new Position(2, 3);
         when(mockTile.getPosition()).thenReturn(randomPosition);
-        when(mockWorld.getRandomVacantSpotInRadiusOf(any(), anyInt())).thenReturn(mockTile);
+        when(mockWorld.getRandomVacantSpotInRadiusOf(any(), anyInt()))
+            .thenReturn(Optional.of(mockTile));
     }
 
     @AfterEach
@@ -104,6 +105,7 @@ public class HarvesterRoleTests {
     private IResource mockTree(final Position treePosition) {
         final IResource tree = MockFactory.createResource(treePosition, mock(IItem.class), 10f);
         when(finder.getNearbyOfType(any(), eq(ResourceType.TREE))).thenReturn(Optional.of(tree));
+        when(mockWorld.getTileAt(treePosition)).thenReturn(tree);
         return tree;
     }
 
@@ -111,6 +113,7 @@ public class HarvesterRoleTests {
         final IResource resource = mock(IResource.class);
         when(resource.getPosition()).thenReturn(position);
         when(resource.getType()).thenReturn(ResourceType.TREE);
+        when(mockWorld.getTileAt(position)).thenReturn(resource);
         return resource;
     }
 
@@ -142,7 +145,7 @@ public class HarvesterRoleTests {
         final IActionPerformer performer = mock(IActionPerformer.class);
         final IResource tree = setUpRoleIsNextToTree(performer);
 
-        final IAction expected = ActionFactory.createHarvest(tree);
+        final IAction expected = ActionFactory.createHarvest(tree, mockWorld);
 
         // Act
         final IAction actual = role.obtainNextAction(performer);
@@ -381,7 +384,7 @@ public class HarvesterRoleTests {
 
         // Set up for expected action
 
-        final IAction expected = ActionFactory.createHarvest(tree);
+        final IAction expected = ActionFactory.createHarvest(tree, mockWorld);
 
         // Act
         // To set action to be go to stockpile/empty inven rather than go to resource/harvest
@@ -1,5 +1,7 @@
 package com.thebois.models.beings.roles;
 
+import java.util.Optional;
+
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,6 +12,7 @@ import com.thebois.models.Position;
 import com.thebois.models.beings.IActionPerformer;
 import com.thebois.models.beings.actions.ActionFactory;
 import com.thebois.models.beings.actions.IAction;
+import com.thebois.models.beings.actions.WaitAction;
 import com.thebois.models.beings.pathfinding.IPathFinder;
 import com.thebois.models.world.ITile;
 import com.thebois.models.world.IWorld;
@@ -44,7 +47,8 @@ public class IdleRoleTests {
         final ITile mockTile = mock(ITile.class);
         final Position randomPosition = new Position(2, 3);
         when(mockTile.getPosition()).thenReturn(randomPosition);
-        when(mockWorld.getRandomVacantSpotInRadiusOf(any(), anyInt())).thenReturn(mockTile);
+        when(mockWorld.getRandomVacantSpotInRadiusOf(any(), anyInt()))
+            .thenReturn(Optional.of(mockTile));
         final AbstractRole role = RoleFactory.idle();
         final IAction expectedTask = ActionFactory.createMoveTo(randomPosition);
         final IActionPerformer performer = mock(IActionPerformer.class);
@@ -57,4 +61,21 @@ public class IdleRoleTests {
         assertThat(task).isEqualTo(expectedTask);
     }
 
+    @Test
+    public void obtainNextTaskIsWaitWhenThereIsNoVacantPositionNearby() {
+        // Arrange
+        when(mockWorld.getRandomVacantSpotInRadiusOf(any(), anyInt()))
+            .thenReturn(Optional.empty());
+        final AbstractRole role = RoleFactory.idle();
+        final IActionPerformer performer = mock(IActionPerformer.class);
+        when(performer.getPosition()).thenReturn(new Position());
+
+        // Act
+        final IAction task = role.obtainNextAction(performer);
+
+        // Assert
+        assertThat(task).isInstanceOf(WaitAction.class);
+        assertThat(task.canPerform(performer)).isTrue();
+    }
+
 }
@@ -2,6 +2,7 @@ package com.thebois.models.beings.roles;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -218,7 +219,8 @@ public class RoleTests {
 
         final ITile randomTile = mock(ITile.class);
         when(randomTile.getPosition()).thenReturn(new Position(10, 10));
-        when(world.getRandomVacantSpotInRadiusOf(any(), anyInt())).thenReturn(randomTile);
+        when(world.getRandomVacantSpotInRadiusOf(any(), anyInt()))
+            .thenReturn(Optional.of(randomTile));
         final AbstractRole idleRole = RoleFactory.idle();
         final IAction idleAction = idleRole.obtainNextAction(performer);
 
@@ -240,7 +242,8 @@ public class RoleTests {
 
         final ITile randomTile = mock(ITile.class);
         when(randomTile.getPosition()).thenReturn(new Position(10, 10));
-        when(world.getRandomVacantSpotInRadiusOf(any(), anyInt())).thenReturn(randomTile);
+        when(world.getRandomVacantSpotInRadiusOf(any(), anyInt()))
+            .thenReturn(Optional.of(randomTile));
         final AbstractRole idleRole = RoleFactory.idle();
         final IAction idleAction = idleRole.obtainNextAction(performer);
 
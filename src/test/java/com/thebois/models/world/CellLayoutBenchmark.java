@@ -0,0 +1,190 @@
+package com.thebois.models.world;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.thebois.models.Position;
+import com.thebois.models.beings.pathfinding.AstarPathFinder;
+import com.thebois.models.beings.pathfinding.IPathFinder;
+import com.thebois.models.world.resources.IResource;
+import com.thebois.models.world.resources.ResourceFactory;
+import com.thebois.models.world.resources.ResourceType;
+import com.thebois.models.world.terrains.ITerrain;
+
+/**
+ * Compares the throughput of pathfinding and region queries between the cell layouts.
+ *
+ * <p>
+ * Not run with the tests, since it takes a while. Run the main method with the test classpath,
+ * e.g. from the IDE or with java -cp target/classes:target/test-classes:[dependencies]
+ * com.thebois.models.world.CellLayoutBenchmark.
+ * </p>
+ *
+ * <p>
+ * Every layout gets the same worlds, obstacles, paths and regions, so that only the layout
+ * differs between the measurements.
+ * </p>
+ *
+ * @author Martin
+ */
+public final class CellLayoutBenchmark {
+
+    private static final int[] WORLD_SIZES = {512, 2048};
+    private static final int SEED = 1337;
+    private static final float OBSTACLE_RATIO = 0.1f;
+    private static final int PATH_COUNT = 50;
+    private static final int MAX_PATH_SPAN = 40;
+    private static final int REGION_COUNT = 20_000;
+    private static final int REGION_SIZE = 48;
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int MEASURED_ROUNDS = 3;
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private CellLayoutBenchmark() {
+    }
+
+    /**
+     * Runs the benchmarks and prints the results.
+     *
+     * @param args Not used.
+     */
+    public static void main(final String[] args) {
+        System.out.printf("%-6s %-10s %14s %16s%n", "size", "layout", "paths/s", "regions/s");
+        for (final int size : WORLD_SIZES) {
+            for (final CellLayout layout : CellLayout.values()) {
+                final World world = new ObstacleWorld(size, layout);
+                final PackedTileLayers layers = createLayers(size, layout);
+                final double pathsPerSecond = measure(() -> findPaths(world, size));
+                final double regionsPerSecond = measure(() -> queryRegions(layers, size));
+                System.out.printf("%-6d %-10s %14.1f %16.1f%n",
+                                  size,
+                                  layout,
+                                  pathsPerSecond * PATH_COUNT,
+                                  regionsPerSecond * REGION_COUNT);
+            }
+        }
+    }
+
+    // Gives how many times per second the task runs, on average over the measured rounds.
+    private static double measure(final Runnable task) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            task.run();
+        }
+        final long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            task.run();
+        }
+        final long elapsed = System.nanoTime() - start;
+        return MEASURED_ROUNDS * NANOS_PER_SECOND / elapsed;
+    }
+
+    private static void findPaths(final World world, final int size) {
+        final IPathFinder pathFinder = new AstarPathFinder(world);
+        final Random random = new Random(SEED);
+        int found = 0;
+        for (int i = 0; i < PATH_COUNT; i++) {
+            final Position start = randomVacantPosition(world, random, size, size);
+            final Position end = randomVacantPosition(world,
+                                                      random,
+                                                      (int) start.getX() + MAX_PATH_SPAN,
+                                                      size);
+            found += pathFinder.path(start, end).size();
+        }
+        consume(found);
+    }
+
+    private static Position randomVacantPosition(
+        final World world, final Random random, final int near, final int size) {
+        while (true) {
+            final int x = Math.floorMod(near + random.nextInt(MAX_PATH_SPAN), size);
+            final int y = random.nextInt(size);
+            if (isOpen(world, x, y, size)) return new Position(x, y);
+        }
+    }
+
+    // Whether the cell and its neighbours are walkable, so that the cell is not walled in.
+    private static boolean isOpen(final World world, final int x, final int y, final int size) {
+        for (int offsetY = -1; offsetY <= 1; offsetY++) {
+            for (int offsetX = -1; offsetX <= 1; offsetX++) {
+                final int neighbourX = Math.floorMod(x + offsetX, size);
+                final int neighbourY = Math.floorMod(y + offsetY, size);
+                if (world.getTileAt(neighbourX, neighbourY).getCost() == Float.MAX_VALUE) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static void queryRegions(final PackedTileLayers layers, final int size) {
+        final Random random = new Random(SEED);
+        float total = 0;
+        for (int i = 0; i < REGION_COUNT; i++) {
+            final int minX = random.nextInt(size - REGION_SIZE);
+            final int minY = random.nextInt(size - REGION_SIZE);
+            for (int y = minY; y < minY + REGION_SIZE; y++) {
+                for (int x = minX; x < minX + REGION_SIZE; x++) {
+                    total += Math.min(layers.getCostAt(x, y), 1f);
+                }
+            }
+        }
+        consume(total);
+    }
+
+    private static PackedTileLayers createLayers(final int size, final CellLayout layout) {
+        final PackedTileLayers layers = new PackedTileLayers(size, null, layout);
+        final IResource[][] obstacles = createObstacles(size);
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                if (obstacles[y][x] != null) {
+                    layers.setResourceAt(x, y, obstacles[y][x].getType());
+                }
+            }
+        }
+        return layers;
+    }
+
+    private static IResource[][] createObstacles(final int size) {
+        final Random random = new Random(SEED);
+        final ResourceType[] types = ResourceType.values();
+        final IResource[][] obstacles = new IResource[size][size];
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                if (random.nextFloat() < OBSTACLE_RATIO) {
+                    final ResourceType type = types[random.nextInt(types.length)];
+                    obstacles[y][x] = ResourceFactory.createResource(type, x, y);
+                }
+            }
+        }
+        return obstacles;
+    }
+
+    // Keeps the JIT from removing the benchmarked work as dead code.
+    private static void consume(final float result) {
+        if (result == Float.MIN_VALUE) {
+            System.out.println(result);
+        }
+    }
+
+    /**
+     * A world with the first terrain type everywhere and randomly scattered resources.
+     */
+    private static final class ObstacleWorld extends World {
+
+        ObstacleWorld(final int worldSize, final CellLayout layout) {
+            super(worldSize, SEED, ThreadLocalRandom.current(), null, layout);
+        }
+
+        @Override
+        protected ITerrain[][] setUpTerrain(final int size, final int seed) {
+            return new ITerrain[0][];
+        }
+
+        @Override
+        protected IResource[][] setUpResources(final int size, final int seed) {
+            return createObstacles(size);
+        }
+
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.thebois.models.world;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class CellLayoutTests {
+
+    @ParameterizedTest
+    @EnumSource(CellLayout.class)
+    public void indexOfGivesEveryCellOfChunkUniqueIndex(final CellLayout layout) {
+        // Arrange
+        final Set<Integer> indexes = new HashSet<>();
+
+        // Act
+        for (int y = 0; y < Chunk.SIZE; y++) {
+            for (int x = 0; x < Chunk.SIZE; x++) {
+                indexes.add(layout.indexOf(x, y));
+            }
+        }
+
+        // Assert
+        assertThat(indexes).hasSize(Chunk.CELL_COUNT)
+                           .allMatch(index -> index >= 0 && index < Chunk.CELL_COUNT);
+    }
+
+    @Test
+    public void rowMajorIndexOfPutsRowsAfterEachOther() {
+        // Act
+        final int index = CellLayout.ROW_MAJOR.indexOf(3, 2);
+
+        // Assert
+        assertThat(index).isEqualTo(2 * Chunk.SIZE + 3);
+    }
+
+    @Test
+    public void mortonIndexOfInterleavesCoordinateBits() {
+        // Assert
+        assertThat(CellLayout.MORTON.indexOf(1, 0)).isEqualTo(1);
+        assertThat(CellLayout.MORTON.indexOf(0, 1)).isEqualTo(2);
+        assertThat(CellLayout.MORTON.indexOf(1, 1)).isEqualTo(3);
+        assertThat(CellLayout.MORTON.indexOf(2, 0)).isEqualTo(4);
+        assertThat(CellLayout.MORTON.indexOf(Chunk.MASK, Chunk.MASK)).isEqualTo(
+            Chunk.CELL_COUNT - 1);
+    }
+
+    @Test
+    public void mortonKeepsVerticalNeighboursCloserThanRowMajor() {
+        // Act
+        final int mortonDistance =
+            Math.abs(CellLayout.MORTON.indexOf(4, 5) - CellLayout.MORTON.indexOf(4, 4));
+        final int rowMajorDistance =
+            Math.abs(CellLayout.ROW_MAJOR.indexOf(4, 5) - CellLayout.ROW_MAJOR.indexOf(4, 4));
+
+        // Assert
+        assertThat(mortonDistance).isLessThan(rowMajorDistance);
+    }
+
+}
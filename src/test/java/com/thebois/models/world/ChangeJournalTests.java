@@ -0,0 +1,85 @@
+package com.thebois.models.world;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class ChangeJournalTests {
+
+    @Test
+    public void drainReturnsChangesMadeSinceSubscribing() {
+        // Arrange
+        final ChangeJournal journal = new ChangeJournal();
+        final TileChange before = new TileChange(0, 0, TileLayer.STRUCTURE, 1f, 0f);
+        final TileChange after = new TileChange(1, 2, TileLayer.RESOURCE, 1f, 2f);
+        journal.add(before);
+        final ChangeFeed feed = journal.subscribe();
+        journal.add(after);
+
+        // Act
+        final List<TileChange> changes = feed.drain();
+
+        // Assert
+        assertThat(changes).containsExactly(after);
+    }
+
+    @Test
+    public void drainReturnsEachChangeOnlyOnce() {
+        // Arrange
+        final ChangeJournal journal = new ChangeJournal();
+        final ChangeFeed feed = journal.subscribe();
+        final TileChange first = new TileChange(0, 0, TileLayer.STRUCTURE, 1f, 0f);
+        final TileChange second = new TileChange(0, 1, TileLayer.STRUCTURE, 1f, 0f);
+        journal.add(first);
+        feed.drain();
+        journal.add(second);
+
+        // Act
+        final List<TileChange> changes = feed.drain();
+
+        // Assert
+        assertThat(changes).containsExactly(second);
+        assertThat(feed.drain()).isEmpty();
+    }
+
+    @Test
+    public void everyFeedGetsEveryChangeRegardlessOfWhenOthersDrain() {
+        // Arrange
+        final ChangeJournal journal = new ChangeJournal();
+        final ChangeFeed eager = journal.subscribe();
+        final ChangeFeed lazy = journal.subscribe();
+        final TileChange first = new TileChange(0, 0, TileLayer.STRUCTURE, 1f, 0f);
+        final TileChange second = new TileChange(3, 3, TileLayer.TERRAIN, 1f, 5f);
+        journal.add(first);
+        eager.drain();
+        journal.add(second);
+        eager.drain();
+
+        // Act
+        final List<TileChange> changes = lazy.drain();
+
+        // Assert
+        assertThat(changes).containsExactly(first, second);
+    }
+
+    @Test
+    public void unsubscribedFeedDoesNotHoldBackChanges() {
+        // Arrange
+        final ChangeJournal journal = new ChangeJournal();
+        final ChangeFeed stopped = journal.subscribe();
+        final ChangeFeed active = journal.subscribe();
+        journal.add(new TileChange(0, 0, TileLayer.STRUCTURE, 1f, 0f));
+        active.drain();
+
+        // Act
+        journal.unsubscribe(stopped);
+
+        // Assert
+        assertThat(journal.nextSequence()).isEqualTo(1);
+        assertThat(journal.changesFrom(1)).isEmpty();
+        assertThat(active.drain()).isEmpty();
+    }
+
+}
@@ -0,0 +1,237 @@
+package com.thebois.models.world;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.thebois.models.world.resources.ResourceFactory;
+import com.thebois.models.world.resources.ResourceType;
+import com.thebois.models.world.structures.IStructure;
+import com.thebois.models.world.structures.StructureFactory;
+import com.thebois.models.world.structures.StructureType;
+import com.thebois.models.world.terrains.TerrainFactory;
+import com.thebois.models.world.terrains.TerrainType;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class ChunkPagerTests {
+
+    private static final int CHUNKS_PER_SIDE = 4;
+    private static final int WORLD_SIZE = Chunk.SIZE * CHUNKS_PER_SIDE;
+    private static final int MAX_RESIDENT_CHUNKS = 2;
+
+    @TempDir
+    Path pageDirectory;
+
+    private PackedTileLayers createPagedLayers() {
+        final ChunkPaging paging =
+            new ChunkPaging(pageDirectory, (long) Chunk.PAGE_BYTES * MAX_RESIDENT_CHUNKS);
+        return new PackedTileLayers(WORLD_SIZE, paging);
+    }
+
+    // Gives every chunk a distinct pattern, so that mixed up chunks are noticed.
+    private void fillEveryChunk(final PackedTileLayers layers) {
+        for (int chunkY = 0; chunkY < CHUNKS_PER_SIDE; chunkY++) {
+            for (int chunkX = 0; chunkX < CHUNKS_PER_SIDE; chunkX++) {
+                final int x = chunkX * Chunk.SIZE + chunkY;
+                final int y = chunkY * Chunk.SIZE + chunkX;
+                layers.setTerrainAt(x, y, TerrainType.SAND);
+                layers.setResourceAt(x + 1, y, ResourceType.STONE);
+            }
+        }
+    }
+
+    private void assertEveryChunkIsFilled(final PackedTileLayers layers) {
+        for (int chunkY = 0; chunkY < CHUNKS_PER_SIDE; chunkY++) {
+            for (int chunkX = 0; chunkX < CHUNKS_PER_SIDE; chunkX++) {
+                final int x = chunkX * Chunk.SIZE + chunkY;
+                final int y = chunkY * Chunk.SIZE + chunkX;
+                assertThat(layers.getTerrainTypeAt(x, y)).isEqualTo(TerrainType.SAND);
+                assertThat(layers.getResourceTypeAt(x, y)).isNull();
+                assertThat(layers.getResourceAt(x + 1, y).getType()).isEqualTo(
+                    ResourceType.STONE);
+            }
+        }
+    }
+
+    @Test
+    public void pagedLayersStartWithoutAnyChunksInMemory() {
+        // Act
+        final PackedTileLayers layers = createPagedLayers();
+
+        // Assert
+        assertThat(layers.countResidentChunks()).isZero();
+    }
+
+    @Test
+    public void readingCostsPagesChunkIn() {
+        // Arrange
+        final PackedTileLayers layers = createPagedLayers();
+        final float expected = TerrainFactory.createTerrain(TerrainType.GRASS, 0, 0).getCost();
+
+        // Act
+        final float cost = layers.getCostAt(0, 0);
+
+        // Assert
+        assertThat(cost).isEqualTo(expected);
+        assertThat(layers.countResidentChunks()).isOne();
+    }
+
+    @Test
+    public void costsPagedOutAreReadBackUnchanged() {
+        // Arrange
+        final PackedTileLayers layers = createPagedLayers();
+        fillEveryChunk(layers);
+        final float expected = ResourceFactory.createResource(ResourceType.STONE, 0, 0).getCost();
+
+        final List<Float> costs = new ArrayList<>();
+
+        // Act
+        for (int chunkY = 0; chunkY < CHUNKS_PER_SIDE; chunkY++) {
+            for (int chunkX = 0; chunkX < CHUNKS_PER_SIDE; chunkX++) {
+                costs.add(layers.getCostAt(chunkX * Chunk.SIZE + chunkY + 1,
+                                           chunkY * Chunk.SIZE + chunkX));
+            }
+        }
+
+        // Assert
+        assertThat(costs).hasSize(CHUNKS_PER_SIDE * CHUNKS_PER_SIDE).containsOnly(expected);
+    }
+
+    @Test
+    public void touchingChunksKeepsAtMostBudgetInMemory() {
+        // Arrange
+        final PackedTileLayers layers = createPagedLayers();
+
+        // Act
+        fillEveryChunk(layers);
+
+        // Assert
+        assertThat(layers.countResidentChunks()).isEqualTo(MAX_RESIDENT_CHUNKS);
+    }
+
+    @Test
+    public void chunksPagedOutAreReadBackUnchanged() {
+        // Arrange
+        final PackedTileLayers layers = createPagedLayers();
+        fillEveryChunk(layers);
+
+        // Act
+        assertEveryChunkIsFilled(layers);
+
+        // Assert
+        assertThat(layers.countResidentChunks()).isEqualTo(MAX_RESIDENT_CHUNKS);
+    }
+
+    @Test
+    public void structuresSurvivePagingOutTheirChunk() {
+        // Arrange
+        final PackedTileLayers layers = createPagedLayers();
+        final IStructure structure = StructureFactory.createStructure(StructureType.HOUSE, 0, 0);
+        layers.setStructureAt(0, 0, structure);
+
+        // Act
+        fillEveryChunk(layers);
+
+        // Assert
+        assertThat(layers.getTileAt(0, 0)).isSameAs(structure);
+    }
+
+    @Test
+    public void pagingOutDoesNotChangeChunkVersions() {
+        // Arrange
+        final PackedTileLayers layers = createPagedLayers();
+        layers.setResourceAt(0, 0, ResourceType.TREE);
+        final long versionBefore = layers.getChunkVersionAt(0, 0);
+
+        // Act
+        for (int chunkX = 0; chunkX < CHUNKS_PER_SIDE; chunkX++) {
+            layers.getTerrainTypeAt(chunkX * Chunk.SIZE, Chunk.SIZE);
+        }
+
+        // Assert
+        assertThat(layers.getChunkVersionAt(0, 0)).isEqualTo(versionBefore);
+        assertThat(layers.getResourceAt(0, 0).getType()).isEqualTo(ResourceType.TREE);
+    }
+
+    @Test
+    public void serializedPagedLayersKeepEveryChunkAndStayWithinBudget()
+        throws IOException, ClassNotFoundException {
+        // Arrange
+        final PackedTileLayers layers = createPagedLayers();
+        fillEveryChunk(layers);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(layers);
+        }
+
+        // Act
+        final PackedTileLayers copy;
+        try (ObjectInputStream in =
+                 new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (PackedTileLayers) in.readObject();
+        }
+
+        // Assert
+        assertThat(copy.countResidentChunks()).isEqualTo(MAX_RESIDENT_CHUNKS);
+        assertEveryChunkIsFilled(copy);
+        assertThat(copy.getVersion()).isEqualTo(layers.getVersion());
+    }
+
+    @Test
+    public void disposingLayersDeletesTheirPageFile() throws IOException {
+        // Arrange
+        final PackedTileLayers layers = createPagedLayers();
+        fillEveryChunk(layers);
+
+        // Act
+        layers.dispose();
+
+        // Assert
+        try (Stream<Path> pageFiles = Files.list(pageDirectory)) {
+            assertThat(pageFiles).isEmpty();
+        }
+    }
+
+    @Test
+    public void creatingLayersThrowsWhenPageDirectoryDoesNotExist() {
+        // Arrange
+        final ChunkPaging paging =
+            new ChunkPaging(pageDirectory.resolve("missing"), Chunk.PAGE_BYTES);
+
+        // Assert
+        assertThatThrownBy(() -> new PackedTileLayers(WORLD_SIZE, paging))
+            .isInstanceOf(UncheckedIOException.class);
+    }
+
+    @Test
+    public void pagingInFromTruncatedPageFileThrows() throws IOException {
+        // Arrange
+        final PackedTileLayers layers = createPagedLayers();
+        fillEveryChunk(layers);
+        try (Stream<Path> pageFiles = Files.list(pageDirectory)) {
+            final Path pageFile = pageFiles.findFirst().orElseThrow();
+            try (FileChannel channel = FileChannel.open(pageFile, StandardOpenOption.WRITE)) {
+                channel.truncate(0);
+            }
+        }
+
+        // Assert
+        assertThatThrownBy(() -> layers.getTerrainTypeAt(0, 0))
+            .isInstanceOf(UncheckedIOException.class);
+    }
+
+}
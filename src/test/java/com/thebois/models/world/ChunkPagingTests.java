@@ -0,0 +1,58 @@
+package com.thebois.models.world;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class ChunkPagingTests {
+
+    @TempDir
+    Path pageDirectory;
+
+    @Test
+    public void constructorThrowsWhenBudgetCanNotFitOneChunk() {
+        // Assert
+        assertThatThrownBy(() -> new ChunkPaging(pageDirectory, Chunk.PAGE_BYTES - 1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void getMaxResidentChunksIsNumberOfChunksThatFitInBudget() {
+        // Arrange
+        final ChunkPaging paging = new ChunkPaging(pageDirectory, Chunk.PAGE_BYTES * 3L + 1);
+
+        // Act
+        final int maxResidentChunks = paging.getMaxResidentChunks();
+
+        // Assert
+        assertThat(maxResidentChunks).isEqualTo(3);
+    }
+
+    @Test
+    public void getPageDirectoryReturnsGivenDirectory() {
+        // Arrange
+        final ChunkPaging paging = new ChunkPaging(pageDirectory, Chunk.PAGE_BYTES);
+
+        // Act
+        final Path directory = paging.getPageDirectory();
+
+        // Assert
+        assertThat(directory).isEqualTo(pageDirectory);
+    }
+
+    @Test
+    public void getMemoryBudgetReturnsGivenBudget() {
+        // Arrange
+        final ChunkPaging paging = new ChunkPaging(pageDirectory, Chunk.PAGE_BYTES * 2L);
+
+        // Act
+        final long memoryBudget = paging.getMemoryBudget();
+
+        // Assert
+        assertThat(memoryBudget).isEqualTo(Chunk.PAGE_BYTES * 2L);
+    }
+
+}
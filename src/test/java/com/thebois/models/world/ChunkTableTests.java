@@ -0,0 +1,186 @@
+package com.thebois.models.world;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.thebois.testutils.InMemorySerialize;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class ChunkTableTests {
+
+    @Test
+    public void snapshotSharesEveryChunk() {
+        // Arrange
+        final ChunkTable table = new ChunkTable(2, null);
+
+        // Act
+        final ChunkTable snapshot = table.snapshot();
+
+        // Assert
+        assertThat(snapshot.peek(0, 0)).isSameAs(table.peek(0, 0));
+        assertThat(snapshot.peek(Chunk.SIZE, Chunk.SIZE)).isSameAs(
+            table.peek(Chunk.SIZE, Chunk.SIZE));
+    }
+
+    @Test
+    public void getWritableCopiesOnlyChunkSharedWithSnapshot() {
+        // Arrange
+        final ChunkTable table = new ChunkTable(2, null);
+        final ChunkTable snapshot = table.snapshot();
+
+        // Act
+        final Chunk writable = table.getWritable(1, 1);
+
+        // Assert
+        assertThat(writable).isNotSameAs(snapshot.peek(1, 1)).isSameAs(table.peek(1, 1));
+        assertThat(table.peek(Chunk.SIZE, 0)).isSameAs(snapshot.peek(Chunk.SIZE, 0));
+    }
+
+    @Test
+    public void getWritableCopiesChunkOnlyOncePerSnapshot() {
+        // Arrange
+        final ChunkTable table = new ChunkTable(1, null);
+        table.snapshot();
+        final Chunk first = table.getWritable(0, 0);
+
+        // Act
+        final Chunk second = table.getWritable(2, 2);
+
+        // Assert
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    public void getWritableDoesNotCopyWithoutSnapshot() {
+        // Arrange
+        final ChunkTable table = new ChunkTable(1, null);
+        final Chunk chunk = table.peek(0, 0);
+
+        // Act
+        final Chunk writable = table.getWritable(0, 0);
+
+        // Assert
+        assertThat(writable).isSameAs(chunk);
+    }
+
+    @Test
+    public void unboundedSnapshotDoesNotSeeChunksAddedLater() {
+        // Arrange
+        final ChunkTable table = new ChunkTable(null);
+        table.add(0, 0);
+        final ChunkTable snapshot = table.snapshot();
+
+        // Act
+        table.add(-1, -1);
+
+        // Assert
+        assertThat(snapshot.peek(0, 0)).isNotNull();
+        assertThat(snapshot.peek(-1, -1)).isNull();
+    }
+
+    @Test
+    public void snapshotThrowsWhenChunksArePaged(@TempDir final Path pageDirectory) {
+        // Arrange
+        final ChunkTable table =
+            new ChunkTable(1, new ChunkPaging(pageDirectory, Chunk.PAGE_BYTES));
+
+        // Assert
+        assertThatThrownBy(table::snapshot).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void forkAndTableEachCopySharedChunkBeforeChangingIt() {
+        // Arrange
+        final ChunkTable table = new ChunkTable(1, null);
+        final Chunk shared = table.peek(0, 0);
+        final ChunkTable fork = table.fork();
+
+        // Act
+        final Chunk forkWritable = fork.getWritable(0, 0);
+        final Chunk tableWritable = table.getWritable(0, 0);
+
+        // Assert
+        assertThat(forkWritable).isNotSameAs(shared).isNotSameAs(tableWritable);
+        assertThat(tableWritable).isNotSameAs(shared);
+        assertThat(fork.getWritable(1, 1)).isSameAs(forkWritable);
+    }
+
+    @Test
+    public void unboundedGetWritableCopiesChunkSharedWithSnapshot() {
+        // Arrange
+        final ChunkTable table = new ChunkTable(null);
+        table.add(0, 0);
+        final ChunkTable snapshot = table.snapshot();
+
+        // Act
+        final Chunk writable = table.getWritable(0, 0);
+
+        // Assert
+        assertThat(writable).isNotSameAs(snapshot.peek(0, 0)).isSameAs(table.peek(0, 0));
+    }
+
+    @Test
+    public void getWritableOfChunkNotAddedIsNull(@TempDir final Path pageDirectory) {
+        // Arrange
+        final ChunkTable table = new ChunkTable(new ChunkPaging(pageDirectory, Chunk.PAGE_BYTES));
+
+        // Act
+        final Chunk writable = table.getWritable(0, 0);
+
+        // Assert
+        assertThat(writable).isNull();
+    }
+
+    @Test
+    public void chunkOriginsOfSquareAreInRowMajorOrder() {
+        // Arrange
+        final ChunkTable table = new ChunkTable(2, null);
+
+        // Assert
+        assertThat(table.getChunkCount()).isEqualTo(4);
+        assertThat(table.getChunkOriginX(1)).isEqualTo(Chunk.SIZE);
+        assertThat(table.getChunkOriginY(1)).isZero();
+        assertThat(table.getChunkOriginX(2)).isZero();
+        assertThat(table.getChunkOriginY(2)).isEqualTo(Chunk.SIZE);
+    }
+
+    @Test
+    public void chunkOriginsOfUnboundedTableAreInOrderAdded() {
+        // Arrange
+        final ChunkTable table = new ChunkTable(null);
+        table.add(-1, -1);
+        table.add(Chunk.SIZE * 2, 0);
+
+        // Assert
+        assertThat(table.getChunkCount()).isEqualTo(2);
+        assertThat(table.getChunkOriginX(0)).isEqualTo(-Chunk.SIZE);
+        assertThat(table.getChunkOriginY(0)).isEqualTo(-Chunk.SIZE);
+        assertThat(table.getChunkOriginX(1)).isEqualTo(Chunk.SIZE * 2);
+        assertThat(table.getChunkOriginY(1)).isZero();
+    }
+
+    @Test
+    public void serializedUnboundedTableKeepsEveryChunkInOrder()
+        throws IOException, ClassNotFoundException {
+        // Arrange
+        final ChunkTable table = new ChunkTable(null);
+        table.add(-1, -1);
+        table.add(Chunk.SIZE * 2, 0);
+
+        // Act
+        final ChunkTable copy =
+            (ChunkTable) InMemorySerialize.deserialize(InMemorySerialize.serialize(table));
+
+        // Assert
+        assertThat(copy.getChunkCount()).isEqualTo(2);
+        assertThat(copy.peek(-1, -1)).isNotNull();
+        assertThat(copy.peek(Chunk.SIZE * 2, 0)).isNotNull();
+        assertThat(copy.getChunkOriginX(1)).isEqualTo(Chunk.SIZE * 2);
+        assertThat(copy.getChunkOriginY(0)).isEqualTo(-Chunk.SIZE);
+    }
+
+}
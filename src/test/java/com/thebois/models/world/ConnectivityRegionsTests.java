@@ -0,0 +1,229 @@
+package com.thebois.models.world;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.thebois.models.world.resources.ResourceType;
+import com.thebois.models.world.structures.IStructure;
+import com.thebois.models.world.structures.StructureType;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ConnectivityRegionsTests {
+
+    private static final int WORLD_SIZE = 7;
+    private PackedTileLayers layers;
+    private ChangeJournal journal;
+
+    @BeforeEach
+    public void setup() {
+        layers = new PackedTileLayers(WORLD_SIZE);
+        journal = new ChangeJournal();
+    }
+
+    private ConnectivityRegions followRegions() {
+        return ConnectivityRegions.follow(layers, journal, WORLD_SIZE);
+    }
+
+    private void block(final int x, final int y) {
+        layers.setResourceAt(x, y, ResourceType.STONE);
+        journal.add(new TileChange(x, y, TileLayer.RESOURCE, 0f, Float.MAX_VALUE));
+    }
+
+    // Walls off the column, so that the world is split into a left and a right half.
+    private void blockColumn(final int x) {
+        for (int y = 0; y < WORLD_SIZE; y++) {
+            block(x, y);
+        }
+    }
+
+    // Places a structure that blocks the cell until it is opened.
+    private IStructure blockWithStructure(final int x, final int y) {
+        final IStructure structure = mock(IStructure.class);
+        when(structure.getType()).thenReturn(StructureType.HOUSE);
+        when(structure.getCost()).thenReturn(Float.MAX_VALUE);
+        layers.setStructureAt(x, y, structure);
+        journal.add(new TileChange(x, y, TileLayer.STRUCTURE, 0f, Float.MAX_VALUE));
+        return structure;
+    }
+
+    private void open(final IStructure structure, final int x, final int y) {
+        when(structure.getCost()).thenReturn(0f);
+        layers.refreshCostAt(x, y);
+        journal.add(new TileChange(x, y, TileLayer.STRUCTURE, Float.MAX_VALUE, 0f));
+    }
+
+    @Test
+    public void openWorldIsOneRegion() {
+        // Arrange
+        final ConnectivityRegions regions = followRegions();
+
+        // Act
+        final boolean reachable = regions.isReachable(0, 0, WORLD_SIZE - 1, WORLD_SIZE - 1);
+
+        // Assert
+        assertThat(reachable).isTrue();
+        assertThat(regions.countRegions()).isEqualTo(1);
+    }
+
+    @Test
+    public void wallThatExistedBeforeLabelingSeparatesRegions() {
+        // Arrange
+        blockColumn(3);
+
+        // Act
+        final ConnectivityRegions regions = followRegions();
+
+        // Assert
+        assertThat(regions.countRegions()).isEqualTo(2);
+        assertThat(regions.isReachable(0, 0, 6, 6)).isFalse();
+        assertThat(regions.isReachable(0, 0, 2, 6)).isTrue();
+    }
+
+    @Test
+    public void wallBuiltAfterLabelingSplitsRegion() {
+        // Arrange
+        final ConnectivityRegions regions = followRegions();
+
+        // Act
+        blockColumn(3);
+
+        // Assert
+        assertThat(regions.countRegions()).isEqualTo(2);
+        assertThat(regions.isReachable(0, 0, 6, 6)).isFalse();
+        assertThat(regions.isReachable(6, 0, 4, 6)).isTrue();
+    }
+
+    @Test
+    public void wallWithGapDoesNotSplitRegion() {
+        // Arrange
+        final ConnectivityRegions regions = followRegions();
+
+        // Act
+        for (int y = 0; y < WORLD_SIZE - 1; y++) {
+            block(3, y);
+        }
+
+        // Assert
+        assertThat(regions.countRegions()).isEqualTo(1);
+        assertThat(regions.isReachable(0, 0, 6, 0)).isTrue();
+    }
+
+    @Test
+    public void enclosedCellIsItsOwnRegion() {
+        // Arrange
+        final ConnectivityRegions regions = followRegions();
+
+        // Act
+        block(2, 3);
+        block(4, 3);
+        block(3, 2);
+        block(3, 4);
+
+        // Assert
+        assertThat(regions.countRegions()).isEqualTo(2);
+        assertThat(regions.isReachable(0, 0, 3, 3)).isFalse();
+        assertThat(regions.isReachable(3, 3, 0, 0)).isFalse();
+        assertThat(regions.isReachable(0, 0, 6, 6)).isTrue();
+    }
+
+    @Test
+    public void blockedDestinationIsReachableWhenNeighbourIsReachable() {
+        // Arrange
+        final ConnectivityRegions regions = followRegions();
+
+        // Act
+        block(3, 3);
+
+        // Assert
+        assertThat(regions.isReachable(0, 0, 3, 3)).isTrue();
+    }
+
+    @Test
+    public void blockedDestinationIsUnreachableWhenWalledOff() {
+        // Arrange
+        final ConnectivityRegions regions = followRegions();
+        blockColumn(3);
+
+        // Act
+        block(5, 5);
+
+        // Assert
+        assertThat(regions.isReachable(0, 0, 5, 5)).isFalse();
+        assertThat(regions.isReachable(0, 0, 3, 3)).isTrue();
+    }
+
+    @Test
+    public void blockedStartCanNotReachAnything() {
+        // Arrange
+        final ConnectivityRegions regions = followRegions();
+
+        // Act
+        block(0, 0);
+
+        // Assert
+        assertThat(regions.isReachable(0, 0, 1, 0)).isFalse();
+        assertThat(regions.isReachable(0, 0, 0, 0)).isTrue();
+    }
+
+    @Test
+    public void openingGapInWallJoinsRegions() {
+        // Arrange
+        final ConnectivityRegions regions = followRegions();
+        for (int y = 0; y < WORLD_SIZE - 1; y++) {
+            block(3, y);
+        }
+        final IStructure door = blockWithStructure(3, WORLD_SIZE - 1);
+        final boolean reachableWhileClosed = regions.isReachable(0, 0, 6, 0);
+
+        // Act
+        open(door, 3, WORLD_SIZE - 1);
+
+        // Assert
+        assertThat(reachableWhileClosed).isFalse();
+        assertThat(regions.isReachable(0, 0, 6, 0)).isTrue();
+        assertThat(regions.countRegions()).isEqualTo(1);
+    }
+
+    @Test
+    public void openingEnclosedCellGivesItARegion() {
+        // Arrange
+        final ConnectivityRegions regions = followRegions();
+        block(0, 1);
+        block(1, 0);
+        final IStructure structure = blockWithStructure(0, 0);
+        final boolean reachableWhileBlocked = regions.isReachable(0, 0, 0, 0);
+
+        // Act
+        open(structure, 0, 0);
+
+        // Assert
+        assertThat(reachableWhileBlocked).isTrue();
+        assertThat(regions.countRegions()).isEqualTo(2);
+        assertThat(regions.isReachable(0, 0, 1, 1)).isFalse();
+    }
+
+    @Test
+    public void splittingIntoManyPartsGivesEachPartARegion() {
+        // Arrange
+        final ConnectivityRegions regions = followRegions();
+        for (int i = 0; i < WORLD_SIZE; i++) {
+            if (i != 3) {
+                block(3, i);
+                block(i, 3);
+            }
+        }
+
+        // Act
+        block(3, 3);
+
+        // Assert
+        assertThat(regions.countRegions()).isEqualTo(4);
+        assertThat(regions.isReachable(0, 0, 6, 0)).isFalse();
+        assertThat(regions.isReachable(0, 0, 0, 6)).isFalse();
+        assertThat(regions.isReachable(0, 0, 6, 6)).isFalse();
+        assertThat(regions.isReachable(0, 0, 2, 2)).isTrue();
+    }
+
+}
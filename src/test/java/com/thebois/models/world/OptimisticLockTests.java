@@ -0,0 +1,227 @@
+package com.thebois.models.world;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class OptimisticLockTests {
+
+    @Test
+    public void readGivesWhatWasRead() {
+        // Arrange
+        final OptimisticLock lock = OptimisticLock.create(false);
+
+        // Act
+        final int result = lock.read(() -> 1);
+
+        // Assert
+        assertThat(result).isEqualTo(1);
+    }
+
+    @Test
+    public void readIsRunAgainWhenWriteIsMadeWhileReading() {
+        // Arrange
+        final OptimisticLock lock = OptimisticLock.create(false);
+        final AtomicInteger runs = new AtomicInteger();
+
+        // Act
+        final int result = lock.read(() -> {
+            if (runs.incrementAndGet() == 1) {
+                final Thread writer = new Thread(() -> lock.write(() -> { }));
+                writer.start();
+                joinQuietly(writer);
+            }
+            return runs.get();
+        });
+
+        // Assert
+        assertThat(result).isEqualTo(2);
+    }
+
+    @Test
+    public void readDoesNotThrowWhatTornStateCausedWhenWriteWasMadeWhileReading() {
+        // Arrange
+        final OptimisticLock lock = OptimisticLock.create(false);
+        final List<Integer> values = new ArrayList<>();
+
+        // Act
+        final int result = lock.read(() -> {
+            if (values.isEmpty()) {
+                final Thread writer = new Thread(() -> lock.write(() -> values.add(1)));
+                writer.start();
+                joinQuietly(writer);
+                throw new IndexOutOfBoundsException();
+            }
+            return values.get(0);
+        });
+
+        // Assert
+        assertThat(result).isEqualTo(1);
+    }
+
+    @Test
+    public void readDoesNotThrowNullPointerExceptionWhenWriteWasMadeWhileReading() {
+        // Arrange
+        final OptimisticLock lock = OptimisticLock.create(false);
+        final List<String> values = new ArrayList<>();
+        values.add(null);
+
+        // Act
+        final int result = lock.read(() -> {
+            final String value = values.get(0);
+            if (value == null) {
+                final Thread writer = new Thread(() -> lock.write(() -> values.set(0, "set")));
+                writer.start();
+                joinQuietly(writer);
+            }
+            return value.length();
+        });
+
+        // Assert
+        assertThat(result).isEqualTo("set".length());
+    }
+
+    @Test
+    public void readThrowsWhenNoWriteWasMadeWhileReading() {
+        // Arrange
+        final OptimisticLock lock = OptimisticLock.create(false);
+
+        // Assert
+        assertThatThrownBy(() -> lock.read(() -> {
+            throw new IndexOutOfBoundsException();
+        })).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    public void readInsideWriteDoesNotBlock() {
+        // Arrange
+        final OptimisticLock lock = OptimisticLock.create(false);
+
+        // Act
+        final int result = lock.write(() -> lock.read(() -> lock.write(() -> 1)));
+
+        // Assert
+        assertThat(result).isEqualTo(1);
+    }
+
+    @Test
+    public void exclusiveReadsAreNotRunAgain() {
+        // Arrange
+        final OptimisticLock lock = OptimisticLock.create(true);
+        final AtomicInteger runs = new AtomicInteger();
+
+        // Act
+        lock.read(runs::incrementAndGet);
+
+        // Assert
+        assertThat(runs.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void deferredActionIsRunAfterWriteLockIsReleased() {
+        // Arrange
+        final OptimisticLock lock = OptimisticLock.create(false);
+        final CountDownLatch readByOtherThread = new CountDownLatch(1);
+        final List<String> order = new ArrayList<>();
+
+        // Act
+        lock.write(() -> {
+            lock.afterWrite(() -> {
+                final Thread reader = new Thread(() -> {
+                    lock.read(() -> order.add("read"));
+                    readByOtherThread.countDown();
+                });
+                reader.start();
+                joinQuietly(reader);
+                order.add("deferred");
+            });
+            order.add("write");
+        });
+
+        // Assert
+        assertThat(readByOtherThread.getCount()).isZero();
+        assertThat(order).containsExactly("write", "read", "deferred");
+    }
+
+    @Test
+    public void actionIsRunRightAwayWhenNotWriting() {
+        // Arrange
+        final OptimisticLock lock = OptimisticLock.create(false);
+        final AtomicInteger runs = new AtomicInteger();
+
+        // Act
+        lock.afterWrite(runs::incrementAndGet);
+
+        // Assert
+        assertThat(runs.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void deferredActionsAreDroppedButLockIsReleasedWhenWriteThrows() {
+        // Arrange
+        final OptimisticLock lock = OptimisticLock.create(false);
+        final AtomicInteger runs = new AtomicInteger();
+
+        // Act
+        assertThatThrownBy(() -> lock.write(() -> {
+            lock.afterWrite(runs::incrementAndGet);
+            throw new IllegalStateException();
+        })).isInstanceOf(IllegalStateException.class);
+
+        // Assert
+        assertThat(runs.get()).isZero();
+        assertThat(lock.read(() -> 1)).isEqualTo(1);
+    }
+
+    @Test
+    public void optimisticReadIsValidWhenNothingWasChanged() {
+        // Arrange
+        final OptimisticLock lock = OptimisticLock.create(false);
+
+        // Act
+        final long stamp = lock.tryOptimisticRead();
+
+        // Assert
+        assertThat(lock.validate(stamp)).isTrue();
+    }
+
+    @Test
+    public void optimisticReadIsNotValidWhenWriteWasMade() {
+        // Arrange
+        final OptimisticLock lock = OptimisticLock.create(false);
+        final long stamp = lock.tryOptimisticRead();
+
+        // Act
+        lock.write(() -> { });
+
+        // Assert
+        assertThat(lock.validate(stamp)).isFalse();
+    }
+
+    @Test
+    public void optimisticReadIsNeverValidWhenReadsAreExclusive() {
+        // Arrange
+        final OptimisticLock lock = OptimisticLock.create(true);
+
+        // Act
+        final long stamp = lock.tryOptimisticRead();
+
+        // Assert
+        assertThat(lock.validate(stamp)).isFalse();
+    }
+
+    private static void joinQuietly(final Thread thread) {
+        try {
+            thread.join();
+        }
+        catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
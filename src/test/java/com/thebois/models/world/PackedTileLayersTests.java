@@ -0,0 +1,446 @@
+package com.thebois.models.world;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.thebois.models.Position;
+import com.thebois.models.world.resources.IResource;
+import com.thebois.models.world.resources.ResourceFactory;
+import com.thebois.models.world.resources.ResourceType;
+import com.thebois.models.world.structures.IStructure;
+import com.thebois.models.world.structures.StructureFactory;
+import com.thebois.models.world.structures.StructureType;
+import com.thebois.models.world.terrains.TerrainFactory;
+import com.thebois.models.world.terrains.TerrainType;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class PackedTileLayersTests {
+
+    public static Stream<Arguments> getCoordinatesAndWhetherInside() {
+        return Stream.of(Arguments.of(0, 0, true),
+                         Arguments.of(3, 3, true),
+                         Arguments.of(-1, 0, false),
+                         Arguments.of(0, -1, false),
+                         Arguments.of(4, 0, false),
+                         Arguments.of(0, 4, false));
+    }
+
+    public static Stream<Arguments> getResourceTypes() {
+        return Stream.of(ResourceType.values()).map(Arguments::of);
+    }
+
+    public static Stream<Arguments> getTerrainTypes() {
+        return Stream.of(TerrainType.values()).map(Arguments::of);
+    }
+
+    @ParameterizedTest
+    @MethodSource("getCoordinatesAndWhetherInside")
+    public void isInsideIsTrueOnlyForCoordinatesInsideWorld(
+        final int x, final int y, final boolean expected) {
+        // Arrange
+        final PackedTileLayers layers = new PackedTileLayers(4);
+
+        // Act
+        final boolean isInside = layers.isInside(x, y);
+
+        // Assert
+        assertThat(isInside).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @MethodSource("getTerrainTypes")
+    public void getTileAtReturnsTerrainWhenNothingIsOnTopOfIt(final TerrainType type) {
+        // Arrange
+        final PackedTileLayers layers = new PackedTileLayers(4);
+        layers.setTerrainAt(2, 1, type);
+
+        // Act
+        final ITile tile = layers.getTileAt(2, 1);
+
+        // Assert
+        assertThat(tile).isEqualTo(TerrainFactory.createTerrain(type, 2, 1));
+        assertThat(layers.getTerrainTypeAt(2, 1)).isEqualTo(type);
+    }
+
+    @ParameterizedTest
+    @MethodSource("getResourceTypes")
+    public void getTileAtReturnsResourceOnTopOfTerrain(final ResourceType type) {
+        // Arrange
+        final PackedTileLayers layers = new PackedTileLayers(4);
+        layers.setResourceAt(3, 0, type);
+
+        // Act
+        final ITile tile = layers.getTileAt(3, 0);
+
+        // Assert
+        assertThat(tile).isEqualTo(ResourceFactory.createResource(type, 3, 0));
+        assertThat(layers.getResourceTypeAt(3, 0)).isNotNull();
+    }
+
+    @Test
+    public void getTileAtReturnsStructureOnTopOfResource() {
+        // Arrange
+        final PackedTileLayers layers = new PackedTileLayers(4);
+        final IStructure structure = StructureFactory.createStructure(StructureType.HOUSE, 1, 1);
+        layers.setResourceAt(1, 1, ResourceType.TREE);
+        layers.setStructureAt(1, 1, structure);
+
+        // Act
+        final ITile tile = layers.getTileAt(1, 1);
+
+        // Assert
+        assertThat(tile).isSameAs(structure);
+        assertThat(layers.hasStructureAt(1, 1)).isTrue();
+    }
+
+    @Test
+    public void getTerrainAtIgnoresWhatIsOnTopOfIt() {
+        // Arrange
+        final PackedTileLayers layers = new PackedTileLayers(4);
+        layers.setTerrainAt(0, 2, TerrainType.SAND);
+        layers.setResourceAt(0, 2, ResourceType.STONE);
+
+        // Act
+        final ITile terrain = layers.getTerrainAt(0, 2);
+
+        // Assert
+        assertThat(terrain).isEqualTo(TerrainFactory.createTerrain(TerrainType.SAND, 0, 2));
+    }
+
+    @Test
+    public void getResourceAtReturnsResourceOfCell() {
+        // Arrange
+        final PackedTileLayers layers = new PackedTileLayers(4);
+        layers.setResourceAt(2, 2, ResourceType.WATER);
+
+        // Act
+        final IResource resource = layers.getResourceAt(2, 2);
+
+        // Assert
+        assertThat(resource.getType()).isEqualTo(ResourceType.WATER);
+        assertThat(layers.getResourceTypeAt(2, 3)).isNull();
+    }
+
+    @ParameterizedTest
+    @MethodSource("getResourceTypes")
+    public void getCostAtIsCostOfResourceWhenThereIsOne(final ResourceType type) {
+        // Arrange
+        final PackedTileLayers layers = new PackedTileLayers(4);
+        layers.setResourceAt(0, 0, type);
+
+        // Act
+        final float cost = layers.getCostAt(0, 0);
+
+        // Assert
+        assertThat(cost).isEqualTo(layers.getTileAt(0, 0).getCost());
+    }
+
+    @ParameterizedTest
+    @MethodSource("getTerrainTypes")
+    public void getCostAtIsCostOfTerrainWhenCellIsEmpty(final TerrainType type) {
+        // Arrange
+        final PackedTileLayers layers = new PackedTileLayers(4);
+        layers.setTerrainAt(0, 0, type);
+
+        // Act
+        final float cost = layers.getCostAt(0, 0);
+
+        // Assert
+        assertThat(cost).isEqualTo(layers.getTileAt(0, 0).getCost());
+    }
+
+    @Test
+    public void getCostAtIsCostOfStructureWhenThereIsOne() {
+        // Arrange
+        final PackedTileLayers layers = new PackedTileLayers(4);
+        final IStructure structure = StructureFactory.createStructure(StructureType.HOUSE, 0, 0);
+        layers.setStructureAt(0, 0, structure);
+
+        // Act
+        final float cost = layers.getCostAt(0, 0);
+
+        // Assert
+        assertThat(cost).isEqualTo(structure.getCost());
+    }
+
+    @Test
+    public void getCostAtKeepsCostOfStructureUntilRefreshed() {
+        // Arrange
+        final PackedTileLayers layers = new PackedTileLayers(4);
+        final IStructure structure = mock(IStructure.class);
+        when(structure.getType()).thenReturn(StructureType.HOUSE);
+        when(structure.getCost()).thenReturn(1f);
+        layers.setStructureAt(0, 0, structure);
+        when(structure.getCost()).thenReturn(Float.MAX_VALUE);
+
+        // Act
+        final float costBeforeRefresh = layers.getCostAt(0, 0);
+        layers.refreshCostAt(0, 0);
+        final float costAfterRefresh = layers.getCostAt(0, 0);
+
+        // Assert
+        assertThat(costBeforeRefresh).isEqualTo(1f);
+        assertThat(costAfterRefresh).isEqualTo(Float.MAX_VALUE);
+    }
+
+    @Test
+    public void refreshCostAtBumpsVersionOnlyWhenCostChanged() {
+        // Arrange
+        final PackedTileLayers layers = new PackedTileLayers(4);
+        final IStructure structure = mock(IStructure.class);
+        when(structure.getType()).thenReturn(StructureType.HOUSE);
+        when(structure.getCost()).thenReturn(1f);
+        layers.setStructureAt(0, 0, structure);
+        final long placedVersion = layers.getChunkVersionAt(0, 0);
+
+        // Act
+        layers.refreshCostAt(0, 0);
+        final long unchangedVersion = layers.getChunkVersionAt(0, 0);
+        when(structure.getCost()).thenReturn(2f);
+        layers.refreshCostAt(0, 0);
+
+        // Assert
+        assertThat(unchangedVersion).isEqualTo(placedVersion);
+        assertThat(layers.getChunkVersionAt(0, 0)).isGreaterThan(placedVersion);
+    }
+
+    @ParameterizedTest
+    @EnumSource(CellLayout.class)
+    public void everyLayoutStoresEachCellSeparately(final CellLayout layout) {
+        // Arrange
+        final int size = Chunk.SIZE * 2;
+        final PackedTileLayers layers = new PackedTileLayers(size, null, layout);
+        final ResourceType[] types = ResourceType.values();
+
+        // Act
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                layers.setResourceAt(x, y, types[(x + y * 3) % types.length]);
+            }
+        }
+
+        // Assert
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                assertThat(layers.getResourceAt(x, y).getType()).isEqualTo(
+                    types[(x + y * 3) % types.length]);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(CellLayout.class)
+    public void everyLayoutKeepsVacancyOfCells(final CellLayout layout) {
+        // Arrange
+        final PackedTileLayers layers = new PackedTileLayers(Chunk.SIZE, null, layout);
+
+        // Act
+        layers.setStructureAt(5, 2, StructureFactory.createStructure(StructureType.HOUSE, 5, 2));
+
+        // Assert
+        assertThat(layers.getVacantRowBits(0, 2)).isEqualTo(~(1 << 5));
+        assertThat(layers.getVacantRowBits(0, 5)).isEqualTo(-1);
+    }
+
+    @Test
+    public void cellsInDifferentChunksAreStoredSeparately() {
+        // Arrange
+        final int size = Chunk.SIZE * 2;
+        final PackedTileLayers layers = new PackedTileLayers(size);
+        layers.setResourceAt(1, 1, ResourceType.STONE);
+
+        // Act
+        layers.setResourceAt(Chunk.SIZE + 1, Chunk.SIZE + 1, ResourceType.TREE);
+
+        // Assert
+        assertThat(layers.getResourceAt(1, 1).getType()).isEqualTo(ResourceType.STONE);
+        assertThat(layers.getResourceAt(Chunk.SIZE + 1, Chunk.SIZE + 1).getType()).isEqualTo(
+            ResourceType.TREE);
+        assertThat(layers.getResourceTypeAt(Chunk.SIZE + 1, 1)).isNull();
+    }
+
+    @Test
+    public void worldSmallerThanChunkHasOneChunk() {
+        // Arrange
+        final PackedTileLayers layers = new PackedTileLayers(3);
+        layers.setResourceAt(2, 2, ResourceType.TREE);
+
+        // Act
+        final long version = layers.getChunkVersionAt(0, 0);
+
+        // Assert
+        assertThat(version).isEqualTo(layers.getVersion());
+    }
+
+    @Test
+    public void setResourceAtBumpsVersionOfOnlyItsChunk() {
+        // Arrange
+        final PackedTileLayers layers = new PackedTileLayers(Chunk.SIZE * 2);
+        final long otherVersionBefore = layers.getChunkVersionAt(Chunk.SIZE, 0);
+
+        // Act
+        layers.setResourceAt(3, 4, ResourceType.WATER);
+
+        // Assert
+        assertThat(layers.getChunkVersionAt(0, 0)).isPositive();
+        assertThat(layers.getChunkVersionAt(Chunk.SIZE - 1, Chunk.SIZE - 1)).isEqualTo(
+            layers.getChunkVersionAt(0, 0));
+        assertThat(layers.getChunkVersionAt(Chunk.SIZE, 0)).isEqualTo(otherVersionBefore);
+    }
+
+    @Test
+    public void setStructureAtGivesChunkNewerVersionThanEarlierChanges() {
+        // Arrange
+        final PackedTileLayers layers = new PackedTileLayers(Chunk.SIZE * 2);
+        final IStructure structure =
+            StructureFactory.createStructure(StructureType.HOUSE, Chunk.SIZE, Chunk.SIZE);
+        layers.setResourceAt(0, 0, ResourceType.TREE);
+
+        // Act
+        layers.setStructureAt(Chunk.SIZE, Chunk.SIZE, structure);
+
+        // Assert
+        assertThat(layers.getChunkVersionAt(Chunk.SIZE, Chunk.SIZE)).isGreaterThan(
+            layers.getChunkVersionAt(0, 0));
+        assertThat(layers.getVersion()).isEqualTo(
+            layers.getChunkVersionAt(Chunk.SIZE, Chunk.SIZE));
+    }
+
+    @Test
+    public void setTerrainAtDoesNotBumpVersion() {
+        // Arrange
+        final PackedTileLayers layers = new PackedTileLayers(4);
+
+        // Act
+        layers.setTerrainAt(1, 1, TerrainType.DIRT);
+
+        // Assert
+        assertThat(layers.getVersion()).isZero();
+    }
+
+    @Test
+    public void getChunkVersionAtThrowsOutsideOfWorld() {
+        // Arrange
+        final PackedTileLayers layers = new PackedTileLayers(4);
+
+        // Assert
+        assertThatThrownBy(() -> layers.getChunkVersionAt(4, 0)).isInstanceOf(
+            IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    public void unboundedLayersHaveEveryCoordinateInside() {
+        // Arrange
+        final PackedTileLayers layers = createUnboundedLayers();
+
+        // Act
+        final boolean isInside = layers.isInside(Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+        // Assert
+        assertThat(isInside).isTrue();
+        assertThat(layers.clampToWorld(-5)).isEqualTo(-5);
+    }
+
+    @Test
+    public void clampToWorldLimitsCoordinateToBoundedWorld() {
+        // Arrange
+        final PackedTileLayers layers = new PackedTileLayers(4);
+
+        // Assert
+        assertThat(layers.clampToWorld(-5)).isZero();
+        assertThat(layers.clampToWorld(2)).isEqualTo(2);
+        assertThat(layers.clampToWorld(9)).isEqualTo(3);
+    }
+
+    @Test
+    public void unboundedLayersDoNotGenerateChunksForVersionQueries() {
+        // Arrange
+        final PackedTileLayers layers = createUnboundedLayers();
+
+        // Act
+        final long version = layers.getChunkVersionAt(-40, 70);
+
+        // Assert
+        assertThat(version).isZero();
+        assertThat(layers.countResidentChunks()).isZero();
+    }
+
+    @Test
+    public void unboundedLayersGenerateChunkWhenCellIsWritten() {
+        // Arrange
+        final PackedTileLayers layers = createUnboundedLayers();
+
+        // Act
+        layers.setResourceAt(-1, -1, ResourceType.WATER);
+
+        // Assert
+        assertThat(layers.getResourceAt(-1, -1).getType()).isEqualTo(ResourceType.WATER);
+        assertThat(layers.countResidentChunks()).isEqualTo(1);
+        assertThat(layers.getChunkVersionAt(-Chunk.SIZE, -Chunk.SIZE)).isPositive();
+    }
+
+    @Test
+    public void unboundedLayersGenerateChunkWhenVacancyIsRead() {
+        // Arrange
+        final PackedTileLayers layers = createUnboundedLayers();
+
+        // Act
+        layers.getVacantRowBits(-1, -1);
+
+        // Assert
+        assertThat(layers.countResidentChunks()).isEqualTo(1);
+        assertThat(layers.getChunkVersionAt(-Chunk.SIZE, -Chunk.SIZE)).isPositive();
+    }
+
+    @Test
+    public void forEachCellVisitsEveryCellOfGeneratedChunks() {
+        // Arrange
+        final PackedTileLayers layers = createUnboundedLayers();
+        layers.getTileAt(-1, 0);
+        layers.getTileAt(Chunk.SIZE * 3, Chunk.SIZE);
+        final List<Position> visited = new ArrayList<>();
+
+        // Act
+        layers.forEachCell((x, y) -> visited.add(new Position(x, y)));
+
+        // Assert
+        assertThat(visited).hasSize(Chunk.CELL_COUNT * 2)
+                           .doesNotHaveDuplicates()
+                           .contains(new Position(-Chunk.SIZE, 0),
+                                     new Position(-1, Chunk.SIZE - 1),
+                                     new Position(Chunk.SIZE * 4 - 1, Chunk.SIZE * 2 - 1));
+    }
+
+    @Test
+    public void snapshotOfUnboundedLayersThrowsOutsideOfGeneratedChunks() {
+        // Arrange
+        final PackedTileLayers layers = createUnboundedLayers();
+        layers.getTileAt(0, 0);
+        final PackedTileLayers snapshot = layers.snapshot();
+
+        // Assert
+        assertThatThrownBy(() -> snapshot.getTerrainTypeAt(-Chunk.SIZE * 5, 0)).isInstanceOf(
+            IndexOutOfBoundsException.class);
+    }
+
+    private PackedTileLayers createUnboundedLayers() {
+        final Map<ResourceType, SpatialIndex<IResource>> indexes =
+            new EnumMap<>(ResourceType.class);
+        for (final ResourceType type : ResourceType.values()) {
+            indexes.put(type, new SpatialIndex<>());
+        }
+        return new PackedTileLayers(1, indexes, null);
+    }
+
+}
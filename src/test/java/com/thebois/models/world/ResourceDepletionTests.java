@@ -0,0 +1,262 @@
+package com.thebois.models.world;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.eventbus.Subscribe;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.thebois.Pawntastic;
+import com.thebois.abstractions.IPositionable;
+import com.thebois.listeners.events.ObstaclePlacedEvent;
+import com.thebois.listeners.events.ResourceHarvestedEvent;
+import com.thebois.models.Position;
+import com.thebois.models.world.resources.IResource;
+import com.thebois.models.world.resources.ResourceType;
+import com.thebois.models.world.structures.IStructure;
+import com.thebois.models.world.structures.StructureType;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ResourceDepletionTests {
+
+    private static final int WORLD_SIZE = 5;
+    private PackedTileLayers layers;
+    private Map<ResourceType, SpatialIndex<IResource>> resourceIndexes;
+    private TileChangeRecorder changeRecorder;
+    private ResourceDepletion depletion;
+
+    @BeforeEach
+    public void setup() {
+        layers = new PackedTileLayers(WORLD_SIZE);
+        final OptimisticLock lock = OptimisticLock.create(false);
+        resourceIndexes = new EnumMap<>(ResourceType.class);
+        for (final ResourceType type : ResourceType.values()) {
+            resourceIndexes.put(type, new SpatialIndex<>());
+        }
+        changeRecorder = new TileChangeRecorder(layers, lock);
+        depletion = ResourceDepletion.track(layers, resourceIndexes, changeRecorder, lock);
+        placeResource(ResourceType.TREE, 2, 2);
+    }
+
+    private void placeResource(final ResourceType type, final int x, final int y) {
+        layers.setResourceAt(x, y, type);
+        resourceIndexes.get(type).add(layers.getResourceAt(x, y));
+    }
+
+    private void harvest(final ResourceType type, final int x, final int y, final int times) {
+        for (int i = 0; i < times; i++) {
+            depletion.onResourceHarvestedEvent(new ResourceHarvestedEvent(type,
+                                                                          new Position(x, y)));
+        }
+    }
+
+    private void deplete(final ResourceType type, final int x, final int y) {
+        harvest(type, x, y, type.getHarvestCount());
+    }
+
+    private void waitForRegrowth(final ResourceType type) {
+        waitForRegrowth(type, List.of());
+    }
+
+    private void waitForRegrowth(
+        final ResourceType type, final List<? extends IPositionable> occupants) {
+        depletion.update(type.getRegrowthTime() + ResourceDepletion.TICK_TIME, occupants);
+    }
+
+    @Test
+    public void resourceIsKeptUntilLastHarvest() {
+        // Act
+        harvest(ResourceType.TREE, 2, 2, ResourceType.TREE.getHarvestCount() - 1);
+
+        // Assert
+        assertThat(layers.getResourceTypeAt(2, 2)).isEqualTo(ResourceType.TREE);
+        assertThat(depletion.countDepleted()).isZero();
+    }
+
+    @Test
+    public void depletedResourceIsRemovedFromWorld() {
+        // Act
+        deplete(ResourceType.TREE, 2, 2);
+
+        // Assert
+        assertThat(layers.getResourceTypeAt(2, 2)).isNull();
+        assertThat(layers.getCostAt(2, 2)).isLessThan(Float.MAX_VALUE);
+        assertThat(resourceIndexes.get(ResourceType.TREE).nearest(new Position(), resource -> true))
+            .isEmpty();
+        assertThat(depletion.countDepleted()).isEqualTo(1);
+    }
+
+    @Test
+    public void depletingResourceIsRecordedInJournal() {
+        // Arrange
+        final ChangeFeed feed = changeRecorder.getJournal().subscribe();
+
+        // Act
+        deplete(ResourceType.TREE, 2, 2);
+
+        // Assert
+        assertThat(feed.drain()).singleElement().satisfies(change -> {
+            assertThat(change.getLayer()).isEqualTo(TileLayer.RESOURCE);
+            assertThat(change.getOldCost()).isEqualTo(Float.MAX_VALUE);
+            assertThat(change.getNewCost()).isLessThan(Float.MAX_VALUE);
+        });
+    }
+
+    @Test
+    public void inexhaustibleResourceIsNeverDepleted() {
+        // Arrange
+        placeResource(ResourceType.WATER, 0, 0);
+
+        // Act
+        harvest(ResourceType.WATER, 0, 0, 100);
+
+        // Assert
+        assertThat(layers.getResourceTypeAt(0, 0)).isEqualTo(ResourceType.WATER);
+    }
+
+    @Test
+    public void harvestOfResourceOfOtherTypeIsIgnored() {
+        // Act
+        deplete(ResourceType.STONE, 2, 2);
+
+        // Assert
+        assertThat(layers.getResourceTypeAt(2, 2)).isEqualTo(ResourceType.TREE);
+    }
+
+    @Test
+    public void harvestOutsideWorldIsIgnored() {
+        // Act
+        deplete(ResourceType.TREE, WORLD_SIZE, 0);
+
+        // Assert
+        assertThat(depletion.countDepleted()).isZero();
+    }
+
+    @Test
+    public void resourceDoesNotGrowBackEarly() {
+        // Arrange
+        deplete(ResourceType.TREE, 2, 2);
+
+        // Act
+        depletion.update(ResourceType.TREE.getRegrowthTime() / 2, List.of());
+
+        // Assert
+        assertThat(layers.getResourceTypeAt(2, 2)).isNull();
+    }
+
+    @Test
+    public void depletedResourceGrowsBack() {
+        // Arrange
+        deplete(ResourceType.TREE, 2, 2);
+        final ObstacleListener listener = new ObstacleListener();
+        Pawntastic.getEventBus().register(listener);
+
+        // Act
+        waitForRegrowth(ResourceType.TREE);
+
+        // Assert
+        Pawntastic.getEventBus().unregister(listener);
+        assertThat(layers.getResourceTypeAt(2, 2)).isEqualTo(ResourceType.TREE);
+        assertThat(layers.getCostAt(2, 2)).isEqualTo(Float.MAX_VALUE);
+        assertThat(resourceIndexes.get(ResourceType.TREE).nearest(new Position(), resource -> true))
+            .isPresent();
+        assertThat(listener.positions).containsExactly(new Position(2, 2));
+        assertThat(depletion.countDepleted()).isZero();
+    }
+
+    @Test
+    public void regrownResourceCanBeHarvestedFully() {
+        // Arrange
+        deplete(ResourceType.TREE, 2, 2);
+        waitForRegrowth(ResourceType.TREE);
+
+        // Act
+        harvest(ResourceType.TREE, 2, 2, ResourceType.TREE.getHarvestCount() - 1);
+
+        // Assert
+        assertThat(layers.getResourceTypeAt(2, 2)).isEqualTo(ResourceType.TREE);
+    }
+
+    @Test
+    public void resourceDoesNotGrowBackUnderStructure() {
+        // Arrange
+        deplete(ResourceType.TREE, 2, 2);
+        final IStructure structure = mock(IStructure.class);
+        when(structure.getType()).thenReturn(StructureType.HOUSE);
+        layers.setStructureAt(2, 2, structure);
+
+        // Act
+        waitForRegrowth(ResourceType.TREE);
+
+        // Assert
+        assertThat(layers.getResourceTypeAt(2, 2)).isNull();
+        assertThat(depletion.countDepleted()).isEqualTo(1);
+    }
+
+    @Test
+    public void resourceDoesNotGrowBackUnderBeing() {
+        // Arrange
+        deplete(ResourceType.TREE, 2, 2);
+        final IPositionable being = mock(IPositionable.class);
+        when(being.getPosition()).thenReturn(new Position(2.5f, 2));
+
+        // Act
+        waitForRegrowth(ResourceType.TREE, List.of(being));
+
+        // Assert
+        assertThat(layers.getResourceTypeAt(2, 2)).isNull();
+        assertThat(depletion.countDepleted()).isEqualTo(1);
+    }
+
+    @Test
+    public void resourceGrowsBackOnceBeingHasMovedOn() {
+        // Arrange
+        deplete(ResourceType.TREE, 2, 2);
+        final IPositionable being = mock(IPositionable.class);
+        when(being.getPosition()).thenReturn(new Position(2, 2));
+        waitForRegrowth(ResourceType.TREE, List.of(being));
+        when(being.getPosition()).thenReturn(new Position(3, 2));
+
+        // Act
+        waitForRegrowth(ResourceType.TREE, List.of(being));
+
+        // Assert
+        assertThat(layers.getResourceTypeAt(2, 2)).isEqualTo(ResourceType.TREE);
+        assertThat(depletion.countDepleted()).isZero();
+    }
+
+    /**
+     * Collects the positions of every obstacle that is placed.
+     */
+    public static final class ObstacleListener {
+
+        private final List<Position> positions = new ArrayList<>();
+
+        @Subscribe
+        public void onObstaclePlaced(final ObstaclePlacedEvent event) {
+            positions.addAll(event.getPositions());
+        }
+
+    }
+
+    @Test
+    public void disposedDepletionNoLongerListensForHarvests() {
+        // Arrange
+        depletion.dispose();
+
+        // Act
+        for (int i = 0; i < ResourceType.TREE.getHarvestCount(); i++) {
+            Pawntastic.getEventBus()
+                      .post(new ResourceHarvestedEvent(ResourceType.TREE, new Position(2, 2)));
+        }
+
+        // Assert
+        assertThat(layers.getResourceTypeAt(2, 2)).isEqualTo(ResourceType.TREE);
+    }
+
+}
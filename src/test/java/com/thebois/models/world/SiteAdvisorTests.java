@@ -0,0 +1,240 @@
+package com.thebois.models.world;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.eventbus.EventBus;
+
+import com.thebois.Simulation;
+import com.thebois.models.Position;
+import com.thebois.models.beings.Colony;
+import com.thebois.models.beings.roles.RoleType;
+import com.thebois.models.inventory.IInventory;
+import com.thebois.models.inventory.Inventory;
+import com.thebois.models.inventory.items.ItemFactory;
+import com.thebois.models.inventory.items.ItemType;
+import com.thebois.models.world.resources.IResource;
+import com.thebois.models.world.resources.ResourceFactory;
+import com.thebois.models.world.resources.ResourceType;
+import com.thebois.models.world.structures.StructureFactory;
+import com.thebois.models.world.structures.StructureType;
+import com.thebois.testutils.MockFactory;
+import com.thebois.utils.MatrixUtils;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class SiteAdvisorTests {
+
+    private static final int WORLD_SIZE = 10;
+    private static final Position ORIGIN = new Position(0, 0);
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    public void setup() {
+        StructureFactory.setInventory(mock(IInventory.class));
+        pool = new ForkJoinPool(2);
+    }
+
+    @AfterEach
+    public void teardown() {
+        StructureFactory.setInventory(null);
+        pool.shutdown();
+    }
+
+    private SiteAdvisor createAdvisor(final World world) {
+        return createAdvisor(createSimulation(world, new Inventory()), 0f);
+    }
+
+    private SiteAdvisor createAdvisor(final Simulation simulation, final float horizon) {
+        return new SiteAdvisor(simulation, pool, horizon);
+    }
+
+    private static Simulation createSimulation(final World world, final IInventory inventory) {
+        final EventBus eventBus = new EventBus();
+        return Simulation.restore(eventBus,
+                                  world,
+                                  WORLD_SIZE,
+                                  new Colony(world, () -> eventBus),
+                                  inventory);
+    }
+
+    @Test
+    public void rankOrdersSitesByDistanceToOriginAndResources() {
+        // Arrange
+        final World world = new ResourceWorld();
+        final Position near = new Position(8, 0);
+        final Position far = new Position(1, 9);
+
+        // Act
+        final List<SiteScore> scores =
+            createAdvisor(world).rank(StructureType.HOUSE, List.of(far, near), ORIGIN);
+
+        // Assert
+        assertThat(scores).extracting(SiteScore::getPosition).containsExactly(near, far);
+        assertThat(scores.get(0).getScore()).isLessThan(scores.get(1).getScore());
+    }
+
+    @Test
+    public void rankLeavesOutSitesWhereStructureCanNotBePlaced() {
+        // Arrange
+        final World world = new ResourceWorld();
+        world.tryCreateStructure(StructureType.HOUSE, 2, 2);
+        final Position occupied = new Position(2, 2);
+        final Position onResource = new Position(9, 0);
+        final Position vacant = new Position(5, 5);
+
+        // Act
+        final List<SiteScore> scores = createAdvisor(world).rank(StructureType.HOUSE,
+                                                                 List.of(occupied,
+                                                                         onResource,
+                                                                         vacant),
+                                                                 ORIGIN);
+
+        // Assert
+        assertThat(scores).extracting(SiteScore::getPosition).containsExactly(vacant);
+    }
+
+    @Test
+    public void rankLeavesOutSitesThatCanNotBeReachedFromOrigin() {
+        // Arrange
+        final World world = new ResourceWorld();
+        for (int x = 4; x <= 6; x++) {
+            for (int y = 4; y <= 6; y++) {
+                if (x != 5 || y != 5) {
+                    world.tryCreateStructure(StructureType.HOUSE, x, y);
+                }
+            }
+        }
+        MockFactory.completeAllStructures(world);
+        final Position enclosed = new Position(5, 5);
+        final Position open = new Position(2, 2);
+
+        // Act
+        final List<SiteScore> scores =
+            createAdvisor(world).rank(StructureType.HOUSE, List.of(enclosed, open), ORIGIN);
+
+        // Assert
+        assertThat(scores).extracting(SiteScore::getPosition).containsExactly(open);
+    }
+
+    @Test
+    public void rankLeavesOutEverySiteWhenThereAreNoResources() {
+        // Arrange
+        final World world = new TestWorld(WORLD_SIZE, mock(ThreadLocalRandom.class));
+
+        // Act
+        final List<SiteScore> scores =
+            createAdvisor(world).rank(StructureType.HOUSE, List.of(new Position(5, 5)), ORIGIN);
+
+        // Assert
+        assertThat(scores).isEmpty();
+    }
+
+    @Test
+    public void rankDoesNotChangeWorld() {
+        // Arrange
+        final World world = new ResourceWorld();
+        final List<Position> candidates = new ArrayList<>();
+        for (int x = 0; x < WORLD_SIZE - 1; x++) {
+            for (int y = 1; y < WORLD_SIZE; y++) {
+                candidates.add(new Position(x, y));
+            }
+        }
+
+        // Act
+        final List<SiteScore> scores =
+            createAdvisor(world).rank(StructureType.HOUSE, candidates, ORIGIN);
+
+        // Assert
+        assertThat(scores).hasSize(candidates.size());
+        assertThat(scores).isSortedAccordingTo(SiteScore::compareTo);
+        assertThat(world.getStructures()).isEmpty();
+    }
+
+    @Test
+    public void rankScoresStockpilesWithoutInventoryBeingSet() {
+        // Arrange
+        final World world = new ResourceWorld();
+        StructureFactory.setInventory(null);
+
+        // Act
+        final List<SiteScore> scores = createAdvisor(world).rank(StructureType.STOCKPILE,
+                                                                 List.of(new Position(5, 5)),
+                                                                 ORIGIN);
+
+        // Assert
+        assertThat(scores).extracting(SiteScore::getPosition).containsExactly(new Position(5, 5));
+    }
+
+    @Test
+    public void rankScoresSiteBetterWhenColonyBuildsOnItWithinHorizon() {
+        // Arrange
+        final World world = new ResourceWorld();
+        final IInventory inventory = new Inventory();
+        for (int i = 0; i < 4; i++) {
+            inventory.tryAdd(ItemFactory.fromType(ItemType.LOG));
+            inventory.tryAdd(ItemFactory.fromType(ItemType.ROCK));
+        }
+        final Simulation simulation = createSimulation(world, inventory);
+        simulation.run(() -> {
+            world.tryCreateStructure(StructureType.TOWN_HALL, 1, 1);
+            simulation.getColony().update(0f);
+            simulation.getColony().tryIncreaseAllocation(RoleType.BUILDER, 5);
+        });
+        final List<Position> site = List.of(new Position(3, 3));
+
+        // Act
+        final float withoutHorizon =
+            createAdvisor(simulation, 0f).rank(StructureType.HOUSE, site, ORIGIN).get(0).getScore();
+        final float withHorizon = createAdvisor(simulation, 10f).rank(StructureType.HOUSE,
+                                                                       site,
+                                                                       ORIGIN).get(0).getScore();
+
+        // Assert
+        assertThat(withHorizon).isLessThan(withoutHorizon);
+        assertThat(world.getStructures()).hasSize(1);
+        assertThat(inventory.numberOf(ItemType.LOG)).isEqualTo(4);
+    }
+
+    @Test
+    public void rankThrowsForTownHall() {
+        // Arrange
+        final SiteAdvisor advisor = createAdvisor(new ResourceWorld());
+
+        // Assert
+        assertThatThrownBy(() -> advisor.rank(StructureType.TOWN_HALL,
+                                              List.of(new Position(5, 5)),
+                                              ORIGIN)).isInstanceOf(
+            IllegalArgumentException.class);
+    }
+
+    /**
+     * A world of grass with a tree and a stone in the corner at the right of the origin.
+     */
+    private static class ResourceWorld extends TestWorld {
+
+        ResourceWorld() {
+            super(WORLD_SIZE, mock(ThreadLocalRandom.class));
+        }
+
+        @Override
+        protected IResource[][] setUpResources(final int worldSize, final int seed) {
+            final IResource[][] resourceMatrix = new IResource[worldSize][worldSize];
+            MatrixUtils.populateElements(resourceMatrix, (x, y) -> null);
+            resourceMatrix[0][worldSize - 1] =
+                ResourceFactory.createResource(ResourceType.TREE, worldSize - 1, 0);
+            resourceMatrix[1][worldSize - 1] =
+                ResourceFactory.createResource(ResourceType.STONE, worldSize - 1, 1);
+            return resourceMatrix;
+        }
+
+    }
+
+}
@@ -0,0 +1,220 @@
+package com.thebois.models.world;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.thebois.models.Position;
+import com.thebois.testutils.MockFactory;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class SpatialIndexTests {
+
+    public static Stream<Arguments> getOriginsAndClosestTile() {
+        return Stream.of(Arguments.of(new Position(0, 0), new Position(1, 1)),
+                         Arguments.of(new Position(40, 40), new Position(30, 35)),
+                         Arguments.of(new Position(17, 3), new Position(20, 2)),
+                         Arguments.of(new Position(-50, -50), new Position(1, 1)),
+                         Arguments.of(new Position(1000, 0), new Position(30, 35)));
+    }
+
+    private static SpatialIndex<ITile> createIndex(final Position... positions) {
+        final SpatialIndex<ITile> index = new SpatialIndex<>(4);
+        for (final Position position : positions) {
+            index.add(MockFactory.createTile((int) position.getX(), (int) position.getY()));
+        }
+        return index;
+    }
+
+    @Test
+    public void constructorThrowsWhenBucketSizeIsNotPositive() {
+        // Assert
+        assertThatThrownBy(() -> new SpatialIndex<ITile>(0)).isInstanceOf(
+            IllegalArgumentException.class);
+    }
+
+    @Test
+    public void nearestReturnsEmptyWhenIndexIsEmpty() {
+        // Arrange
+        final SpatialIndex<ITile> index = new SpatialIndex<>();
+
+        // Act
+        final Optional<ITile> nearest = index.nearest(new Position(), tile -> true);
+
+        // Assert
+        assertThat(nearest).isEmpty();
+    }
+
+    @ParameterizedTest
+    @MethodSource("getOriginsAndClosestTile")
+    public void nearestReturnsClosestElement(final Position origin, final Position expected) {
+        // Arrange
+        final SpatialIndex<ITile> index =
+            createIndex(new Position(1, 1), new Position(30, 35), new Position(20, 2));
+
+        // Act
+        final Optional<ITile> nearest = index.nearest(origin, tile -> true);
+
+        // Assert
+        assertThat(nearest.orElseThrow().getPosition()).isEqualTo(expected);
+    }
+
+    @Test
+    public void nearestSkipsElementsRejectedByFilter() {
+        // Arrange
+        final SpatialIndex<ITile> index = createIndex(new Position(1, 1), new Position(30, 35));
+        final Position rejected = new Position(1, 1);
+
+        // Act
+        final Optional<ITile> nearest =
+            index.nearest(new Position(), tile -> !tile.getPosition().equals(rejected));
+
+        // Assert
+        assertThat(nearest.orElseThrow().getPosition()).isEqualTo(new Position(30, 35));
+    }
+
+    @Test
+    public void nearestWithCountReturnsClosestElementsInOrder() {
+        // Arrange
+        final SpatialIndex<ITile> index = createIndex(new Position(9, 9),
+                                                      new Position(1, 0),
+                                                      new Position(5, 5),
+                                                      new Position(0, 3));
+
+        // Act
+        final List<ITile> nearest = index.nearest(new Position(), 3, tile -> true);
+
+        // Assert
+        assertThat(nearest).extracting(ITile::getPosition)
+                           .containsExactly(new Position(1, 0),
+                                            new Position(0, 3),
+                                            new Position(5, 5));
+    }
+
+    @Test
+    public void nearestWithCountReturnsAllWhenThereAreFewerThanCount() {
+        // Arrange
+        final SpatialIndex<ITile> index = createIndex(new Position(9, 9), new Position(1, 0));
+
+        // Act
+        final List<ITile> nearest = index.nearest(new Position(), 10, tile -> true);
+
+        // Assert
+        assertThat(nearest).hasSize(2);
+    }
+
+    @Test
+    public void nearestWithCountMatchesLinearSearch() {
+        // Arrange
+        final Random random = new Random(1);
+        final List<ITile> tiles = new ArrayList<>();
+        final SpatialIndex<ITile> index = new SpatialIndex<>(8);
+        for (int i = 0; i < 300; i++) {
+            final ITile tile = MockFactory.createTile(random.nextInt(200), random.nextInt(200));
+            tiles.add(tile);
+            index.add(tile);
+        }
+        final Position origin = new Position(57, 121);
+        final List<Float> expectedDistances = tiles.stream()
+                                                   .map(tile -> origin.distanceTo(tile.getPosition()))
+                                                   .sorted(Comparator.naturalOrder())
+                                                   .limit(10)
+                                                   .collect(Collectors.toList());
+
+        // Act
+        final List<ITile> nearest = index.nearest(origin, 10, tile -> true);
+
+        // Assert
+        assertThat(nearest).extracting(tile -> origin.distanceTo(tile.getPosition()))
+                           .containsExactlyElementsOf(expectedDistances);
+    }
+
+    @Test
+    public void removeMakesElementUnfindable() {
+        // Arrange
+        final ITile tile = MockFactory.createTile(3, 3);
+        final SpatialIndex<ITile> index = new SpatialIndex<>();
+        index.add(tile);
+
+        // Act
+        final boolean removed = index.remove(tile);
+
+        // Assert
+        assertThat(removed).isTrue();
+        assertThat(index.size()).isZero();
+        assertThat(index.nearest(new Position(), element -> true)).isEmpty();
+    }
+
+    @Test
+    public void removeReturnsFalseWhenElementIsNotInIndex() {
+        // Arrange
+        final SpatialIndex<ITile> index = createIndex(new Position(3, 3));
+
+        // Act
+        final boolean removed = index.remove(MockFactory.createTile(3, 3));
+
+        // Assert
+        assertThat(removed).isFalse();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void withinRadiusReturnsOnlyElementsInsideRadius() {
+        // Arrange
+        final SpatialIndex<ITile> index = createIndex(new Position(10, 10),
+                                                      new Position(13, 14),
+                                                      new Position(14, 14),
+                                                      new Position(40, 40));
+
+        // Act
+        final List<Position> found = index.withinRadius(new Position(10, 10), 5f)
+                                          .stream()
+                                          .map(ITile::getPosition)
+                                          .collect(Collectors.toList());
+
+        // Assert
+        assertThat(found).containsExactlyInAnyOrder(new Position(10, 10), new Position(13, 14));
+    }
+
+    @Test
+    public void withinRadiusReturnsNothingWhenIndexIsEmpty() {
+        // Arrange
+        final SpatialIndex<ITile> index = new SpatialIndex<>();
+
+        // Act
+        final int found = index.withinRadius(new Position(), 100f).size();
+
+        // Assert
+        assertThat(found).isZero();
+    }
+
+    @Test
+    public void forkAndIndexDoNotSeeChangesMadeToEachOther() {
+        // Arrange
+        final SpatialIndex<ITile> index = createIndex(new Position(1, 1), new Position(30, 35));
+        final SpatialIndex<ITile> fork = index.fork();
+        final ITile removed = index.nearest(new Position(), tile -> true).orElseThrow();
+
+        // Act
+        index.remove(removed);
+        fork.add(MockFactory.createTile(2, 2));
+
+        // Assert
+        assertThat(index.nearest(new Position(), tile -> true)).map(ITile::getPosition)
+                                                                .hasValue(new Position(30, 35));
+        assertThat(fork.nearest(new Position(), tile -> true)).hasValue(removed);
+        assertThat(fork.nearest(new Position(3, 3), tile -> true)).map(ITile::getPosition)
+                                                                  .hasValue(new Position(2, 2));
+    }
+
+}
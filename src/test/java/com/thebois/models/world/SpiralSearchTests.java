@@ -0,0 +1,76 @@
+package com.thebois.models.world;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.thebois.models.Position;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class SpiralSearchTests {
+
+    @Test
+    public void findClosestReturnsCellsInIncreasingDistance() {
+        // Arrange
+        final Position origin = new Position(10, 10);
+
+        // Act
+        final List<Position> found = SpiralSearch.findClosest(origin, 4f, 100, (x, y) -> true);
+
+        // Assert
+        assertThat(found).hasSize(45)
+                         .isSortedAccordingTo((first, second) -> Float.compare(
+                             origin.distanceTo(first),
+                             origin.distanceTo(second)));
+        assertThat(found.get(0)).isEqualTo(origin);
+    }
+
+    @Test
+    public void findClosestReturnsNoCellsOutsideOfRadius() {
+        // Arrange
+        final Position origin = new Position(3, 3);
+        final float radius = 2.5f;
+
+        // Act
+        final List<Position> found = SpiralSearch.findClosest(origin, radius, 100, (x, y) -> true);
+
+        // Assert
+        assertThat(found).isNotEmpty().allMatch(position -> origin.distanceTo(position) < radius);
+    }
+
+    @Test
+    public void findClosestOnlyReturnsCellsPassingFilter() {
+        // Arrange
+        final Position origin = new Position(0, 0);
+
+        // Act
+        final List<Position> found = SpiralSearch.findClosest(origin, 3f, 100, (x, y) -> x > 1);
+
+        // Assert
+        assertThat(found).containsExactlyInAnyOrder(new Position(2, 0),
+                                                    new Position(2, 1),
+                                                    new Position(2, -1),
+                                                    new Position(2, 2),
+                                                    new Position(2, -2));
+    }
+
+    @Test
+    public void findClosestStopsLookingWhenMaxCountIsFound() {
+        // Arrange
+        final Position origin = new Position(0, 0);
+        final List<Position> visited = new ArrayList<>();
+
+        // Act
+        final List<Position> found = SpiralSearch.findClosest(origin, 1000f, 4, (x, y) -> {
+            visited.add(new Position(x, y));
+            return true;
+        });
+
+        // Assert
+        assertThat(found).hasSize(4);
+        assertThat(visited).hasSizeLessThanOrEqualTo(5 * 5);
+    }
+
+}
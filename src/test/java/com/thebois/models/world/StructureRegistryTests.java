@@ -0,0 +1,204 @@
+package com.thebois.models.world;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.thebois.listeners.events.StructureCompletedEvent;
+import com.thebois.models.Position;
+import com.thebois.models.inventory.IInventory;
+import com.thebois.models.inventory.items.ItemFactory;
+import com.thebois.models.world.structures.IStructure;
+import com.thebois.models.world.structures.StructureFactory;
+import com.thebois.models.world.structures.StructureType;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class StructureRegistryTests {
+
+    private static final int WORLD_SIZE = 5;
+    private PackedTileLayers layers;
+    private OptimisticLock lock;
+    private TileChangeRecorder changeRecorder;
+    private StructureRegistry registry;
+
+    @BeforeEach
+    public void setup() {
+        StructureFactory.setInventory(mock(IInventory.class));
+        layers = new PackedTileLayers(WORLD_SIZE);
+        lock = OptimisticLock.create(false);
+        changeRecorder = new TileChangeRecorder(layers, lock);
+        registry = new StructureRegistry(layers,
+                                         new VacancySampler(layers, new Random(1)),
+                                         changeRecorder,
+                                         lock);
+    }
+
+    @AfterEach
+    public void teardown() {
+        StructureFactory.setInventory(null);
+    }
+
+    private static void complete(final IStructure structure) {
+        structure.getNeededItems()
+                 .forEach(itemType -> structure.tryDeliverItem(ItemFactory.fromType(itemType)));
+    }
+
+    @Test
+    public void placedStructuresAreInTheLayers() {
+        // Act
+        final boolean placed = registry.place(StructureType.HOUSE,
+                                              List.of(new Position(1, 1), new Position(2, 1)));
+
+        // Assert
+        assertThat(placed).isTrue();
+        assertThat(registry.getStructures()).hasSize(2);
+        assertThat(layers.hasStructureAt(1, 1)).isTrue();
+        assertThat(layers.hasStructureAt(2, 1)).isTrue();
+    }
+
+    @Test
+    public void structuresCanNotBePlacedTwiceOnTheSameCell() {
+        // Arrange
+        final Position position = new Position(1, 1);
+
+        // Act
+        final boolean placed = registry.place(StructureType.HOUSE, List.of(position, position));
+
+        // Assert
+        assertThat(placed).isFalse();
+        assertThat(registry.getStructures()).isEmpty();
+    }
+
+    @Test
+    public void structuresCanNotBePlacedOutsideOrWithoutPositions() {
+        // Assert
+        assertThat(registry.canPlace(StructureType.HOUSE, List.of())).isFalse();
+        assertThat(registry.canPlace(StructureType.HOUSE, List.of(new Position(5, 0)))).isFalse();
+    }
+
+    @Test
+    public void onlyOneTownHallCanBePlaced() {
+        // Arrange
+        registry.place(StructureType.TOWN_HALL, List.of(new Position(0, 0)));
+
+        // Assert
+        assertThat(registry.isTownHallPlaced()).isTrue();
+        assertThat(registry.canPlace(StructureType.TOWN_HALL, List.of(new Position(3, 3))))
+            .isFalse();
+    }
+
+    @Test
+    public void townHallCanNotBePlacedInBatch() {
+        // Assert
+        assertThat(registry.canPlace(StructureType.TOWN_HALL,
+                                     List.of(new Position(0, 0), new Position(3, 3)))).isFalse();
+    }
+
+    @Test
+    public void completionIsRecordedOnce() {
+        // Arrange
+        registry.place(StructureType.HOUSE, List.of(new Position(1, 1)));
+        final IStructure house = registry.getStructures().iterator().next();
+        final ChangeFeed feed = changeRecorder.getJournal().subscribe();
+        complete(house);
+        final StructureCompletedEvent event =
+            new StructureCompletedEvent(StructureType.HOUSE, new Position(1, 1));
+
+        // Act
+        registry.onStructureCompletedEvent(event);
+        registry.onStructureCompletedEvent(event);
+
+        // Assert
+        assertThat(feed.drain()).singleElement().satisfies(change -> {
+            assertThat(change.getLayer()).isEqualTo(TileLayer.STRUCTURE);
+            assertThat(change.getNewCost()).isEqualTo(Float.MAX_VALUE);
+        });
+        assertThat(layers.getCostAt(1, 1)).isEqualTo(Float.MAX_VALUE);
+    }
+
+    @Test
+    public void completionOfStructureElsewhereIsIgnored() {
+        // Arrange
+        registry.place(StructureType.HOUSE, List.of(new Position(1, 1)));
+        final ChangeFeed feed = changeRecorder.getJournal().subscribe();
+
+        // Act
+        registry.onStructureCompletedEvent(new StructureCompletedEvent(StructureType.HOUSE,
+                                                                       new Position(3, 3)));
+
+        // Assert
+        assertThat(feed.drain()).isEmpty();
+    }
+
+    @Test
+    public void incompleteSearchForgetsCompletedBlueprints() {
+        // Arrange
+        registry.place(StructureType.HOUSE, List.of(new Position(1, 1), new Position(4, 4)));
+        final IStructure near = registry.getStructures().iterator().next();
+        complete(near);
+
+        // Act
+        final IStructure found = registry.findNearbyIncomplete(new Position(0, 0)).orElseThrow();
+
+        // Assert
+        assertThat(found.getPosition()).isEqualTo(new Position(4, 4));
+        assertThat(registry.findNearbyBlueprint(new Position(0, 0))).contains(found);
+    }
+
+    @Test
+    public void townHallCountsAsStockpileWhenItIsCloser() {
+        // Arrange
+        registry.place(StructureType.TOWN_HALL, List.of(new Position(0, 0)));
+        registry.place(StructureType.STOCKPILE, List.of(new Position(4, 4)));
+        registry.getStructures().forEach(StructureRegistryTests::complete);
+
+        // Act
+        final IStructure nearest =
+            registry.findNearbyCompleted(new Position(1, 1), StructureType.STOCKPILE)
+                    .orElseThrow();
+
+        // Assert
+        assertThat(nearest.getType()).isEqualTo(StructureType.TOWN_HALL);
+    }
+
+    @Test
+    public void forkHasClonesOfTheStructures() {
+        // Arrange
+        registry.place(StructureType.HOUSE, List.of(new Position(1, 1)));
+        final PackedTileLayers forkLayers = layers.fork();
+        final OptimisticLock forkLock = OptimisticLock.create(false);
+
+        // Act
+        final StructureRegistry fork =
+            registry.fork(forkLayers,
+                          new VacancySampler(forkLayers, new Random(1)),
+                          changeRecorder.fork(forkLayers, forkLock),
+                          forkLock);
+
+        // Assert
+        assertThat(fork.getStructures()).singleElement()
+                                        .isNotSameAs(registry.getStructures().iterator().next());
+        assertThat(forkLayers.getTileAt(1, 1))
+            .isSameAs(fork.getStructures().iterator().next());
+    }
+
+    @Test
+    public void disposedRegistryNoLongerListensForCompletions() {
+        // Arrange
+        registry.place(StructureType.HOUSE, List.of(new Position(1, 1)));
+        final IStructure house = registry.getStructures().iterator().next();
+        registry.dispose();
+
+        // Act
+        complete(house);
+
+        // Assert
+        assertThat(layers.getCostAt(1, 1)).isNotEqualTo(Float.MAX_VALUE);
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.thebois.models.world;
+
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.thebois.models.Position;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class TileChangeTests {
+
+    public static Stream<Arguments> getChangesThatDifferInOneField() {
+        final TileChange change = new TileChange(1, 2, TileLayer.RESOURCE, 1f, 2f);
+        return Stream.of(
+            Arguments.of(change, new TileChange(0, 2, TileLayer.RESOURCE, 1f, 2f)),
+            Arguments.of(change, new TileChange(1, 0, TileLayer.RESOURCE, 1f, 2f)),
+            Arguments.of(change, new TileChange(1, 2, TileLayer.TERRAIN, 1f, 2f)),
+            Arguments.of(change, new TileChange(1, 2, TileLayer.RESOURCE, 0f, 2f)),
+            Arguments.of(change, new TileChange(1, 2, TileLayer.RESOURCE, 1f, 0f)));
+    }
+
+    @Test
+    public void getPositionIsWhereTheTileChanged() {
+        // Arrange
+        final TileChange change = new TileChange(1, 2, TileLayer.RESOURCE, 1f, 2f);
+
+        // Act
+        final Position position = change.getPosition();
+
+        // Assert
+        assertThat(position).isEqualTo(new Position(1, 2));
+    }
+
+    @Test
+    public void changeEqualsToItSelfIsTrue() {
+        // Arrange
+        final TileChange change = new TileChange(1, 2, TileLayer.RESOURCE, 1f, 2f);
+
+        // Act
+        final boolean isEqual = change.equals(change);
+
+        // Assert
+        assertThat(isEqual).isTrue();
+    }
+
+    @Test
+    public void changeEqualNullIsFalse() {
+        // Arrange
+        final TileChange change = new TileChange(1, 2, TileLayer.RESOURCE, 1f, 2f);
+
+        // Act
+        final boolean isEqual = change.equals(null);
+
+        // Assert
+        assertThat(isEqual).isFalse();
+    }
+
+    @Test
+    public void changeEqualOtherObjectIsFalse() {
+        // Arrange
+        final TileChange change = new TileChange(1, 2, TileLayer.RESOURCE, 1f, 2f);
+
+        // Act
+        final boolean isEqual = change.equals(new Position(1, 2));
+
+        // Assert
+        assertThat(isEqual).isFalse();
+    }
+
+    @Test
+    public void changesWithSameFieldsAreEqualAndHaveSameHashCode() {
+        // Arrange
+        final TileChange change1 = new TileChange(1, 2, TileLayer.RESOURCE, 1f, 2f);
+        final TileChange change2 = new TileChange(1, 2, TileLayer.RESOURCE, 1f, 2f);
+
+        // Assert
+        assertThat(change1).isEqualTo(change2);
+        assertThat(change1.hashCode()).isEqualTo(change2.hashCode());
+    }
+
+    @ParameterizedTest
+    @MethodSource("getChangesThatDifferInOneField")
+    public void changesThatDifferInAnyFieldAreNotEqual(
+        final TileChange change1, final TileChange change2) {
+        // Act
+        final boolean isEqual = change1.equals(change2);
+
+        // Assert
+        assertThat(isEqual).isFalse();
+    }
+
+    @Test
+    public void toStringHasLayerPositionAndCosts() {
+        // Arrange
+        final TileChange change = new TileChange(1, 2, TileLayer.RESOURCE, 1f, 2f);
+
+        // Act
+        final String description = change.toString();
+
+        // Assert
+        assertThat(description).contains("RESOURCE", "(1, 2)", "1.0 -> 2.0");
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.thebois.models.world;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.thebois.models.Position;
+import com.thebois.models.world.resources.ResourceType;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class VacancySamplerTests {
+
+    @Test
+    public void isVacantIsFalseOnlyForOccupiedCells() {
+        // Arrange
+        final PackedTileLayers layers = new PackedTileLayers(4);
+        layers.setResourceAt(3, 2, ResourceType.TREE);
+        final VacancySampler sampler = new VacancySampler(layers, new Random(0));
+
+        // Assert
+        assertThat(sampler.isVacant(3, 2)).isFalse();
+        assertThat(sampler.isVacant(2, 3)).isTrue();
+    }
+
+    @Test
+    public void countVacantCountsCellsAcrossChunkBorders() {
+        // Arrange
+        final PackedTileLayers layers = new PackedTileLayers(Chunk.SIZE * 2);
+        layers.setResourceAt(Chunk.SIZE - 1, 3, ResourceType.STONE);
+        layers.setResourceAt(Chunk.SIZE, 3, ResourceType.STONE);
+        final VacancySampler sampler = new VacancySampler(layers, new Random(0));
+
+        // Act
+        final int count = sampler.countVacant(Chunk.SIZE - 5, 2, Chunk.SIZE + 4, 4);
+
+        // Assert
+        assertThat(count).isEqualTo(10 * 3 - 2);
+    }
+
+    @Test
+    public void sampleReturnsEmptyWhenRectangleHasNoVacantCells() {
+        // Arrange
+        final PackedTileLayers layers = new PackedTileLayers(4);
+        layers.setResourceAt(1, 1, ResourceType.WATER);
+        layers.setResourceAt(2, 1, ResourceType.WATER);
+        final VacancySampler sampler = new VacancySampler(layers, new Random(0));
+
+        // Act
+        final Optional<Position> sample = sampler.sample(1, 1, 2, 1);
+
+        // Assert
+        assertThat(sample).isEmpty();
+    }
+
+    @Test
+    public void sampleEventuallyReturnsEveryVacantCellAndNothingElse() {
+        // Arrange
+        final PackedTileLayers layers = new PackedTileLayers(Chunk.SIZE * 2);
+        layers.setResourceAt(Chunk.SIZE, Chunk.SIZE, ResourceType.TREE);
+        final VacancySampler sampler = new VacancySampler(layers, new Random(1));
+        final Set<Position> sampled = new HashSet<>();
+
+        // Act
+        for (int i = 0; i < 1000; i++) {
+            sampled.add(sampler.sample(Chunk.SIZE - 1, Chunk.SIZE - 1, Chunk.SIZE, Chunk.SIZE)
+                               .orElseThrow());
+        }
+
+        // Assert
+        assertThat(sampled).containsExactlyInAnyOrder(new Position(Chunk.SIZE - 1, Chunk.SIZE - 1),
+                                                      new Position(Chunk.SIZE, Chunk.SIZE - 1),
+                                                      new Position(Chunk.SIZE - 1, Chunk.SIZE));
+    }
+
+}
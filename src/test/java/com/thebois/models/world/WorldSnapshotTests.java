@@ -0,0 +1,148 @@
+package com.thebois.models.world;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Test;
+
+import com.thebois.models.Position;
+import com.thebois.models.world.structures.IStructure;
+import com.thebois.models.world.resources.ResourceType;
+import com.thebois.models.world.structures.StructureType;
+import com.thebois.models.world.terrains.TerrainType;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class WorldSnapshotTests {
+
+    private World createWorld() {
+        return new World(Chunk.SIZE * 2, 0, mock(ThreadLocalRandom.class));
+    }
+
+    @Test
+    public void snapshotDoesNotSeeStructuresPlacedAfterIt() {
+        // Arrange
+        final World world = createWorld();
+        final Position position = world.findEmptyPositions(1).iterator().next();
+        final ITile tileBefore = world.getTileAt(position);
+        final WorldSnapshot snapshot = world.createSnapshot();
+
+        // Act
+        world.tryCreateStructure(StructureType.HOUSE, position);
+
+        // Assert
+        assertThat(snapshot.getTileAt(position)).isEqualTo(tileBefore);
+        assertThat(snapshot.getStructures()).isEmpty();
+        assertThat(world.getTileAt(position)).isInstanceOf(IStructure.class);
+    }
+
+    @Test
+    public void snapshotHasStructuresPlacedBeforeIt() {
+        // Arrange
+        final World world = createWorld();
+        final Position position = world.findEmptyPositions(1).iterator().next();
+        world.tryCreateStructure(StructureType.HOUSE, position);
+
+        // Act
+        final WorldSnapshot snapshot = world.createSnapshot();
+
+        // Assert
+        assertThat(snapshot.getStructures()).containsExactlyElementsOf(world.getStructures());
+        assertThat(snapshot.getTileAt(position)).isSameAs(world.getTileAt(position));
+    }
+
+    @Test
+    public void snapshotHasSameTilesAsWorld() {
+        // Arrange
+        final World world = createWorld();
+
+        // Act
+        final WorldSnapshot snapshot = world.createSnapshot();
+
+        // Assert
+        assertThat(snapshot.getTerrainTiles()).containsExactlyElementsOf(world.getTerrainTiles());
+        assertThat(snapshot.getResources()).containsExactlyElementsOf(world.getResources());
+        assertThat(snapshot.getVersion()).isEqualTo(world.getChunkVersions().getVersion());
+    }
+
+    @Test
+    public void snapshotKeepsVersionOfWorldWhenItWasTaken() {
+        // Arrange
+        final World world = createWorld();
+        final WorldSnapshot snapshot = world.createSnapshot();
+        final long version = snapshot.getVersion();
+
+        // Act
+        world.tryCreateStructure(StructureType.HOUSE, world.findEmptyPositions(1).iterator().next());
+
+        // Assert
+        assertThat(snapshot.getVersion()).isEqualTo(version);
+        assertThat(world.getChunkVersions().getVersion()).isGreaterThan(version);
+    }
+
+    @Test
+    public void snapshotKeepsChunkVersionsOfWorldWhenItWasTaken() {
+        // Arrange
+        final World world = createWorld();
+        final Position position = world.findEmptyPositions(1).iterator().next();
+        final int x = (int) position.getX();
+        final int y = (int) position.getY();
+        final IChunkVersions versions = world.createSnapshot().getChunkVersions();
+        final long chunkVersion = versions.getChunkVersionAt(x, y);
+
+        // Act
+        world.tryCreateStructure(StructureType.HOUSE, position);
+
+        // Assert
+        assertThat(versions.getChunkSize()).isEqualTo(Chunk.SIZE);
+        assertThat(versions.getChunkVersionAt(x, y)).isEqualTo(chunkVersion);
+        assertThat(world.getChunkVersions().getChunkVersionAt(x, y)).isGreaterThan(chunkVersion);
+    }
+
+    @Test
+    public void layerViewsHaveEveryCellOfSnapshot() {
+        // Arrange
+        final World world = createWorld();
+
+        // Act
+        final WorldSnapshot snapshot = world.createSnapshot();
+
+        // Assert
+        final ILayerView<TerrainType> terrainLayer = snapshot.getTerrainLayer();
+        final ILayerView<ResourceType> resourceLayer = snapshot.getResourceLayer();
+        assertThat(terrainLayer.size()).isEqualTo(Chunk.CELL_COUNT * 4);
+        assertThat(resourceLayer.size()).isEqualTo(Chunk.CELL_COUNT * 4);
+        int resourceCount = 0;
+        for (int i = 0; i < resourceLayer.size(); i++) {
+            if (resourceLayer.getType(i) != null) {
+                resourceCount++;
+            }
+        }
+        assertThat(resourceCount).isEqualTo(snapshot.getResources().size());
+    }
+
+    @Test
+    public void getTileAtThrowsOutsideOfSnapshot() {
+        // Arrange
+        final WorldSnapshot snapshot = createWorld().createSnapshot();
+
+        // Assert
+        assertThatThrownBy(() -> snapshot.getTileAt(-1, 0)).isInstanceOf(
+            IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    public void snapshotOfUnboundedWorldOnlyHasGeneratedChunks() {
+        // Arrange
+        final World world = World.createUnbounded(4, 0, mock(ThreadLocalRandom.class), null);
+        world.getTileAt(0, 0);
+
+        // Act
+        final WorldSnapshot snapshot = world.createSnapshot();
+
+        // Assert
+        assertThat(snapshot.isInside(1, 1)).isTrue();
+        assertThat(snapshot.isInside(-Chunk.SIZE * 5, 0)).isFalse();
+    }
+
+}
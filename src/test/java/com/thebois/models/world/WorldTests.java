@@ -1,10 +1,16 @@
 package com.thebois.models.world;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Stream;
 
 import org.assertj.core.api.ThrowableAssert;
@@ -12,15 +18,21 @@ import org.assertj.core.util.Lists;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import com.google.common.eventbus.Subscribe;
+
+import com.thebois.Pawntastic;
 import com.thebois.abstractions.IResourceFinder;
 import com.thebois.abstractions.IStructureFinder;
+import com.thebois.listeners.events.ObstaclePlacedEvent;
 import com.thebois.models.Position;
 import com.thebois.models.beings.roles.RoleFactory;
 import com.thebois.models.inventory.IInventory;
+import com.thebois.models.inventory.Inventory;
 import com.thebois.models.inventory.items.ItemFactory;
 import com.thebois.models.inventory.items.ItemType;
 import com.thebois.models.world.resources.IResource;
@@ -258,7 +270,7 @@ public class WorldTests {
 
     @ParameterizedTest
     @MethodSource("getSearchPerimeterWithCorrectCoordinateRanges")
-    public void getRandomVacantSpotCallsRandomWithCorrectRange(
+    public void getRandomVacantSpotReturnsTileInsideCorrectRange(
         final Position origin,
         final int radius,
         final int minX,
@@ -266,59 +278,109 @@ public class WorldTests {
         final int minY,
         final int maxY) {
         // Arrange
-        final ThreadLocalRandom mockRandom = mock(ThreadLocalRandom.class);
-        final IWorld world = createTestWorld(20, mockRandom);
+        final IWorld world = createTestWorld(20, ThreadLocalRandom.current());
 
-        // Act
-        world.getRandomVacantSpotInRadiusOf(origin, radius);
+        for (int i = 0; i < 100; i++) {
+            // Act
+            final Position spot =
+                world.getRandomVacantSpotInRadiusOf(origin, radius).orElseThrow().getPosition();
 
-        // Assert
-        // nextInt is [min, max), hence the +1
-        verify(mockRandom, atLeastOnce()).nextInt(minX, maxX + 1);
-        verify(mockRandom, atLeastOnce()).nextInt(minY, maxY + 1);
+            // Assert
+            assertThat(spot.getX()).isBetween((float) minX, (float) maxX);
+            assertThat(spot.getY()).isBetween((float) minY, (float) maxY);
+        }
     }
 
     @Test
     public void getRandomVacantSpotReturnsRandomTileInRadiusWhenThereAreNoObstacles() {
         // Arrange
         final ThreadLocalRandom mockRandom = mock(ThreadLocalRandom.class);
-        final int randomCoordinate = 1;
-        when(mockRandom.nextInt(anyInt(), anyInt())).thenReturn(randomCoordinate);
+        // The fifth tile in row-major order, counting from zero.
+        when(mockRandom.nextInt(anyInt())).thenReturn(4);
         final IWorld world = createTestWorld(3, mockRandom);
-        final Position expectedSpot = new Position(randomCoordinate, randomCoordinate);
+        final Position expectedSpot = new Position(1, 1);
 
         // Act
         final Position vacantSpot =
-            world.getRandomVacantSpotInRadiusOf(new Position(), 10).getPosition();
+            world.getRandomVacantSpotInRadiusOf(new Position(), 10).orElseThrow().getPosition();
 
         // Assert
         assertThat(vacantSpot).isEqualTo(expectedSpot);
+        verify(mockRandom).nextInt(9);
     }
 
     @Test
     public void getRandomVacantSpotReturnsRandomTileInRadiusWhenThereObstacles() {
         // Arrange
         final ThreadLocalRandom mockRandom = mock(ThreadLocalRandom.class);
-        final Position firstBlockedRandomSpot = new Position(0, 1);
-        final Position secondBlockedRandomSpot = new Position(1, 1);
-        final Position thirdEmptyRandomSpot = new Position(2, 0);
-        when(mockRandom.nextInt(anyInt(), anyInt())).thenReturn((int) firstBlockedRandomSpot.getX(),
-                                                                (int) firstBlockedRandomSpot.getY(),
-                                                                (int) secondBlockedRandomSpot.getX(),
-                                                                (int) secondBlockedRandomSpot.getY(),
-                                                                (int) thirdEmptyRandomSpot.getX(),
-                                                                (int) thirdEmptyRandomSpot.getY());
+        final Position firstBlockedSpot = new Position(0, 1);
+        final Position secondBlockedSpot = new Position(1, 1);
+        final Position thirdEmptySpot = new Position(2, 1);
+        // The fourth vacant tile in row-major order, counting from zero.
+        when(mockRandom.nextInt(anyInt())).thenReturn(3);
         final World world = createTestWorld(3, mockRandom);
-        world.tryCreateStructure(StructureType.HOUSE, firstBlockedRandomSpot);
-        world.tryCreateStructure(StructureType.HOUSE, secondBlockedRandomSpot);
+        world.tryCreateStructure(StructureType.HOUSE, firstBlockedSpot);
+        world.tryCreateStructure(StructureType.HOUSE, secondBlockedSpot);
         MockFactory.completeAllStructures(world);
 
         // Act
         final Position vacantSpot =
-            world.getRandomVacantSpotInRadiusOf(new Position(), 10).getPosition();
+            world.getRandomVacantSpotInRadiusOf(new Position(), 10).orElseThrow().getPosition();
+
+        // Assert
+        assertThat(vacantSpot).isEqualTo(thirdEmptySpot);
+        verify(mockRandom).nextInt(7);
+    }
+
+    @Test
+    public void getRandomVacantSpotNeverReturnsOccupiedTile() {
+        // Arrange
+        final World world = createTestWorld(4, ThreadLocalRandom.current());
+        for (int x = 0; x < 4; x++) {
+            world.tryCreateStructure(StructureType.HOUSE, x, 2);
+        }
+
+        for (int i = 0; i < 100; i++) {
+            // Act
+            final Position spot = world.getRandomVacantSpotInRadiusOf(new Position(1, 1), 4)
+                                       .orElseThrow()
+                                       .getPosition();
+
+            // Assert
+            assertThat(spot.getY()).isNotEqualTo(2f);
+        }
+    }
+
+    @Test
+    public void getRandomVacantSpotReturnsEmptyWhenEveryTileInRadiusIsOccupied() {
+        // Arrange
+        final World world = createTestWorld(5, ThreadLocalRandom.current());
+        for (int y = 1; y <= 3; y++) {
+            for (int x = 1; x <= 3; x++) {
+                world.tryCreateStructure(StructureType.HOUSE, x, y);
+            }
+        }
+
+        // Act
+        final Optional<ITile> spot = world.getRandomVacantSpotInRadiusOf(new Position(2, 2), 1);
 
         // Assert
-        assertThat(vacantSpot).isEqualTo(thirdEmptyRandomSpot);
+        assertThat(spot).isEmpty();
+    }
+
+    @Test
+    public void findEmptyPositionsThrowsWhenEveryTileIsOccupied() {
+        // Arrange
+        final World world = createTestWorld(2, ThreadLocalRandom.current());
+        for (int y = 0; y < 2; y++) {
+            for (int x = 0; x < 2; x++) {
+                world.tryCreateStructure(StructureType.HOUSE, x, y);
+            }
+        }
+
+        // Assert
+        assertThatThrownBy(() -> world.findEmptyPositions(1)).isInstanceOf(
+            IllegalArgumentException.class);
     }
 
     @ParameterizedTest
@@ -412,6 +474,335 @@ public class WorldTests {
         assertThat(structures.size()).isEqualTo(1);
     }
 
+    @Test
+    public void tryCreateStructureReplacesTileAtPositionWithStructure() {
+        // Arrange
+        final World world = createTestWorld(5);
+        final Position position = new Position(2, 3);
+
+        // Act
+        world.tryCreateStructure(StructureType.HOUSE, position);
+
+        // Assert
+        assertThat(world.getTileAt(position)).isInstanceOf(IStructure.class);
+        assertThat(world.getTileAt(position).getPosition()).isEqualTo(position);
+    }
+
+    @Test
+    public void worldWithPagingHasSameTilesAsWorldWithoutPaging(@TempDir final Path directory) {
+        // Arrange
+        final int size = 70;
+        final ThreadLocalRandom random = mock(ThreadLocalRandom.class);
+        final World expected = new World(size, 3, random);
+
+        // Act
+        final World paged = new World(size, 3, random, new ChunkPaging(directory, 40_000));
+
+        // Assert
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                assertThat(paged.getTileAt(x, y)).isEqualTo(expected.getTileAt(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void unboundedWorldGeneratesNothingUpFront() {
+        // Act
+        final World world = World.createUnbounded(10, 3, mock(ThreadLocalRandom.class), null);
+
+        // Assert
+        assertThat(world.getTerrainTiles()).isEmpty();
+        assertThat(world.getResources()).isEmpty();
+    }
+
+    @Test
+    public void unboundedWorldGeneratesOnlyChunkOfAccessedTile() {
+        // Arrange
+        final World world = World.createUnbounded(10, 3, mock(ThreadLocalRandom.class), null);
+
+        // Act
+        final ITile tile = world.getTileAt(-1000, 5000);
+
+        // Assert
+        assertThat(tile.getPosition()).isEqualTo(new Position(-1000, 5000));
+        assertThat(world.getTerrainTiles()).hasSize(Chunk.CELL_COUNT);
+    }
+
+    @Test
+    public void unboundedWorldHasSameTilesAsBoundedWorldNoMatterTheOrder() {
+        // Arrange
+        final int size = 40;
+        final ThreadLocalRandom random = mock(ThreadLocalRandom.class);
+        final World bounded = new World(size, 7, random);
+        final World unbounded = World.createUnbounded(size, 7, random, null);
+
+        // Act & Assert
+        for (int y = size - 1; y >= 0; y--) {
+            for (int x = size - 1; x >= 0; x--) {
+                assertThat(unbounded.getTileAt(x, y)).isEqualTo(bounded.getTileAt(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void unboundedWorldFindsResourcesOfGeneratedChunks() {
+        // Arrange
+        final World world = World.createUnbounded(10, 3, mock(ThreadLocalRandom.class), null);
+        world.getTileAt(0, 0);
+        final IResource expected = world.getResources().iterator().next();
+
+        // Act
+        final Optional<IResource> found =
+            world.getNearbyOfType(expected.getPosition(), expected.getType());
+
+        // Assert
+        assertThat(found).contains(expected);
+    }
+
+    @Test
+    public void terrainLayerHasTerrainOfEveryTileInSameOrderAsTerrainTiles() {
+        // Arrange
+        final World world = new World(20, 5, mock(ThreadLocalRandom.class));
+        final List<ITerrain> expected = new ArrayList<>(world.getTerrainTiles());
+
+        // Act
+        final ILayerView<TerrainType> layer = world.getTerrainLayer();
+
+        // Assert
+        assertThat(layer.size()).isEqualTo(expected.size());
+        for (int i = 0; i < layer.size(); i++) {
+            final Position position = new Position(layer.getX(i), layer.getY(i));
+            assertThat(position).isEqualTo(expected.get(i).getPosition());
+            assertThat(layer.getType(i)).isEqualTo(expected.get(i).getType());
+        }
+    }
+
+    @Test
+    public void resourceLayerHasTypeOnlyWhereThereIsResource() {
+        // Arrange
+        final World world = new World(20, 5, mock(ThreadLocalRandom.class));
+        final Collection<IResource> expected = world.getResources();
+
+        // Act
+        final ILayerView<ResourceType> layer = world.getResourceLayer();
+
+        // Assert
+        final Collection<IResource> resources = new ArrayList<>();
+        for (int i = 0; i < layer.size(); i++) {
+            if (layer.getType(i) != null) {
+                resources.add(ResourceFactory.createResource(layer.getType(i),
+                                                             layer.getX(i),
+                                                             layer.getY(i)));
+            }
+        }
+        assertThat(resources).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    public void layerViewsAreTheSameEveryTime() {
+        // Arrange
+        final World world = createTestWorld(5);
+
+        // Act & Assert
+        assertThat(world.getTerrainLayer()).isSameAs(world.getTerrainLayer());
+        assertThat(world.getResourceLayer()).isSameAs(world.getResourceLayer());
+        assertThat(world.getStructures()).isSameAs(world.getStructures());
+    }
+
+    @Test
+    public void layerViewOfUnboundedWorldGrowsWhenChunksAreGenerated() {
+        // Arrange
+        final World world = World.createUnbounded(10, 3, mock(ThreadLocalRandom.class), null);
+        final ILayerView<TerrainType> layer = world.getTerrainLayer();
+
+        // Act
+        world.getTileAt(-1000, 5000);
+
+        // Assert
+        final List<ITerrain> expected = new ArrayList<>(world.getTerrainTiles());
+        assertThat(layer.size()).isEqualTo(Chunk.CELL_COUNT);
+        for (int i = 0; i < layer.size(); i++) {
+            final Position position = new Position(layer.getX(i), layer.getY(i));
+            assertThat(position).isEqualTo(expected.get(i).getPosition());
+            assertThat(layer.getType(i)).isEqualTo(expected.get(i).getType());
+        }
+        assertThat(expected).extracting(ITerrain::getPosition).contains(new Position(-1000, 5000));
+    }
+
+    @Test
+    public void structuresCanNotBeChangedFromOutside() {
+        // Arrange
+        final World world = createTestWorld(5);
+        world.tryCreateStructure(StructureType.HOUSE, 1, 1);
+        final Collection<IStructure> structures = world.getStructures();
+
+        // Act
+        final ThrowableAssert.ThrowingCallable clear = structures::clear;
+
+        // Assert
+        assertThatThrownBy(clear).isInstanceOf(UnsupportedOperationException.class);
+        assertThat(world.getStructures()).hasSize(1);
+    }
+
+    @Test
+    public void structuresShowStructuresPlacedLater() {
+        // Arrange
+        final World world = createTestWorld(5);
+        final Collection<IStructure> structures = world.getStructures();
+
+        // Act
+        world.tryCreateStructure(StructureType.HOUSE, 1, 1);
+
+        // Assert
+        assertThat(structures).hasSize(1);
+    }
+
+    @Test
+    public void getCostAtIsCostOfTileAtEveryPosition() {
+        // Arrange
+        final World world = new World(20, 5, mock(ThreadLocalRandom.class));
+        world.tryCreateStructure(StructureType.HOUSE, 3, 4);
+
+        // Act & Assert
+        for (int y = 0; y < 20; y++) {
+            for (int x = 0; x < 20; x++) {
+                assertThat(world.getCostAt(x, y)).isEqualTo(world.getTileAt(x, y).getCost());
+            }
+        }
+    }
+
+    @Test
+    public void getCostAtOfPagedWorldIsCostOfTile(@TempDir final Path directory) {
+        // Arrange
+        final World world =
+            new World(70, 3, mock(ThreadLocalRandom.class), new ChunkPaging(directory, 40_000));
+
+        // Act
+        final float cost = world.getCostAt(40, 50);
+
+        // Assert
+        assertThat(cost).isEqualTo(world.getTileAt(40, 50).getCost());
+    }
+
+    @Test
+    public void getCostAtChangesWhenStructureIsCompleted() {
+        // Arrange
+        final World world = createTestWorld(5);
+        world.tryCreateStructure(StructureType.HOUSE, 2, 2);
+        final float blueprintCost = world.getCostAt(2, 2);
+
+        // Act
+        MockFactory.completeAllStructures(world);
+
+        // Assert
+        final IStructure house = world.getStructures().iterator().next();
+        assertThat(world.getCostAt(2, 2)).isNotEqualTo(blueprintCost).isEqualTo(house.getCost());
+    }
+
+    @Test
+    public void getCostAtOutsideOfWorldThrows() {
+        // Arrange
+        final World world = createTestWorld(5);
+
+        // Act
+        final ThrowableAssert.ThrowingCallable getCost = () -> world.getCostAt(5, 0);
+
+        // Assert
+        assertThatThrownBy(getCost).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    public void isReachableIsFalseOnlyOnceWallIsCompleted() {
+        // Arrange
+        final World world = createTestWorld(5);
+        for (int y = 0; y < 5; y++) {
+            world.tryCreateStructure(StructureType.HOUSE, 2, y);
+        }
+        final boolean reachableThroughBlueprints =
+            world.isReachable(new Position(0, 0), new Position(4, 4));
+
+        // Act
+        MockFactory.completeAllStructures(world);
+
+        // Assert
+        assertThat(reachableThroughBlueprints).isTrue();
+        assertThat(world.isReachable(new Position(0, 0), new Position(4, 4))).isFalse();
+        assertThat(world.isReachable(new Position(0, 0), new Position(2, 2))).isTrue();
+    }
+
+    @Test
+    public void isReachableOutsideOfWorldThrows() {
+        // Arrange
+        final World world = createTestWorld(5);
+
+        // Act
+        final ThrowableAssert.ThrowingCallable isReachable =
+            () -> world.isReachable(new Position(0, 0), new Position(5, 0));
+
+        // Assert
+        assertThatThrownBy(isReachable).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    public void everythingIsReachableInUnboundedWorld() {
+        // Arrange
+        final World world = World.createUnbounded(10, 3, mock(ThreadLocalRandom.class), null);
+
+        // Act
+        final boolean reachable = world.isReachable(new Position(0, 0), new Position(-500, 900));
+
+        // Assert
+        assertThat(reachable).isTrue();
+    }
+
+    @Test
+    public void tryCreateStructureBumpsVersionOfChunkContainingIt() {
+        // Arrange
+        final World world = createTestWorld(5);
+        final IChunkVersions versions = world.getChunkVersions();
+        final long versionBefore = versions.getChunkVersionAt(2, 3);
+
+        // Act
+        world.tryCreateStructure(StructureType.HOUSE, 2, 3);
+
+        // Assert
+        assertThat(versions.getChunkVersionAt(2, 3)).isGreaterThan(versionBefore);
+        assertThat(versions.getVersion()).isEqualTo(versions.getChunkVersionAt(2, 3));
+    }
+
+    @Test
+    public void tryCreateStructureDoesNotReplaceResourcesNextToIt() {
+        // Arrange
+        final World world = new ResourceTestWorld(mock(ThreadLocalRandom.class));
+        final ITile resourceBefore = world.getTileAt(0, 0);
+
+        // Act
+        world.tryCreateStructure(StructureType.HOUSE, 1, 0);
+        world.tryCreateStructure(StructureType.HOUSE, 0, 1);
+
+        // Assert
+        assertThat(world.getTileAt(0, 0)).isEqualTo(resourceBefore);
+        assertThat(world.getTileAt(0, 0)).isInstanceOf(IResource.class);
+    }
+
+    @Test
+    public void getStructuresReturnsStructuresInOrderOfPlacement() {
+        // Arrange
+        final World world = createTestWorld(10);
+        final List<Position> positions =
+            List.of(new Position(9, 9), new Position(0, 0), new Position(5, 2));
+
+        // Act
+        for (final Position position : positions) {
+            world.tryCreateStructure(StructureType.HOUSE, position);
+        }
+
+        // Assert
+        assertThat(world.getStructures()).extracting(IStructure::getPosition)
+                                         .containsExactlyElementsOf(positions);
+    }
+
     @ParameterizedTest
     @MethodSource("getPositionOutSideOfWorld")
     public void structureFailedToBePlaced(final Position placementPosition) {
@@ -651,6 +1042,41 @@ public class WorldTests {
         assertThat(foundStructure.orElseThrow().getPosition()).isEqualTo(new Position(1, 3));
     }
 
+    @Test
+    public void findNearestIncompleteStructureSkipsStructuresCompletedAfterPlacement() {
+        // Arrange
+        final World world = createTestWorld(50);
+        world.tryCreateStructure(StructureType.HOUSE, new Position(1, 1));
+        world.tryCreateStructure(StructureType.HOUSE, new Position(30, 30));
+        completeStructure((IStructure) world.getTileAt(1, 1));
+
+        // Act
+        final Optional<IStructure> foundStructure =
+            world.getNearbyIncompleteStructure(new Position(0, 0));
+
+        // Assert
+        assertThat(foundStructure.orElseThrow().getPosition()).isEqualTo(new Position(30, 30));
+    }
+
+    @Test
+    public void findNearestCompleteStructureOfTypeStockpileReturnsClosestOfStockpileAndTownHall() {
+        // Arrange
+        final World world = createTestWorld(50);
+        world.tryCreateStructure(StructureType.TOWN_HALL, new Position(40, 40));
+        world.tryCreateStructure(StructureType.STOCKPILE, new Position(5, 5));
+        completeAllStructures(world);
+
+        // Act
+        final Optional<IStructure> nearOrigin =
+            world.getNearbyCompletedStructureOfType(new Position(), StructureType.STOCKPILE);
+        final Optional<IStructure> nearTownHall =
+            world.getNearbyCompletedStructureOfType(new Position(45, 45), StructureType.STOCKPILE);
+
+        // Assert
+        assertThat(nearOrigin.orElseThrow().getType()).isEqualTo(StructureType.STOCKPILE);
+        assertThat(nearTownHall.orElseThrow().getType()).isEqualTo(StructureType.TOWN_HALL);
+    }
+
     @Test
     public void findNearestIncompleteStructureFindsNoIncompleteStructure() {
         // Arrange
@@ -759,6 +1185,149 @@ public class WorldTests {
         assertThat(returnedPositions.size()).isEqualTo(count);
     }
 
+    @Test
+    public void tryGetEmptyPositionsNextToReturnsClosestVacantPositionsFirst() {
+        // Arrange
+        final World world = createTestWorld(50);
+        world.tryCreateStructure(StructureType.HOUSE, new Position(21, 20));
+        final Position origin = new Position(20, 20);
+
+        // Act
+        final Collection<Position> returnedPositions =
+            world.tryGetEmptyPositionsNextTo(origin, 3, 2);
+
+        // Assert
+        assertThat(returnedPositions).containsExactlyInAnyOrder(new Position(19, 20),
+                                                                new Position(20, 19),
+                                                                new Position(20, 21));
+    }
+
+    @Test
+    public void tryCreateStructureRecordsChangeOfCost() {
+        // Arrange
+        final World world = createTestWorld(5);
+        final ChangeFeed feed = world.getChangeJournal().subscribe();
+        final float oldCost = world.getTileAt(2, 3).getCost();
+
+        // Act
+        world.tryCreateStructure(StructureType.HOUSE, 2, 3);
+
+        // Assert
+        final float newCost = world.getTileAt(2, 3).getCost();
+        assertThat(feed.drain()).containsExactly(new TileChange(2,
+                                                                3,
+                                                                TileLayer.STRUCTURE,
+                                                                oldCost,
+                                                                newCost));
+    }
+
+    @Test
+    public void completingStructureRecordsChangeOfCostOnce() {
+        // Arrange
+        final World world = createTestWorld(5);
+        world.tryCreateStructure(StructureType.HOUSE, 1, 1);
+        final float blueprintCost = world.getTileAt(1, 1).getCost();
+        final ChangeFeed feed = world.getChangeJournal().subscribe();
+
+        // Act
+        MockFactory.completeAllStructures(world);
+        MockFactory.completeAllStructures(world);
+
+        // Assert
+        final float builtCost = world.getTileAt(1, 1).getCost();
+        assertThat(feed.drain()).containsExactly(new TileChange(1,
+                                                                1,
+                                                                TileLayer.STRUCTURE,
+                                                                blueprintCost,
+                                                                builtCost));
+    }
+
+    @Test
+    public void tryCreateStructuresPlacesEveryStructureWithOneObstacleEvent() {
+        // Arrange
+        final World world = createTestWorld(10);
+        final List<Position> positions =
+            List.of(new Position(1, 1), new Position(2, 1), new Position(3, 1));
+        final ObstacleListener listener = new ObstacleListener();
+        Pawntastic.getEventBus().register(listener);
+
+        // Act
+        final boolean placed = world.tryCreateStructures(StructureType.HOUSE, positions);
+        Pawntastic.getEventBus().unregister(listener);
+
+        // Assert
+        assertThat(placed).isTrue();
+        assertThat(world.getStructures()).extracting(IStructure::getPosition)
+                                         .containsExactlyElementsOf(positions);
+        assertThat(listener.events).hasSize(1);
+        assertThat(listener.events.get(0).getPositions()).containsExactlyInAnyOrderElementsOf(
+            positions);
+    }
+
+    @Test
+    public void tryCreateStructuresPlacesNothingWhenAnyPositionIsOccupied() {
+        // Arrange
+        final World world = createTestWorld(10);
+        world.tryCreateStructure(StructureType.HOUSE, 2, 1);
+        final ChangeFeed feed = world.getChangeJournal().subscribe();
+
+        // Act
+        final boolean placed = world.tryCreateStructures(StructureType.HOUSE,
+                                                         List.of(new Position(1, 1),
+                                                                 new Position(2, 1)));
+
+        // Assert
+        assertThat(placed).isFalse();
+        assertThat(world.getStructures()).hasSize(1);
+        assertThat(world.getTileAt(1, 1)).isNotInstanceOf(IStructure.class);
+        assertThat(feed.drain()).isEmpty();
+    }
+
+    @Test
+    public void tryCreateStructuresPlacesNothingWhenPositionIsGivenTwice() {
+        // Arrange
+        final World world = createTestWorld(10);
+
+        // Act
+        final boolean placed = world.tryCreateStructures(StructureType.HOUSE,
+                                                         List.of(new Position(4, 4),
+                                                                 new Position(4, 4)));
+
+        // Assert
+        assertThat(placed).isFalse();
+        assertThat(world.getStructures()).isEmpty();
+    }
+
+    @Test
+    public void tryCreateStructuresDoesNotPlaceSeveralTownHalls() {
+        // Arrange
+        final World world = createTestWorld(10);
+
+        // Act
+        final boolean placed = world.tryCreateStructures(StructureType.TOWN_HALL,
+                                                         List.of(new Position(4, 4),
+                                                                 new Position(5, 5)));
+
+        // Assert
+        assertThat(placed).isFalse();
+        assertThat(world.isTownHallPlaced()).isFalse();
+    }
+
+    @Test
+    public void tryCreateStructuresRecordsChangeForEveryStructure() {
+        // Arrange
+        final World world = createTestWorld(10);
+        final ChangeFeed feed = world.getChangeJournal().subscribe();
+
+        // Act
+        world.tryCreateStructures(StructureType.HOUSE,
+                                  List.of(new Position(0, 0), new Position(9, 9)));
+
+        // Assert
+        assertThat(feed.drain()).extracting(TileChange::getPosition)
+                                .containsExactly(new Position(0, 0), new Position(9, 9));
+    }
+
     public static Stream<Arguments> getPositionsToStartSearchFrom() {
         return Stream.of(Arguments.of(new Position(0, 0), 10),
                          Arguments.of(new Position(0, 49), 30),
@@ -789,4 +1358,213 @@ public class WorldTests {
                                                                || position.getY() < 0))).isTrue();
     }
 
+    @Test
+    public void forkHasSameTilesAsWorld() {
+        // Arrange
+        final int size = 40;
+        final World world = new World(size, 3, mock(ThreadLocalRandom.class));
+        world.tryCreateStructure(StructureType.HOUSE, 5, 5);
+
+        // Act
+        final World fork = world.fork();
+
+        // Assert
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                assertThat(fork.getTileAt(x, y)).isEqualTo(world.getTileAt(x, y));
+                assertThat(fork.getCostAt(x, y)).isEqualTo(world.getCostAt(x, y));
+            }
+        }
+        assertThat(fork.getResources()).hasSameSizeAs(world.getResources());
+    }
+
+    @Test
+    public void forkAndWorldDoNotSeeStructuresPlacedInEachOther() {
+        // Arrange
+        final World world = createTestWorld(5);
+        final World fork = world.fork();
+
+        // Act
+        world.tryCreateStructure(StructureType.HOUSE, 1, 1);
+        fork.tryCreateStructure(StructureType.HOUSE, 3, 3);
+
+        // Assert
+        assertThat(world.getStructures()).extracting(IStructure::getPosition)
+                                         .containsExactly(new Position(1, 1));
+        assertThat(fork.getStructures()).extracting(IStructure::getPosition)
+                                        .containsExactly(new Position(3, 3));
+        assertThat(world.getTileAt(3, 3)).isNotInstanceOf(IStructure.class);
+        assertThat(fork.getTileAt(1, 1)).isNotInstanceOf(IStructure.class);
+    }
+
+    @Test
+    public void completingWallInForkDoesNotBlockWorld() {
+        // Arrange
+        final World world = createTestWorld(5);
+        for (int y = 0; y < 5; y++) {
+            world.tryCreateStructure(StructureType.HOUSE, 2, y);
+        }
+        world.isReachable(new Position(0, 0), new Position(4, 4));
+        final World fork = world.fork();
+
+        // Act
+        MockFactory.completeAllStructures(fork);
+        fork.update(0f, List.of());
+
+        // Assert
+        assertThat(fork.isReachable(new Position(0, 0), new Position(4, 4))).isFalse();
+        assertThat(world.isReachable(new Position(0, 0), new Position(4, 4))).isTrue();
+        assertThat(world.getStructures()).noneMatch(IStructure::isCompleted);
+        assertThat(fork.getNearbyIncompleteStructure(new Position(0, 0))).isEmpty();
+        assertThat(world.getNearbyIncompleteStructure(new Position(0, 0))).isPresent();
+    }
+
+    @Test
+    public void forkRecordsItsCompletedStructures() {
+        // Arrange
+        final World world = createTestWorld(5);
+        final World fork = world.fork();
+        fork.tryCreateStructure(StructureType.HOUSE, 2, 2);
+
+        // Act
+        MockFactory.completeAllStructures(fork);
+
+        // Assert
+        assertThat(fork.getCostAt(2, 2)).isEqualTo(Float.MAX_VALUE);
+        assertThat(world.getCostAt(2, 2)).isNotEqualTo(Float.MAX_VALUE);
+    }
+
+    @Test
+    public void forkStockpilesStoreItemsInInventorySetWhenForking() {
+        // Arrange
+        final IInventory inventory = new Inventory();
+        StructureFactory.setInventory(inventory);
+        final World world = createTestWorld(5);
+        world.tryCreateStructure(StructureType.STOCKPILE, 2, 2);
+        final IInventory forkInventory = new Inventory();
+        StructureFactory.setInventory(forkInventory);
+        final World fork = world.fork();
+        fork.tryCreateStructure(StructureType.STOCKPILE, 3, 3);
+
+        // Act
+        ((IInventory) fork.getTileAt(2, 2)).tryAdd(ItemFactory.fromType(ItemType.LOG));
+        ((IInventory) fork.getTileAt(3, 3)).tryAdd(ItemFactory.fromType(ItemType.ROCK));
+
+        // Assert
+        assertThat(forkInventory.numberOf(ItemType.LOG)).isEqualTo(1);
+        assertThat(forkInventory.numberOf(ItemType.ROCK)).isEqualTo(1);
+        assertThat(inventory.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void canCreateStructureDoesNotCreateStructure() {
+        // Arrange
+        final World world = createTestWorld(5);
+
+        // Act
+        final boolean canCreate = world.canCreateStructure(StructureType.HOUSE, new Position(2, 2));
+
+        // Assert
+        assertThat(canCreate).isTrue();
+        assertThat(world.getStructures()).isEmpty();
+        assertThat(world.canCreateStructure(StructureType.HOUSE, new Position(5, 2))).isFalse();
+    }
+
+    @Test
+    public void disposedWorldDoesNotRecordCompletedStructures() {
+        // Arrange
+        final World world = createTestWorld(5);
+        world.tryCreateStructure(StructureType.HOUSE, 2, 2);
+        world.dispose();
+
+        // Act
+        MockFactory.completeAllStructures(world);
+
+        // Assert
+        assertThat(world.getCostAt(2, 2)).isNotEqualTo(Float.MAX_VALUE);
+    }
+
+    @Test
+    public void forkThrowsWhenWorldIsPaged(@TempDir final Path directory) {
+        // Arrange
+        final World world =
+            new World(70, 3, mock(ThreadLocalRandom.class), new ChunkPaging(directory, 40_000));
+
+        // Assert
+        assertThatThrownBy(world::fork).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void readsFromOtherThreadsDoNotFailWhileStructuresArePlaced() throws Exception {
+        // Arrange
+        final World world = createTestWorld(20);
+        final AtomicBoolean placing = new AtomicBoolean(true);
+        final ExecutorService readers = Executors.newFixedThreadPool(2);
+        final Callable<Integer> reader = () -> {
+            int reads = 0;
+            do {
+                world.getTileAt(reads % 20, 2);
+                world.getNearbyIncompleteStructure(new Position(0, 0));
+                world.isReachable(new Position(0, 0), new Position(19, 19));
+                reads++;
+            } while (placing.get());
+            return reads;
+        };
+        final List<Future<Integer>> reads = List.of(readers.submit(reader), readers.submit(reader));
+
+        // Act
+        for (int x = 0; x < 20; x += 2) {
+            world.tryCreateStructure(StructureType.HOUSE, x, 2);
+        }
+        placing.set(false);
+
+        // Assert
+        for (final Future<Integer> read : reads) {
+            assertThat(read.get()).isPositive();
+        }
+        readers.shutdown();
+        assertThat(world.getStructures()).hasSize(10);
+    }
+
+    @Test
+    public void obstacleIsAnnouncedOnceOtherThreadsCanReadWorld() {
+        // Arrange
+        final World world = createTestWorld(5);
+        final List<ITile> seenByOtherThread = new ArrayList<>();
+        final Object listener = new Object() {
+            @Subscribe
+            public void onObstaclePlaced(final ObstaclePlacedEvent event) {
+                final Thread thread = new Thread(
+                    () -> seenByOtherThread.add(world.getTileAt(event.getPosition())));
+                thread.start();
+                try {
+                    thread.join();
+                }
+                catch (final InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        Pawntastic.getEventBus().register(listener);
+
+        // Act
+        world.tryCreateStructure(StructureType.HOUSE, 2, 2);
+        Pawntastic.getEventBus().unregister(listener);
+
+        // Assert
+        assertThat(seenByOtherThread).hasSize(1);
+        assertThat(seenByOtherThread.get(0)).isInstanceOf(IStructure.class);
+    }
+
+    private static class ObstacleListener {
+
+        private final List<ObstaclePlacedEvent> events = new ArrayList<>();
+
+        @Subscribe
+        public void onObstaclePlaced(final ObstaclePlacedEvent event) {
+            events.add(event);
+        }
+
+    }
+
 }
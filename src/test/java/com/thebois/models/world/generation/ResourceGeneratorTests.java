@@ -1,6 +1,7 @@
 package com.thebois.models.world.generation;
 
 import java.util.Arrays;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.params.ParameterizedTest;
@@ -87,6 +88,24 @@ public class ResourceGeneratorTests {
         assertThat(actualNumberOfResources).isEqualTo(expectedNumberOfResources);
     }
 
+    @ParameterizedTest
+    @MethodSource("getWorldSizeAndOneSeed")
+    public void generateResourceTypeAtMatchesResourceMatrix(final int worldSize, final int seed) {
+        // Arrange
+        final IResource[][] matrix =
+            new ResourceGenerator(worldSize, seed).generateResourceMatrix();
+        final ResourceGenerator generator = new ResourceGenerator(worldSize, seed);
+
+        // Act & Assert
+        for (int y = 0; y < worldSize; y++) {
+            for (int x = 0; x < worldSize; x++) {
+                final Optional<ResourceType> type = generator.generateResourceTypeAt(x, y);
+                assertThat(type).isEqualTo(Optional.ofNullable(matrix[y][x])
+                                                   .map(IResource::getType));
+            }
+        }
+    }
+
     private boolean containsResource(
         final IResource[][] matrix, final ResourceType typeToSearchFor) {
         for (final IResource[] iResources : matrix) {
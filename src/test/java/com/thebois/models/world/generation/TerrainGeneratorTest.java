@@ -89,6 +89,36 @@ public class TerrainGeneratorTest {
         assertThat(actualNumberOfTerrains).isEqualTo(expectedNumberOfResources);
     }
 
+    @ParameterizedTest
+    @MethodSource("getWorldSizeAndOneSeed")
+    public void generateTerrainTypeAtMatchesTerrainMatrix(final int worldSize, final int seed) {
+        // Arrange
+        final ITerrain[][] matrix = new TerrainGenerator(worldSize, seed).generateTerrainMatrix();
+        final TerrainGenerator generator = new TerrainGenerator(worldSize, seed);
+
+        // Act
+        final TerrainType type = generator.generateTerrainTypeAt(worldSize - 1, worldSize / 2);
+
+        // Assert
+        assertThat(type).isEqualTo(matrix[worldSize / 2][worldSize - 1].getType());
+    }
+
+    @ParameterizedTest
+    @MethodSource("getWorldSizeAndOneSeed")
+    public void generateTerrainTypeAtIsSameOutsideOfWorldSize(final int worldSize, final int seed) {
+        // Arrange
+        final TerrainGenerator generator1 = new TerrainGenerator(worldSize, seed);
+        final TerrainGenerator generator2 = new TerrainGenerator(1, seed);
+        generator2.generateTerrainTypeAt(5, 5);
+
+        // Act
+        final TerrainType type1 = generator1.generateTerrainTypeAt(-300, 12_345);
+        final TerrainType type2 = generator2.generateTerrainTypeAt(-300, 12_345);
+
+        // Assert
+        assertThat(type1).isEqualTo(type2);
+    }
+
     private boolean containsTerrain(
         final ITerrain[][] matrix, final TerrainType typeToSearchFor) {
         for (final ITerrain[] terrains : matrix) {
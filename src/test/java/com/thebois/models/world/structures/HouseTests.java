@@ -235,4 +235,20 @@ public class HouseTests {
         assertThat(isComplete).isEqualTo(expectedResult);
     }
 
+    @Test
+    public void deepCloneIsBuiltIndependentlyOfOriginal() {
+        // Arrange
+        final IStructure house = StructureFactory.createStructure(StructureType.HOUSE, 1, 2);
+        house.tryDeliverItem(ItemFactory.fromType(ItemType.LOG));
+        final IStructure clone = house.deepClone();
+
+        // Act
+        clone.tryDeliverItem(ItemFactory.fromType(ItemType.ROCK));
+
+        // Assert
+        assertThat(clone.getPosition()).isEqualTo(house.getPosition());
+        assertThat(clone.getBuiltRatio()).isGreaterThan(house.getBuiltRatio());
+        assertThat(house.getBuiltRatio()).isGreaterThan(0f);
+    }
+
 }
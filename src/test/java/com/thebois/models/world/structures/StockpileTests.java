@@ -8,6 +8,7 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import com.thebois.models.Position;
 import com.thebois.models.inventory.IInventory;
 import com.thebois.models.inventory.IStorable;
 import com.thebois.models.inventory.ITakeable;
@@ -238,4 +239,22 @@ public class StockpileTests {
         verify(inventory, times(1)).isEmpty();
     }
 
+    @Test
+    public void deepCloneStoresCopiesOfItemsInInventoryOfItsOwn() {
+        // Arrange
+        final Inventory sharedInventory = new Inventory();
+        sharedInventory.tryAdd(ItemFactory.fromType(ItemType.LOG));
+        final Stockpile stockpile = new Stockpile(new Position(1, 2), sharedInventory);
+
+        // Act
+        final Stockpile clone = (Stockpile) stockpile.deepClone();
+        clone.tryAdd(ItemFactory.fromType(ItemType.ROCK));
+
+        // Assert
+        assertThat(clone.getPosition()).isEqualTo(new Position(1, 2));
+        assertThat(clone.getInventory()).isNotSameAs(sharedInventory);
+        assertThat(clone.numberOf(ItemType.LOG)).isEqualTo(1);
+        assertThat(sharedInventory.numberOf(ItemType.ROCK)).isZero();
+    }
+
 }
@@ -0,0 +1,125 @@
+package com.thebois.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class TimingWheelTests {
+
+    public static Stream<Long> getDelays() {
+        // Delays in the lowest wheel, on the edges between wheels, and beyond the top wheel.
+        return Stream.of(1L, 2L, 63L, 64L, 65L, 4095L, 4096L, 4097L, 262_145L, 17_000_000L);
+    }
+
+    @ParameterizedTest
+    @MethodSource("getDelays")
+    public void timerExpiresExactlyAfterItsDelay(final long delay) {
+        // Arrange
+        final TimingWheel<String> wheel = new TimingWheel<>();
+        final List<String> expired = new ArrayList<>();
+        wheel.schedule("timer", delay);
+
+        // Act
+        wheel.advance(delay - 1, expired::add);
+        final List<String> expiredBefore = new ArrayList<>(expired);
+        wheel.advance(1, expired::add);
+
+        // Assert
+        assertThat(expiredBefore).isEmpty();
+        assertThat(expired).containsExactly("timer");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    public void timersExpireInOrderOfDeadline() {
+        // Arrange
+        final TimingWheel<Integer> wheel = new TimingWheel<>();
+        final List<Integer> expired = new ArrayList<>();
+        wheel.schedule(5000, 5000);
+        wheel.schedule(3, 3);
+        wheel.schedule(70, 70);
+
+        // Act
+        wheel.advance(5000, expired::add);
+
+        // Assert
+        assertThat(expired).containsExactly(3, 70, 5000);
+    }
+
+    @Test
+    public void timerScheduledLaterExpiresAfterItsOwnDelay() {
+        // Arrange
+        final TimingWheel<String> wheel = new TimingWheel<>();
+        final List<String> expired = new ArrayList<>();
+        wheel.advance(100, expired::add);
+        wheel.schedule("timer", 30);
+
+        // Act
+        wheel.advance(29, expired::add);
+        final boolean expiredEarly = !expired.isEmpty();
+        wheel.advance(1, expired::add);
+
+        // Assert
+        assertThat(expiredEarly).isFalse();
+        assertThat(expired).containsExactly("timer");
+        assertThat(wheel.getCurrentTick()).isEqualTo(130);
+    }
+
+    @Test
+    public void timerScheduledWhileExpiringIsKept() {
+        // Arrange
+        final TimingWheel<String> wheel = new TimingWheel<>();
+        final List<String> expired = new ArrayList<>();
+        wheel.schedule("first", 1);
+
+        // Act
+        wheel.advance(10, element -> {
+            expired.add(element);
+            if (element.equals("first")) {
+                wheel.schedule("second", 2);
+            }
+        });
+
+        // Assert
+        assertThat(expired).containsExactly("first", "second");
+    }
+
+    @Test
+    public void sizeCountsPendingTimers() {
+        // Arrange
+        final TimingWheel<String> wheel = new TimingWheel<>();
+        wheel.schedule("soon", 1);
+        wheel.schedule("later", 1000);
+
+        // Act
+        wheel.advance(1, element -> { });
+
+        // Assert
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void copyExpiresSameTimersWithoutChangingOriginal() {
+        // Arrange
+        final TimingWheel<String> wheel = new TimingWheel<>();
+        wheel.schedule("soon", 3);
+        wheel.schedule("later", 5000);
+        final TimingWheel<String> copy = wheel.copy();
+        final List<String> expired = new ArrayList<>();
+
+        // Act
+        copy.advance(5000, expired::add);
+
+        // Assert
+        assertThat(expired).containsExactly("soon", "later");
+        assertThat(wheel.size()).isEqualTo(2);
+        assertThat(wheel.getCurrentTick()).isZero();
+    }
+
+}